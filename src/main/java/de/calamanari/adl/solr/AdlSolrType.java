@@ -75,6 +75,42 @@ public interface AdlSolrType extends AdlType {
         return withFormatter(null, formatter);
     }
 
+    /**
+     * Returns a type that behaves like this type but reports the given storage.
+     * 
+     * @param storage if null or the same as the storage of this type, this type will be returned
+     * @return decorated type
+     */
+    default AdlSolrType withStorage(SolrFieldStorage storage) {
+        if (storage == null || storage == getStorage()) {
+            return this;
+        }
+        return new AdlSolrTypeDecorator(null, this, null, storage);
+    }
+
+    /**
+     * Returns the type this type was derived from by only changing the storage (see {@link #withStorage(SolrFieldStorage)}). This allows persisting a type
+     * as the identifier of the original type plus the {@link SolrFieldStorage}.
+     * <p>
+     * The default implementation returns this type.
+     * 
+     * @return type without storage decoration, never null
+     */
+    default AdlSolrType getStorageNeutralType() {
+        return this;
+    }
+
+    /**
+     * Tells how the values of a Solr-field of this type are available for querying, see {@link SolrFieldStorage}.
+     * <p>
+     * The default implementation returns {@link SolrFieldStorage#INDEXED}.
+     * 
+     * @return storage of the field values, never null
+     */
+    default SolrFieldStorage getStorage() {
+        return SolrFieldStorage.INDEXED;
+    }
+
     /**
      * Tells whether there is a chance that a value of the given argument type can be translated into a parameter of this type.
      * <p>
@@ -25,7 +25,7 @@ import de.calamanari.adl.cnv.tps.ArgValueFormatter;
 import de.calamanari.adl.cnv.tps.NativeTypeCaster;
 
 /**
- * Often an {@link AdlSolrType}s behavior will be common resp. applicable in many scenarios but we want to change the formatter. To avoid creating boiler-plate
+ * Often an {@link AdlSolrType}s behavior will be common resp. applicable in many scenarios but we want to change the formatter or the storage. To avoid creating boiler-plate
  * code the {@link AdlSolrTypeDecorator} provides an easy solution by composition. A given type gets wrapped to adapt its behavior.
  * 
  * @author <a href="mailto:Karl.Eilebrecht(a/t)calamanari.de">Karl Eilebrecht</a>
@@ -49,6 +49,16 @@ public class AdlSolrTypeDecorator implements AdlSolrType {
      */
     private final ArgValueFormatter formatter;
 
+    /**
+     * decorated storage or null (use the one of the delegate)
+     */
+    private final SolrFieldStorage storage;
+
+    /**
+     * true if this decorator only changes the storage (unnamed, no formatter), see {@link #getStorageNeutralType()}
+     */
+    private final boolean storageOnly;
+
     /**
      * We append a number to the original name, this keeps the identifiers short and still informative regarding the base type
      */
@@ -65,8 +75,20 @@ public class AdlSolrTypeDecorator implements AdlSolrType {
      * @param formatter
      */
     AdlSolrTypeDecorator(String name, AdlSolrType delegate, ArgValueFormatter formatter) {
+        this(name, delegate, formatter, null);
+    }
+
+    /**
+     * @param name if null, the wrapper gets a unique id assigned as its name
+     * @param delegate NOT NULL
+     * @param formatter
+     * @param storage
+     */
+    AdlSolrTypeDecorator(String name, AdlSolrType delegate, ArgValueFormatter formatter, SolrFieldStorage storage) {
         this.delegate = delegate;
         this.formatter = formatter;
+        this.storage = storage;
+        this.storageOnly = (name == null && formatter == null && storage != null);
         if (name != null) {
             this.decoratorName = name;
         }
@@ -98,6 +120,16 @@ public class AdlSolrTypeDecorator implements AdlSolrType {
         return this.formatter == null ? delegate.getFormatter() : this.formatter;
     }
 
+    @Override
+    public SolrFieldStorage getStorage() {
+        return this.storage == null ? delegate.getStorage() : this.storage;
+    }
+
+    @Override
+    public AdlSolrType getStorageNeutralType() {
+        return storageOnly ? delegate.getStorageNeutralType() : this;
+    }
+
     @Override
     public NativeTypeCaster getNativeTypeCaster() {
         return delegate.getNativeTypeCaster();
@@ -121,5 +121,25 @@ public enum DefaultQueryType {
      * <code>solrQuery.setRows(0);</code></li>
      * </ul>
      */
-    SELECT_COUNT;
+    SELECT_COUNT,
+
+    /**
+     * A query that returns the number of matching root-level documents along with breakdowns of these documents by the values of mapped arguments (JSON
+     * facets, see {@link SolrInsightQueryDefinition}), all computed in the same request
+     * <p>
+     * <b>Suggestions for the Solr-query:</b>
+     * <ul>
+     * <li>Don't forget to set the max number of returned documents to zero to prevent unnecessary data transfer to the client, e.g.,
+     * <code>solrQuery.setRows(0);</code></li>
+     * <li>Set the facets as JSON facet parameter, e.g., <code>solrQuery.set("json.facet", insightQueryDefinition.toJsonFacetParam());</code></li>
+     * </ul>
+     */
+    SELECT_COUNT_WITH_FACETS;
+
+    /**
+     * @return true if this query type only returns the number of matching documents (no documents)
+     */
+    public boolean isCount() {
+        return this == SELECT_COUNT || this == SELECT_COUNT_WITH_FACETS;
+    }
 }
@@ -19,11 +19,6 @@
 
 package de.calamanari.adl.solr;
 
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
-import java.util.TimeZone;
-
-import de.calamanari.adl.cnv.tps.AdlDateUtils;
 import de.calamanari.adl.cnv.tps.AdlFormattingException;
 import de.calamanari.adl.cnv.tps.ArgValueFormatter;
 import de.calamanari.adl.cnv.tps.DefaultArgValueFormatter;
@@ -178,33 +173,13 @@ public enum DefaultSolrFormatter implements ArgValueFormatter {
         // this lenient behavior was required to fully support Timestamp as FilterColumn condition
         // without this tolerance we would always lose the time portion
         StringBuilder sb = new StringBuilder(24);
-        if (isFullTimestamp(argValue)) {
-            sb.append(argValue, 0, 4).append('\\').append(argValue, 4, 7).append('\\').append(argValue, 7, 10).append('T').append(argValue, 11, 13).append('\\')
-                    .append(argValue, 13, 16).append('\\').append(argValue, 16, 19).append('Z');
+        if (SolrDateUtils.isFullTimestamp(argValue)) {
+            SolrDateUtils.appendSolrTimestamp(sb, argValue);
         }
         else {
-            String temp = DefaultArgValueFormatter.DATE.format(argName, argValue, operator);
-            sb.append(temp, 0, 4).append('\\').append(temp, 4, 7).append('\\').append(temp, 7, 10).append("T00\\:00\\:00Z");
+            SolrDateUtils.appendSolrTimestamp(sb, SolrDateUtils.formatArgDate(DefaultArgValueFormatter.DATE, argName, argValue, operator));
         }
         return sb.toString();
     }
 
-    /**
-     * @param argValue
-     * @return true if the given string is a valid timestamp following the pattern <code>yyyy-MM-dd HH:mm:ss</code>
-     */
-    private static boolean isFullTimestamp(String argValue) {
-        if (argValue != null && argValue.length() > 10) {
-            SimpleDateFormat sdf = new SimpleDateFormat(AdlDateUtils.AUDLANG_DATE_FORMAT + " HH:mm:ss");
-            sdf.setTimeZone(TimeZone.getTimeZone("UTC"));
-            try {
-                return argValue.equals(sdf.format(sdf.parse(argValue)));
-            }
-            catch (ParseException _) {
-                return false;
-            }
-        }
-        return false;
-    }
-
 }
\ No newline at end of file
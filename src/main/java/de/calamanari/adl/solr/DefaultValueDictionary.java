@@ -0,0 +1,192 @@
+//@formatter:off
+/*
+ * DefaultValueDictionary
+ * Copyright 2025 Karl Eilebrecht
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"):
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+//@formatter:on
+
+package de.calamanari.adl.solr;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Predicate;
+
+import de.calamanari.adl.cnv.tps.ConfigException;
+
+/**
+ * Standard implementation of a {@link ValueDictionary} backed by a sorted in-memory map.
+ * <p>
+ * A dictionary file is a UTF-8 text file with one entry per line, each line consists of the value, a <b>tab</b> and the code, e.g.:
+ * 
+ * <pre>
+ * # comment
+ * PRD-4711	1
+ * PRD-4712	2
+ * </pre>
+ * 
+ * Empty lines and lines starting with <code>#</code> will be ignored. Neither the values nor the codes must be ambiguous.
+ * <p>
+ * Instances are <i>deeply immutable</i>.
+ * 
+ * @author <a href="mailto:Karl.Eilebrecht(a/t)calamanari.de">Karl Eilebrecht</a>
+ */
+public final class DefaultValueDictionary implements ValueDictionary {
+
+    private static final long serialVersionUID = -2915613474601329876L;
+
+    /**
+     * value-to-code mapping
+     */
+    private final TreeMap<String, Long> codes;
+
+    private DefaultValueDictionary(TreeMap<String, Long> codes) {
+        this.codes = codes;
+    }
+
+    /**
+     * @param valueCodes mapping of values to codes, NOT NULL
+     * @return dictionary
+     * @throws ConfigException if there are any null or empty values, null codes or duplicate codes
+     */
+    public static DefaultValueDictionary of(Map<String, ? extends Number> valueCodes) {
+        if (valueCodes == null) {
+            throw new ConfigException("Argument valueCodes must not be null.");
+        }
+        TreeMap<String, Long> codes = new TreeMap<>();
+        Map<Long, String> reverseMap = new HashMap<>();
+        for (Map.Entry<String, ? extends Number> entry : valueCodes.entrySet()) {
+            putEntry(codes, reverseMap, entry.getKey(), entry.getValue() == null ? null : entry.getValue().longValue());
+        }
+        return new DefaultValueDictionary(codes);
+    }
+
+    /**
+     * Reads a dictionary from the given reader, see {@link DefaultValueDictionary} for the expected format.
+     * 
+     * @param reader NOT NULL, will not be closed by this method
+     * @return dictionary
+     * @throws ConfigException if the input cannot be read or it is invalid
+     */
+    public static DefaultValueDictionary load(Reader reader) {
+        if (reader == null) {
+            throw new ConfigException("Argument reader must not be null.");
+        }
+        TreeMap<String, Long> codes = new TreeMap<>();
+        Map<Long, String> reverseMap = new HashMap<>();
+        BufferedReader br = (reader instanceof BufferedReader bufferedReader) ? bufferedReader : new BufferedReader(reader);
+        int lineNumber = 0;
+        try {
+            String line = null;
+            while ((line = br.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank() || line.startsWith("#")) {
+                    continue;
+                }
+                int tabIdx = line.lastIndexOf('\t');
+                if (tabIdx < 0) {
+                    throw new ConfigException(String.format("Invalid dictionary entry (<value>TAB<code> expected), given: lineNumber=%d, line=%s", lineNumber, line));
+                }
+                putEntry(codes, reverseMap, line.substring(0, tabIdx), parseCode(line.substring(tabIdx + 1).trim(), lineNumber));
+            }
+        }
+        catch (IOException ex) {
+            throw new ConfigException(String.format("Unable to read dictionary, given: lineNumber=%d", lineNumber), ex);
+        }
+        return new DefaultValueDictionary(codes);
+    }
+
+    /**
+     * Reads a dictionary from the given UTF-8 file, see {@link DefaultValueDictionary} for the expected format.
+     * 
+     * @param file NOT NULL
+     * @return dictionary
+     * @throws ConfigException if the file cannot be read or it is invalid
+     */
+    public static DefaultValueDictionary load(Path file) {
+        if (file == null) {
+            throw new ConfigException("Argument file must not be null.");
+        }
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            return load(reader);
+        }
+        catch (IOException ex) {
+            throw new ConfigException(String.format("Unable to read dictionary file, given: file=%s", file), ex);
+        }
+    }
+
+    private static Long parseCode(String code, int lineNumber) {
+        try {
+            return Long.valueOf(code);
+        }
+        catch (NumberFormatException ex) {
+            throw new ConfigException(String.format("Invalid dictionary entry (code must be an integer), given: lineNumber=%d, code=%s", lineNumber, code), ex);
+        }
+    }
+
+    private static void putEntry(TreeMap<String, Long> codes, Map<Long, String> reverseMap, String value, Long code) {
+        if (value == null || value.isEmpty() || code == null) {
+            throw new ConfigException(String.format("Dictionary values must not be null or empty, codes must not be null, given: value=%s, code=%s", value, code));
+        }
+        if (codes.containsKey(value)) {
+            throw new ConfigException(String.format("Ambiguous dictionary entry (duplicate value), given: value=%s, code=%s, existing code=%s", value, code,
+                    codes.get(value)));
+        }
+        String otherValue = reverseMap.putIfAbsent(code, value);
+        if (otherValue != null) {
+            throw new ConfigException(
+                    String.format("Ambiguous dictionary entry (duplicate code), given: value=%s, code=%s, existing value=%s", value, code, otherValue));
+        }
+        codes.put(value, code);
+    }
+
+    @Override
+    public Long lookupCode(String value) {
+        return value == null ? null : codes.get(value);
+    }
+
+    @Override
+    public List<Long> findCodes(Predicate<String> valueFilter) {
+        return codes.entrySet().stream().filter(entry -> valueFilter.test(entry.getKey())).map(Map.Entry::getValue).sorted().toList();
+    }
+
+    /**
+     * @return number of entries in this dictionary
+     */
+    public int size() {
+        return codes.size();
+    }
+
+    /**
+     * @return unmodifiable view of the value-to-code mapping
+     */
+    public Map<String, Long> toMap() {
+        return Collections.unmodifiableMap(codes);
+    }
+
+    @Override
+    public String toString() {
+        return this.getClass().getSimpleName() + "[size=" + codes.size() + "]";
+    }
+
+}
@@ -0,0 +1,211 @@
+//@formatter:off
+/*
+ * DictionaryEncodedSolrType
+ * Copyright 2025 Karl Eilebrecht
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"):
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+//@formatter:on
+
+package de.calamanari.adl.solr;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import de.calamanari.adl.cnv.tps.AdlFormattingException;
+import de.calamanari.adl.cnv.tps.AdlType;
+import de.calamanari.adl.cnv.tps.ArgValueFormatter;
+import de.calamanari.adl.cnv.tps.ConfigException;
+import de.calamanari.adl.cnv.tps.DefaultAdlType;
+import de.calamanari.adl.cnv.tps.NativeTypeCaster;
+import de.calamanari.adl.irl.MatchOperator;
+
+/**
+ * A {@link DictionaryEncodedSolrType} describes a Solr integer field (e.g., <code>pint</code>) that holds <i>codes</i> of a string attribute rather than
+ * the strings themselves. The related {@link ValueDictionary} translates the values into codes.
+ * <p>
+ * High-cardinality string attributes (product codes, segment ids) are usually cheaper to index and to query as integer codes. The converter translates the
+ * string literals of an expression into codes:
+ * <ul>
+ * <li><b>Equals</b> and <b>any of</b> will be translated into the corresponding codes.</li>
+ * <li><b>Contains</b>, <b>less than</b> and <b>greater than</b> will be translated into a <i>dictionary scan</i> (based on the string values, not the
+ * codes) that produces the list of matching codes.</li>
+ * <li>A value not in the dictionary can't be in the index, so a match against it will never be true.</li>
+ * </ul>
+ * Reference matching is only supported for equality of two fields that share the same dictionary.
+ * <p>
+ * This type is only compatible to {@link DefaultAdlType#STRING}.<br>
+ * <b>Note:</b> Decorating this type (e.g., {@link #withFormatter(ArgValueFormatter)}) turns it into a plain integer type. Only
+ * {@link #withStorage(SolrFieldStorage)} preserves the dictionary.
+ * 
+ * @author <a href="mailto:Karl.Eilebrecht(a/t)calamanari.de">Karl Eilebrecht</a>
+ */
+public class DictionaryEncodedSolrType implements AdlSolrType {
+
+    private static final long serialVersionUID = 5318471061220836412L;
+
+    /**
+     * Static counter to ensure we get unique names for the types
+     */
+    private static final AtomicInteger INSTANCE_COUNTER = new AtomicInteger();
+
+    /**
+     * the type of the Solr-field holding the codes
+     */
+    private final AdlSolrType codeType;
+
+    /**
+     * value-to-code translation
+     */
+    private final ValueDictionary dictionary;
+
+    private final String name;
+
+    private final ArgValueFormatter formatter;
+
+    /**
+     * @param name if null, the type gets a unique id assigned as its name
+     * @param codeType type of the Solr-field holding the codes, base type must be {@link DefaultAdlSolrType#SOLR_INTEGER} or
+     *            {@link DefaultAdlSolrType#SOLR_LONG}
+     * @param dictionary NOT NULL
+     */
+    public DictionaryEncodedSolrType(String name, AdlSolrType codeType, ValueDictionary dictionary) {
+        if (codeType == null || (codeType.getBaseType() != DefaultAdlSolrType.SOLR_INTEGER && codeType.getBaseType() != DefaultAdlSolrType.SOLR_LONG)
+                || dictionary == null) {
+            throw new ConfigException(String.format(
+                    "The codeType must be SOLR_INTEGER or SOLR_LONG, dictionary must not be null, given: name=%s, codeType=%s, dictionary=%s", name, codeType,
+                    dictionary));
+        }
+        this.codeType = codeType;
+        this.dictionary = dictionary;
+        this.name = (name != null) ? name : codeType.name() + "-DICT-" + INSTANCE_COUNTER.incrementAndGet();
+        this.formatter = this::formatValue;
+    }
+
+    /**
+     * @param codeType type of the Solr-field holding the codes, base type must be {@link DefaultAdlSolrType#SOLR_INTEGER} or
+     *            {@link DefaultAdlSolrType#SOLR_LONG}
+     * @param dictionary NOT NULL
+     */
+    public DictionaryEncodedSolrType(AdlSolrType codeType, ValueDictionary dictionary) {
+        this(null, codeType, dictionary);
+    }
+
+    /**
+     * Translates the given value into its code
+     * 
+     * @param argName
+     * @param argValue plain value
+     * @param operator
+     * @return formatted code
+     * @throws AdlFormattingException if the value is not in the dictionary
+     */
+    private String formatValue(String argName, String argValue, MatchOperator operator) {
+        Long code = dictionary.lookupCode(argValue);
+        if (code == null) {
+            throw new AdlFormattingException(
+                    String.format("Unable to format argName=%s, argValue=%s, operator=%s (value not in dictionary of type %s).", argName, argValue, operator, name));
+        }
+        return formatCode(argName, code);
+    }
+
+    /**
+     * @param argName
+     * @param code
+     * @return code formatted according to the code type
+     */
+    public String formatCode(String argName, long code) {
+        return codeType.getFormatter().format(argName, String.valueOf(code), MatchOperator.EQUALS);
+    }
+
+    /**
+     * @return the type of the Solr-field holding the codes
+     */
+    public AdlSolrType getCodeType() {
+        return codeType;
+    }
+
+    /**
+     * @return the value-to-code translation
+     */
+    public ValueDictionary getDictionary() {
+        return dictionary;
+    }
+
+    @Override
+    public AdlSolrType getBaseType() {
+        return codeType.getBaseType();
+    }
+
+    @Override
+    public String name() {
+        return name;
+    }
+
+    @Override
+    public ArgValueFormatter getFormatter() {
+        return formatter;
+    }
+
+    /**
+     * Decorates the code type rather than this type, so the result is still a {@link DictionaryEncodedSolrType}.
+     * 
+     * @return dictionary-encoded type with a new name
+     */
+    @Override
+    public AdlSolrType withStorage(SolrFieldStorage storage) {
+        if (storage == null || storage == getStorage()) {
+            return this;
+        }
+        return new DictionaryEncodedSolrType(codeType.withStorage(storage), dictionary);
+    }
+
+    /**
+     * The storage of the field is determined by the code type.
+     */
+    @Override
+    public SolrFieldStorage getStorage() {
+        return codeType.getStorage();
+    }
+
+    @Override
+    public NativeTypeCaster getNativeTypeCaster() {
+        return codeType.getNativeTypeCaster();
+    }
+
+    /**
+     * Contains will be translated into a dictionary scan.
+     */
+    @Override
+    public boolean supportsContains() {
+        return true;
+    }
+
+    /**
+     * Less than and greater than will be translated into a dictionary scan.
+     */
+    @Override
+    public boolean supportsLessThanGreaterThan() {
+        return true;
+    }
+
+    @Override
+    public boolean isCompatibleWith(AdlType type) {
+        return !(type instanceof AdlSolrType) && type.getBaseType() == DefaultAdlType.STRING;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+
+}
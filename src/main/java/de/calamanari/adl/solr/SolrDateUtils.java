@@ -0,0 +1,249 @@
+//@formatter:off
+/*
+ * SolrDateUtils
+ * Copyright 2025 Karl Eilebrecht
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"):
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+//@formatter:on
+
+package de.calamanari.adl.solr;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.time.LocalDate;
+import java.util.TimeZone;
+
+import de.calamanari.adl.cnv.tps.AdlDateUtils;
+import de.calamanari.adl.cnv.tps.ArgValueFormatter;
+import de.calamanari.adl.cnv.tps.DefaultArgValueFormatter;
+import de.calamanari.adl.irl.MatchOperator;
+
+/**
+ * Fast date parsing and formatting for the date-related conversion paths (e.g., aligning a date to the full day).
+ * <p>
+ * The methods in this class parse a date literal (<code>yyyy-MM-dd</code>) or timestamp (<code>yyyy-MM-dd HH:mm:ss</code>) <i>once</i> based on
+ * <code>java.time</code> and derive the variants (begin of next day, Solr timestamp) from the parsed value. They produce the exact same results as the
+ * corresponding {@link AdlDateUtils} methods resp. {@link DefaultArgValueFormatter#DATE}, but without creating and running a <code>SimpleDateFormat</code> or
+ * <code>Calendar</code> for each value.
+ * <p>
+ * <b>Note:</b> Dates before {@value #GREGORIAN_SAFE_DATE} are delegated to {@link AdlDateUtils} because the legacy classes use the Julian calendar before the
+ * Gregorian cutover (1582) while <code>java.time</code> is proleptic Gregorian.
+ * 
+ * @author <a href="mailto:Karl.Eilebrecht(a/t)calamanari.de">Karl Eilebrecht</a>
+ */
+public class SolrDateUtils {
+
+    /**
+     * Dates before this date will be handled by {@link AdlDateUtils}: {@value}
+     */
+    public static final String GREGORIAN_SAFE_DATE = "1583-01-01";
+
+    /**
+     * Length of a day in UTC-millis
+     */
+    private static final long DAY_IN_MILLISECONDS = 86_400_000L;
+
+    /**
+     * Length of a date <code>yyyy-MM-dd</code>
+     */
+    private static final int DATE_LENGTH = 10;
+
+    /**
+     * Length of a timestamp <code>yyyy-MM-dd HH:mm:ss</code>
+     */
+    private static final int TIMESTAMP_LENGTH = 19;
+
+    /**
+     * Parses the given date string (<code>yyyy-MM-dd</code>) into UTC-millis, same results as {@link AdlDateUtils#tryParseUtcMillis(String)}.
+     * 
+     * @param value
+     * @return UTC-millis of the begin of the day or {@link AdlDateUtils#INVALID_DATE}
+     */
+    public static long tryParseUtcMillis(String value) {
+        if (value == null || value.length() != DATE_LENGTH || value.compareTo(AdlDateUtils.MIN_DATE) < 0
+                || value.compareTo(AdlDateUtils.TOLERATED_MAXIMUM_DATE) > 0) {
+            return AdlDateUtils.INVALID_DATE;
+        }
+        if (value.compareTo(GREGORIAN_SAFE_DATE) < 0) {
+            return AdlDateUtils.tryParseUtcMillis(value);
+        }
+        long epochDay = tryParseEpochDay(value);
+        return epochDay == AdlDateUtils.INVALID_DATE ? AdlDateUtils.INVALID_DATE : epochDay * DAY_IN_MILLISECONDS;
+    }
+
+    /**
+     * @param value
+     * @return true if the given value is a valid date <code>yyyy-MM-dd</code> in the range supported by Audlang
+     */
+    public static boolean isValidDate(String value) {
+        return tryParseUtcMillis(value) != AdlDateUtils.INVALID_DATE;
+    }
+
+    /**
+     * @param value
+     * @return true if the given string is a valid timestamp following the pattern <code>yyyy-MM-dd HH:mm:ss</code> (UTC)
+     */
+    public static boolean isFullTimestamp(String value) {
+        if (value == null || value.length() != TIMESTAMP_LENGTH || value.charAt(10) != ' ' || value.charAt(13) != ':' || value.charAt(16) != ':') {
+            return false;
+        }
+        if (value.compareTo(GREGORIAN_SAFE_DATE) < 0) {
+            return isLegacyFullTimestamp(value);
+        }
+        return tryParseEpochDay(value) != AdlDateUtils.INVALID_DATE && isValidTime(value);
+    }
+
+    /**
+     * Computes the date of the day after the given date, same results as {@link AdlDateUtils#computeDayAfter(String)}
+     * 
+     * @param value date <code>yyyy-MM-dd</code>
+     * @return date of the next day or {@link AdlDateUtils#MIN_DATE} if the given value was not a valid date
+     */
+    public static String computeDayAfter(String value) {
+        long millis = tryParseUtcMillis(value);
+        if (millis == AdlDateUtils.INVALID_DATE) {
+            return AdlDateUtils.MIN_DATE;
+        }
+        else if (value.compareTo(GREGORIAN_SAFE_DATE) < 0) {
+            return AdlDateUtils.computeDayAfter(value);
+        }
+        return formatDate(LocalDate.ofEpochDay(millis / DAY_IN_MILLISECONDS + 1));
+    }
+
+    /**
+     * Formats the given value with the given formatter, skipping the formatter if it is {@link DefaultArgValueFormatter#DATE} and the value is already a
+     * valid date (the formatter would return the value as-is).
+     * 
+     * @param formatter
+     * @param argName
+     * @param argValue
+     * @param operator
+     * @return formatted value
+     */
+    public static String formatArgDate(ArgValueFormatter formatter, String argName, String argValue, MatchOperator operator) {
+        if (formatter == DefaultArgValueFormatter.DATE && isValidDate(argValue)) {
+            return argValue;
+        }
+        return formatter.format(argName, argValue, operator);
+    }
+
+    /**
+     * Appends the given date or timestamp (both <b>must</b> be valid) as an escaped Solr timestamp
+     * <code>yyyy\-MM\-dd<b>T</b>HH\:mm\:ss<b>Z</b></code>
+     * 
+     * @param sb destination
+     * @param value valid date <code>yyyy-MM-dd</code> or timestamp <code>yyyy-MM-dd HH:mm:ss</code>
+     */
+    static void appendSolrTimestamp(StringBuilder sb, String value) {
+        sb.append(value, 0, 4).append('\\').append(value, 4, 7).append('\\').append(value, 7, 10).append('T');
+        if (value.length() == TIMESTAMP_LENGTH) {
+            sb.append(value, 11, 13).append('\\').append(value, 13, 16).append('\\').append(value, 16, 19);
+        }
+        else {
+            sb.append("00\\:00\\:00");
+        }
+        sb.append('Z');
+    }
+
+    /**
+     * Parses the date portion of the given value without any range check
+     * 
+     * @param value starting with <code>yyyy-MM-dd</code>
+     * @return epoch day or {@link AdlDateUtils#INVALID_DATE}
+     */
+    private static long tryParseEpochDay(String value) {
+        if (value.charAt(4) != '-' || value.charAt(7) != '-') {
+            return AdlDateUtils.INVALID_DATE;
+        }
+        int year = parseDigits(value, 0, 4);
+        int month = parseDigits(value, 5, 7);
+        int day = parseDigits(value, 8, 10);
+        if (year < 1 || month < 1 || month > 12 || day < 1 || day > LocalDate.of(year, month, 1).lengthOfMonth()) {
+            return AdlDateUtils.INVALID_DATE;
+        }
+        return LocalDate.of(year, month, day).toEpochDay();
+    }
+
+    /**
+     * @param value timestamp <code>yyyy-MM-dd HH:mm:ss</code> (separators already checked)
+     * @return true if the time portion is valid
+     */
+    private static boolean isValidTime(String value) {
+        int hour = parseDigits(value, 11, 13);
+        int minute = parseDigits(value, 14, 16);
+        int second = parseDigits(value, 17, 19);
+        return hour >= 0 && hour < 24 && minute >= 0 && minute < 60 && second >= 0 && second < 60;
+    }
+
+    /**
+     * @param value
+     * @param from inclusive
+     * @param to exclusive
+     * @return parsed non-negative number or -1 if there was any non-digit
+     */
+    private static int parseDigits(String value, int from, int to) {
+        int res = 0;
+        for (int i = from; i < to; i++) {
+            char ch = value.charAt(i);
+            if (ch < '0' || ch > '9') {
+                return -1;
+            }
+            res = res * 10 + (ch - '0');
+        }
+        return res;
+    }
+
+    /**
+     * @param date
+     * @return date formatted as <code>yyyy-MM-dd</code> (4-digit year)
+     */
+    private static String formatDate(LocalDate date) {
+        char[] chars = new char[DATE_LENGTH];
+        writeDigits(chars, 0, 4, date.getYear());
+        chars[4] = '-';
+        writeDigits(chars, 5, 7, date.getMonthValue());
+        chars[7] = '-';
+        writeDigits(chars, 8, 10, date.getDayOfMonth());
+        return new String(chars);
+    }
+
+    private static void writeDigits(char[] chars, int from, int to, int value) {
+        for (int i = to - 1; i >= from; i--) {
+            chars[i] = (char) ('0' + (value % 10));
+            value = value / 10;
+        }
+    }
+
+    /**
+     * Legacy check for timestamps before the Gregorian cutover
+     * 
+     * @param value
+     * @return true if the value survives a round-trip through a <code>SimpleDateFormat</code>
+     */
+    private static boolean isLegacyFullTimestamp(String value) {
+        SimpleDateFormat sdf = new SimpleDateFormat(AdlDateUtils.AUDLANG_DATE_FORMAT + " HH:mm:ss");
+        sdf.setTimeZone(TimeZone.getTimeZone("UTC"));
+        try {
+            return value.equals(sdf.format(sdf.parse(value)));
+        }
+        catch (ParseException _) {
+            return false;
+        }
+    }
+
+    private SolrDateUtils() {
+        // utilities
+    }
+
+}
@@ -0,0 +1,54 @@
+//@formatter:off
+/*
+ * SolrFacetDefinition
+ * Copyright 2025 Karl Eilebrecht
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"):
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+//@formatter:on
+package de.calamanari.adl.solr;
+
+import java.io.Serializable;
+
+/**
+ * A {@link SolrFacetDefinition} describes the breakdown of the documents matching a query by the values of a single argName, expressed as a
+ * <a href="https://solr.apache.org/guide/solr/latest/query-guide/json-facet-api.html">JSON facet</a>.
+ * <p>
+ * The facet counts <i>main documents</i>. If the argName is mapped to a nested or dependent document the facet first switches the domain to the related
+ * sub-documents (<code>blockChildren</code> resp. <code>join</code>) and counts the distinct main documents per value (<code>uniqueBlock(_root_)</code>
+ * resp. <code>unique(main_id)</code>) in the statistic {@value #MAIN_DOCUMENT_COUNT}.
+ * <p>
+ * Instances are <i>deeply immutable</i>.
+ * 
+ * @param argName the argName the documents are broken down by, also the name of the facet in the request and the response, NOT NULL, not blank
+ * @param jsonFacet the JSON facet (object), NOT NULL, not blank
+ * @author <a href="mailto:Karl.Eilebrecht(a/t)calamanari.de">Karl Eilebrecht</a>
+ */
+public record SolrFacetDefinition(String argName, String jsonFacet) implements Serializable {
+
+    /**
+     * Name of the statistic in the buckets of a facet on a nested or dependent field that holds the number of distinct main documents
+     */
+    public static final String MAIN_DOCUMENT_COUNT = "mainCount";
+
+    /**
+     * @param argName the argName the documents are broken down by, also the name of the facet in the request and the response, NOT NULL, not blank
+     * @param jsonFacet the JSON facet (object), NOT NULL, not blank
+     */
+    public SolrFacetDefinition {
+        if (argName == null || argName.isBlank() || jsonFacet == null || jsonFacet.isBlank()) {
+            throw new IllegalArgumentException(String.format("Arguments must not be null or blank, given: argName=%s, jsonFacet=%s", argName, jsonFacet));
+        }
+    }
+
+}
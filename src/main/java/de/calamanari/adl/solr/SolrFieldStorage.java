@@ -0,0 +1,73 @@
+//@formatter:off
+/*
+ * SolrFieldStorage
+ * Copyright 2025 Karl Eilebrecht
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"):
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+//@formatter:on
+
+package de.calamanari.adl.solr;
+
+/**
+ * The {@link SolrFieldStorage} describes how the values of a Solr-field are <i>physically</i> available for querying.
+ * <p>
+ * Whether a field is multi-valued is not part of the storage information, see {@link de.calamanari.adl.solr.config.DataField#isCollection()}.
+ * <p>
+ * Solr can query fields that are only stored as <a href="https://solr.apache.org/guide/solr/latest/indexing-guide/docvalues.html">docValues</a>
+ * (<code>indexed="false" docValues="true"</code>) using the standard syntax, but such queries must <i>visit the documents</i> instead of looking up the
+ * inverted index. The converter takes the storage into account to choose the best query form.
+ * 
+ * @author <a href="mailto:Karl.Eilebrecht(a/t)calamanari.de">Karl Eilebrecht</a>
+ */
+public enum SolrFieldStorage {
+
+    /**
+     * Field is indexed (inverted index), this is the default assumption.
+     */
+    INDEXED(true, false),
+
+    /**
+     * Field is indexed (inverted index), and has docValues
+     */
+    INDEXED_WITH_DOC_VALUES(true, true),
+
+    /**
+     * Field only has docValues, it is <b>not indexed</b> (<code>indexed="false" docValues="true"</code>).
+     */
+    DOC_VALUES_ONLY(false, true);
+
+    private final boolean indexed;
+
+    private final boolean docValues;
+
+    private SolrFieldStorage(boolean indexed, boolean docValues) {
+        this.indexed = indexed;
+        this.docValues = docValues;
+    }
+
+    /**
+     * @return true if there is an inverted index for the field
+     */
+    public boolean isIndexed() {
+        return indexed;
+    }
+
+    /**
+     * @return true if the field has docValues
+     */
+    public boolean hasDocValues() {
+        return docValues;
+    }
+
+}
@@ -190,6 +190,18 @@ public class SolrFormatConstants {
      */
     public static final String INLINE_QUERY = "_query_";
 
+    /**
+     * Method of the terms query parser for fields with docValues: <b><code>{@value}</code></b>
+     * <p>
+     * See also: <a href="https://solr.apache.org/guide/solr/latest/query-guide/other-parsers.html#terms-query-parser">Solr terms query parser</a>
+     */
+    public static final String TERMS_METHOD_DOC_VALUES = "docValuesTermsFilter";
+
+    /**
+     * Separator between the shard key and the rest of a document id with compositeId routing (<code>tenant!id</code>): {@value}
+     */
+    public static final String COMPOSITE_ID_SEPARATOR = "!";
+
     /**
      * {@value}
      */
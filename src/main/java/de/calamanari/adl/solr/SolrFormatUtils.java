@@ -81,6 +81,28 @@ public class SolrFormatUtils {
         return sb != null ? sb.toString() : value;
     }
 
+    /**
+     * Reverts {@link #escape(String)} by removing the backslash from any escaped character.
+     * 
+     * @param value
+     * @return value or unescaped string
+     */
+    public static String unescape(String value) {
+        StringBuilder sb = null;
+        for (int i = 0; i < value.length(); i++) {
+            char ch = value.charAt(i);
+            if (ch == '\\' && i < value.length() - 1) {
+                sb = initBuilderOnDemand(sb, value, i);
+                i++;
+                ch = value.charAt(i);
+            }
+            if (sb != null) {
+                sb.append(ch);
+            }
+        }
+        return sb != null ? sb.toString() : value;
+    }
+
     /**
      * Appends the given String to the builder after prepending each special character with a backslash.
      * <p>
@@ -116,6 +138,34 @@ public class SolrFormatUtils {
         return sb.append(beforeColon).append(':').append(afterColon);
     }
 
+    /**
+     * Appends a terms query parser header (the part in curly braces with the field name), the comma-separated values must follow
+     * 
+     * @param sb
+     * @param fieldName
+     * @return sb
+     */
+    public static StringBuilder appendTermsHeader(StringBuilder sb, String fieldName) {
+        return appendTermsHeader(sb, fieldName, null);
+    }
+
+    /**
+     * Appends a terms query parser header (the part in curly braces with the field name and the method), the comma-separated values must follow
+     * 
+     * @param sb
+     * @param fieldName
+     * @param method query implementation (e.g., {@link SolrFormatConstants#TERMS_METHOD_DOC_VALUES}) or null to use the default method
+     * @return sb
+     */
+    public static StringBuilder appendTermsHeader(StringBuilder sb, String fieldName, String method) {
+        sb.append("{!terms f=").append(fieldName);
+        if (method != null) {
+            sb.append(" method=").append(method);
+        }
+        sb.append("}");
+        return sb;
+    }
+
     /**
      * Appends an f-range header (the part in curly braces with lower and upper bound)
      * 
@@ -0,0 +1,73 @@
+//@formatter:off
+/*
+ * SolrInsightQueryDefinition
+ * Copyright 2025 Karl Eilebrecht
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"):
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+//@formatter:on
+package de.calamanari.adl.solr;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+
+/**
+ * A {@link SolrInsightQueryDefinition} combines a {@link SolrQueryDefinition} with breakdowns of the matching documents by the values of selected argNames
+ * ({@link SolrFacetDefinition}s), so the count and the breakdowns can be obtained with a single request (see
+ * {@link DefaultQueryType#SELECT_COUNT_WITH_FACETS}).
+ * <p>
+ * Instances are <i>deeply immutable</i>.
+ * 
+ * @param queryDefinition the query the facets are applied to, NOT NULL
+ * @param facets breakdowns of the matching documents, NOT NULL, must not contain nulls, argNames must be unique
+ * @author <a href="mailto:Karl.Eilebrecht(a/t)calamanari.de">Karl Eilebrecht</a>
+ */
+public record SolrInsightQueryDefinition(SolrQueryDefinition queryDefinition, List<SolrFacetDefinition> facets) implements Serializable {
+
+    /**
+     * @param queryDefinition the query the facets are applied to, NOT NULL
+     * @param facets breakdowns of the matching documents, NOT NULL, must not contain nulls, argNames must be unique
+     */
+    public SolrInsightQueryDefinition(SolrQueryDefinition queryDefinition, List<SolrFacetDefinition> facets) {
+        if (queryDefinition == null || facets == null || facets.stream().anyMatch(Objects::isNull)
+                || facets.stream().map(SolrFacetDefinition::argName).distinct().count() < facets.size()) {
+            throw new IllegalArgumentException(String.format(
+                    "Arguments must not be null, facets must not contain nulls or duplicate argNames, given: queryDefinition=%s, facets=%s",
+                    queryDefinition, facets));
+        }
+        this.queryDefinition = queryDefinition;
+        this.facets = Collections.unmodifiableList(new ArrayList<>(facets));
+    }
+
+    /**
+     * @return value for the request parameter <code>json.facet</code> with all the facets named by their argNames, e.g.,
+     *         <code>{"home-country":{"type":"terms",...}}</code>
+     */
+    public String toJsonFacetParam() {
+        StringBuilder sb = new StringBuilder("{");
+        for (SolrFacetDefinition facet : facets) {
+            if (sb.length() > 1) {
+                sb.append(',');
+            }
+            sb.append(JsonNodeFactory.instance.textNode(facet.argName()).toString()).append(':').append(facet.jsonFacet());
+        }
+        sb.append('}');
+        return sb.toString();
+    }
+
+}
@@ -0,0 +1,87 @@
+//@formatter:off
+/*
+ * SolrJsonQueryDefinition
+ * Copyright 2025 Karl Eilebrecht
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"):
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+//@formatter:on
+
+package de.calamanari.adl.solr;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+
+import de.calamanari.adl.solr.config.ConfigUtils;
+
+/**
+ * A {@link SolrJsonQueryDefinition} is the counterpart of a {@link SolrQueryDefinition} for the
+ * <a href="https://solr.apache.org/guide/solr/latest/query-guide/json-request-api.html">Solr JSON Request API</a>.
+ * <p>
+ * Each filter is a JSON value in the syntax of the JSON Query DSL (e.g., <code>{"bool":{"must":[...]}}</code>, <code>{"join":{...}}</code>) or a JSON string
+ * with a standard query. In contrast to the filter queries of a {@link SolrQueryDefinition} sub-queries of joins are nested JSON objects, so they don't need
+ * any escaping.
+ * <p>
+ * In contrast to a {@link SolrQueryDefinition} there are no routing hints, the request goes to all shards unless the caller adds the <code>_route_</code>
+ * parameter.
+ * <p>
+ * Instances are <i>deeply immutable</i>.
+ * 
+ * @param mainQueryString the main Solr-query (<code><i><b>query</b></i></code>), defaults to {@link SolrFormatConstants#QUERY_ALL_DOCUMENTS}
+ * @param filters the filters (<code><i><b>filter</b></i></code>) as JSON values, to be joined using <i>AND</i>, null means empty
+ * @param uniqueKeyFieldName name of the unique key field in the Solr schema, defaults to {@link SolrFormatConstants#DEFAULT_UNIQUE_KEY_FIELD_NAME}
+ * @author <a href="mailto:Karl.Eilebrecht(a/t)calamanari.de">Karl Eilebrecht</a>
+ */
+public record SolrJsonQueryDefinition(String mainQueryString, List<String> filters, String uniqueKeyFieldName) implements Serializable {
+
+    /**
+     * @param mainQueryString the main Solr-query (<code><i><b>query</b></i></code>), null defaults to {@link SolrFormatConstants#QUERY_ALL_DOCUMENTS}
+     * @param filters the filters (<code><i><b>filter</b></i></code>) as JSON values, to be joined using <i>AND</i>, null means empty
+     * @param uniqueKeyFieldName name of the unique key field in the Solr schema, null defaults to {@link SolrFormatConstants#DEFAULT_UNIQUE_KEY_FIELD_NAME}
+     */
+    public SolrJsonQueryDefinition(String mainQueryString, List<String> filters, String uniqueKeyFieldName) {
+
+        if ((mainQueryString != null && mainQueryString.isBlank()) || (filters != null && filters.stream().anyMatch(filter -> filter == null || filter.isBlank()))
+                || (uniqueKeyFieldName != null && !ConfigUtils.isValidSolrName(uniqueKeyFieldName))) {
+            throw new IllegalArgumentException(String.format(
+                    "The parameter mainQueryString must not be blank, filters must not contain any nulls or blanks, uniqueKey must be a valid solr field name, given: mainQueryString=%s, filters=%s, uniqueKeyFieldName=%s%n%s",
+                    mainQueryString, filters, uniqueKeyFieldName, SolrFormatConstants.SOLR_NAMING_DEBUG_INFO));
+        }
+
+        this.mainQueryString = mainQueryString == null ? SolrFormatConstants.QUERY_ALL_DOCUMENTS : mainQueryString.trim();
+        this.filters = filters == null ? Collections.emptyList() : Collections.unmodifiableList(new ArrayList<>(filters));
+        this.uniqueKeyFieldName = uniqueKeyFieldName == null ? SolrFormatConstants.DEFAULT_UNIQUE_KEY_FIELD_NAME : uniqueKeyFieldName;
+    }
+
+    /**
+     * Returns the request body for the JSON Request API with the main query and the filters. Any further settings (e.g., <code>fields</code>,
+     * <code>limit</code>) can be added by the caller.
+     * 
+     * @return JSON request, e.g. <code>{"query":"*:*","filter":[...]}</code>
+     */
+    public String toJsonRequest() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("{\"query\":").append(JsonNodeFactory.instance.textNode(mainQueryString).toString());
+        if (!filters.isEmpty()) {
+            sb.append(",\"filter\":").append(filters.stream().collect(Collectors.joining(",", "[", "]")));
+        }
+        sb.append('}');
+        return sb.toString();
+    }
+
+}
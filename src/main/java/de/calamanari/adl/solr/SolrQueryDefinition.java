@@ -49,17 +49,21 @@ import de.calamanari.adl.solr.config.ConfigUtils;
  * @param mainQueryString the main Solr-query (<code><i><b>q=...</b></i></code>), defaults to {@link SolrFormatConstants#QUERY_ALL_DOCUMENTS}
  * @param filterQueries the filter queries (<code><i><b>fq=...</b></i></code>), to be joined using <i>AND</i>, null means empty
  * @param uniqueKeyFieldName name of the unique key field in the Solr schema, defaults to {@link SolrFormatConstants#DEFAULT_UNIQUE_KEY_FIELD_NAME}
+ * @param routeKeys optional routing hints (shard keys for <code><i><b>_route_=...</b></i></code>, e.g., <code>tenant!</code> for compositeId routing) to
+ *            restrict the query to the relevant shard(s), empty means the query goes to all shards
  * @author <a href="mailto:Karl.Eilebrecht(a/t)calamanari.de">Karl Eilebrecht</a>
  * @see DefaultQueryType
  */
-public record SolrQueryDefinition(String mainQueryString, List<SolrFilterQuery> filterQueries, String uniqueKeyFieldName) implements Serializable {
+public record SolrQueryDefinition(String mainQueryString, List<SolrFilterQuery> filterQueries, String uniqueKeyFieldName, List<String> routeKeys)
+        implements Serializable {
 
     /**
      * @param mainQueryString the main Solr-query (<code><i><b>q=...</b></i></code>), null defaults to {@link SolrFormatConstants#QUERY_ALL_DOCUMENTS}
      * @param filterQueries the filter queries (<code><i><b>fq=...</b></i></code>), to be joined using <i>AND</i>, null means empty
      * @param uniqueKeyFieldName name of the unique key field in the Solr schema, null defaults to {@link SolrFormatConstants#DEFAULT_UNIQUE_KEY_FIELD_NAME}
+     * @param routeKeys optional routing hints (shard keys for <code><i><b>_route_=...</b></i></code>), null means empty
      */
-    public SolrQueryDefinition(String mainQueryString, List<SolrFilterQuery> filterQueries, String uniqueKeyFieldName) {
+    public SolrQueryDefinition(String mainQueryString, List<SolrFilterQuery> filterQueries, String uniqueKeyFieldName, List<String> routeKeys) {
 
         if ((mainQueryString != null && mainQueryString.isBlank()) || (filterQueries != null && filterQueries.stream().anyMatch(Objects::isNull))
                 || (uniqueKeyFieldName != null && !ConfigUtils.isValidSolrName(uniqueKeyFieldName))) {
@@ -87,6 +91,23 @@ public record SolrQueryDefinition(String mainQueryString, List<SolrFilterQuery>
         }
         this.uniqueKeyFieldName = uniqueKeyFieldName == null ? SolrFormatConstants.DEFAULT_UNIQUE_KEY_FIELD_NAME : uniqueKeyFieldName;
 
+        if (routeKeys != null && routeKeys.stream().anyMatch(routeKey -> routeKey == null || routeKey.isBlank() || routeKey.contains(","))) {
+            throw new IllegalArgumentException(String.format("The routeKeys must not contain any null, blank or comma-separated entries, given: routeKeys=%s",
+                    routeKeys));
+        }
+        this.routeKeys = routeKeys == null ? Collections.emptyList() : routeKeys.stream().distinct().sorted().toList();
+
+    }
+
+    /**
+     * Creates a definition without any routing hints
+     * 
+     * @param mainQueryString the main Solr-query (<code><i><b>q=...</b></i></code>), null defaults to {@link SolrFormatConstants#QUERY_ALL_DOCUMENTS}
+     * @param filterQueries the filter queries (<code><i><b>fq=...</b></i></code>), to be joined using <i>AND</i>, null means empty
+     * @param uniqueKeyFieldName name of the unique key field in the Solr schema, null defaults to {@link SolrFormatConstants#DEFAULT_UNIQUE_KEY_FIELD_NAME}
+     */
+    public SolrQueryDefinition(String mainQueryString, List<SolrFilterQuery> filterQueries, String uniqueKeyFieldName) {
+        this(mainQueryString, filterQueries, uniqueKeyFieldName, null);
     }
 
     /**
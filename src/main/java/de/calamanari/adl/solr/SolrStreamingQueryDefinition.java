@@ -0,0 +1,62 @@
+//@formatter:off
+/*
+ * SolrStreamingQueryDefinition
+ * Copyright 2025 Karl Eilebrecht
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"):
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+//@formatter:on
+
+package de.calamanari.adl.solr;
+
+import java.io.Serializable;
+
+import de.calamanari.adl.solr.config.ConfigUtils;
+
+/**
+ * A {@link SolrStreamingQueryDefinition} is the counterpart of a {@link SolrQueryDefinition} for the
+ * <a href="https://solr.apache.org/guide/solr/latest/query-guide/streaming-expressions.html">Solr streaming expressions</a>.
+ * <p>
+ * The expression is meant to be sent to the <code>/stream</code> handler (parameter <code>expr</code>) of the collection. It returns the unique keys of all
+ * main documents matching the query, sorted ascending. In contrast to a {@link SolrQueryDefinition} there are no routing hints, the expression searches all
+ * shards.
+ * <p>
+ * Instances are <i>deeply immutable</i>.
+ * 
+ * @param collectionName name of the collection the expression searches, NOT NULL
+ * @param expression the streaming expression, NOT NULL
+ * @param uniqueKeyFieldName name of the unique key field in the Solr schema, defaults to {@link SolrFormatConstants#DEFAULT_UNIQUE_KEY_FIELD_NAME}
+ * @author <a href="mailto:Karl.Eilebrecht(a/t)calamanari.de">Karl Eilebrecht</a>
+ */
+public record SolrStreamingQueryDefinition(String collectionName, String expression, String uniqueKeyFieldName) implements Serializable {
+
+    /**
+     * @param collectionName name of the collection the expression searches, NOT NULL
+     * @param expression the streaming expression, NOT NULL
+     * @param uniqueKeyFieldName name of the unique key field in the Solr schema, null defaults to {@link SolrFormatConstants#DEFAULT_UNIQUE_KEY_FIELD_NAME}
+     */
+    public SolrStreamingQueryDefinition(String collectionName, String expression, String uniqueKeyFieldName) {
+
+        if (collectionName == null || collectionName.isBlank() || expression == null || expression.isBlank()
+                || (uniqueKeyFieldName != null && !ConfigUtils.isValidSolrName(uniqueKeyFieldName))) {
+            throw new IllegalArgumentException(String.format(
+                    "The parameters collectionName and expression must not be null or blank, uniqueKey must be a valid solr field name, given: collectionName=%s, expression=%s, uniqueKeyFieldName=%s%n%s",
+                    collectionName, expression, uniqueKeyFieldName, SolrFormatConstants.SOLR_NAMING_DEBUG_INFO));
+        }
+
+        this.collectionName = collectionName;
+        this.expression = expression.trim();
+        this.uniqueKeyFieldName = uniqueKeyFieldName == null ? SolrFormatConstants.DEFAULT_UNIQUE_KEY_FIELD_NAME : uniqueKeyFieldName;
+    }
+
+}
@@ -0,0 +1,51 @@
+//@formatter:off
+/*
+ * ValueDictionary
+ * Copyright 2025 Karl Eilebrecht
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"):
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+//@formatter:on
+
+package de.calamanari.adl.solr;
+
+import java.io.Serializable;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * A {@link ValueDictionary} assigns a numeric code to each known value of a string attribute, so that the attribute can be indexed in Solr as a compact
+ * integer field instead of a string field (see {@link DictionaryEncodedSolrType}).
+ * <p>
+ * Implementations can load the dictionary from any source (file, database, service), see {@link DefaultValueDictionary} for a simple file-based one.
+ * Implementations must be <i>immutable</i> and thread-safe.
+ * 
+ * @author <a href="mailto:Karl.Eilebrecht(a/t)calamanari.de">Karl Eilebrecht</a>
+ */
+public interface ValueDictionary extends Serializable {
+
+    /**
+     * @param value plain value (not escaped)
+     * @return the code of the given value or null if the value is not part of the dictionary
+     */
+    Long lookupCode(String value);
+
+    /**
+     * Scans the dictionary for all values matching the given filter and returns the corresponding codes
+     * 
+     * @param valueFilter test to be applied to the plain values
+     * @return codes of the matching values in ascending order, empty if there is no match
+     */
+    List<Long> findCodes(Predicate<String> valueFilter);
+
+}
@@ -25,7 +25,7 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.Objects;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -34,7 +34,7 @@ import de.calamanari.adl.AudlangMessage;
 import de.calamanari.adl.CommonErrors;
 import de.calamanari.adl.ConversionException;
 import de.calamanari.adl.cnv.TemplateParameterUtils;
-import de.calamanari.adl.cnv.tps.AdlDateUtils;
+import de.calamanari.adl.cnv.tps.ArgValueFormatter;
 import de.calamanari.adl.cnv.tps.ContainsNotSupportedException;
 import de.calamanari.adl.cnv.tps.LessThanGreaterThanNotSupportedException;
 import de.calamanari.adl.cnv.tps.LookupException;
@@ -44,10 +44,23 @@ import de.calamanari.adl.irl.Operand;
 import de.calamanari.adl.irl.SimpleExpression;
 import de.calamanari.adl.solr.AdlSolrType;
 import de.calamanari.adl.solr.DefaultAdlSolrType;
+import de.calamanari.adl.solr.DictionaryEncodedSolrType;
 import de.calamanari.adl.solr.SolrConditionType;
+import de.calamanari.adl.solr.SolrDateUtils;
+import de.calamanari.adl.solr.SolrFieldStorage;
 import de.calamanari.adl.solr.SolrFilterQuery;
+import de.calamanari.adl.solr.SolrFormatConstants;
 import de.calamanari.adl.solr.SolrFormatUtils;
 import de.calamanari.adl.solr.SolrQueryField;
+import de.calamanari.adl.solr.ValueDictionary;
+import de.calamanari.adl.solr.cnv.ast.FilterCondition;
+import de.calamanari.adl.solr.cnv.ast.FilterNode;
+import de.calamanari.adl.solr.cnv.ast.FrangeCondition;
+import de.calamanari.adl.solr.cnv.ast.RangeCondition;
+import de.calamanari.adl.solr.cnv.ast.TermCondition;
+import de.calamanari.adl.solr.cnv.ast.TermListCondition;
+import de.calamanari.adl.solr.cnv.ast.TermsCondition;
+import de.calamanari.adl.solr.cnv.ast.WildcardCondition;
 import de.calamanari.adl.solr.config.DataField;
 import de.calamanari.adl.solr.config.FilterField;
 import de.calamanari.adl.solr.config.NodeTypeMetaInfo;
@@ -58,9 +71,7 @@ import static de.calamanari.adl.solr.SolrFormatConstants.AND;
 import static de.calamanari.adl.solr.SolrFormatConstants.ARGNAME_DUMMY;
 import static de.calamanari.adl.solr.SolrFormatConstants.ASTERISK;
 import static de.calamanari.adl.solr.SolrFormatConstants.CLOSE_BRACE;
-import static de.calamanari.adl.solr.SolrFormatConstants.COLON;
 import static de.calamanari.adl.solr.SolrFormatConstants.COMMA;
-import static de.calamanari.adl.solr.SolrFormatConstants.DOUBLE_QUOTES;
 import static de.calamanari.adl.solr.SolrFormatConstants.FUNC_EQUALS;
 import static de.calamanari.adl.solr.SolrFormatConstants.FUNC_GREATER_THAN;
 import static de.calamanari.adl.solr.SolrFormatConstants.FUNC_GREATER_THAN_OR_EQUALS;
@@ -68,18 +79,20 @@ import static de.calamanari.adl.solr.SolrFormatConstants.FUNC_IF;
 import static de.calamanari.adl.solr.SolrFormatConstants.FUNC_LESS_THAN;
 import static de.calamanari.adl.solr.SolrFormatConstants.FUNC_LESS_THAN_OR_EQUALS;
 import static de.calamanari.adl.solr.SolrFormatConstants.IF_VALUES_0_1;
-import static de.calamanari.adl.solr.SolrFormatConstants.INLINE_QUERY;
 import static de.calamanari.adl.solr.SolrFormatConstants.OPEN_BRACE;
-import static de.calamanari.adl.solr.SolrFormatConstants.OR;
+import static de.calamanari.adl.solr.SolrFormatConstants.TERMS_METHOD_DOC_VALUES;
 import static de.calamanari.adl.solr.SolrFormatUtils.appendCondition;
 import static de.calamanari.adl.solr.SolrFormatUtils.appendDateFieldAtMidnightToFrange;
-import static de.calamanari.adl.solr.SolrFormatUtils.appendFrangeHeader;
 import static de.calamanari.adl.solr.SolrFormatUtils.appendFrangeStartWithExistenceChecks;
-import static de.calamanari.adl.solr.SolrFormatUtils.escape;
 
 /**
  * {@link DefaultMatchFilterFactory} provides a standard implementation for translating atomic match expressions into Solr-queries.
  * <p>
+ * The query form takes the {@link SolrFieldStorage} of the field into account. Fields without an inverted index ({@link SolrFieldStorage#DOC_VALUES_ONLY})
+ * can be queried with the standard syntax, but multiple values of a string field will be matched with the terms query parser
+ * (<code>method={@value SolrFormatConstants#TERMS_METHOD_DOC_VALUES}</code>) instead of an OR-list. Conditions that can only be evaluated by checking the
+ * values of every document (e.g., CONTAINS on a field without an index) will be logged as a warning.
+ * <p>
  * Sub-classes may adjust the behavior if required.
  * 
  * @author <a href="mailto:Karl.Eilebrecht(a/t)calamanari.de">Karl Eilebrecht</a>
@@ -88,6 +101,12 @@ public class DefaultMatchFilterFactory implements MatchFilterFactory {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(DefaultMatchFilterFactory.class);
 
+    /**
+     * Maximum number of codes of a {@link DictionaryEncodedSolrType} to be expressed as an OR-list, longer lists will be expressed using the terms query
+     * parser to avoid exceeding Solr's limit of boolean clauses: {@value}
+     */
+    public static final int MAX_DICTIONARY_CODES_OR_LIST = 64;
+
     /**
      * physical data model mapping, variables and flags
      */
@@ -106,13 +125,27 @@ public class DefaultMatchFilterFactory implements MatchFilterFactory {
         this.nodeTypeFilters = createNodeTypeFilters(ctx);
     }
 
+    /**
+     * Creates a new factory for the given context with pre-rendered node type filters
+     * <p>
+     * This avoids rendering the same node type filters (including any document filters) again and again for each conversion run. It is the caller's
+     * responsibility to ensure that the given filters match the context (mapping config and global variables).
+     * 
+     * @param ctx
+     * @param nodeTypeFilters filter for each node type of the mapping configuration, see {@link #createNodeTypeFilters(SolrConversionProcessContext)}
+     */
+    public DefaultMatchFilterFactory(SolrConversionProcessContext ctx, Map<String, SolrFilterQuery> nodeTypeFilters) {
+        this.ctx = ctx;
+        this.nodeTypeFilters = nodeTypeFilters;
+    }
+
     /**
      * Creates a filter for each configured node type (expected to be required frequently)
      * 
      * @param ctx
      * @return filter map
      */
-    private static Map<String, SolrFilterQuery> createNodeTypeFilters(SolrConversionProcessContext ctx) {
+    public static Map<String, SolrFilterQuery> createNodeTypeFilters(SolrConversionProcessContext ctx) {
         Map<String, SolrFilterQuery> map = new HashMap<>();
         for (NodeTypeMetaInfo nodeTypeMetaInfo : ctx.getMappingConfig().allNodeTypeMetaInfos()) {
             SolrFilterQuery nodeTypeFilter = createNodeTypeFilter(nodeTypeMetaInfo, ctx);
@@ -128,7 +161,7 @@ public class DefaultMatchFilterFactory implements MatchFilterFactory {
      * @param ctx
      * @return filter query
      */
-    private static SolrFilterQuery createNodeTypeFilter(NodeTypeMetaInfo nodeTypeMetaInfo, SolrConversionProcessContext ctx) {
+    public static SolrFilterQuery createNodeTypeFilter(NodeTypeMetaInfo nodeTypeMetaInfo, SolrConversionProcessContext ctx) {
         List<SolrQueryField> fields = new ArrayList<>();
 
         StringBuilder sb = new StringBuilder();
@@ -160,10 +193,18 @@ public class DefaultMatchFilterFactory implements MatchFilterFactory {
 
     @Override
     public SolrFilterQuery createHasAnyValueFilter(String argName) {
-        SolrMappingConfig mappingConfig = ctx.getMappingConfig();
-        DataField field = mappingConfig.lookupField(argName, ctx);
-        return new SolrFilterQuery(field.fieldName() + COLON + ASTERISK, Arrays.asList(new SolrQueryField(field.nodeType(), field.fieldName())),
-                Arrays.asList(SolrConditionType.CMP_ANY));
+        return createHasAnyValueFilterNode(argName).filterQuery();
+    }
+
+    /**
+     * Creates the leaf to ensure the Solr-field mapped to the given argName has <i>any</i> value, see {@link #createHasAnyValueFilter(String)}
+     * 
+     * @param argName
+     * @return leaf with a wildcard condition
+     */
+    protected FilterNode createHasAnyValueFilterNode(String argName) {
+        DataField field = ctx.getMappingConfig().lookupField(argName, ctx);
+        return createFilterNode(new WildcardCondition(field.fieldName(), "" + ASTERISK), field, SolrConditionType.CMP_ANY);
     }
 
     @Override
@@ -177,31 +218,72 @@ public class DefaultMatchFilterFactory implements MatchFilterFactory {
 
     @Override
     public SolrFilterQuery createMatchFilter(MatchWrapper matchWrapper) {
+        return createMatchFilterNode(matchWrapper).filterQuery();
+    }
+
+    /**
+     * Creates the typed leaf for the given match wrapper, the range of values it matches will be derived from its condition (see
+     * {@link FilterNode#range()})
+     */
+    @Override
+    public FilterNode createMatchFilterNode(MatchWrapper matchWrapper) {
         MatchWrapperType wrapperType = matchWrapper.type();
 
         switch (wrapperType) {
         case ANY_VALUE_MATCH:
-            return createHasAnyValueFilter(matchWrapper.argName());
+            return createHasAnyValueFilterNode(matchWrapper.argName());
         case VALUE_MATCH, REF_MATCH:
-            return createSingleMatchFilter(matchWrapper.firstMember());
+            return createSingleMatchFilterNode(matchWrapper.firstMember());
         case MULTI_VALUE_MATCH:
-            return createMultiValueMatchFilter(matchWrapper.members());
+            return createMultiValueMatchFilterNode(matchWrapper.members());
         case VALUE_OR_EQ_MATCH, REF_OR_EQ_MATCH:
-            return createLtGtOrEqualsMatchFilter(matchWrapper.firstMember());
+            return createLtGtOrEqualsMatchFilterNode(matchWrapper.firstMember());
         case VALUE_GT_AND_LT_MATCH, VALUE_GT_AND_LTE_MATCH, VALUE_GTE_AND_LT_MATCH, VALUE_GTE_AND_LTE_MATCH:
-            return createBetweenMatchFilter((BetweenMatchWrapper) matchWrapper);
+            return createBetweenMatchFilterNode((BetweenMatchWrapper) matchWrapper);
         default:
             throw new IllegalArgumentException("Unexpected type of match wrapper, given: " + matchWrapper);
         }
     }
 
+    /**
+     * @param argName
+     * @param field
+     * @return true if the date values of the argument must be aligned to full days on the given field
+     */
+    private boolean shouldAlignDate(String argName, DataField field) {
+        return !SolrConversionDirective.DISABLE_DATE_TIME_ALIGNMENT.check(ctx.getGlobalFlags())
+                && SolrFormatUtils.shouldAlignDate(ctx.getMappingConfig().typeOf(argName), field.fieldType());
+    }
+
+    /**
+     * @param condition
+     * @param field the only field involved
+     * @param conditionType
+     * @return leaf
+     */
+    private static FilterNode createFilterNode(FilterCondition condition, DataField field, SolrConditionType conditionType) {
+        return new FilterNode(condition, Arrays.asList(new SolrQueryField(field.nodeType(), field.fieldName())), Arrays.asList(conditionType));
+    }
+
     /**
      * Creates a single comparison of a field against a value or another field from the given match expression
      * 
      * @param expression
      * @return solr filter expression
+     * @deprecated the factory creates typed leaves, use (resp. override) {@link #createSingleMatchFilterNode(MatchExpression)}
      */
+    @Deprecated(since = "1.1.1")
     protected SolrFilterQuery createSingleMatchFilter(MatchExpression expression) {
+        return createSingleMatchFilterNode(expression).filterQuery();
+    }
+
+    /**
+     * Creates a single comparison of a field against a value or another field from the given match expression
+     * 
+     * @param expression
+     * @return leaf
+     */
+    protected FilterNode createSingleMatchFilterNode(MatchExpression expression) {
         SolrMappingConfig mappingConfig = ctx.getMappingConfig();
         String argNameLeft = expression.argName();
         DataField fieldLeft = mappingConfig.lookupField(argNameLeft, ctx);
@@ -209,10 +291,10 @@ public class DefaultMatchFilterFactory implements MatchFilterFactory {
         DataField fieldRight = argNameRight != null ? mappingConfig.lookupField(argNameRight, ctx) : null;
 
         if (fieldRight == null) {
-            return createFieldValueCondition(expression, fieldLeft, false);
+            return createFieldValueConditionNode(expression, fieldLeft, false);
         }
         else {
-            return createFieldFieldCondition(expression, argNameLeft, fieldLeft, argNameRight, fieldRight, false);
+            return createFieldFieldConditionNode(expression, argNameLeft, fieldLeft, argNameRight, fieldRight, false);
         }
 
     }
@@ -222,22 +304,55 @@ public class DefaultMatchFilterFactory implements MatchFilterFactory {
      * 
      * @param expressions must be prepared correctly beforehand
      * @return solr filter expression
+     * @deprecated the factory creates typed leaves, use (resp. override) {@link #createMultiValueMatchFilterNode(List)}
      */
+    @Deprecated(since = "1.1.1")
     protected SolrFilterQuery createMultiValueMatchFilter(List<MatchExpression> expressions) {
+        return createMultiValueMatchFilterNode(expressions).filterQuery();
+    }
+
+    /**
+     * This creates the equivalent of an IN-clause, a match of the same Solr-field against multiple values
+     * 
+     * @param expressions must be prepared correctly beforehand
+     * @return leaf with an OR-list or a terms query
+     */
+    protected FilterNode createMultiValueMatchFilterNode(List<MatchExpression> expressions) {
         DataField field = ctx.getMappingConfig().lookupField(expressions.get(0).argName(), ctx);
         String argName = expressions.get(0).argName();
         AdlSolrType fieldType = field.fieldType();
 
+        if (fieldType instanceof DictionaryEncodedSolrType dictType) {
+            // @formatter:off
+            List<Long> codes = expressions.stream().map(MatchExpression::operand)
+                                                   .map(Operand::value)
+                                                   .map(dictType.getDictionary()::lookupCode)
+                                                   .filter(Objects::nonNull)
+                                                   .distinct()
+                                                   .sorted()
+                                                   .toList();
+            // @formatter:on
+            return createDictionaryCodeFilterNode(argName, field, dictType, codes);
+        }
+
         // @formatter:off
-        String queryString = expressions.stream().map(MatchExpression::operand)
-                                                 .map(Operand::value)
-                                                 .map(value -> fieldType.getFormatter().format(argName, value, MatchOperator.EQUALS))
-                                                 .sorted()
-                                                 .collect(Collectors.joining(" " + OR + " ", field.fieldName() + COLON + OPEN_BRACE, "" + CLOSE_BRACE));
+        List<String> formattedValues = expressions.stream().map(MatchExpression::operand)
+                                                  .map(Operand::value)
+                                                  .map(value -> fieldType.getFormatter().format(argName, value, MatchOperator.EQUALS))
+                                                  .sorted()
+                                                  .toList();
         // @formatter:on
 
-        return new SolrFilterQuery(queryString, Arrays.asList(new SolrQueryField(field.nodeType(), field.fieldName())),
-                Arrays.asList(SolrConditionType.CMP_VALUE));
+        if (fieldType.getStorage() == SolrFieldStorage.DOC_VALUES_ONLY && fieldType.getBaseType() == DefaultAdlSolrType.SOLR_STRING) {
+            List<String> terms = formattedValues.stream().map(SolrFormatUtils::unescape).toList();
+            if (terms.stream().noneMatch(term -> term.indexOf(COMMA) > -1)) {
+                return createFilterNode(new TermsCondition(field.fieldName(), TERMS_METHOD_DOC_VALUES, terms), field, SolrConditionType.CMP_VALUE);
+            }
+            // the terms query parser cannot deal with values containing the separator
+            warnFullScan(expressions.get(0), field, "OR-list of values on a field without index");
+        }
+
+        return createFilterNode(new TermListCondition(field.fieldName(), formattedValues), field, SolrConditionType.CMP_VALUE);
 
     }
 
@@ -246,18 +361,30 @@ public class DefaultMatchFilterFactory implements MatchFilterFactory {
      * 
      * @param expression must be a less-than or greater-than expression
      * @return solr filter expression
+     * @deprecated the factory creates typed leaves, use (resp. override) {@link #createLtGtOrEqualsMatchFilterNode(MatchExpression)}
      */
+    @Deprecated(since = "1.1.1")
     protected SolrFilterQuery createLtGtOrEqualsMatchFilter(MatchExpression expression) {
+        return createLtGtOrEqualsMatchFilterNode(expression).filterQuery();
+    }
+
+    /**
+     * This creates a less-than-or-equals resp. a greater-than-or-equals expression
+     * 
+     * @param expression must be a less-than or greater-than expression
+     * @return leaf
+     */
+    protected FilterNode createLtGtOrEqualsMatchFilterNode(MatchExpression expression) {
 
         if (expression.referencedArgName() == null) {
-            return createFieldValueCondition(expression, ctx.getMappingConfig().lookupField(expression.argName(), ctx), true);
+            return createFieldValueConditionNode(expression, ctx.getMappingConfig().lookupField(expression.argName(), ctx), true);
         }
         else {
             String argNameLeft = expression.argName();
             String argNameRight = expression.referencedArgName();
             DataField fieldLeft = ctx.getMappingConfig().lookupField(argNameLeft, ctx);
             DataField fieldRight = ctx.getMappingConfig().lookupField(argNameRight, ctx);
-            return createFieldFieldCondition(expression, argNameLeft, fieldLeft, argNameRight, fieldRight, true);
+            return createFieldFieldConditionNode(expression, argNameLeft, fieldLeft, argNameRight, fieldRight, true);
         }
     }
 
@@ -266,62 +393,93 @@ public class DefaultMatchFilterFactory implements MatchFilterFactory {
      * 
      * @param betweenWrapper
      * @return filter query
+     * @deprecated the factory creates typed leaves, use (resp. override) {@link #createBetweenMatchFilterNode(BetweenMatchWrapper)}
      */
+    @Deprecated(since = "1.1.1")
     protected SolrFilterQuery createBetweenMatchFilter(BetweenMatchWrapper betweenWrapper) {
-        SolrMappingConfig mappingConfig = ctx.getMappingConfig();
+        return createBetweenMatchFilterNode(betweenWrapper).filterQuery();
+    }
+
+    /**
+     * Creates a range-query to filter for values between two bounds
+     * 
+     * @param betweenWrapper
+     * @return leaf
+     */
+    protected FilterNode createBetweenMatchFilterNode(BetweenMatchWrapper betweenWrapper) {
         DataField field = ctx.getMappingConfig().lookupField(betweenWrapper.argName(), ctx);
 
         assertLessThanGreaterThanSupported(betweenWrapper.firstMember(), betweenWrapper.argName(), field.fieldType(), ctx);
 
-        boolean orEqualsLeft = betweenWrapper.type() == MatchWrapperType.VALUE_GTE_AND_LT_MATCH
-                || betweenWrapper.type() == MatchWrapperType.VALUE_GTE_AND_LTE_MATCH;
-        boolean orEqualsRight = betweenWrapper.type() == MatchWrapperType.VALUE_GT_AND_LTE_MATCH
-                || betweenWrapper.type() == MatchWrapperType.VALUE_GTE_AND_LTE_MATCH;
-
-        boolean shouldAlignDateFlag = !SolrConversionDirective.DISABLE_DATE_TIME_ALIGNMENT.check(ctx.getGlobalFlags())
-                && SolrFormatUtils.shouldAlignDate(mappingConfig.typeOf(betweenWrapper.argName()), field.fieldType());
+        if (field.fieldType() instanceof DictionaryEncodedSolrType dictType) {
+            boolean orEqualsLeft = isLowerBoundIncluded(betweenWrapper);
+            boolean orEqualsRight = isUpperBoundIncluded(betweenWrapper);
+            List<Long> codes = dictType.getDictionary()
+                    .findCodes(value -> isInRange(value, betweenWrapper.lowerBound(), orEqualsLeft, betweenWrapper.upperBound(), orEqualsRight));
+            return createDictionaryCodeFilterNode(betweenWrapper.argName(), field, dictType, codes);
+        }
 
-        StringBuilder sb = new StringBuilder();
-        sb.append(field.fieldName());
-        sb.append(COLON);
+        return createFilterNode(createBetweenRange(betweenWrapper, field), field, SolrConditionType.CMP_RANGE);
 
-        if (shouldAlignDateFlag) {
+    }
 
-            String refDayBegin = orEqualsLeft ? betweenWrapper.lowerBound()
-                    : AdlDateUtils.computeDayAfter(ctx.getMappingConfig().typeOf(betweenWrapper.argName()).getFormatter().format(betweenWrapper.argName(),
-                            betweenWrapper.lowerBound(), MatchOperator.GREATER_THAN));
-
-            sb.append("[");
-            sb.append(field.fieldType().getFormatter().format(betweenWrapper.argName(), refDayBegin, MatchOperator.GREATER_THAN));
-            sb.append(" TO ");
-            if (orEqualsRight) {
-                String beginOfNextDay = AdlDateUtils.computeDayAfter(ctx.getMappingConfig().typeOf(betweenWrapper.argName()).getFormatter()
-                        .format(betweenWrapper.argName(), betweenWrapper.upperBound(), MatchOperator.LESS_THAN));
-                sb.append(field.fieldType().getFormatter().format(betweenWrapper.argName(), beginOfNextDay, MatchOperator.LESS_THAN));
-            }
-            else {
-                String beginOfDay = ctx.getMappingConfig().typeOf(betweenWrapper.argName()).getFormatter().format(betweenWrapper.argName(),
-                        betweenWrapper.upperBound(), MatchOperator.LESS_THAN);
-                sb.append(field.fieldType().getFormatter().format(betweenWrapper.argName(), beginOfDay, MatchOperator.LESS_THAN));
-            }
-            sb.append("}");
+    /**
+     * @param betweenWrapper
+     * @return true if the lower bound is included
+     */
+    private static boolean isLowerBoundIncluded(BetweenMatchWrapper betweenWrapper) {
+        return betweenWrapper.type() == MatchWrapperType.VALUE_GTE_AND_LT_MATCH || betweenWrapper.type() == MatchWrapperType.VALUE_GTE_AND_LTE_MATCH;
+    }
 
-        }
-        else {
-            sb.append(orEqualsLeft ? "[" : "{");
-            sb.append(field.fieldType().getFormatter().format(betweenWrapper.argName(), betweenWrapper.lowerBound(), MatchOperator.GREATER_THAN));
-            sb.append(" TO ");
-            sb.append(field.fieldType().getFormatter().format(betweenWrapper.argName(), betweenWrapper.upperBound(), MatchOperator.LESS_THAN));
-            sb.append(orEqualsRight ? "]" : "}");
-        }
+    /**
+     * @param betweenWrapper
+     * @return true if the upper bound is included
+     */
+    private static boolean isUpperBoundIncluded(BetweenMatchWrapper betweenWrapper) {
+        return betweenWrapper.type() == MatchWrapperType.VALUE_GT_AND_LTE_MATCH || betweenWrapper.type() == MatchWrapperType.VALUE_GTE_AND_LTE_MATCH;
+    }
 
-        return new SolrFilterQuery(sb.toString(), Arrays.asList(new SolrQueryField(betweenWrapper.nodeType(), field.fieldName())),
-                Collections.singletonList(SolrConditionType.CMP_RANGE));
+    /**
+     * Computes the range of a between-condition, dates will be aligned to full days if applicable
+     * 
+     * @param betweenWrapper
+     * @param field not dictionary-encoded
+     * @return range condition with formatted bounds
+     */
+    protected RangeCondition createBetweenRange(BetweenMatchWrapper betweenWrapper, DataField field) {
+        String argName = betweenWrapper.argName();
+        boolean orEqualsLeft = isLowerBoundIncluded(betweenWrapper);
+        boolean orEqualsRight = isUpperBoundIncluded(betweenWrapper);
+        ArgValueFormatter formatter = field.fieldType().getFormatter();
 
+        if (shouldAlignDate(argName, field)) {
+            String refDayBegin = orEqualsLeft ? betweenWrapper.lowerBound()
+                    : SolrDateUtils.computeDayAfter(formatArgDate(argName, betweenWrapper.lowerBound(), MatchOperator.GREATER_THAN));
+            String refDayEnd = orEqualsRight ? SolrDateUtils.computeDayAfter(formatArgDate(argName, betweenWrapper.upperBound(), MatchOperator.LESS_THAN))
+                    : formatArgDate(argName, betweenWrapper.upperBound(), MatchOperator.LESS_THAN);
+            return new RangeCondition(field.fieldName(), formatter.format(argName, refDayBegin, MatchOperator.GREATER_THAN), true,
+                    formatter.format(argName, refDayEnd, MatchOperator.LESS_THAN), false);
+        }
+        return new RangeCondition(field.fieldName(), formatter.format(argName, betweenWrapper.lowerBound(), MatchOperator.GREATER_THAN), orEqualsLeft,
+                formatter.format(argName, betweenWrapper.upperBound(), MatchOperator.LESS_THAN), orEqualsRight);
     }
 
     /**
      * Composes the filter query for direct value matches of the main field (fieldLeft)
+     * 
+     * @param expression
+     * @param fieldLeft
+     * @param orEquals if true the less-than/greater-than ranges will be adjusted to include the value itself
+     * @return filter query
+     * @deprecated the factory creates typed leaves, use (resp. override) {@link #createFieldValueConditionNode(MatchExpression, DataField, boolean)}
+     */
+    @Deprecated(since = "1.1.1")
+    protected SolrFilterQuery createFieldValueCondition(MatchExpression expression, DataField fieldLeft, boolean orEquals) {
+        return createFieldValueConditionNode(expression, fieldLeft, orEquals).filterQuery();
+    }
+
+    /**
+     * Composes the leaf for direct value matches of the main field (fieldLeft)
      * <p>
      * Special handling of dates and preparation of contains snippets happens here.
      * <p>
@@ -330,11 +488,10 @@ public class DefaultMatchFilterFactory implements MatchFilterFactory {
      * @param expression
      * @param fieldLeft
      * @param orEquals if true the less-than/greater-than ranges will be adjusted to include the value itself
-     * @return filter query
+     * @return leaf
      */
-    protected SolrFilterQuery createFieldValueCondition(MatchExpression expression, DataField fieldLeft, boolean orEquals) {
+    protected FilterNode createFieldValueConditionNode(MatchExpression expression, DataField fieldLeft, boolean orEquals) {
         AdlSolrType fieldType = fieldLeft.fieldType();
-        SolrMappingConfig mappingConfig = ctx.getMappingConfig();
         MatchOperator operator = expression.operator();
 
         if (expression.referencedArgName() != null) {
@@ -349,59 +506,176 @@ public class DefaultMatchFilterFactory implements MatchFilterFactory {
                     expression, fieldLeft, orEquals));
         }
 
-        String value = expression.operand() != null ? expression.operand().value() : null;
+        if (fieldType instanceof DictionaryEncodedSolrType dictType) {
+            return createDictionaryEncodedFieldValueConditionNode(expression, fieldLeft, dictType, orEquals);
+        }
 
-        StringBuilder sb = new StringBuilder();
-        sb.append(fieldLeft.fieldName());
-        sb.append(COLON);
+        String value = expression.operand() != null ? expression.operand().value() : null;
 
-        SolrConditionType conditionType = SolrConditionType.CMP_VALUE;
         String argNameLeft = expression.argName();
-        boolean shouldAlignDateFlag = !SolrConversionDirective.DISABLE_DATE_TIME_ALIGNMENT.check(ctx.getGlobalFlags())
-                && SolrFormatUtils.shouldAlignDate(mappingConfig.typeOf(argNameLeft), fieldType);
+        boolean shouldAlignDateFlag = shouldAlignDate(argNameLeft, fieldLeft);
 
         switch (operator) {
         case LESS_THAN:
-            if (shouldAlignDateFlag) {
-                appendDateAlignedLessThanValueCondition(sb, expression, fieldLeft, orEquals);
-            }
-            else {
-                appendStandardLessThanValueCondition(sb, expression, fieldLeft, orEquals);
-            }
-            conditionType = SolrConditionType.CMP_RANGE;
-            break;
+            RangeCondition lessThanRange = shouldAlignDateFlag ? createDateAlignedLessThanRange(expression, fieldLeft, orEquals)
+                    : createStandardLessThanRange(expression, fieldLeft, orEquals);
+            return createFilterNode(lessThanRange, fieldLeft, SolrConditionType.CMP_RANGE);
         case EQUALS:
             if (shouldAlignDateFlag) {
-                appendDateAlignedEqualsValueCondition(sb, expression, fieldLeft);
-                conditionType = SolrConditionType.CMP_RANGE;
+                return createFilterNode(createDateAlignedEqualsRange(expression, fieldLeft), fieldLeft, SolrConditionType.CMP_RANGE);
             }
-            else {
-                sb.append(fieldLeft.fieldType().getFormatter().format(argNameLeft, value, operator));
+            return createFilterNode(new TermCondition(fieldLeft.fieldName(), fieldType.getFormatter().format(argNameLeft, value, operator)), fieldLeft,
+                    SolrConditionType.CMP_VALUE);
+        case GREATER_THAN:
+            RangeCondition greaterThanRange = shouldAlignDateFlag ? createDateAlignedGreaterThanRange(expression, fieldLeft, orEquals)
+                    : createStandardGreaterThanRange(expression, fieldLeft, orEquals);
+            return createFilterNode(greaterThanRange, fieldLeft, SolrConditionType.CMP_RANGE);
+        case CONTAINS:
+            assertContainsSupported(expression, argNameLeft, fieldType, ctx);
+            if (!fieldType.getStorage().isIndexed()) {
+                warnFullScan(expression, fieldLeft, "CONTAINS on a field without index");
             }
+            String pattern = ASTERISK + fieldType.getFormatter().format(argNameLeft, value, operator) + ASTERISK;
+            return createFilterNode(new WildcardCondition(fieldLeft.fieldName(), pattern), fieldLeft, SolrConditionType.CMP_TXT_CONTAINS);
+        // $CASES-OMITTED$
+        default:
+            throw new IllegalArgumentException(String.format("Unexpected operator (implementation error), given: expression=%s, fieldLeft=%s, orEquals=%s",
+                    expression, fieldLeft, orEquals));
+        }
+    }
+
+    /**
+     * Composes the leaf for a direct value match against a field with a {@link DictionaryEncodedSolrType} by translating the value into codes.
+     * <p>
+     * Contains, less than and greater than will be translated into a dictionary scan based on the string values.
+     * 
+     * @param expression
+     * @param field
+     * @param dictType type of the field
+     * @param orEquals if true the less-than/greater-than ranges will be adjusted to include the value itself
+     * @return leaf
+     */
+    protected FilterNode createDictionaryEncodedFieldValueConditionNode(MatchExpression expression, DataField field, DictionaryEncodedSolrType dictType,
+            boolean orEquals) {
+        String argName = expression.argName();
+        String value = expression.operand().value();
+        ValueDictionary dictionary = dictType.getDictionary();
+
+        List<Long> codes = null;
+        switch (expression.operator()) {
+        case EQUALS:
+            Long code = dictionary.lookupCode(value);
+            codes = code == null ? Collections.emptyList() : Collections.singletonList(code);
+            break;
+        case LESS_THAN:
+            assertLessThanGreaterThanSupported(expression, argName, dictType, ctx);
+            codes = dictionary.findCodes(candidate -> isInRange(candidate, null, false, value, orEquals));
             break;
         case GREATER_THAN:
-            if (shouldAlignDateFlag) {
-                appendDateAlignedGreaterThanValueCondition(sb, expression, fieldLeft, orEquals);
-            }
-            else {
-                appendStandardGreaterThanValueCondition(sb, expression, fieldLeft, orEquals);
-            }
-            conditionType = SolrConditionType.CMP_RANGE;
+            assertLessThanGreaterThanSupported(expression, argName, dictType, ctx);
+            codes = dictionary.findCodes(candidate -> isInRange(candidate, value, orEquals, null, false));
             break;
         case CONTAINS:
-            assertContainsSupported(expression, argNameLeft, fieldType, ctx);
-            sb.append(ASTERISK);
-            sb.append(fieldLeft.fieldType().getFormatter().format(argNameLeft, value, operator));
-            sb.append(ASTERISK);
-            conditionType = SolrConditionType.CMP_TXT_CONTAINS;
+            assertContainsSupported(expression, argName, dictType, ctx);
+            codes = dictionary.findCodes(candidate -> candidate.contains(value));
             break;
         // $CASES-OMITTED$
         default:
-            throw new IllegalArgumentException(String.format("Unexpected operator (implementation error), given: expression=%s, fieldLeft=%s, orEquals=%s",
-                    expression, fieldLeft, orEquals));
+            throw new IllegalArgumentException(String.format("Unexpected operator (implementation error), given: expression=%s, field=%s, orEquals=%s",
+                    expression, field, orEquals));
         }
+        return createDictionaryCodeFilterNode(argName, field, dictType, codes);
+    }
 
-        return new SolrFilterQuery(sb.toString(), Arrays.asList(new SolrQueryField(fieldLeft.nodeType(), fieldLeft.fieldName())), Arrays.asList(conditionType));
+    /**
+     * @param value to be tested
+     * @param lowerBound null means unbounded
+     * @param lowerBoundIncluded
+     * @param upperBound null means unbounded
+     * @param upperBoundIncluded
+     * @return true if the value is within the given bounds (lexicographical order of the code points)
+     */
+    private static boolean isInRange(String value, String lowerBound, boolean lowerBoundIncluded, String upperBound, boolean upperBoundIncluded) {
+        if (lowerBound != null) {
+            int cmp = compareCodePoints(value, lowerBound);
+            if (cmp < 0 || (cmp == 0 && !lowerBoundIncluded)) {
+                return false;
+            }
+        }
+        if (upperBound != null) {
+            int cmp = compareCodePoints(value, upperBound);
+            if (cmp > 0 || (cmp == 0 && !upperBoundIncluded)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Compares two strings by their code points, which is the same as comparing the UTF-8 bytes.
+     * <p>
+     * In contrast, {@link String#compareTo(String)} compares UTF-16 chars, so supplementary characters (surrogate pairs) would be sorted before the upper part
+     * of the basic multilingual plane (e.g., <code>U+1F600 &lt; U+FF21</code>).
+     * 
+     * @param left
+     * @param right
+     * @return negative, zero or positive value like {@link String#compareTo(String)}
+     */
+    private static int compareCodePoints(String left, String right) {
+        int idx = 0;
+        while (idx < left.length() && idx < right.length()) {
+            int cpLeft = left.codePointAt(idx);
+            int cpRight = right.codePointAt(idx);
+            if (cpLeft != cpRight) {
+                return Integer.compare(cpLeft, cpRight);
+            }
+            idx = idx + Character.charCount(cpLeft);
+        }
+        return Integer.compare(left.length(), right.length());
+    }
+
+    /**
+     * Creates a leaf that matches any of the given codes of a field with a {@link DictionaryEncodedSolrType}.
+     * <p>
+     * Up to {@link #MAX_DICTIONARY_CODES_OR_LIST} codes will be expressed as an OR-list, longer lists use the terms query parser. An empty list (no matching
+     * value in the dictionary) leads to a condition that never matches.
+     * 
+     * @param argName
+     * @param field
+     * @param dictType type of the field
+     * @param codes list of codes
+     * @return leaf
+     */
+    protected FilterNode createDictionaryCodeFilterNode(String argName, DataField field, DictionaryEncodedSolrType dictType, List<Long> codes) {
+        FilterCondition condition = null;
+        if (codes.isEmpty()) {
+            // an empty range, there is no integer between 0 and 0 (exclusive)
+            condition = new RangeCondition(field.fieldName(), "0", false, "0", false);
+        }
+        else if (codes.size() == 1) {
+            condition = new TermCondition(field.fieldName(), dictType.formatCode(argName, codes.get(0)));
+        }
+        else if (codes.size() <= MAX_DICTIONARY_CODES_OR_LIST) {
+            condition = new TermListCondition(field.fieldName(), codes.stream().map(code -> dictType.formatCode(argName, code)).toList());
+        }
+        else {
+            condition = new TermsCondition(field.fieldName(), null, codes.stream().map(code -> dictType.formatCode(argName, code)).toList());
+        }
+        return createFilterNode(condition, field, SolrConditionType.CMP_VALUE);
+    }
+
+    /**
+     * Logs a warning that the given condition cannot take advantage of the inverted index and will be evaluated by checking all documents
+     * 
+     * @param expression
+     * @param field
+     * @param reason
+     */
+    protected void warnFullScan(SimpleExpression expression, DataField field, String reason) {
+        if (LOGGER.isWarnEnabled()) {
+            LOGGER.warn(String.format("Condition requires a full scan (%s), given: expression=%s, field=%s (%s: %s)", reason, expression, field.fieldName(),
+                    field.fieldType(), field.fieldType().getStorage()));
+        }
     }
 
     /**
@@ -411,19 +685,27 @@ public class DefaultMatchFilterFactory implements MatchFilterFactory {
      * @param expression
      * @param field
      * @param orEquals if true the less-than range will be adjusted to include the value itself
+     * @deprecated no longer called by the factory, override {@link #createStandardLessThanRange(MatchExpression, DataField, boolean)} instead
      */
+    @Deprecated(since = "1.1.1")
     protected void appendStandardLessThanValueCondition(StringBuilder sb, MatchExpression expression, DataField field, boolean orEquals) {
+        createStandardLessThanRange(expression, field, orEquals).appendRangeTo(sb);
+    }
+
+    /**
+     * Uses the configured formatter to compute the <b>value range</b> from the given less than expression.
+     * 
+     * @param expression less than expression
+     * @param field
+     * @param orEquals if true the less-than range will be adjusted to include the value itself
+     * @return range condition with formatted bounds
+     */
+    protected RangeCondition createStandardLessThanRange(MatchExpression expression, DataField field, boolean orEquals) {
 
         assertLessThanGreaterThanSupported(expression, expression.argName(), field.fieldType(), ctx);
 
-        sb.append("[* TO ");
-        sb.append(field.fieldType().getFormatter().format(expression.argName(), expression.operand().value(), expression.operator()));
-        if (orEquals) {
-            sb.append("]");
-        }
-        else {
-            sb.append("}");
-        }
+        return new RangeCondition(field.fieldName(), null, true,
+                field.fieldType().getFormatter().format(expression.argName(), expression.operand().value(), expression.operator()), orEquals);
     }
 
     /**
@@ -433,20 +715,39 @@ public class DefaultMatchFilterFactory implements MatchFilterFactory {
      * @param expression
      * @param field
      * @param orEquals if true the greater-than range will be adjusted to include the value itself
+     * @deprecated no longer called by the factory, override {@link #createStandardGreaterThanRange(MatchExpression, DataField, boolean)} instead
      */
+    @Deprecated(since = "1.1.1")
     protected void appendStandardGreaterThanValueCondition(StringBuilder sb, MatchExpression expression, DataField field, boolean orEquals) {
+        createStandardGreaterThanRange(expression, field, orEquals).appendRangeTo(sb);
+    }
+
+    /**
+     * Uses the configured formatter to compute the <b>value range</b> from the given greater than expression.
+     * 
+     * @param expression greater than expression
+     * @param field
+     * @param orEquals if true the greater-than range will be adjusted to include the value itself
+     * @return range condition with formatted bounds
+     */
+    protected RangeCondition createStandardGreaterThanRange(MatchExpression expression, DataField field, boolean orEquals) {
 
         assertLessThanGreaterThanSupported(expression, expression.argName(), field.fieldType(), ctx);
 
-        if (orEquals) {
-            sb.append("[");
-        }
-        else {
-            sb.append("{");
-        }
-        sb.append(field.fieldType().getFormatter().format(expression.argName(), expression.operand().value(), expression.operator()));
-        sb.append(" TO *]");
+        return new RangeCondition(field.fieldName(),
+                field.fieldType().getFormatter().format(expression.argName(), expression.operand().value(), expression.operator()), orEquals, null, true);
+    }
 
+    /**
+     * Formats a date value with the formatter of the argument's type (usually <code>yyyy-MM-dd</code>) for further date alignment
+     * 
+     * @param argName
+     * @param value
+     * @param operator
+     * @return formatted date
+     */
+    protected String formatArgDate(String argName, String value, MatchOperator operator) {
+        return SolrDateUtils.formatArgDate(ctx.getMappingConfig().typeOf(argName).getFormatter(), argName, value, operator);
     }
 
     /**
@@ -456,23 +757,29 @@ public class DefaultMatchFilterFactory implements MatchFilterFactory {
      * @param expression
      * @param field
      * @param orEquals if true the less-than range will be adjusted to include the value itself
+     * @deprecated no longer called by the factory, override {@link #createDateAlignedLessThanRange(MatchExpression, DataField, boolean)} instead
      */
+    @Deprecated(since = "1.1.1")
     protected void appendDateAlignedLessThanValueCondition(StringBuilder sb, MatchExpression expression, DataField field, boolean orEquals) {
+        createDateAlignedLessThanRange(expression, field, orEquals).appendRangeTo(sb);
+    }
+
+    /**
+     * Computes a less-than range after adjusting the bounds to consider the begin of the day as upper limit
+     * 
+     * @param expression less than expression
+     * @param field
+     * @param orEquals if true the less-than range will be adjusted to include the value itself
+     * @return range condition with the begin of the (next) day as exclusive upper limit
+     */
+    protected RangeCondition createDateAlignedLessThanRange(MatchExpression expression, DataField field, boolean orEquals) {
 
         assertLessThanGreaterThanSupported(expression, expression.argName(), field.fieldType(), ctx);
 
-        sb.append("[* TO ");
-        if (orEquals) {
-            String beginOfNextDay = AdlDateUtils.computeDayAfter(ctx.getMappingConfig().typeOf(expression.argName()).getFormatter().format(expression.argName(),
-                    expression.operand().value(), expression.operator()));
-            sb.append(field.fieldType().getFormatter().format(expression.argName(), beginOfNextDay, expression.operator()));
-        }
-        else {
-            String beginOfDay = ctx.getMappingConfig().typeOf(expression.argName()).getFormatter().format(expression.argName(), expression.operand().value(),
-                    expression.operator());
-            sb.append(field.fieldType().getFormatter().format(expression.argName(), beginOfDay, expression.operator()));
-        }
-        sb.append("}");
+        String beginOfDay = formatArgDate(expression.argName(), expression.operand().value(), expression.operator());
+        String upperBound = orEquals ? SolrDateUtils.computeDayAfter(beginOfDay) : beginOfDay;
+        return new RangeCondition(field.fieldName(), null, true,
+                field.fieldType().getFormatter().format(expression.argName(), upperBound, expression.operator()), false);
     }
 
     /**
@@ -481,22 +788,29 @@ public class DefaultMatchFilterFactory implements MatchFilterFactory {
      * @param sb
      * @param expression
      * @param field
+     * @deprecated no longer called by the factory, override {@link #createDateAlignedEqualsRange(MatchExpression, DataField)} instead
      */
+    @Deprecated(since = "1.1.1")
     protected void appendDateAlignedEqualsValueCondition(StringBuilder sb, MatchExpression expression, DataField field) {
+        createDateAlignedEqualsRange(expression, field).appendRangeTo(sb);
+    }
 
-        assertLessThanGreaterThanSupported(expression, expression.argName(), field.fieldType(), ctx);
-
-        String beginOfDay = ctx.getMappingConfig().typeOf(expression.argName()).getFormatter().format(expression.argName(), expression.operand().value(),
-                expression.operator());
+    /**
+     * Computes the range of an equals-condition after adjusting the bounds to consider the full day
+     * 
+     * @param expression equals expression
+     * @param field
+     * @return range condition covering the full day
+     */
+    protected RangeCondition createDateAlignedEqualsRange(MatchExpression expression, DataField field) {
 
-        String beginOfNextDay = AdlDateUtils.computeDayAfter(ctx.getMappingConfig().typeOf(expression.argName()).getFormatter().format(expression.argName(),
-                expression.operand().value(), expression.operator()));
+        assertLessThanGreaterThanSupported(expression, expression.argName(), field.fieldType(), ctx);
 
-        sb.append("[");
-        sb.append(field.fieldType().getFormatter().format(expression.argName(), beginOfDay, expression.operator()));
-        sb.append(" TO ");
-        sb.append(field.fieldType().getFormatter().format(expression.argName(), beginOfNextDay, expression.operator()));
-        sb.append("}");
+        String beginOfDay = formatArgDate(expression.argName(), expression.operand().value(), expression.operator());
+        String beginOfNextDay = SolrDateUtils.computeDayAfter(beginOfDay);
+        ArgValueFormatter formatter = field.fieldType().getFormatter();
+        return new RangeCondition(field.fieldName(), formatter.format(expression.argName(), beginOfDay, expression.operator()), true,
+                formatter.format(expression.argName(), beginOfNextDay, expression.operator()), false);
     }
 
     /**
@@ -506,18 +820,29 @@ public class DefaultMatchFilterFactory implements MatchFilterFactory {
      * @param expression
      * @param field
      * @param orEquals if true the greater-than range will be adjusted to include the value itself
+     * @deprecated no longer called by the factory, override {@link #createDateAlignedGreaterThanRange(MatchExpression, DataField, boolean)} instead
      */
+    @Deprecated(since = "1.1.1")
     protected void appendDateAlignedGreaterThanValueCondition(StringBuilder sb, MatchExpression expression, DataField field, boolean orEquals) {
+        createDateAlignedGreaterThanRange(expression, field, orEquals).appendRangeTo(sb);
+    }
+
+    /**
+     * Computes a greater-than range after adjusting the bounds to consider the begin of the day as lower limit
+     * 
+     * @param expression greater than expression
+     * @param field
+     * @param orEquals if true the greater-than range will be adjusted to include the value itself
+     * @return range condition with the begin of the day (or the next day) as inclusive lower limit
+     */
+    protected RangeCondition createDateAlignedGreaterThanRange(MatchExpression expression, DataField field, boolean orEquals) {
 
         assertLessThanGreaterThanSupported(expression, expression.argName(), field.fieldType(), ctx);
 
         String refDayBegin = orEquals ? expression.operand().value()
-                : AdlDateUtils.computeDayAfter(ctx.getMappingConfig().typeOf(expression.argName()).getFormatter().format(expression.argName(),
-                        expression.operand().value(), expression.operator()));
-
-        sb.append("[");
-        sb.append(field.fieldType().getFormatter().format(expression.argName(), refDayBegin, expression.operator()));
-        sb.append(" TO *]");
+                : SolrDateUtils.computeDayAfter(formatArgDate(expression.argName(), expression.operand().value(), expression.operator()));
+        return new RangeCondition(field.fieldName(), field.fieldType().getFormatter().format(expression.argName(), refDayBegin, expression.operator()), true,
+                null, true);
     }
 
     /**
@@ -530,10 +855,28 @@ public class DefaultMatchFilterFactory implements MatchFilterFactory {
      * @param fieldRight
      * @param orEquals if true any greater/less-than range will be adjusted to include the value itself
      * @return expression
+     * @deprecated the factory creates typed leaves, use (resp. override)
+     *             {@link #createFieldFieldConditionNode(SimpleExpression, String, DataField, String, DataField, boolean)}
      */
+    @Deprecated(since = "1.1.1")
     protected SolrFilterQuery createFieldFieldCondition(SimpleExpression expression, String argNameLeft, DataField fieldLeft, String argNameRight,
             DataField fieldRight, boolean orEquals) {
+        return createFieldFieldConditionNode(expression, argNameLeft, fieldLeft, argNameRight, fieldRight, orEquals).filterQuery();
+    }
 
+    /**
+     * Composes the leaf for a match of two fields (reference match), a function range query
+     * 
+     * @param expression
+     * @param argNameLeft
+     * @param fieldLeft
+     * @param argNameRight
+     * @param fieldRight
+     * @param orEquals if true any greater/less-than range will be adjusted to include the value itself
+     * @return leaf with a frange condition
+     */
+    protected FilterNode createFieldFieldConditionNode(SimpleExpression expression, String argNameLeft, DataField fieldLeft, String argNameRight,
+            DataField fieldRight, boolean orEquals) {
         if (expression.referencedArgName() == null) {
             throw new IllegalArgumentException(String.format(
                     "Reference match expected (implementation error), given: expression=%s, argNameLeft=%s, fieldLeft=%s, argNameRight=%s, fieldRight=%s, orEquals=%s",
@@ -550,7 +893,7 @@ public class DefaultMatchFilterFactory implements MatchFilterFactory {
         }
 
         StringBuilder sb = new StringBuilder();
-        appendFrangeHeader(sb, 1, 1).append(FUNC_IF).append(OPEN_BRACE);
+        sb.append(FUNC_IF).append(OPEN_BRACE);
         appendFrangeStartWithExistenceChecks(sb, fieldLeft.fieldName(), fieldRight.fieldName());
 
         switch (operator) {
@@ -585,20 +928,8 @@ public class DefaultMatchFilterFactory implements MatchFilterFactory {
 
         sb.append(IF_VALUES_0_1).append(CLOSE_BRACE);
 
-        // Why can't we return the frange as is?
-        // In Solr frange-queries cannot have "neighbors" (even enclosing them in braces leads to parser errors).
-        // The only way to let them play well with other conditions is inlining them using the _query_ syntax.
-
-        String frange = sb.toString();
-
-        sb.setLength(0);
-        sb.append(INLINE_QUERY);
-        sb.append(COLON);
-        sb.append(DOUBLE_QUOTES);
-        sb.append(escape(frange));
-        sb.append(DOUBLE_QUOTES);
-
-        return new SolrFilterQuery(sb.toString(), Arrays.asList(new SolrQueryField(fieldLeft.nodeType(), fieldLeft.fieldName()),
+        // In Solr frange-queries cannot have "neighbors", the condition renders itself inlined using the _query_ syntax, see FrangeCondition
+        return new FilterNode(new FrangeCondition(1, 1, sb.toString()), Arrays.asList(new SolrQueryField(fieldLeft.nodeType(), fieldLeft.fieldName()),
                 new SolrQueryField(fieldRight.nodeType(), fieldRight.fieldName())), Arrays.asList(SolrConditionType.FRANGE));
     }
 
@@ -700,6 +1031,17 @@ public class DefaultMatchFilterFactory implements MatchFilterFactory {
                     userMessage);
         }
 
+        if ((fieldLeft.fieldType() instanceof DictionaryEncodedSolrType || fieldRight.fieldType() instanceof DictionaryEncodedSolrType)
+                && !(expression.operator() == MatchOperator.EQUALS && fieldLeft.fieldType() instanceof DictionaryEncodedSolrType dictTypeLeft
+                        && fieldRight.fieldType() instanceof DictionaryEncodedSolrType dictTypeRight
+                        && dictTypeLeft.getDictionary().equals(dictTypeRight.getDictionary()))) {
+            AudlangMessage userMessage = AudlangMessage.argRefMsg(CommonErrors.ERR_2101_REFERENCE_MATCH_NOT_SUPPORTED, argNameLeft, argNameRight);
+            throw new ConversionException(String.format(
+                    "Reference matching involving dictionary-encoded Solr-fields is only supported for equality and the same dictionary, given: expression=%s, argNameLeft=%s (%s: %s), argNameRight=%s (%s: %s)",
+                    expression, argNameLeft, fieldLeft.fieldName(), fieldLeft.fieldType(), argNameRight, fieldRight.fieldName(), fieldRight.fieldType()),
+                    userMessage);
+        }
+
         if (LOGGER.isWarnEnabled() && !fieldLeft.fieldType().getBaseType().equals(fieldRight.fieldType().getBaseType())) {
             LOGGER.warn(String.format(
                     "Reference matching of different Solr-types may be unreliable, given: expression=%s, argNameLeft=%s (%s: %s), argNameRight=%s (%s: %s)",
@@ -19,22 +19,37 @@
 
 package de.calamanari.adl.solr.cnv;
 
+import java.math.BigDecimal;
+import java.time.DateTimeException;
+import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import de.calamanari.adl.AudlangMessage;
 import de.calamanari.adl.CombinedExpressionType;
+import de.calamanari.adl.CommonErrors;
+import de.calamanari.adl.ConversionException;
+import de.calamanari.adl.cnv.tps.AdlType;
+import de.calamanari.adl.cnv.tps.DefaultAdlType;
 import de.calamanari.adl.irl.MatchExpression;
 import de.calamanari.adl.irl.MatchOperator;
+import de.calamanari.adl.irl.Operand;
+import de.calamanari.adl.solr.AdlSolrType;
+import de.calamanari.adl.solr.DefaultAdlSolrType;
 import de.calamanari.adl.solr.SolrFormatUtils;
+import de.calamanari.adl.solr.cnv.ValueIntervalSet.ValueInterval;
 import de.calamanari.adl.solr.config.ArgFieldAssignment;
 
 import static de.calamanari.adl.solr.cnv.MatchWrapperType.VALUE_MATCH;
@@ -99,6 +114,11 @@ import static de.calamanari.adl.solr.cnv.MatchWrapperType.VALUE_OR_EQ_MATCH;
  * 50.0"</i>.
  * <p>
  * The problem originates from the interference of the boolean logic with the mapping, and I believe this is the best way to tackle it.</li>
+ * <li><b>Interval algebra:</b> Positive range conditions (<i>less than, greater than, equals, any of, between</i>) on the same single-value field get
+ * represented as a {@link ValueIntervalSet}. Inside an AND we compute the intersection, inside an OR the union. This way we remove redundant bounds (e.g.,
+ * <code>age &gt; 20 AND age &gt; 30</code>), merge overlapping ranges and detect conditions that cannot be fulfilled at all. If the whole expression turns
+ * out to be always false, {@link #consolidateMatchTree(MatchTreeElement)} throws a {@link ConversionException} like it happens for <code>&lt;NONE&gt;</code>,
+ * so there is no need to send any query to Solr.</li>
  * </ul>
  * 
  * @author <a href="mailto:Karl.Eilebrecht(a/t)calamanari.de">Karl Eilebrecht</a>
@@ -189,6 +209,16 @@ public class DefaultMatchTreeHelper implements MatchTreeHelper {
                             .thenComparing(SingleMatchWrapper::matchExpression);
     // @formatter:on
 
+    /**
+     * Orders numeric values (integer or decimal) of range conditions by their numeric value
+     */
+    protected static final Comparator<String> NUMERIC_RANGE_VALUE_COMPARATOR = Comparator.comparing(BigDecimal::new);
+
+    /**
+     * Orders date values (Audlang format <code>yyyy-MM-dd</code>) of range conditions
+     */
+    protected static final Comparator<String> DATE_RANGE_VALUE_COMPARATOR = Comparator.comparing(LocalDate::parse);
+
     /**
      * Orders by node type, moving the node type of the <b>main document to the begin</b>
      */
@@ -395,6 +425,11 @@ public class DefaultMatchTreeHelper implements MatchTreeHelper {
 
         MatchTreeElement res = consolidateMatchTreeElementsRecursively(root, CombinedExpressionType.AND, Collections.emptyList());
 
+        if (res == null) {
+            throw new ConversionException(String.format("Unable to convert the given expression because it implies <NONE>, given: %s", root),
+                    AudlangMessage.msg(CommonErrors.ERR_1002_ALWAYS_FALSE));
+        }
+
         if (LOGGER.isDebugEnabled()) {
             LOGGER.debug("\n\nAFTER consolidateMatchTree: {}", res.toDebugString());
         }
@@ -627,7 +662,7 @@ public class DefaultMatchTreeHelper implements MatchTreeHelper {
      * @param matchTreeElement
      * @param parentCombiType element is located inside an AND vs. OR
      * @param pinnedSubDocuments nested or dependent documents "pinned" in the current branch
-     * @return consolidated element
+     * @return consolidated element or null if the element can never be fulfilled (always false)
      */
     private MatchTreeElement consolidateMatchTreeElementsRecursively(MatchTreeElement matchTreeElement, CombinedExpressionType parentCombiType,
             List<String> pinnedSubDocuments) {
@@ -650,6 +685,22 @@ public class DefaultMatchTreeHelper implements MatchTreeHelper {
         otherElements = otherElements.stream().map(e -> this.consolidateMatchTreeElementsRecursively(e, cmte.combiType(), currentPinnedSubDocuments))
                 .collect(Collectors.toCollection(ArrayList::new));
 
+        if (otherElements.contains(null)) {
+            if (cmte.combiType() == CombinedExpressionType.AND) {
+                return null;
+            }
+            otherElements.removeIf(Objects::isNull);
+        }
+
+        if (!tryMergeRangeConditions(cmte.combiType(), singleMatchWrappers, otherElements)) {
+            return null;
+        }
+
+        if (singleMatchWrappers.isEmpty() && otherElements.isEmpty()) {
+            // all members of an OR turned out to be always false
+            return null;
+        }
+
         List<List<SingleMatchWrapper>> smwByNodeType = groupByNodeType(singleMatchWrappers);
 
         List<MatchWrapper> combinedMatchWrappers = new ArrayList<>();
@@ -774,6 +825,341 @@ public class DefaultMatchTreeHelper implements MatchTreeHelper {
         }
     }
 
+    /**
+     * This step applies interval algebra to the positive range conditions related to the same argument (single-value field) on the current level.
+     * <p>
+     * Inside an AND we compute the intersection of the conditions per argument. If the intersection is empty, the whole AND is <i>always false</i>, otherwise
+     * we only keep the tightest lower and upper bound (they may later become a {@link BetweenMatchWrapper}).<br>
+     * Inside an OR we compute the union, merge overlapping or touching ranges and replace a union covering all values with
+     * <code>arg IS NOT UNKNOWN</code>.
+     * <p>
+     * Negations are not subject to this optimization because their result additionally depends on the IS UNKNOWN semantics (see {@link MatchInstruction}).
+     * 
+     * @param combiType AND (intersection) or OR (union)
+     * @param singleMatchWrappers mutable list of single match wrappers on the current level
+     * @param otherElements mutable list of the remaining elements on the current level
+     * @return false if the current AND can never be fulfilled (always false), otherwise true
+     */
+    protected boolean tryMergeRangeConditions(CombinedExpressionType combiType, List<SingleMatchWrapper> singleMatchWrappers,
+            List<MatchTreeElement> otherElements) {
+
+        Map<String, List<MatchWrapper>> candidatesByArgName = new LinkedHashMap<>();
+        collectRangeCandidates(singleMatchWrappers, candidatesByArgName);
+        collectRangeCandidates(otherElements, candidatesByArgName);
+
+        boolean modified = false;
+        for (Map.Entry<String, List<MatchWrapper>> entry : candidatesByArgName.entrySet()) {
+            List<MatchWrapper> candidates = entry.getValue();
+            Comparator<String> valueComparator = getRangeValueComparator(entry.getKey());
+            if (candidates.size() < 2 || valueComparator == null || !candidates.stream().flatMap(mw -> mw.members().stream())
+                    .allMatch(member -> isValidRangeValue(valueComparator, member.operand().value()))) {
+                continue;
+            }
+            ValueIntervalSet intervalSet = createValueIntervalSet(combiType, candidates, valueComparator);
+            if (intervalSet.isEmpty()) {
+                LOGGER.debug("Range conditions {} combined with {} can never be fulfilled.", candidates, combiType);
+                return false;
+            }
+            List<MatchWrapper> replacements = createRangeReplacements(combiType, candidates, intervalSet);
+            if (replacements != null) {
+                replaceMatchWrappers(candidates, replacements, singleMatchWrappers, otherElements);
+                modified = true;
+            }
+        }
+        if (modified) {
+            Collections.sort(singleMatchWrappers, SMW_PREPARATION_ORDER_COMPARATOR);
+        }
+        return true;
+    }
+
+    /**
+     * Collects the positive range conditions from the given list grouped by argName
+     * 
+     * @param matchTreeElements input
+     * @param candidatesByArgName output
+     */
+    private void collectRangeCandidates(List<? extends MatchTreeElement> matchTreeElements, Map<String, List<MatchWrapper>> candidatesByArgName) {
+        for (MatchTreeElement mte : matchTreeElements) {
+            if (mte instanceof MatchWrapper matchWrapper && isRangeCandidate(matchWrapper)) {
+                candidatesByArgName.computeIfAbsent(matchWrapper.argName(), _ -> new ArrayList<>()).add(matchWrapper);
+            }
+        }
+    }
+
+    /**
+     * @param matchWrapper
+     * @return true if the given wrapper is a positive value match that can be expressed as a {@link ValueIntervalSet}
+     */
+    private boolean isRangeCandidate(MatchWrapper matchWrapper) {
+        if (matchWrapper.matchInstruction() != MatchInstruction.DEFAULT || matchWrapper.isReferenceMatch()) {
+            return false;
+        }
+        return switch (matchWrapper.type()) {
+        case VALUE_MATCH -> matchWrapper.operator() != MatchOperator.IS_UNKNOWN && matchWrapper.operator() != MatchOperator.CONTAINS;
+        case VALUE_OR_EQ_MATCH, MULTI_VALUE_MATCH, VALUE_GT_AND_LT_MATCH, VALUE_GTE_AND_LT_MATCH, VALUE_GT_AND_LTE_MATCH, VALUE_GTE_AND_LTE_MATCH -> true;
+        default -> false;
+        };
+    }
+
+    /**
+     * Determines how the values of the given argument must be ordered to perform interval algebra.
+     * <p>
+     * The result is null (no interval algebra) if the argument is mapped to a collection field or multi-doc, or if the order of the argument values may
+     * deviate from the order Solr applies to the field values.
+     * 
+     * @param argName
+     * @return comparator or null if the range conditions on the given argument cannot be combined
+     */
+    protected Comparator<String> getRangeValueComparator(String argName) {
+        ArgFieldAssignment assignment = ctx.getMappingConfig().lookupAssignment(argName, ctx);
+        if (assignment.isMultiDoc() || assignment.field().isCollection()) {
+            return null;
+        }
+        AdlType argType = assignment.arg().type().getBaseType();
+        AdlSolrType fieldType = assignment.field().fieldType().getBaseType();
+        boolean isNumericField = (fieldType == DefaultAdlSolrType.SOLR_INTEGER || fieldType == DefaultAdlSolrType.SOLR_LONG
+                || fieldType == DefaultAdlSolrType.SOLR_FLOAT || fieldType == DefaultAdlSolrType.SOLR_DOUBLE);
+        if ((argType == DefaultAdlType.INTEGER && isNumericField)
+                || (argType == DefaultAdlType.DECIMAL && (fieldType == DefaultAdlSolrType.SOLR_FLOAT || fieldType == DefaultAdlSolrType.SOLR_DOUBLE))) {
+            return NUMERIC_RANGE_VALUE_COMPARATOR;
+        }
+        else if (argType == DefaultAdlType.DATE && (fieldType == DefaultAdlSolrType.SOLR_DATE || fieldType == DefaultAdlSolrType.SOLR_INTEGER
+                || fieldType == DefaultAdlSolrType.SOLR_LONG)) {
+            // Date alignment (if enabled) treats each value as a full day, so the order of the days is the order of the aligned bounds
+            return DATE_RANGE_VALUE_COMPARATOR;
+        }
+        return null;
+    }
+
+    /**
+     * @param valueComparator
+     * @param value
+     * @return true if the given value can be ordered by the given comparator
+     */
+    private static boolean isValidRangeValue(Comparator<String> valueComparator, String value) {
+        try {
+            valueComparator.compare(value, value);
+            return true;
+        }
+        catch (NumberFormatException | DateTimeException _) {
+            // leave it to the match filter factory to report the problem
+            return false;
+        }
+    }
+
+    /**
+     * @param combiType AND (intersection) or OR (union)
+     * @param candidates range conditions related to the same argument
+     * @param valueComparator
+     * @return combined interval set
+     */
+    private static ValueIntervalSet createValueIntervalSet(CombinedExpressionType combiType, List<MatchWrapper> candidates,
+            Comparator<String> valueComparator) {
+        ValueIntervalSet res = null;
+        for (MatchWrapper candidate : candidates) {
+            ValueIntervalSet intervalSet = createValueIntervalSet(candidate, valueComparator);
+            if (res == null) {
+                res = intervalSet;
+            }
+            else {
+                res = (combiType == CombinedExpressionType.AND) ? res.intersect(intervalSet) : res.union(intervalSet);
+            }
+        }
+        return res;
+    }
+
+    /**
+     * @param matchWrapper range candidate
+     * @param valueComparator
+     * @return interval set covering the values matched by the given wrapper
+     */
+    private static ValueIntervalSet createValueIntervalSet(MatchWrapper matchWrapper, Comparator<String> valueComparator) {
+        if (matchWrapper instanceof BetweenMatchWrapper bmw) {
+            return ValueIntervalSet.of(valueComparator, bmw.lowerBound(), bmw.left().type() == VALUE_OR_EQ_MATCH, bmw.upperBound(),
+                    bmw.right().type() == VALUE_OR_EQ_MATCH);
+        }
+        String value = matchWrapper.firstMember().operand().value();
+        return switch (matchWrapper.type()) {
+        case MULTI_VALUE_MATCH -> matchWrapper.members().stream().map(member -> ValueIntervalSet.point(valueComparator, member.operand().value()))
+                .reduce(ValueIntervalSet.empty(valueComparator), ValueIntervalSet::union);
+        case VALUE_MATCH, VALUE_OR_EQ_MATCH -> switch (matchWrapper.operator()) {
+            case GREATER_THAN -> ValueIntervalSet.greaterThan(valueComparator, value, matchWrapper.type() == VALUE_OR_EQ_MATCH);
+            case LESS_THAN -> ValueIntervalSet.lessThan(valueComparator, value, matchWrapper.type() == VALUE_OR_EQ_MATCH);
+            default -> ValueIntervalSet.point(valueComparator, value);
+            };
+        default -> throw new IllegalStateException("Implementation error: unexpected range candidate, given: " + matchWrapper);
+        };
+    }
+
+    /**
+     * Creates the wrappers to replace the given candidates according to the computed interval set.
+     * 
+     * @param combiType AND (intersection) or OR (union)
+     * @param candidates original range conditions related to the same argument
+     * @param intervalSet computed non-empty result set
+     * @return replacement wrappers or null if there is no improvement
+     */
+    private List<MatchWrapper> createRangeReplacements(CombinedExpressionType combiType, List<MatchWrapper> candidates, ValueIntervalSet intervalSet) {
+
+        List<MatchWrapper> res = new ArrayList<>();
+        if (combiType == CombinedExpressionType.AND) {
+            if (intervalSet.size() > 1) {
+                // multiple values from an IN-clause remain, we cannot express this any simpler
+                return null;
+            }
+            ValueInterval interval = intervalSet.intervals().get(0);
+            if (interval.isPoint()) {
+                res.add(findOrCreatePointMatch(candidates, interval.lowerBound()));
+            }
+            else {
+                // we only keep the tightest bounds and let the subsequent step combine them into a BETWEEN
+                if (interval.lowerBound() != null) {
+                    res.add(findOrCreateBoundMatch(candidates, MatchOperator.GREATER_THAN, interval.lowerBound(), interval.isLowerBoundIncluded()));
+                }
+                if (interval.upperBound() != null) {
+                    res.add(findOrCreateBoundMatch(candidates, MatchOperator.LESS_THAN, interval.upperBound(), interval.isUpperBoundIncluded()));
+                }
+            }
+            if (res.size() == candidates.size() && candidates.containsAll(res)) {
+                return null;
+            }
+        }
+        else {
+            if (intervalSet.size() >= candidates.size() && !intervalSet.isFull()) {
+                return null;
+            }
+            for (ValueInterval interval : intervalSet.intervals()) {
+                res.add(createIntervalMatch(candidates, interval));
+            }
+        }
+        return res;
+    }
+
+    /**
+     * @param candidates original range conditions related to the same argument
+     * @param interval to be expressed
+     * @return wrapper matching the values of the given interval
+     */
+    private MatchWrapper createIntervalMatch(List<MatchWrapper> candidates, ValueInterval interval) {
+        MatchWrapper template = candidates.get(0);
+        if (interval.isUnbounded()) {
+            return new SingleMatchWrapper(template.nodeType(), (MatchExpression) MatchExpression.isUnknown(template.argName()),
+                    MatchInstruction.DEFAULT, isGroupingEligible(candidates));
+        }
+        else if (interval.isPoint()) {
+            return findOrCreatePointMatch(candidates, interval.lowerBound());
+        }
+        MatchWrapper lowerBound = null;
+        MatchWrapper upperBound = null;
+        if (interval.lowerBound() != null) {
+            lowerBound = findOrCreateBoundMatch(candidates, MatchOperator.GREATER_THAN, interval.lowerBound(), interval.isLowerBoundIncluded());
+        }
+        if (interval.upperBound() != null) {
+            upperBound = findOrCreateBoundMatch(candidates, MatchOperator.LESS_THAN, interval.upperBound(), interval.isUpperBoundIncluded());
+        }
+        if (lowerBound != null && upperBound != null) {
+            return new BetweenMatchWrapper(lowerBound, upperBound);
+        }
+        return lowerBound != null ? lowerBound : upperBound;
+    }
+
+    /**
+     * Returns an existing single match (equals) from the candidates (or their members) or creates a new one
+     * 
+     * @param candidates original range conditions related to the same argument
+     * @param value
+     * @return equals-match
+     */
+    private SingleMatchWrapper findOrCreatePointMatch(List<MatchWrapper> candidates, String value) {
+        for (MatchWrapper candidate : candidates) {
+            if (candidate instanceof SingleMatchWrapper smw && smw.operator() == MatchOperator.EQUALS && smw.firstMember().operand().value().equals(value)) {
+                return smw;
+            }
+        }
+        MatchWrapper template = candidates.get(0);
+        return new SingleMatchWrapper(template.nodeType(), createValueMatch(template.argName(), MatchOperator.EQUALS, value), MatchInstruction.DEFAULT,
+                isGroupingEligible(candidates));
+    }
+
+    /**
+     * Returns an existing bound (also from a member of a {@link BetweenMatchWrapper}) or creates a new one
+     * 
+     * @param candidates original range conditions related to the same argument
+     * @param operator {@link MatchOperator#GREATER_THAN} or {@link MatchOperator#LESS_THAN}
+     * @param value bound value
+     * @param inclusive true if the bound value belongs to the range
+     * @return single match wrapper (exclusive) or multi match wrapper (inclusive)
+     */
+    private MatchWrapper findOrCreateBoundMatch(List<MatchWrapper> candidates, MatchOperator operator, String value, boolean inclusive) {
+        MatchWrapperType expectedType = inclusive ? VALUE_OR_EQ_MATCH : VALUE_MATCH;
+        for (MatchWrapper candidate : candidates) {
+            List<MatchWrapper> bounds = (candidate instanceof BetweenMatchWrapper bmw) ? Arrays.asList(bmw.left(), bmw.right())
+                    : Collections.singletonList(candidate);
+            for (MatchWrapper bound : bounds) {
+                if (bound.type() == expectedType && bound.operator() == operator && bound.firstMember().operand().value().equals(value)) {
+                    return bound;
+                }
+            }
+        }
+        MatchWrapper template = candidates.get(0);
+        boolean isGroupingEligible = isGroupingEligible(candidates);
+        MatchExpression boundExpression = createValueMatch(template.argName(), operator, value);
+        if (inclusive) {
+            return new MultiMatchWrapper(template.nodeType(),
+                    Arrays.asList(boundExpression, createValueMatch(template.argName(), MatchOperator.EQUALS, value)), MatchInstruction.DEFAULT,
+                    isGroupingEligible);
+        }
+        else {
+            return new SingleMatchWrapper(template.nodeType(), boundExpression, MatchInstruction.DEFAULT, isGroupingEligible);
+        }
+    }
+
+    /**
+     * @param argName
+     * @param operator
+     * @param value
+     * @return new value match expression
+     */
+    private static MatchExpression createValueMatch(String argName, MatchOperator operator, String value) {
+        return (MatchExpression) MatchExpression.of(argName, operator, Operand.of(value, false));
+    }
+
+    /**
+     * @param candidates
+     * @return true if all the given candidates are eligible for grouping
+     */
+    private static boolean isGroupingEligible(List<MatchWrapper> candidates) {
+        return candidates.stream().allMatch(MatchWrapper::isGroupingEligible);
+    }
+
+    /**
+     * Removes the given candidates from the lists and adds the replacements
+     * 
+     * @param candidates to be removed
+     * @param replacements to be added
+     * @param singleMatchWrappers mutable list of single match wrappers
+     * @param otherElements mutable list of other elements
+     */
+    private static void replaceMatchWrappers(List<MatchWrapper> candidates, List<MatchWrapper> replacements, List<SingleMatchWrapper> singleMatchWrappers,
+            List<MatchTreeElement> otherElements) {
+        for (MatchWrapper candidate : candidates) {
+            if (candidate instanceof SingleMatchWrapper smw) {
+                singleMatchWrappers.remove(smw);
+            }
+            else {
+                otherElements.remove(candidate);
+            }
+        }
+        for (MatchWrapper replacement : replacements) {
+            if (replacement instanceof SingleMatchWrapper smw) {
+                singleMatchWrappers.add(smw);
+            }
+            else {
+                otherElements.add(replacement);
+            }
+        }
+    }
+
     /**
      * This step looks for a chance to combined gt/lt resp. gte/lte to a {@link BetweenMatchWrapper}
      * <p>
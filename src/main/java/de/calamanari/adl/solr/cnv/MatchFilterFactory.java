@@ -20,6 +20,7 @@
 package de.calamanari.adl.solr.cnv;
 
 import de.calamanari.adl.solr.SolrFilterQuery;
+import de.calamanari.adl.solr.cnv.ast.FilterNode;
 
 /**
  * A {@link MatchFilterFactory} abstracts the creation of a single Solr match condition (field against value, field against multiple values, field against
@@ -79,4 +80,17 @@ public interface MatchFilterFactory {
      */
     SolrFilterQuery createMatchFilter(MatchWrapper matchWrapper);
 
+    /**
+     * Creates the leaf of the query tree for the given {@link MatchWrapper}, see {@link #createMatchFilter(MatchWrapper)}
+     * <p>
+     * By default, the leaf wraps the created filter query (see {@link de.calamanari.adl.solr.cnv.ast.QueryStringCondition}) and is classified by its condition
+     * types. Implementations should return typed leaves.
+     * 
+     * @param matchWrapper
+     * @return leaf node with the condition
+     */
+    default FilterNode createMatchFilterNode(MatchWrapper matchWrapper) {
+        return new FilterNode(createMatchFilter(matchWrapper));
+    }
+
 }
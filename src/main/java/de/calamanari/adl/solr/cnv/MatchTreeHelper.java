@@ -45,6 +45,7 @@ public interface MatchTreeHelper {
      * 
      * @param root
      * @return consolidated root
+     * @throws de.calamanari.adl.ConversionException if the consolidation reveals that the tree can never be fulfilled (always false)
      */
     MatchTreeElement consolidateMatchTree(MatchTreeElement root);
 
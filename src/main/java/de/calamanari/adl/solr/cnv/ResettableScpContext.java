@@ -29,12 +29,16 @@ import de.calamanari.adl.Flag;
 import de.calamanari.adl.FormatStyle;
 import de.calamanari.adl.solr.config.MainDocumentConfig;
 import de.calamanari.adl.solr.config.SolrMappingConfig;
+import de.calamanari.adl.solr.config.SolrMappingConfigHolder;
 
 /**
  * Implementation of a resettable {@link SolrConversionProcessContext}.
  * <p>
  * This class covers the state of an {@link SolrExpressionConverter} instance throughout its lifetime. <br>
  * It allows to reset this state to an initial configuration before each conversion run, so multiple runs won't interfere.
+ * <p>
+ * If the context was created with a {@link SolrMappingConfigHolder}, the mapping config of the current version gets pinned on first access during a run
+ * and stays the same until {@link #releaseMappingConfig()} or {@link #reset()}. This way a hot-reload never affects a conversion in progress.
  * 
  * @author <a href="mailto:Karl.Eilebrecht(a/t)calamanari.de">Karl Eilebrecht</a>
  */
@@ -61,9 +65,19 @@ public class ResettableScpContext implements SolrConversionProcessContext {
     private final Set<Flag> globalFlags = new HashSet<>();
 
     /**
-     * Solr-mapping information
+     * Solr-mapping information, either fixed or pinned from the {@link #mappingConfigHolder} for the current run
+     */
+    private SolrMappingConfig mappingConfig;
+
+    /**
+     * Optional holder to obtain the current mapping config version from (hot-reload), null if the mapping config is fixed
+     */
+    private final SolrMappingConfigHolder mappingConfigHolder;
+
+    /**
+     * Lease on the version used by the current run (only with {@link #mappingConfigHolder})
      */
-    private final SolrMappingConfig mappingConfig;
+    private SolrMappingConfigHolder.Lease mappingConfigLease = null;
 
     /**
      * Match tree helper, set by the converter during preparation
@@ -99,9 +113,40 @@ public class ResettableScpContext implements SolrConversionProcessContext {
         this.globalVariablesTemplate = globalVariablesTemplate == null ? new HashMap<>() : globalVariablesTemplate;
         this.globalFlagsTemplate = flagsTemplate = flagsTemplate == null ? new HashSet<>() : flagsTemplate;
         this.mappingConfig = mappingConfig;
+        this.mappingConfigHolder = null;
+        this.reset();
+    }
+
+    /**
+     * @param mappingConfigHolder provides the mapping config version to be pinned for each conversion run
+     * @param globalVariablesTemplate initially for each conversion run
+     * @param flagsTemplate to be set initially for each conversion run
+     */
+    private ResettableScpContext(Map<String, Serializable> globalVariablesTemplate, Set<Flag> flagsTemplate, SolrMappingConfigHolder mappingConfigHolder) {
+        this.globalVariablesTemplate = globalVariablesTemplate == null ? new HashMap<>() : globalVariablesTemplate;
+        this.globalFlagsTemplate = flagsTemplate == null ? new HashSet<>() : flagsTemplate;
+        this.mappingConfigHolder = mappingConfigHolder;
         this.reset();
     }
 
+    /**
+     * Creates a context that obtains the mapping config from the given holder, see {@link #getMappingConfig()}
+     * 
+     * @param mappingConfigHolder provides the mapping config version to be pinned for each conversion run
+     * @param globalVariablesTemplate initially for each conversion run
+     * @param flagsTemplate to be set initially for each conversion run
+     * @return new context
+     */
+    public static ResettableScpContext forMappingConfigHolder(SolrMappingConfigHolder mappingConfigHolder, Map<String, Serializable> globalVariablesTemplate,
+            Set<Flag> flagsTemplate) {
+        if (mappingConfigHolder == null) {
+            throw new IllegalArgumentException(String.format(
+                    "The argument mappingConfigHolder must not be null, given: mappingConfigHolder=%s, globalVariablesTemplate=%s, flagsTemplate=%s",
+                    mappingConfigHolder, globalVariablesTemplate, flagsTemplate));
+        }
+        return new ResettableScpContext(globalVariablesTemplate, flagsTemplate, mappingConfigHolder);
+    }
+
     /**
      * Initializes this context, so its state has the initially configured flags and variables again
      * <p>
@@ -109,15 +154,18 @@ public class ResettableScpContext implements SolrConversionProcessContext {
      * <ul>
      * <li>{@link #setStyle(FormatStyle)}</li>
      * </ul>
+     * A mapping config pinned from a {@link SolrMappingConfigHolder} will be released.
      */
     public void reset() {
+        this.releaseMappingConfig();
         this.globalVariables.clear();
         this.globalVariables.putAll(globalVariablesTemplate);
         this.globalFlags.clear();
         this.globalFlags.addAll(globalFlagsTemplate);
         this.matchTreeHelper = null;
         this.matchFilterFactory = null;
-        this.filterQueryBuilder = new SolrFilterQueryBuilder(this);
+        // with a config holder the builder depends on the version pinned later, see getFilterQueryBuilder()
+        this.filterQueryBuilder = mappingConfigHolder == null ? new SolrFilterQueryBuilder(this) : null;
     }
 
     @Override
@@ -144,11 +192,49 @@ public class ResettableScpContext implements SolrConversionProcessContext {
         return globalFlagsTemplate;
     }
 
+    /**
+     * If this context was created with a {@link SolrMappingConfigHolder}, the first call after {@link #reset()} or {@link #releaseMappingConfig()} pins the
+     * holder's current version until the next {@link #reset()} or {@link #releaseMappingConfig()}.
+     */
     @Override
     public SolrMappingConfig getMappingConfig() {
+        if (this.mappingConfig == null) {
+            this.mappingConfigLease = mappingConfigHolder.acquire();
+            this.mappingConfig = mappingConfigLease.config();
+        }
         return this.mappingConfig;
     }
 
+    /**
+     * @return the holder this context obtains the mapping config from or null if the mapping config is fixed
+     */
+    public SolrMappingConfigHolder getMappingConfigHolder() {
+        return mappingConfigHolder;
+    }
+
+    /**
+     * @return number of the version pinned for the current run or -1 if there is none (fixed mapping config or not yet pinned)
+     */
+    public long getMappingConfigVersion() {
+        return mappingConfigLease == null ? -1 : mappingConfigLease.version().number();
+    }
+
+    /**
+     * Ends the current run's usage of a mapping config pinned from a {@link SolrMappingConfigHolder}, so the version can be drained after a swap.
+     * <p>
+     * The next call to {@link #getMappingConfig()} will pin the then current version. This method has no effect if the mapping config is fixed.
+     */
+    public void releaseMappingConfig() {
+        if (mappingConfigHolder != null) {
+            if (mappingConfigLease != null) {
+                mappingConfigLease.close();
+                mappingConfigLease = null;
+            }
+            mappingConfig = null;
+            filterQueryBuilder = null;
+        }
+    }
+
     /**
      * @return the converter's match tree helper
      */
@@ -193,6 +279,9 @@ public class ResettableScpContext implements SolrConversionProcessContext {
 
     @Override
     public SolrFilterQueryBuilder getFilterQueryBuilder() {
+        if (this.filterQueryBuilder == null) {
+            this.filterQueryBuilder = new SolrFilterQueryBuilder(this);
+        }
         return this.filterQueryBuilder;
     }
 
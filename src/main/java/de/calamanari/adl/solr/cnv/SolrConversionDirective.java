@@ -53,5 +53,40 @@ public enum SolrConversionDirective implements Flag {
     /**
      * This disallows any reference matching, no matter how the mapping is configured.
      */
-    DISABLE_REFERENCE_MATCHING;
+    DISABLE_REFERENCE_MATCHING,
+
+    /**
+     * By default the converter combines sibling negations into a single negation (De Morgan) to reduce the number of sets Solr must subtract from
+     * <i>all</i>: <code>NOT a AND NOT b</code> becomes <code>NOT (a OR b)</code>, and non-strict <code>NOT a OR NOT b</code> becomes
+     * <code>NOT (a AND b)</code>.
+     * <p>
+     * This directive turns off this feature, so every negation will be subtracted separately.
+     */
+    DISABLE_NEGATION_COMBINING,
+
+    /**
+     * By default every main filter query starts with the main document's node type filter (including any configured document filters, e.g., a tenant).
+     * <p>
+     * This directive moves this condition into a separate filter query that is identical for all expressions converted with the same configuration and
+     * global variables. Solr can answer this common base set from its filter cache, and the remaining filter queries only contain the audience-specific
+     * conditions.<br>
+     * The separate filter query carries the condition type {@link de.calamanari.adl.solr.SolrConditionType#ALL_DOCS}.
+     */
+    SEPARATE_MAIN_DOCUMENT_FILTER,
+
+    /**
+     * By default the {@link SolrFilterQueryBuilder} removes redundant clauses from the query tree before rendering the filter query (see
+     * {@link de.calamanari.adl.solr.cnv.ast.DefaultSolrQueryPass#defaultPasses()}).
+     * <p>
+     * This directive turns off any optimization, so the filter query reflects exactly the steps the converter performed.
+     */
+    DISABLE_QUERY_OPTIMIZATION,
+
+    /**
+     * This directive tells the {@link SolrFilterQueryBuilder} to apply all {@link de.calamanari.adl.solr.cnv.ast.DefaultSolrQueryPass}es, including the ones
+     * that restructure the query (removing superfluous braces, merging joins to the same document type combined with OR into a single join).
+     * <p>
+     * The result is equivalent but may look different from the default query. {@link #DISABLE_QUERY_OPTIMIZATION} takes precedence.
+     */
+    ENABLE_EXTENDED_QUERY_OPTIMIZATION;
 }
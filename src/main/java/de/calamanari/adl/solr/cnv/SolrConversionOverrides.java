@@ -20,11 +20,12 @@
 package de.calamanari.adl.solr.cnv;
 
 import de.calamanari.adl.solr.SolrFormatConstants;
+import de.calamanari.adl.solr.SolrQueryDefinition;
 import de.calamanari.adl.solr.config.SolrDocumentNature;
 
 /**
  * {@link SolrConversionOverrides} are names of global variables to override conventions in rare edge-cases (for example the name of the id-field in the
- * Solr-schema).
+ * Solr-schema) or to enable optional features (routing hints).
  * 
  * @author <a href="mailto:Karl.Eilebrecht(a/t)calamanari.de">Karl Eilebrecht</a>
  */
@@ -45,6 +46,19 @@ public enum SolrConversionOverrides {
      * Changes the name of the field in {@link SolrDocumentNature#DEPENDENT} Solr-documents which contains the node-type of a document,
      * <code><b>{@value SolrFormatConstants#DEFAULT_NODE_TYPE_FIELD_NAME}</b></code> by default.
      */
-    OVERRIDE_NODE_TYPE_FIELD_NAME;
+    OVERRIDE_NODE_TYPE_FIELD_NAME,
+
+    /**
+     * Names the global variable (e.g., <code>tenant</code>) whose value is the shard key of the documents with compositeId routing
+     * (<code>tenant!id</code>), not set by default.
+     * <p>
+     * If set, a query definition gets the route key <code>value!</code> (see {@link SolrQueryDefinition#routeKeys()}) if the main documents and all involved
+     * {@link SolrDocumentNature#DEPENDENT} documents are restricted to the variable's value by a document filter (nested documents always reside on the shard
+     * of their main document). Otherwise the query goes to all shards. A value that is not a valid shard key (containing a comma or <code>!</code>) disables
+     * the routing hint.
+     * <p>
+     * Only the {@link SolrQueryDefinition} is routed, the JSON and streaming representations don't carry any routing hints.
+     */
+    ROUTE_KEY_VARIABLE_NAME;
 
 }
@@ -70,6 +70,15 @@ public interface SolrConversionProcessContext extends ProcessContext {
                 SolrFormatConstants.DEFAULT_NODE_TYPE_FIELD_NAME);
     }
 
+    /**
+     * This method checks if {@link SolrConversionOverrides#ROUTE_KEY_VARIABLE_NAME} is present in the {@link #getGlobalVariables()}.
+     * 
+     * @return name of the global variable holding the shard key (compositeId routing) or null if routing hints are disabled (default)
+     */
+    default String getRouteKeyVariableName() {
+        return (String) this.getGlobalVariables().get(SolrConversionOverrides.ROUTE_KEY_VARIABLE_NAME.name());
+    }
+
     /**
      * @return Solr-mapping information (usually the {@link MainDocumentConfig})
      */
@@ -23,7 +23,9 @@ import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -32,6 +34,9 @@ import java.util.function.Supplier;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
 import de.calamanari.adl.AudlangMessage;
 import de.calamanari.adl.CombinedExpressionType;
 import de.calamanari.adl.CommonErrors;
@@ -40,6 +45,7 @@ import de.calamanari.adl.Flag;
 import de.calamanari.adl.FormatStyle;
 import de.calamanari.adl.SpecialSetType;
 import de.calamanari.adl.cnv.AbstractCoreExpressionConverter;
+import de.calamanari.adl.cnv.TemplateParameterUtils;
 import de.calamanari.adl.irl.CombinedExpression;
 import de.calamanari.adl.irl.CoreExpression;
 import de.calamanari.adl.irl.MatchExpression;
@@ -49,14 +55,25 @@ import de.calamanari.adl.irl.Operand;
 import de.calamanari.adl.irl.SimpleExpression;
 import de.calamanari.adl.irl.SpecialSetExpression;
 import de.calamanari.adl.solr.DefaultAdlSolrType;
+import de.calamanari.adl.solr.DictionaryEncodedSolrType;
+import de.calamanari.adl.solr.SolrFacetDefinition;
 import de.calamanari.adl.solr.SolrFilterQuery;
 import de.calamanari.adl.solr.SolrFormatConstants;
+import de.calamanari.adl.solr.SolrInsightQueryDefinition;
+import de.calamanari.adl.solr.SolrJsonQueryDefinition;
 import de.calamanari.adl.solr.SolrQueryDefinition;
+import de.calamanari.adl.solr.SolrStreamingQueryDefinition;
+import de.calamanari.adl.solr.ValueDictionary;
 import de.calamanari.adl.solr.config.ArgFieldAssignment;
 import de.calamanari.adl.solr.config.DataField;
 import de.calamanari.adl.solr.config.NodeTypeMetaInfo;
 import de.calamanari.adl.solr.config.SolrDocumentNature;
 import de.calamanari.adl.solr.config.SolrMappingConfig;
+import de.calamanari.adl.solr.config.SolrMappingConfigHolder;
+import de.calamanari.adl.solr.cnv.ast.FilterNode;
+import de.calamanari.adl.solr.cnv.ast.SolrJsonQuerySerializer;
+import de.calamanari.adl.solr.cnv.ast.SolrQueryNode;
+import de.calamanari.adl.solr.cnv.ast.SolrStreamingExpressionSerializer;
 
 /**
  * The {@link SolrExpressionConverter} translates {@link CoreExpression}s into {@link SolrQueryDefinition}s creating joins of documents where required.
@@ -66,6 +83,9 @@ import de.calamanari.adl.solr.config.SolrMappingConfig;
  * copies. Accordingly, any external modification to the given map and set <i>during</i> a conversion won't have any impact on that particular run but take
  * effect when the next conversion gets executed. In other words: each conversion will be initialized <i>at that time</i> with the variables and flags from the
  * specified global map and set to run on a copy afterwards.
+ * <p>
+ * A converter created with a {@link SolrMappingConfigHolder} picks up the holder's current mapping config at the beginning of each run and keeps it until the
+ * run ends, so the configuration can be hot-reloaded while conversions are in progress.
  * 
  * @author <a href="mailto:Karl.Eilebrecht(a/t)calamanari.de">Karl Eilebrecht</a>
  */
@@ -79,6 +99,23 @@ public class SolrExpressionConverter extends AbstractCoreExpressionConverter<Sol
      */
     private final ResettableScpContext processContext;
 
+    /**
+     * Query trees of the filter queries created during the current run, only collected on demand (see {@link #convertToJson(CoreExpression)} and
+     * {@link #convertToStreamingExpression(CoreExpression, String)})
+     */
+    private Map<SolrFilterQuery, SolrQueryNode> queryTreesOfRun = null;
+
+    /**
+     * Facets requested for the current run by argName (values filled at the end of the run), only collected on demand (see
+     * {@link #convertWithFacets(CoreExpression, List, int)})
+     */
+    private Map<String, SolrFacetDefinition> facetsOfRun = null;
+
+    /**
+     * Max number of buckets per facet of the current run
+     */
+    private int facetLimitOfRun = 0;
+
     /**
      * Ensure every newly supplied local level context shares the process context with the converter
      * 
@@ -106,8 +143,22 @@ public class SolrExpressionConverter extends AbstractCoreExpressionConverter<Sol
      */
     protected SolrExpressionConverter(Supplier<? extends SolrConversionContext> contextSupplier, SolrMappingConfig mappingConfig,
             Map<String, Serializable> globalVariables, Set<Flag> flags) {
+        this(contextSupplier, new ResettableScpContext(mappingConfig, globalVariables, flags));
+    }
+
+    /**
+     * Creates a new instance of the converter with the given process context, fully prepared to call {@link #convert(Object)}.
+     * 
+     * @see #getProcessContext()
+     * @param contextSupplier to create a context for each level of the expression we visit
+     * @param processContext initial state of each run, see {@link ResettableScpContext#forMappingConfigHolder(SolrMappingConfigHolder, Map, Set)}
+     */
+    protected SolrExpressionConverter(Supplier<? extends SolrConversionContext> contextSupplier, ResettableScpContext processContext) {
         super(contextSupplier);
-        this.processContext = new ResettableScpContext(mappingConfig, globalVariables, flags);
+        if (processContext == null) {
+            throw new IllegalArgumentException("The argument processContext must not be null.");
+        }
+        this.processContext = processContext;
         registerProcessContextProvider(this, processContext);
     }
 
@@ -128,6 +179,30 @@ public class SolrExpressionConverter extends AbstractCoreExpressionConverter<Sol
         this(SolrConversionContext::new, mappingConfig, null, flags != null ? new HashSet<>(Arrays.asList(flags)) : null);
     }
 
+    /**
+     * Creates a converter that obtains the mapping config from the given holder at the beginning of each conversion run (hot-reload)
+     * 
+     * @param mappingConfigHolder provides the current mapping config version
+     * @param globalVariables initial global variables
+     * @param flags initial flags
+     * @return new converter
+     */
+    public static SolrExpressionConverter forMappingConfigHolder(SolrMappingConfigHolder mappingConfigHolder, Map<String, Serializable> globalVariables,
+            Set<Flag> flags) {
+        return new SolrExpressionConverter(SolrConversionContext::new, ResettableScpContext.forMappingConfigHolder(mappingConfigHolder, globalVariables, flags));
+    }
+
+    /**
+     * Creates a converter that obtains the mapping config from the given holder at the beginning of each conversion run (hot-reload)
+     * 
+     * @param mappingConfigHolder provides the current mapping config version
+     * @param flags initial flags
+     * @return new converter
+     */
+    public static SolrExpressionConverter forMappingConfigHolder(SolrMappingConfigHolder mappingConfigHolder, Flag... flags) {
+        return forMappingConfigHolder(mappingConfigHolder, null, flags != null ? new HashSet<>(Arrays.asList(flags)) : null);
+    }
+
     /**
      * Returns the converter's <i>process context</i> across the levels of a conversion.
      * <p>
@@ -145,7 +220,7 @@ public class SolrExpressionConverter extends AbstractCoreExpressionConverter<Sol
     @Override
     public void init() {
         super.init();
-        ((ResettableScpContext) getProcessContext()).reset();
+        processContext.reset();
     }
 
     /**
@@ -159,7 +234,7 @@ public class SolrExpressionConverter extends AbstractCoreExpressionConverter<Sol
      * @return mutable map
      */
     public final Map<String, Serializable> getInitialVariables() {
-        return ((ResettableScpContext) getProcessContext()).getGlobalVariablesTemplate();
+        return processContext.getGlobalVariablesTemplate();
     }
 
     /**
@@ -173,7 +248,7 @@ public class SolrExpressionConverter extends AbstractCoreExpressionConverter<Sol
      * @return mutable set
      */
     public final Set<Flag> getInitialFlags() {
-        return ((ResettableScpContext) getProcessContext()).getGlobalFlagsTemplate();
+        return processContext.getGlobalFlagsTemplate();
     }
 
     /**
@@ -187,7 +262,7 @@ public class SolrExpressionConverter extends AbstractCoreExpressionConverter<Sol
      * @param style formatting style (inline or multi-line)
      */
     public final void setStyle(FormatStyle style) {
-        ((ResettableScpContext) getProcessContext()).setStyle(style);
+        processContext.setStyle(style);
     }
 
     /**
@@ -227,8 +302,27 @@ public class SolrExpressionConverter extends AbstractCoreExpressionConverter<Sol
         return getProcessContext().getFilterQueryBuilder();
     }
 
+    /**
+     * Prepares the root expression and the helpers of the run.
+     * <p>
+     * {@link #convert(Object)} only routes failures of the traversal and the result creation through {@link #createConversionException(RuntimeException)},
+     * so this method releases a mapping config pinned from a {@link de.calamanari.adl.solr.config.SolrMappingConfigHolder} itself if the preparation fails.
+     */
     @Override
     protected CoreExpression prepareRootExpression() {
+        try {
+            return prepareRootExpressionOfRun();
+        }
+        catch (RuntimeException ex) {
+            processContext.releaseMappingConfig();
+            throw ex;
+        }
+    }
+
+    /**
+     * @return prepared root expression
+     */
+    private CoreExpression prepareRootExpressionOfRun() {
         CoreExpression rootExpression = getRootExpression();
         if (LOGGER.isTraceEnabled()) {
             LOGGER.trace("Preparing \n{}", rootExpression.format(FormatStyle.PRETTY_PRINT));
@@ -248,8 +342,8 @@ public class SolrExpressionConverter extends AbstractCoreExpressionConverter<Sol
 
         rootExpression = IsNotUnknownPropagator.process(rootExpression);
 
-        ((ResettableScpContext) getProcessContext()).setExpressionHelper(createCoreExpressionSolrHelper(rootExpression));
-        ((ResettableScpContext) getProcessContext()).setMatchFilterFactory(createMatchFilterFactory(rootExpression));
+        processContext.setExpressionHelper(createCoreExpressionSolrHelper(rootExpression));
+        processContext.setMatchFilterFactory(createMatchFilterFactory(rootExpression));
 
         if (LOGGER.isTraceEnabled()) {
             LOGGER.trace("Preparation complete: \n{} \nflags={}", rootExpression.format(FormatStyle.PRETTY_PRINT), getProcessContext().getGlobalFlags());
@@ -551,6 +645,21 @@ public class SolrExpressionConverter extends AbstractCoreExpressionConverter<Sol
 
     @Override
     protected SolrQueryDefinition finishResult() {
+        try {
+            return createQueryDefinition();
+        }
+        finally {
+            // end of the run, a version pinned from a config holder can now be drained
+            processContext.releaseMappingConfig();
+        }
+    }
+
+    /**
+     * Creates the result from the converted match tree
+     * 
+     * @return query definition
+     */
+    private SolrQueryDefinition createQueryDefinition() {
 
         MatchTreeElement rootElement = matchTreeHelper().consolidateMatchTree(getContext().getChildResultElements().get(0));
 
@@ -569,7 +678,219 @@ public class SolrExpressionConverter extends AbstractCoreExpressionConverter<Sol
         default:
             throw new IllegalArgumentException("Unexpected root match tree element: " + rootElement);
         }
-        return new SolrQueryDefinition(SolrFormatConstants.QUERY_ALL_DOCUMENTS, filterQueries, getProcessContext().getUniqueKeyFieldName());
+        if (isMainDocumentFilterSeparated()) {
+            filterQueries.add(0, matchFilterFactory().createNodeTypeFilter(fqBuilder().getMainNodeType()));
+            filterQueries = filterQueries.stream().distinct().toList();
+        }
+        if (facetsOfRun != null) {
+            facetsOfRun.replaceAll((argName, _) -> createFacetDefinition(argName, facetLimitOfRun));
+        }
+        return new SolrQueryDefinition(SolrFormatConstants.QUERY_ALL_DOCUMENTS, filterQueries, getProcessContext().getUniqueKeyFieldName(),
+                createRouteKeys(filterQueries));
+    }
+
+    /**
+     * Derives the routing hint from the document filters if {@link SolrConversionOverrides#ROUTE_KEY_VARIABLE_NAME} is set.
+     * <p>
+     * Routing is only safe if every document that can contribute to the result carries the shard key, so the main node type and each involved dependent node
+     * type must be restricted by a document filter referencing the route key variable. Nested documents always reside on the shard of their main document.
+     * 
+     * @param filterQueries of the definition
+     * @return list with the single route key (<code>value!</code>) or empty list if the query must go to all shards (also if the value contains a comma or
+     *         <code>!</code>)
+     */
+    private List<String> createRouteKeys(List<SolrFilterQuery> filterQueries) {
+        String routeKeyVariableName = getProcessContext().getRouteKeyVariableName();
+        Serializable routeKeyValue = routeKeyVariableName == null ? null : getProcessContext().getGlobalVariables().get(routeKeyVariableName);
+        if (routeKeyValue == null || String.valueOf(routeKeyValue).isBlank()) {
+            return Collections.emptyList();
+        }
+        String routeKey = String.valueOf(routeKeyValue);
+        if (routeKey.contains(",") || routeKey.contains(SolrFormatConstants.COMPOSITE_ID_SEPARATOR)) {
+            LOGGER.trace("No routing hint, the value {} of the route key variable {} is not a valid shard key.", routeKey, routeKeyVariableName);
+            return Collections.emptyList();
+        }
+        SolrMappingConfig mappingConfig = getProcessContext().getMappingConfig();
+        Set<String> nodeTypes = new HashSet<>();
+        nodeTypes.add(fqBuilder().getMainNodeType());
+        filterQueries.stream().map(SolrFilterQuery::nodeTypesInvolved).forEach(nodeTypes::addAll);
+        for (String nodeType : nodeTypes) {
+            NodeTypeMetaInfo nodeTypeMetaInfo = mappingConfig.lookupNodeTypeMetaInfoByNodeType(nodeType);
+            if (nodeTypeMetaInfo.documentNature() != SolrDocumentNature.NESTED && nodeTypeMetaInfo.documentFilters().stream()
+                    .noneMatch(filterField -> TemplateParameterUtils.extractVariableNames(filterField.filterValue()).contains(routeKeyVariableName))) {
+                LOGGER.trace("No routing hint, node type {} is not filtered by the route key variable {}.", nodeType, routeKeyVariableName);
+                return Collections.emptyList();
+            }
+        }
+        return Arrays.asList(routeKey + SolrFormatConstants.COMPOSITE_ID_SEPARATOR);
+    }
+
+    /**
+     * Converts the given expression into a query definition for the Solr JSON Request API.
+     * <p>
+     * The filters are equivalent to the filter queries {@link #convert(Object)} would return for the same expression, but rendered in the syntax of the
+     * JSON Query DSL (see {@link SolrJsonQuerySerializer}), so the sub-queries of joins don't require any escaping.
+     * <p>
+     * <b>Note:</b> The JSON definition does not carry any routing hints (see {@link SolrConversionOverrides#ROUTE_KEY_VARIABLE_NAME}), the request goes to all
+     * shards unless the caller adds the <code>_route_</code> parameter.
+     * 
+     * @param expression to be converted
+     * @return JSON query definition
+     */
+    public SolrJsonQueryDefinition convertToJson(CoreExpression expression) {
+        List<SolrQueryNode> queryTrees = new ArrayList<>();
+        SolrQueryDefinition queryDefinition = convertWithQueryTrees(expression, queryTrees);
+        SolrJsonQuerySerializer serializer = new SolrJsonQuerySerializer(getStyle());
+        List<String> filters = queryTrees.stream().map(serializer::serialize).toList();
+        return new SolrJsonQueryDefinition(queryDefinition.mainQueryString(), filters, queryDefinition.uniqueKeyFieldName());
+    }
+
+    /**
+     * Converts the given expression into a streaming expression as an alternative execution plan.
+     * <p>
+     * The expression matches the same documents as the filter queries {@link #convert(Object)} would return for the same expression, but the joins to
+     * dependent documents will be executed by exporting the involved documents and combining the sorted streams (see
+     * {@link SolrStreamingExpressionSerializer}). This is an option for queries on huge dependent collections where <code>{!join ...}</code> becomes the
+     * bottleneck.
+     * <p>
+     * <b>Note:</b> The streaming definition does not carry any routing hints (see {@link SolrConversionOverrides#ROUTE_KEY_VARIABLE_NAME}), the expression
+     * searches all shards.
+     * 
+     * @param expression to be converted
+     * @param collectionName name of the collection to be searched
+     * @return streaming query definition
+     */
+    public SolrStreamingQueryDefinition convertToStreamingExpression(CoreExpression expression, String collectionName) {
+        List<SolrQueryNode> queryTrees = new ArrayList<>();
+        SolrQueryDefinition queryDefinition = convertWithQueryTrees(expression, queryTrees);
+        SolrStreamingExpressionSerializer serializer = new SolrStreamingExpressionSerializer(collectionName, queryDefinition.uniqueKeyFieldName(), null,
+                getStyle());
+        return new SolrStreamingQueryDefinition(collectionName, serializer.serialize(queryTrees), queryDefinition.uniqueKeyFieldName());
+    }
+
+    /**
+     * Converts the given expression and creates breakdowns of the matching main documents by the values of the given argNames (JSON facets), so the count and
+     * the breakdowns can be obtained with a single request (see {@link de.calamanari.adl.solr.DefaultQueryType#SELECT_COUNT_WITH_FACETS}).
+     * <p>
+     * The facets are resolved through the same mapping configuration as the expression, see {@link #createFacetDefinition(String, int)}.
+     * 
+     * @param expression to be converted
+     * @param facetArgNames argNames to break down the matching documents by, NOT NULL
+     * @param limit max number of buckets (values) per facet, ordered by count descending, <code>-1</code> for unlimited
+     * @return insight query definition
+     */
+    public SolrInsightQueryDefinition convertWithFacets(CoreExpression expression, List<String> facetArgNames, int limit) {
+        if (facetArgNames == null || facetArgNames.stream().anyMatch(argName -> argName == null || argName.isBlank()) || limit == 0 || limit < -1) {
+            throw new IllegalArgumentException(
+                    String.format("Facet argNames must not be null or blank, limit must be positive or -1, given: facetArgNames=%s, limit=%s", facetArgNames,
+                            limit));
+        }
+        this.facetsOfRun = new LinkedHashMap<>();
+        facetArgNames.forEach(argName -> facetsOfRun.put(argName, null));
+        this.facetLimitOfRun = limit;
+        try {
+            SolrQueryDefinition queryDefinition = convert(expression);
+            return new SolrInsightQueryDefinition(queryDefinition, new ArrayList<>(facetsOfRun.values()));
+        }
+        finally {
+            this.facetsOfRun = null;
+            this.facetLimitOfRun = 0;
+            processContext.releaseMappingConfig();
+        }
+    }
+
+    /**
+     * Creates a terms facet on the field mapped to the given argName.
+     * <p>
+     * Facets on fields of the main document count the main documents directly. Facets on fields of nested documents switch the domain to the child documents
+     * (<code>blockChildren</code>), facets on fields of dependent documents join the dependent documents (<code>join</code>). In both cases the buckets are
+     * ordered by the number of distinct main documents ({@value SolrFacetDefinition#MAIN_DOCUMENT_COUNT}), because a single main document can be related to
+     * many sub-documents with the same value.
+     * <p>
+     * <b>Note:</b> Time-partitioned dependent documents are not supported because the join of a facet domain cannot span multiple collections. Fields with a
+     * {@link DictionaryEncodedSolrType} are not supported either, the buckets would contain the codes, and a {@link ValueDictionary} cannot translate codes
+     * back into values.
+     * 
+     * @param argName to break down the documents by
+     * @param limit max number of buckets, <code>-1</code> for unlimited
+     * @return facet definition
+     */
+    protected SolrFacetDefinition createFacetDefinition(String argName, int limit) {
+        ArgFieldAssignment assignment = mappingConfig().lookupAssignment(argName, getProcessContext());
+        if (assignment.field().fieldType() instanceof DictionaryEncodedSolrType) {
+            throw new IllegalArgumentException(String.format("Facets on dictionary-encoded fields are not supported, given: argName=%s, field=%s", argName,
+                    assignment.field()));
+        }
+        NodeTypeMetaInfo nodeTypeMetaInfo = mappingConfig().lookupNodeTypeMetaInfo(argName, getProcessContext());
+        ObjectNode facet = JsonNodeFactory.instance.objectNode();
+        facet.put("type", "terms");
+        facet.put("field", assignment.field().fieldName());
+        facet.put("limit", limit);
+        if (nodeTypeMetaInfo.documentNature() != SolrDocumentNature.MAIN) {
+            ObjectNode domain = facet.putObject("domain");
+            String countFunction = null;
+            if (nodeTypeMetaInfo.documentNature() == SolrDocumentNature.NESTED) {
+                domain.put("blockChildren", getProcessContext().getNodeTypeFieldName() + ":" + fqBuilder().getMainNodeType());
+                countFunction = "uniqueBlock(_root_)";
+            }
+            else if (nodeTypeMetaInfo.timePartitioning() != null) {
+                throw new IllegalArgumentException(
+                        String.format("Facets on time-partitioned dependent documents are not supported, given: argName=%s, nodeType=%s", argName,
+                                nodeTypeMetaInfo.nodeType()));
+            }
+            else {
+                ObjectNode join = domain.putObject("join");
+                join.put("from", getProcessContext().getUniqueKeyFieldName());
+                join.put("to", getProcessContext().getDependentMainKeyFieldName());
+                countFunction = "unique(" + getProcessContext().getDependentMainKeyFieldName() + ")";
+            }
+            domain.put("filter", matchFilterFactory().createNodeTypeFilter(nodeTypeMetaInfo.nodeType()).queryString());
+            facet.putObject("facet").put(SolrFacetDefinition.MAIN_DOCUMENT_COUNT, countFunction);
+            facet.put("sort", SolrFacetDefinition.MAIN_DOCUMENT_COUNT + " desc");
+        }
+        return new SolrFacetDefinition(argName, facet.toString());
+    }
+
+    /**
+     * Runs the conversion and collects the query trees of the resulting filter queries
+     * 
+     * @param expression to be converted
+     * @param queryTrees collects the trees in the order of the filter queries
+     * @return query definition
+     */
+    private SolrQueryDefinition convertWithQueryTrees(CoreExpression expression, List<SolrQueryNode> queryTrees) {
+        this.queryTreesOfRun = new HashMap<>();
+        try {
+            SolrQueryDefinition queryDefinition = convert(expression);
+            queryDefinition.filterQueries().stream().map(filterQuery -> queryTreesOfRun.getOrDefault(filterQuery, new FilterNode(filterQuery)))
+                    .forEach(queryTrees::add);
+            return queryDefinition;
+        }
+        finally {
+            this.queryTreesOfRun = null;
+            processContext.releaseMappingConfig();
+        }
+    }
+
+    /**
+     * Returns the result of the filter query builder and records its query tree if required for alternative representations.
+     * 
+     * @return filter query composed by the {@link #fqBuilder()}
+     */
+    protected final SolrFilterQuery obtainFilterQueryResult() {
+        if (queryTreesOfRun != null) {
+            SolrQueryNode queryTree = fqBuilder().getQueryTree();
+            SolrFilterQuery res = fqBuilder().getResult();
+            queryTreesOfRun.put(res, queryTree);
+            return res;
+        }
+        return fqBuilder().getResult();
+    }
+
+    @Override
+    protected ConversionException createConversionException(RuntimeException ex) {
+        processContext.releaseMappingConfig();
+        return super.createConversionException(ex);
     }
 
     /**
@@ -682,6 +1003,9 @@ public class SolrExpressionConverter extends AbstractCoreExpressionConverter<Sol
     /**
      * If the root element is an AND then we don't want to combine its elements. Instead, each member query will be passed to Solr as a separate filter query to
      * allow for optional caching.
+     * <p>
+     * Sibling negations on the root level will be combined into a single filter query (see {@link #appendCombinedNegativeMatches(List, CombinedExpressionType,
+     * String, boolean, boolean)}).
      * 
      * @param rootAnd
      * @return list of filter queries
@@ -690,17 +1014,30 @@ public class SolrExpressionConverter extends AbstractCoreExpressionConverter<Sol
 
         List<SolrFilterQuery> res = new ArrayList<>();
 
-        for (MatchTreeElement childElement : splitRootAnd(rootAnd)) {
+        List<MatchTreeElement> members = splitRootAnd(rootAnd);
+        List<MatchWrapper> negations = collectCombinableNegations(members, CombinedExpressionType.AND);
+
+        if (!negations.isEmpty()) {
+            members = members.stream().filter(member -> !negations.contains(member)).toList();
 
             fqBuilder().reset();
 
-            fqBuilder().appendFilterQuery(matchFilterFactory().createNodeTypeFilter(fqBuilder().getMainNodeType()));
+            appendMainDocumentFilterIfRequired();
 
-            fqBuilder().appendAND();
+            appendCombinedNegativeMatches(negations, CombinedExpressionType.AND, fqBuilder().getMainNodeType(), false, true);
+
+            res.add(obtainFilterQueryResult());
+        }
+
+        for (MatchTreeElement childElement : members) {
+
+            fqBuilder().reset();
+
+            appendMainDocumentFilterIfRequired();
 
             appendChildElement(CombinedExpressionType.AND, childElement);
 
-            res.add(fqBuilder().getResult());
+            res.add(obtainFilterQueryResult());
 
         }
 
@@ -717,13 +1054,31 @@ public class SolrExpressionConverter extends AbstractCoreExpressionConverter<Sol
 
         fqBuilder().reset();
 
-        fqBuilder().appendFilterQuery(matchFilterFactory().createNodeTypeFilter(fqBuilder().getMainNodeType()));
-
-        fqBuilder().appendAND();
+        appendMainDocumentFilterIfRequired();
 
         appendChildElement(CombinedExpressionType.AND, rootOr);
 
-        return fqBuilder().getResult();
+        return obtainFilterQueryResult();
+    }
+
+    /**
+     * Starts a main filter query with the node type filter of the main document (AND), unless the main document filter should be a separate filter query.
+     * 
+     * @see SolrConversionDirective#SEPARATE_MAIN_DOCUMENT_FILTER
+     */
+    protected void appendMainDocumentFilterIfRequired() {
+        if (!isMainDocumentFilterSeparated()) {
+            fqBuilder().appendFilterQuery(matchFilterFactory().createNodeTypeFilter(fqBuilder().getMainNodeType()));
+            fqBuilder().appendAND();
+        }
+    }
+
+    /**
+     * @return true if the node type filter of the main document (incl. document filters) should be emitted once as a separate filter query
+     * @see SolrConversionDirective#SEPARATE_MAIN_DOCUMENT_FILTER
+     */
+    protected boolean isMainDocumentFilterSeparated() {
+        return SolrConversionDirective.SEPARATE_MAIN_DOCUMENT_FILTER.check(getProcessContext().getGlobalFlags());
     }
 
     private void appendChildElement(CombinedExpressionType parentCombiType, MatchTreeElement childElement) {
@@ -734,7 +1089,7 @@ public class SolrExpressionConverter extends AbstractCoreExpressionConverter<Sol
         }
         else {
             CombinedExpressionType groupCombiType = startGroup(childElement, parentCombiType);
-            appendGroupedMatchElements(groups, groupCombiType);
+            appendGroupedMatchElements(groups, groupCombiType, groupCombiType != parentCombiType);
             endGroup(groupCombiType, parentCombiType);
         }
     }
@@ -774,7 +1129,7 @@ public class SolrExpressionConverter extends AbstractCoreExpressionConverter<Sol
             appendPositiveMatch(rootMatchWrapper);
         }
 
-        return fqBuilder().getResult();
+        return obtainFilterQueryResult();
     }
 
     /**
@@ -832,6 +1187,27 @@ public class SolrExpressionConverter extends AbstractCoreExpressionConverter<Sol
      * @param groupCombiType how the group expressions should be combined
      */
     protected void appendGroupedMatchElements(List<MatchElement> matchElements, CombinedExpressionType groupCombiType) {
+        appendGroupedMatchElements(matchElements, groupCombiType, false);
+    }
+
+    /**
+     * Each group (single element or or hybrid combination or chunk of elements for the same node type) will be appended to the expression
+     * <p>
+     * Sibling negations will be combined if possible (see {@link #appendCombinedNegativeMatches(List, CombinedExpressionType, String, boolean, boolean)}).
+     * <p>
+     * <i>Hint:</i> Here we are on the main level if the Solr-expression, never inside any join!
+     * 
+     * @param matchElements single elements and chunks of elements related to the same node type
+     * @param groupCombiType how the group expressions should be combined
+     * @param isBraced true if the elements will be appended inside a new brace, so that a combined negation without any sibling resp. a leading negation in
+     *            an AND must not stand alone
+     */
+    protected void appendGroupedMatchElements(List<MatchElement> matchElements, CombinedExpressionType groupCombiType, boolean isBraced) {
+
+        List<MatchWrapper> negations = collectCombinableNegations(matchElements, groupCombiType);
+        if (!negations.isEmpty()) {
+            matchElements = matchElements.stream().filter(matchElement -> !negations.contains(matchElement)).toList();
+        }
 
         for (int i = 0; i < matchElements.size(); i++) {
             appendCombinerIfRequired(i, groupCombiType);
@@ -842,6 +1218,11 @@ public class SolrExpressionConverter extends AbstractCoreExpressionConverter<Sol
                 appendPositiveMatch(match);
                 break;
             case MatchWrapper negation when negation.isNegation():
+                if (i == 0 && isBraced && groupCombiType == CombinedExpressionType.AND) {
+                    // a brace starting with a negation must not become a pure negative sub-query
+                    fqBuilder().appendFilterQuery(matchFilterFactory().createNodeTypeFilter(fqBuilder().getMainNodeType()));
+                    fqBuilder().appendAND();
+                }
                 appendNegativeMatch(negation, groupCombiType == CombinedExpressionType.OR);
                 break;
             case CombinedMatchTreeElement cmb:
@@ -855,6 +1236,101 @@ public class SolrExpressionConverter extends AbstractCoreExpressionConverter<Sol
             }
         }
 
+        if (!negations.isEmpty()) {
+            appendCombinerIfRequired(matchElements.size(), groupCombiType);
+            appendCombinedNegativeMatches(negations, groupCombiType, fqBuilder().getMainNodeType(), matchElements.isEmpty() && isBraced, true);
+        }
+
+    }
+
+    /**
+     * Determines the negations among the given elements that can be combined into a single negation (De Morgan).
+     * <p>
+     * In an AND any negation qualifies, because the optional <i>co-matches</i> (see {@link MatchInstruction}) are just further conditions of the same AND.
+     * In an OR only the non-strict negations ({@link MatchInstruction#NEGATE}) qualify, because a strict negation must be verified <i>together</i> with its
+     * co-match.
+     * 
+     * @param elements sibling elements
+     * @param combiType the combination of the siblings
+     * @return list of negations to be combined, empty if there are less than two or if combining negations is disabled
+     * @see SolrConversionDirective#DISABLE_NEGATION_COMBINING
+     */
+    protected List<MatchWrapper> collectCombinableNegations(List<? extends MatchElement> elements, CombinedExpressionType combiType) {
+        if (SolrConversionDirective.DISABLE_NEGATION_COMBINING.check(getProcessContext().getGlobalFlags())) {
+            return Collections.emptyList();
+        }
+        List<MatchWrapper> res = new ArrayList<>();
+        for (MatchElement element : elements) {
+            if (element instanceof MatchWrapper matchWrapper && matchWrapper.isNegation()
+                    && (combiType == CombinedExpressionType.AND || matchWrapper.matchInstruction() == MatchInstruction.NEGATE)) {
+                res.add(matchWrapper);
+            }
+        }
+        return res.size() < 2 ? Collections.emptyList() : res;
+    }
+
+    /**
+     * Appends the given sibling negations as a single negation to reduce the number of sets Solr must subtract from <i>all</i>:
+     * <ul>
+     * <li><code>NOT a AND NOT b</code> becomes <code>NOT (a OR b)</code>, any co-matches of strict negations will be appended before the negation.</li>
+     * <li><code>NOT a OR NOT b</code> becomes <code>NOT (a AND b)</code>, only applicable to non-strict negations.</li>
+     * </ul>
+     * The caller must have appended the combiner (if required) before calling this method.
+     * 
+     * @param negations at least two negations of the same parent
+     * @param combiType how the negations were combined with their siblings (AND vs. OR)
+     * @param nodeType node type of the documents to subtract the negated matches from
+     * @param isBaseRequired true to start with the node type filter in the AND-case (no preceding condition), in the OR-case the node type filter is
+     *            always included
+     * @param isMainLevel true if we are on the main level of the Solr-expression (joins required), false if we are inside a group
+     * @see #collectCombinableNegations(List, CombinedExpressionType)
+     */
+    protected void appendCombinedNegativeMatches(List<MatchWrapper> negations, CombinedExpressionType combiType, String nodeType, boolean isBaseRequired,
+            boolean isMainLevel) {
+
+        boolean isOr = (combiType == CombinedExpressionType.OR);
+
+        boolean haveCondition = false;
+        if (isOr) {
+            fqBuilder().openBrace();
+        }
+        if (isOr || isBaseRequired) {
+            fqBuilder().appendFilterQuery(matchFilterFactory().createNodeTypeFilter(nodeType));
+            haveCondition = true;
+        }
+        for (MatchWrapper negation : negations) {
+            if (negation.matchInstruction().requiresIsNotUnknownVerification()) {
+                if (isMainLevel) {
+                    appendIsNotUnknownFiltersIfRequired(negation, haveCondition);
+                }
+                else {
+                    if (haveCondition) {
+                        fqBuilder().appendAND();
+                    }
+                    appendIsNotUnknownFiltersPlain(negation);
+                }
+                haveCondition = true;
+            }
+        }
+        if (haveCondition) {
+            fqBuilder().appendAND();
+        }
+        fqBuilder().appendNOT();
+        fqBuilder().openBrace();
+        CombinedExpressionType innerCombiType = isOr ? CombinedExpressionType.AND : CombinedExpressionType.OR;
+        for (int i = 0; i < negations.size(); i++) {
+            appendCombinerIfRequired(i, innerCombiType);
+            if (isMainLevel) {
+                appendPositiveMatch(negations.get(i));
+            }
+            else {
+                appendPlainMatch(negations.get(i));
+            }
+        }
+        fqBuilder().closeBrace();
+        if (isOr) {
+            fqBuilder().closeBrace();
+        }
     }
 
     /**
@@ -863,7 +1339,7 @@ public class SolrExpressionConverter extends AbstractCoreExpressionConverter<Sol
      * @param matchWrapper
      */
     protected void appendPlainMatch(MatchWrapper matchWrapper) {
-        fqBuilder().appendFilterQuery(matchFilterFactory().createMatchFilter(matchWrapper));
+        fqBuilder().appendFilterNode(matchFilterFactory().createMatchFilterNode(matchWrapper));
     }
 
     /**
@@ -986,11 +1462,7 @@ public class SolrExpressionConverter extends AbstractCoreExpressionConverter<Sol
             fqBuilder().openBrace();
         }
 
-        for (int i = 0; i < group.size(); i++) {
-            MatchTreeElement mte = group.members().get(i);
-            appendCombinerIfRequired(i, group.combiType());
-            appendGroupElement(mte, group.combiType(), i == 0);
-        }
+        appendGroupMembers(group.members(), group.combiType(), nodeType);
 
         if (fqBuilder().isJoinOpen() && group.combiType() == CombinedExpressionType.OR) {
             fqBuilder().closeBrace();
@@ -1038,16 +1510,41 @@ public class SolrExpressionConverter extends AbstractCoreExpressionConverter<Sol
 
         fqBuilder().openBrace();
 
-        for (int i = 0; i < combinedMatchTreeElement.childElements().size(); i++) {
-            MatchTreeElement mte = combinedMatchTreeElement.childElements().get(i);
-            appendCombinerIfRequired(i, combinedMatchTreeElement.combiType());
-            appendGroupElement(mte, combinedMatchTreeElement.combiType(), i == 0);
-        }
+        appendGroupMembers(combinedMatchTreeElement.childElements(), combinedMatchTreeElement.combiType(), combinedMatchTreeElement.commonNodeType());
 
         fqBuilder().closeBrace();
 
     }
 
+    /**
+     * Appends the members of a group or a combined group element, sibling negations will be combined if possible
+     * <p>
+     * <b>Hint:</b> This method is called when being inside a group (main document or already joined document), no further joins required (allowed).
+     * 
+     * @param members group members
+     * @param combiType combination of the members (AND vs. OR)
+     * @param nodeType common node type of the members
+     * @see #appendCombinedNegativeMatches(List, CombinedExpressionType, String, boolean, boolean)
+     */
+    private void appendGroupMembers(List<MatchTreeElement> members, CombinedExpressionType combiType, String nodeType) {
+
+        List<MatchWrapper> negations = collectCombinableNegations(members, combiType);
+        if (!negations.isEmpty()) {
+            members = members.stream().filter(member -> !negations.contains(member)).toList();
+        }
+
+        for (int i = 0; i < members.size(); i++) {
+            MatchTreeElement mte = members.get(i);
+            appendCombinerIfRequired(i, combiType);
+            appendGroupElement(mte, combiType, i == 0);
+        }
+
+        if (!negations.isEmpty()) {
+            appendCombinerIfRequired(members.size(), combiType);
+            appendCombinedNegativeMatches(negations, combiType, nodeType, members.isEmpty(), false);
+        }
+    }
+
     /**
      * Appends a single group element
      * <p>
@@ -19,26 +19,44 @@
 
 package de.calamanari.adl.solr.cnv;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
 import java.util.EnumSet;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
+import de.calamanari.adl.CombinedExpressionType;
 import de.calamanari.adl.FormatStyle;
-import de.calamanari.adl.FormatUtils;
 import de.calamanari.adl.solr.SolrConditionType;
 import de.calamanari.adl.solr.SolrFilterQuery;
 import de.calamanari.adl.solr.SolrFormatConstants;
-import de.calamanari.adl.solr.SolrFormatUtils;
 import de.calamanari.adl.solr.SolrQueryField;
-
-import static de.calamanari.adl.solr.SolrFormatConstants.CLOSE_BRACE;
-import static de.calamanari.adl.solr.SolrFormatConstants.OPEN_BRACE;
+import de.calamanari.adl.solr.cnv.ast.BooleanClause;
+import de.calamanari.adl.solr.cnv.ast.BooleanNode;
+import de.calamanari.adl.solr.cnv.ast.DefaultSolrQueryPass;
+import de.calamanari.adl.solr.cnv.ast.DependentJoinNode;
+import de.calamanari.adl.solr.cnv.ast.FilterNode;
+import de.calamanari.adl.solr.cnv.ast.NestedJoinNode;
+import de.calamanari.adl.solr.cnv.ast.RawNode;
+import de.calamanari.adl.solr.cnv.ast.SolrQueryNode;
+import de.calamanari.adl.solr.cnv.ast.SolrQueryPass;
+import de.calamanari.adl.solr.cnv.ast.SolrQueryStringSerializer;
+import de.calamanari.adl.solr.config.NodeTypeMetaInfo;
 
 /**
  * The {@link SolrFilterQueryBuilder} combines atomic {@link SolrFilterQuery}s step by step to compose a single filter query string.
  * <p>
+ * Internally, the builder composes a query tree (see {@link SolrQueryNode}). When the result gets requested, the configured optimization passes will be
+ * applied to the tree before a {@link SolrQueryStringSerializer} renders the final query string.
+ * <p>
+ * If a dependent node type is time-partitioned (see {@link de.calamanari.adl.solr.config.TimePartitioning}), each join to this node type will be rewritten
+ * to only target the partitions that can contain matching documents (see {@link TimePartitionPruner}).
+ * <p>
  * The result ({@link #getResult()}) is a complex filter query.
  * 
  * @author <a href="mailto:Karl.Eilebrecht(a/t)calamanari.de">Karl Eilebrecht</a>
@@ -71,14 +89,24 @@ public class SolrFilterQueryBuilder {
     private final String uniqueKeyFieldName;
 
     /**
-     * The builder for the main-level of the Solr-expression, conditions are combined using AND/OR and braces.
+     * optimizations to be applied to the query tree before rendering the result
+     */
+    private final List<SolrQueryPass> optimizationPasses;
+
+    /**
+     * pruners for the time-partitioned dependent node types (key: node type)
+     */
+    private final Map<String, TimePartitionPruner> partitionPruners;
+
+    /**
+     * Renders the query tree
      */
-    private final StringBuilder mainBuilder = new StringBuilder();
+    private final SolrQueryStringSerializer serializer;
 
     /**
-     * The join-builder is a sub-builder while creating a join. We need it to apply escaping before appending the join-condition to the main builder.
+     * Stack of open groups (braces and joins), the bottom element is the root of the query
      */
-    private final StringBuilder joinBuilder = new StringBuilder();
+    private final Deque<GroupFrame> groupStack = new ArrayDeque<>();
 
     /**
      * collection of all the fields involved in the entire Solr-expression (statistics)
@@ -90,23 +118,18 @@ public class SolrFilterQueryBuilder {
      */
     private final Set<SolrConditionType> conditionTypes = EnumSet.noneOf(SolrConditionType.class);
 
-    /**
-     * Reference to the current output string builder
-     */
-    private StringBuilder output = mainBuilder;
-
     /**
      * type of the node we are currently appending conditions for
      */
     private String currentNodeType;
 
     /**
-     * number of open braces on the main builder
+     * number of open braces on the main level
      */
     private int openMainBraceCount = 0;
 
     /**
-     * number of open braces on the join builder
+     * number of open braces inside the current join
      */
     private int openJoinBraceCount = 0;
 
@@ -119,25 +142,95 @@ public class SolrFilterQueryBuilder {
      * @param dependentMainKeyFieldName name of the Solr-field carrying the id of the referenced main document in every dependent document to be joined, usually
      *            {@value SolrFormatConstants#DEFAULT_DEPENDENT_MAIN_KEY_FIELD_NAME}
      * @param formatStyle pretty-print or inline
+     * @param optimizationPasses passes to be applied to the query tree before rendering the result, null means none
+     * @param partitionPruners pruners for the time-partitioned dependent node types (key: node type), null means none
      */
     protected SolrFilterQueryBuilder(String mainNodeType, String nodeTypeFieldName, String uniqueKeyFieldName, String dependentMainKeyFieldName,
-            FormatStyle formatStyle) {
+            FormatStyle formatStyle, List<? extends SolrQueryPass> optimizationPasses, Map<String, TimePartitionPruner> partitionPruners) {
         this.mainNodeType = mainNodeType;
         this.currentNodeType = mainNodeType;
         this.formatStyle = formatStyle;
         this.nodeTypeFieldName = nodeTypeFieldName;
         this.uniqueKeyFieldName = uniqueKeyFieldName;
         this.dependentMainKeyFieldName = dependentMainKeyFieldName;
+        this.optimizationPasses = optimizationPasses == null ? Collections.emptyList() : new ArrayList<>(optimizationPasses);
+        this.partitionPruners = partitionPruners == null ? Collections.emptyMap() : new HashMap<>(partitionPruners);
+        this.serializer = new SolrQueryStringSerializer(formatStyle);
+        this.groupStack.push(new GroupFrame(false, null, false, null));
     }
 
     /**
-     * Obtains all required information from the given context
+     * @param mainNodeType node type of the main Solr document
+     * @param nodeTypeFieldName name of the Solr-field carrying the node type in every document, usually
+     *            {@value SolrFormatConstants#DEFAULT_NODE_TYPE_FIELD_NAME}
+     * @param uniqueKeyFieldName name of the Solr-field carrying the unique id in every document, usually
+     *            {@value SolrFormatConstants#DEFAULT_UNIQUE_KEY_FIELD_NAME}
+     * @param dependentMainKeyFieldName name of the Solr-field carrying the id of the referenced main document in every dependent document to be joined, usually
+     *            {@value SolrFormatConstants#DEFAULT_DEPENDENT_MAIN_KEY_FIELD_NAME}
+     * @param formatStyle pretty-print or inline
+     * @param optimizationPasses passes to be applied to the query tree before rendering the result, null means none
+     */
+    protected SolrFilterQueryBuilder(String mainNodeType, String nodeTypeFieldName, String uniqueKeyFieldName, String dependentMainKeyFieldName,
+            FormatStyle formatStyle, List<? extends SolrQueryPass> optimizationPasses) {
+        this(mainNodeType, nodeTypeFieldName, uniqueKeyFieldName, dependentMainKeyFieldName, formatStyle, optimizationPasses, null);
+    }
+
+    /**
+     * Creates a builder that applies the {@link DefaultSolrQueryPass#defaultPasses()}
+     * 
+     * @param mainNodeType node type of the main Solr document
+     * @param nodeTypeFieldName name of the Solr-field carrying the node type in every document, usually
+     *            {@value SolrFormatConstants#DEFAULT_NODE_TYPE_FIELD_NAME}
+     * @param uniqueKeyFieldName name of the Solr-field carrying the unique id in every document, usually
+     *            {@value SolrFormatConstants#DEFAULT_UNIQUE_KEY_FIELD_NAME}
+     * @param dependentMainKeyFieldName name of the Solr-field carrying the id of the referenced main document in every dependent document to be joined, usually
+     *            {@value SolrFormatConstants#DEFAULT_DEPENDENT_MAIN_KEY_FIELD_NAME}
+     * @param formatStyle pretty-print or inline
+     */
+    protected SolrFilterQueryBuilder(String mainNodeType, String nodeTypeFieldName, String uniqueKeyFieldName, String dependentMainKeyFieldName,
+            FormatStyle formatStyle) {
+        this(mainNodeType, nodeTypeFieldName, uniqueKeyFieldName, dependentMainKeyFieldName, formatStyle, DefaultSolrQueryPass.defaultPasses());
+    }
+
+    /**
+     * Obtains all required information from the given context.
+     * <p>
+     * The optimization passes depend on the directives {@link SolrConversionDirective#DISABLE_QUERY_OPTIMIZATION} (none) and
+     * {@link SolrConversionDirective#ENABLE_EXTENDED_QUERY_OPTIMIZATION} (all), by default {@link DefaultSolrQueryPass#defaultPasses()} will be applied.
      * 
      * @param ctx
      */
     public SolrFilterQueryBuilder(SolrConversionProcessContext ctx) {
         this(ctx.getMappingConfig().mainNodeTypeMetaInfo().nodeType(), ctx.getNodeTypeFieldName(), ctx.getUniqueKeyFieldName(),
-                ctx.getDependentMainKeyFieldName(), ctx.getStyle());
+                ctx.getDependentMainKeyFieldName(), ctx.getStyle(), selectOptimizationPasses(ctx), createPartitionPruners(ctx));
+    }
+
+    /**
+     * @param ctx
+     * @return pruners for all time-partitioned node types in the mapping
+     */
+    private static Map<String, TimePartitionPruner> createPartitionPruners(SolrConversionProcessContext ctx) {
+        Map<String, TimePartitionPruner> res = new HashMap<>();
+        for (NodeTypeMetaInfo nodeTypeMetaInfo : ctx.getMappingConfig().allNodeTypeMetaInfos()) {
+            if (nodeTypeMetaInfo.timePartitioning() != null) {
+                res.put(nodeTypeMetaInfo.nodeType(), new TimePartitionPruner(nodeTypeMetaInfo.timePartitioning()));
+            }
+        }
+        return res;
+    }
+
+    /**
+     * @param ctx
+     * @return passes according to the directives in the given context
+     */
+    private static List<SolrQueryPass> selectOptimizationPasses(SolrConversionProcessContext ctx) {
+        if (SolrConversionDirective.DISABLE_QUERY_OPTIMIZATION.check(ctx.getGlobalFlags())) {
+            return Collections.emptyList();
+        }
+        else if (SolrConversionDirective.ENABLE_EXTENDED_QUERY_OPTIMIZATION.check(ctx.getGlobalFlags())) {
+            return DefaultSolrQueryPass.allPasses();
+        }
+        return DefaultSolrQueryPass.defaultPasses();
     }
 
     /**
@@ -153,10 +246,8 @@ public class SolrFilterQueryBuilder {
         else if (mainNodeType.equals(nodeType)) {
             throw new IllegalStateException(String.format("Attempt to start dependent join with main node type, given: %s", this));
         }
-        mainBuilder.append("{!join from=").append(dependentMainKeyFieldName);
-        mainBuilder.append(" to=").append(uniqueKeyFieldName);
+        pushGroup(false, nodeType);
         currentNodeType = nodeType;
-        output = joinBuilder;
         return this;
     }
 
@@ -173,9 +264,8 @@ public class SolrFilterQueryBuilder {
         else if (mainNodeType.equals(nodeType)) {
             throw new IllegalStateException(String.format("Attempt to start nested join with main node type, given: %s", this));
         }
-        mainBuilder.append("{!parent which=").append('"').append(nodeTypeFieldName).append(':').append(mainNodeType).append('"');
+        pushGroup(true, nodeType);
         currentNodeType = nodeType;
-        output = joinBuilder;
         return this;
     }
 
@@ -191,34 +281,59 @@ public class SolrFilterQueryBuilder {
         if (openJoinBraceCount > 0) {
             throw new IllegalStateException("Attempt to close join with unclosed braces, given: " + this.toString());
         }
-
-        String subQuery = SolrFormatUtils.escape(joinBuilder.toString());
-
-        mainBuilder.append(" v=").append('"').append(subQuery).append('"').append('}');
-
-        joinBuilder.setLength(0);
+        GroupFrame frame = popGroup();
+        BooleanNode subQuery = frame.toNode(false);
+        SolrQueryNode join = frame.nested ? new NestedJoinNode(frame.joinNodeType, nodeTypeFieldName, mainNodeType, subQuery)
+                : createDependentJoin(frame.joinNodeType, subQuery);
+        groupStack.peek().addClause(frame.combiner, frame.negated, join);
         currentNodeType = mainNodeType;
-        output = mainBuilder;
         return this;
     }
 
+    /**
+     * Creates the join to a dependent node type. If the node type is time-partitioned the join will be split into a join per partition that can contain
+     * matching documents.
+     * <p>
+     * If none of the partitions can contain a match, we still need a valid join. In this case the join targets the first partition where the sub-query cannot
+     * match any document (the partition key is out of range).
+     * 
+     * @param nodeType
+     * @param subQuery
+     * @return join node or OR-group of partition joins
+     */
+    private SolrQueryNode createDependentJoin(String nodeType, BooleanNode subQuery) {
+        DependentJoinNode join = new DependentJoinNode(nodeType, dependentMainKeyFieldName, uniqueKeyFieldName, subQuery);
+        TimePartitionPruner pruner = partitionPruners.get(nodeType);
+        if (pruner == null) {
+            return join;
+        }
+        List<String> partitionNames = pruner.selectPartitionNames(subQuery);
+        if (partitionNames.isEmpty()) {
+            return join.withFromIndex(pruner.getPartitioning().partitionNameOf(pruner.getPartitioning().firstPartition()));
+        }
+        else if (partitionNames.size() == 1) {
+            return join.withFromIndex(partitionNames.get(0));
+        }
+        List<BooleanClause> clauses = new ArrayList<>(partitionNames.size());
+        for (String partitionName : partitionNames) {
+            clauses.add(new BooleanClause(clauses.isEmpty() ? null : CombinedExpressionType.OR, false, join.withFromIndex(partitionName)));
+        }
+        return new BooleanNode(clauses, true);
+    }
+
     /**
      * Opens a new brace to group conditions
      * 
      * @return this builder
      */
     public SolrFilterQueryBuilder openBrace() {
-
-        output.append(OPEN_BRACE);
-
+        pushGroup(false, null);
         if (isJoinOpen()) {
             openJoinBraceCount++;
         }
         else {
             openMainBraceCount++;
         }
-
-        appendLineBreak(false);
         return this;
     }
 
@@ -240,16 +355,34 @@ public class SolrFilterQueryBuilder {
             }
             openMainBraceCount--;
         }
-
-        appendLineBreak(false);
-        output.append(CLOSE_BRACE);
+        GroupFrame frame = popGroup();
+        groupStack.peek().addClause(frame.combiner, frame.negated, frame.toNode(true));
         return this;
     }
 
-    private void appendCombiner(String combiner) {
-        appendLineBreak(true);
-        output.append(combiner);
-        output.append(' ');
+    /**
+     * Opens a new group (brace or join) which takes over any pending combiner or negation of the current group
+     */
+    private void pushGroup(boolean nested, String joinNodeType) {
+        GroupFrame current = groupStack.peek();
+        GroupFrame frame = new GroupFrame(nested, joinNodeType, current.pendingNegation, current.pendingCombiner);
+        current.pendingCombiner = null;
+        current.pendingNegation = false;
+        groupStack.push(frame);
+    }
+
+    private GroupFrame popGroup() {
+        GroupFrame frame = groupStack.pop();
+        frame.assertNothingPending(this);
+        return frame;
+    }
+
+    private void appendCombiner(CombinedExpressionType combiner) {
+        GroupFrame current = groupStack.peek();
+        if (current.pendingCombiner != null || current.pendingNegation) {
+            throw new IllegalStateException(String.format("Attempt to append %s without any preceding condition, given: %s", combiner, this));
+        }
+        current.pendingCombiner = combiner;
     }
 
     /**
@@ -258,7 +391,7 @@ public class SolrFilterQueryBuilder {
      * @return this builder
      */
     public SolrFilterQueryBuilder appendAND() {
-        appendCombiner(SolrFormatConstants.AND);
+        appendCombiner(CombinedExpressionType.AND);
         return this;
     }
 
@@ -268,7 +401,7 @@ public class SolrFilterQueryBuilder {
      * @return this builder
      */
     public SolrFilterQueryBuilder appendOR() {
-        appendCombiner(SolrFormatConstants.OR);
+        appendCombiner(CombinedExpressionType.OR);
         return this;
     }
 
@@ -278,34 +411,26 @@ public class SolrFilterQueryBuilder {
      * @return this builder
      */
     public SolrFilterQueryBuilder appendNOT() {
-        if (!FormatUtils.endsWith(output, " ")) {
-            output.append(' ');
+        GroupFrame current = groupStack.peek();
+        if (current.pendingNegation) {
+            throw new IllegalStateException("Attempt to append NOT twice, given: " + this.toString());
         }
-        output.append(SolrFormatConstants.NOT);
-        output.append(' ');
+        current.pendingNegation = true;
         return this;
     }
 
     /**
-     * Appends a line break if the format allows it.
-     * 
-     * @param spaceRequired insert a space if the line break is not allowed
+     * Formerly appended a line break if the format allowed it.
+     * <p>
+     * The builder composes a query tree, line breaks and indentation are now created by the serializer according to the format style, so this method does
+     * nothing.
+     *
+     * @param spaceRequired ignored
      * @return this builder
+     * @deprecated the serializer takes care of line breaks, calls can be removed
      */
+    @Deprecated(since = "1.1.1")
     public SolrFilterQueryBuilder appendLineBreak(boolean spaceRequired) {
-        if (formatStyle.isMultiLine()) {
-            output.append("\n");
-            int indentCount = (openMainBraceCount + openJoinBraceCount);
-            if (output == joinBuilder) {
-                indentCount++;
-            }
-            for (int i = 0; i < indentCount; i++) {
-                output.append(formatStyle.getIndent());
-            }
-        }
-        else if (spaceRequired) {
-            output.append(" ");
-        }
         return this;
     }
 
@@ -317,43 +442,72 @@ public class SolrFilterQueryBuilder {
      * @return this builder
      */
     public SolrFilterQueryBuilder appendFilterQuery(SolrFilterQuery filterQuery) {
+        return appendFilterNode(new FilterNode(filterQuery));
+    }
+
+    /**
+     * Appends a leaf with a <i>simple</i> filter query to this builder, see {@link #appendFilterQuery(SolrFilterQuery)}.
+     * <p>
+     * This allows the creator of the filter query to provide a more specific leaf, see {@link MatchFilterFactory#createMatchFilterNode(MatchWrapper)}.
+     * 
+     * @param filterNode
+     * @return this builder
+     */
+    public SolrFilterQueryBuilder appendFilterNode(FilterNode filterNode) {
 
+        SolrFilterQuery filterQuery = filterNode.filterQuery();
         List<String> nodeTypesInvolved = filterQuery.nodeTypesInvolved();
 
         if (nodeTypesInvolved.size() != 1 || (!nodeTypesInvolved.isEmpty() && !nodeTypesInvolved.get(0).equals(currentNodeType))) {
             throw new IllegalStateException(String
                     .format("Filter query to be appended must be solely related to the current node type, given: filterQuery=%s, this=%s", filterQuery, this));
         }
-        output.append(filterQuery.queryString());
+        groupStack.peek().addPendingClause(filterNode);
         fields.addAll(filterQuery.fields());
         conditionTypes.addAll(filterQuery.conditionTypes());
         return this;
     }
 
     /**
-     * Appends the given text <i>as-is</i> to the current builder
+     * Appends the given text <i>as-is</i> to the current builder.
+     * <p>
+     * <b>Note:</b> Optimizations won't touch any group with raw text.
      * 
      * @param s to be appended
      * @return this builder
      */
     public SolrFilterQueryBuilder append(String s) {
-        output.append(s);
+        groupStack.peek().addPendingClause(new RawNode(s));
         return this;
     }
 
     /**
-     * Closes all open joins and braces and returns the composed query.
+     * Returns the query tree composed so far with all optimization passes applied.
+     * <p>
+     * This is the tree {@link #getResult()} renders, other {@link de.calamanari.adl.solr.cnv.ast.SolrQuerySerializer}s can use it to produce alternative
+     * representations of the same query.
      * 
-     * @return result filter query
+     * @return optimized query tree
      */
-    public SolrFilterQuery getResult() {
+    public SolrQueryNode getQueryTree() {
         if (isJoinOpen()) {
             throw new IllegalStateException("Attempt to obtain result with unfinished join, given: " + this.toString());
         }
         if (openMainBraceCount > 0) {
             throw new IllegalStateException("Attempt to obtain result with unclosed braces, given: " + this.toString());
         }
-        return new SolrFilterQuery(mainBuilder.toString(), new ArrayList<>(fields), new ArrayList<>(conditionTypes));
+        GroupFrame root = groupStack.peek();
+        root.assertNothingPending(this);
+        return DefaultSolrQueryPass.applyAll(root.toNode(false), optimizationPasses);
+    }
+
+    /**
+     * Closes all open joins and braces and returns the composed query.
+     * 
+     * @return result filter query
+     */
+    public SolrFilterQuery getResult() {
+        return new SolrFilterQuery(serializer.serialize(getQueryTree()), new ArrayList<>(fields), new ArrayList<>(conditionTypes));
     }
 
     /**
@@ -363,8 +517,8 @@ public class SolrFilterQueryBuilder {
         this.conditionTypes.clear();
         this.currentNodeType = mainNodeType;
         this.fields.clear();
-        this.joinBuilder.setLength(0);
-        this.mainBuilder.setLength(0);
+        this.groupStack.clear();
+        this.groupStack.push(new GroupFrame(false, null, false, null));
         this.openJoinBraceCount = 0;
         this.openMainBraceCount = 0;
     }
@@ -388,6 +542,13 @@ public class SolrFilterQueryBuilder {
         return mainNodeType;
     }
 
+    /**
+     * @return optimization passes this builder applies to the query tree, unmodifiable
+     */
+    public List<SolrQueryPass> getOptimizationPasses() {
+        return Collections.unmodifiableList(optimizationPasses);
+    }
+
     /**
      * @return true if this builder is inside a join
      */
@@ -403,15 +564,81 @@ public class SolrFilterQueryBuilder {
                     currentNodeType=%s,
                     openMainBraceCount=%s,
                     openJoinBraceCount=%s,
-                    mainBuilder=%s,
-                    joinBuilder=%s,
+                    groupStack=%s,
                     joinOpen=%s,
                     fields=%s,
                     conditionTypes=%s,
                     formatStyle=%s
                 )
-                """, this.getClass().getSimpleName(), mainNodeType, currentNodeType, openMainBraceCount, openJoinBraceCount, mainBuilder, joinBuilder,
-                isJoinOpen(), fields, conditionTypes, formatStyle);
+                """, this.getClass().getSimpleName(), mainNodeType, currentNodeType, openMainBraceCount, openJoinBraceCount, groupStack, isJoinOpen(),
+                fields, conditionTypes, formatStyle);
+    }
+
+    /**
+     * Collects the clauses of an open group (root, brace or join) while building the query tree
+     */
+    private static final class GroupFrame {
+
+        /**
+         * true if this frame is a nested join
+         */
+        private final boolean nested;
+
+        /**
+         * node type if this frame is the sub-query of a join, otherwise null
+         */
+        private final String joinNodeType;
+
+        /**
+         * negation that was pending when this group was opened
+         */
+        private final boolean negated;
+
+        /**
+         * combiner that was pending when this group was opened
+         */
+        private final CombinedExpressionType combiner;
+
+        private final List<BooleanClause> clauses = new ArrayList<>();
+
+        private CombinedExpressionType pendingCombiner = null;
+
+        private boolean pendingNegation = false;
+
+        private GroupFrame(boolean nested, String joinNodeType, boolean negated, CombinedExpressionType combiner) {
+            this.nested = nested;
+            this.joinNodeType = joinNodeType;
+            this.negated = negated;
+            this.combiner = combiner;
+        }
+
+        private void addPendingClause(SolrQueryNode node) {
+            addClause(pendingCombiner, pendingNegation, node);
+            pendingCombiner = null;
+            pendingNegation = false;
+        }
+
+        private void addClause(CombinedExpressionType clauseCombiner, boolean clauseNegated, SolrQueryNode node) {
+            clauses.add(new BooleanClause(clauseCombiner, clauseNegated, node));
+        }
+
+        private void assertNothingPending(SolrFilterQueryBuilder builder) {
+            if (pendingCombiner != null || pendingNegation) {
+                throw new IllegalStateException(
+                        String.format("Dangling %s at the end of a group, given: %s", pendingNegation ? SolrFormatConstants.NOT : pendingCombiner, builder));
+            }
+        }
+
+        private BooleanNode toNode(boolean braced) {
+            return new BooleanNode(clauses, braced);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s(joinNodeType=%s, clauses=%s, pendingCombiner=%s, pendingNegation=%s)", this.getClass().getSimpleName(), joinNodeType,
+                    clauses, pendingCombiner, pendingNegation);
+        }
+
     }
 
 }
@@ -0,0 +1,404 @@
+//@formatter:off
+/*
+ * TenantConverterRegistry
+ * Copyright 2025 Karl Eilebrecht
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"):
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+//@formatter:on
+
+package de.calamanari.adl.solr.cnv;
+
+import java.io.Serializable;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import de.calamanari.adl.Flag;
+import de.calamanari.adl.cnv.TemplateParameterUtils;
+import de.calamanari.adl.irl.CoreExpression;
+import de.calamanari.adl.solr.SolrFilterQuery;
+import de.calamanari.adl.solr.SolrQueryDefinition;
+import de.calamanari.adl.solr.config.CachingSolrMappingConfig;
+import de.calamanari.adl.solr.config.FilterField;
+import de.calamanari.adl.solr.config.NodeTypeMetaInfo;
+import de.calamanari.adl.solr.config.SolrMappingConfig;
+
+/**
+ * The {@link TenantConverterRegistry} serves many tenants from a single mapping configuration where only a global variable (the tenant, e.g.,
+ * <code>${tenant}</code> in a {@link FilterField}) differs.
+ * <p>
+ * All tenants share the same (immutable) {@link SolrMappingConfig}, ideally a {@link CachingSolrMappingConfig}, so argNames get resolved only once across all
+ * tenants. The node type filters (including the document filters) are rendered once: filters not depending on the tenant variable are shared by all tenants,
+ * only the others get rendered and stored per tenant. This way converters (see {@link #createConverter(String)}) are cheap to create and don't re-render any
+ * filters for each conversion run.
+ * <p>
+ * The number of tenants kept in memory is bounded (least recently used tenants will be evicted first), and tenants not accessed for a configurable time will
+ * be evicted as well. An evicted tenant will simply be prepared again on next access.
+ * <p>
+ * Instances are safe to be used concurrently, the converters created by the registry are <i>not</i> (same as any {@link SolrExpressionConverter}).
+ * 
+ * @author <a href="mailto:Karl.Eilebrecht(a/t)calamanari.de">Karl Eilebrecht</a>
+ */
+public final class TenantConverterRegistry {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TenantConverterRegistry.class);
+
+    /**
+     * Name of the global variable to hold the tenant unless specified otherwise: {@value}
+     */
+    public static final String DEFAULT_TENANT_VARIABLE_NAME = "tenant";
+
+    /**
+     * shared mapping for all tenants
+     */
+    private final SolrMappingConfig mappingConfig;
+
+    /**
+     * name of the global variable to be set to the tenant
+     */
+    private final String tenantVariableName;
+
+    /**
+     * common variables of all tenants (without the tenant variable)
+     */
+    private final Map<String, Serializable> globalVariablesTemplate;
+
+    /**
+     * common flags of all tenants
+     */
+    private final Set<Flag> flagsTemplate;
+
+    /**
+     * maximum number of tenants to be kept
+     */
+    private final int maxTenants;
+
+    /**
+     * time after which an unused tenant gets evicted
+     */
+    private final long idleTimeoutNanos;
+
+    /**
+     * time source for idle detection
+     */
+    private final LongSupplier nanoClock;
+
+    /**
+     * node type filters that don't depend on the tenant, rendered once
+     */
+    private final Map<String, SolrFilterQuery> sharedNodeTypeFilters;
+
+    /**
+     * node types with document filters referencing the tenant variable
+     */
+    private final Set<String> tenantDependentNodeTypes;
+
+    /**
+     * prepared tenants
+     */
+    private final Map<String, TenantEntry> tenants = new ConcurrentHashMap<>();
+
+    /**
+     * time of the last sweep for idle tenants
+     */
+    private final AtomicLong lastIdleSweepNanos;
+
+    /**
+     * @param mappingConfig mapping shared by all tenants
+     * @param maxTenants maximum number of tenants to be kept in memory
+     * @param idleTimeout unused tenants will be evicted after this time
+     */
+    public TenantConverterRegistry(SolrMappingConfig mappingConfig, int maxTenants, Duration idleTimeout) {
+        this(mappingConfig, DEFAULT_TENANT_VARIABLE_NAME, null, null, maxTenants, idleTimeout);
+    }
+
+    /**
+     * @param mappingConfig mapping shared by all tenants
+     * @param tenantVariableName name of the global variable to be set to the tenant
+     * @param globalVariables common variables of all tenants, optional
+     * @param flags common flags of all tenants, optional
+     * @param maxTenants maximum number of tenants to be kept in memory
+     * @param idleTimeout unused tenants will be evicted after this time
+     */
+    public TenantConverterRegistry(SolrMappingConfig mappingConfig, String tenantVariableName, Map<String, Serializable> globalVariables, Set<Flag> flags,
+            int maxTenants, Duration idleTimeout) {
+        this(mappingConfig, tenantVariableName, globalVariables, flags, maxTenants, idleTimeout, System::nanoTime);
+    }
+
+    /**
+     * @param mappingConfig mapping shared by all tenants
+     * @param tenantVariableName name of the global variable to be set to the tenant
+     * @param globalVariables common variables of all tenants, optional
+     * @param flags common flags of all tenants, optional
+     * @param maxTenants maximum number of tenants to be kept in memory
+     * @param idleTimeout unused tenants will be evicted after this time
+     * @param nanoClock time source
+     */
+    TenantConverterRegistry(SolrMappingConfig mappingConfig, String tenantVariableName, Map<String, Serializable> globalVariables, Set<Flag> flags,
+            int maxTenants, Duration idleTimeout, LongSupplier nanoClock) {
+        if (mappingConfig == null || tenantVariableName == null || tenantVariableName.isBlank() || maxTenants < 1 || idleTimeout == null
+                || idleTimeout.isNegative() || idleTimeout.isZero()) {
+            throw new IllegalArgumentException(String.format(
+                    "Arguments mappingConfig and tenantVariableName must not be null, maxTenants and idleTimeout must be positive, given: mappingConfig=%s, tenantVariableName=%s, maxTenants=%s, idleTimeout=%s",
+                    mappingConfig, tenantVariableName, maxTenants, idleTimeout));
+        }
+        this.mappingConfig = mappingConfig;
+        this.tenantVariableName = tenantVariableName;
+        Map<String, Serializable> variables = globalVariables == null ? new HashMap<>() : new HashMap<>(globalVariables);
+        variables.remove(tenantVariableName);
+        this.globalVariablesTemplate = Collections.unmodifiableMap(variables);
+        this.flagsTemplate = Collections.unmodifiableSet(flags == null ? new HashSet<>() : new HashSet<>(flags));
+        this.maxTenants = maxTenants;
+        this.idleTimeoutNanos = idleTimeout.toNanos();
+        this.nanoClock = nanoClock;
+        this.lastIdleSweepNanos = new AtomicLong(nanoClock.getAsLong());
+
+        Set<String> dependentNodeTypes = new HashSet<>();
+        Map<String, SolrFilterQuery> sharedFilters = new HashMap<>();
+        ResettableScpContext sharedCtx = new ResettableScpContext(mappingConfig, new HashMap<>(globalVariablesTemplate), new HashSet<>(flagsTemplate));
+        for (NodeTypeMetaInfo nodeTypeMetaInfo : mappingConfig.allNodeTypeMetaInfos()) {
+            if (isTenantDependent(nodeTypeMetaInfo)) {
+                dependentNodeTypes.add(nodeTypeMetaInfo.nodeType());
+            }
+            else {
+                sharedFilters.put(nodeTypeMetaInfo.nodeType(), DefaultMatchFilterFactory.createNodeTypeFilter(nodeTypeMetaInfo, sharedCtx));
+            }
+        }
+        this.sharedNodeTypeFilters = Collections.unmodifiableMap(sharedFilters);
+        this.tenantDependentNodeTypes = Collections.unmodifiableSet(dependentNodeTypes);
+    }
+
+    /**
+     * @param nodeTypeMetaInfo
+     * @return true if any of the document filters references the tenant variable
+     */
+    private boolean isTenantDependent(NodeTypeMetaInfo nodeTypeMetaInfo) {
+        for (FilterField filterField : nodeTypeMetaInfo.documentFilters()) {
+            if (TemplateParameterUtils.extractVariableNames(filterField.filterValue()).contains(tenantVariableName)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Creates a new converter for the given tenant, the tenant will be prepared on first access
+     * <p>
+     * Converters are cheap to create, but you can also keep them (one per thread) as long as the tenant is in use.
+     * 
+     * @param tenant NOT NULL
+     * @return new converter, NOT thread-safe
+     */
+    public SolrExpressionConverter createConverter(String tenant) {
+        return new TenantSolrExpressionConverter(mappingConfig, acquireTenant(tenant));
+    }
+
+    /**
+     * Shorthand for {@link #createConverter(String)} and {@link SolrExpressionConverter#convert(Object)}
+     * 
+     * @param tenant NOT NULL
+     * @param expression to be converted
+     * @return query definition
+     */
+    public SolrQueryDefinition convert(String tenant, CoreExpression expression) {
+        return createConverter(tenant).convert(expression);
+    }
+
+    /**
+     * @param tenant NOT NULL
+     * @return the prepared tenant entry (updated access time)
+     */
+    private TenantEntry acquireTenant(String tenant) {
+        if (tenant == null) {
+            throw new IllegalArgumentException("The argument tenant must not be null.");
+        }
+        long now = nanoClock.getAsLong();
+        TenantEntry entry = tenants.get(tenant);
+        if (entry == null) {
+            entry = tenants.computeIfAbsent(tenant, this::createTenantEntry);
+            entry.lastAccessNanos = now;
+            evictLeastRecentlyUsedTenants(tenant);
+        }
+        else {
+            entry.lastAccessNanos = now;
+        }
+        long lastSweep = lastIdleSweepNanos.get();
+        if (now - lastSweep > idleTimeoutNanos / 2 && lastIdleSweepNanos.compareAndSet(lastSweep, now)) {
+            evictIdleTenants();
+        }
+        return entry;
+    }
+
+    /**
+     * @param tenant
+     * @return new entry with the tenant's variables and node type filters
+     */
+    private TenantEntry createTenantEntry(String tenant) {
+        Map<String, Serializable> variables = new HashMap<>(globalVariablesTemplate);
+        variables.put(tenantVariableName, tenant);
+        Map<String, SolrFilterQuery> nodeTypeFilters = sharedNodeTypeFilters;
+        if (!tenantDependentNodeTypes.isEmpty()) {
+            ResettableScpContext tenantCtx = new ResettableScpContext(mappingConfig, variables, new HashSet<>(flagsTemplate));
+            nodeTypeFilters = new HashMap<>(sharedNodeTypeFilters);
+            for (NodeTypeMetaInfo nodeTypeMetaInfo : mappingConfig.allNodeTypeMetaInfos()) {
+                if (tenantDependentNodeTypes.contains(nodeTypeMetaInfo.nodeType())) {
+                    nodeTypeFilters.put(nodeTypeMetaInfo.nodeType(), DefaultMatchFilterFactory.createNodeTypeFilter(nodeTypeMetaInfo, tenantCtx));
+                }
+            }
+            nodeTypeFilters = Collections.unmodifiableMap(nodeTypeFilters);
+        }
+        LOGGER.trace("Tenant prepared: {}", tenant);
+        return new TenantEntry(Collections.unmodifiableMap(variables), nodeTypeFilters, flagsTemplate, nanoClock.getAsLong());
+    }
+
+    /**
+     * Removes the least recently used tenants while the registry exceeds the maximum number of tenants
+     * 
+     * @param keepTenant tenant to be kept in any case (just added)
+     */
+    private void evictLeastRecentlyUsedTenants(String keepTenant) {
+        while (tenants.size() > maxTenants) {
+            String eldestTenant = null;
+            long eldestAccessNanos = Long.MAX_VALUE;
+            for (Map.Entry<String, TenantEntry> mapEntry : tenants.entrySet()) {
+                long accessNanos = mapEntry.getValue().lastAccessNanos;
+                if (!mapEntry.getKey().equals(keepTenant) && (eldestTenant == null || accessNanos - eldestAccessNanos < 0)) {
+                    eldestTenant = mapEntry.getKey();
+                    eldestAccessNanos = accessNanos;
+                }
+            }
+            if (eldestTenant == null) {
+                break;
+            }
+            tenants.remove(eldestTenant);
+        }
+    }
+
+    /**
+     * Removes all tenants that have not been accessed within the idle timeout
+     * <p>
+     * This happens automatically from time to time during regular access, so there is usually no need to call this method.
+     * 
+     * @return number of evicted tenants
+     */
+    public int evictIdleTenants() {
+        long now = nanoClock.getAsLong();
+        int count = 0;
+        for (Map.Entry<String, TenantEntry> mapEntry : tenants.entrySet()) {
+            if (now - mapEntry.getValue().lastAccessNanos > idleTimeoutNanos && tenants.remove(mapEntry.getKey(), mapEntry.getValue())) {
+                count++;
+            }
+        }
+        if (count > 0) {
+            LOGGER.debug("{} idle tenants evicted, remaining: {}", count, tenants.size());
+        }
+        return count;
+    }
+
+    /**
+     * @param tenant
+     * @return true if the given tenant is currently prepared
+     */
+    public boolean containsTenant(String tenant) {
+        return tenants.containsKey(tenant);
+    }
+
+    /**
+     * @return number of tenants currently prepared
+     */
+    public int numberOfTenants() {
+        return tenants.size();
+    }
+
+    /**
+     * @return the shared mapping configuration
+     */
+    public SolrMappingConfig getMappingConfig() {
+        return mappingConfig;
+    }
+
+    /**
+     * @return name of the global variable holding the tenant
+     */
+    public String getTenantVariableName() {
+        return tenantVariableName;
+    }
+
+    @Override
+    public String toString() {
+        return this.getClass().getSimpleName() + " [tenantVariableName=" + tenantVariableName + ", maxTenants=" + maxTenants + ", idleTimeout="
+                + Duration.ofNanos(idleTimeoutNanos) + ", numberOfTenants=" + tenants.size() + ", tenantDependentNodeTypes=" + tenantDependentNodeTypes + "]";
+    }
+
+    /**
+     * Prepared state of a single tenant
+     */
+    private static final class TenantEntry {
+
+        private final Map<String, Serializable> globalVariables;
+
+        private final Map<String, SolrFilterQuery> nodeTypeFilters;
+
+        private final Set<Flag> flags;
+
+        private volatile long lastAccessNanos;
+
+        /**
+         * @param globalVariables
+         * @param nodeTypeFilters
+         * @param flags
+         * @param createdNanos initial access time, so a concurrent eviction cannot treat a new entry as idle
+         */
+        private TenantEntry(Map<String, Serializable> globalVariables, Map<String, SolrFilterQuery> nodeTypeFilters, Set<Flag> flags, long createdNanos) {
+            this.globalVariables = globalVariables;
+            this.nodeTypeFilters = nodeTypeFilters;
+            this.flags = flags;
+            this.lastAccessNanos = createdNanos;
+        }
+
+    }
+
+    /**
+     * Converter that uses the tenant's pre-rendered node type filters as long as the variables of a run did not change
+     */
+    private static final class TenantSolrExpressionConverter extends SolrExpressionConverter {
+
+        private final TenantEntry tenantEntry;
+
+        private TenantSolrExpressionConverter(SolrMappingConfig mappingConfig, TenantEntry tenantEntry) {
+            super(mappingConfig, new HashMap<>(tenantEntry.globalVariables), new HashSet<>(tenantEntry.flags));
+            this.tenantEntry = tenantEntry;
+        }
+
+        @Override
+        protected MatchFilterFactory createMatchFilterFactory(CoreExpression rootExpression) {
+            if (tenantEntry.globalVariables.equals(getProcessContext().getGlobalVariables())) {
+                return new DefaultMatchFilterFactory(getProcessContext(), tenantEntry.nodeTypeFilters);
+            }
+            // the caller modified the variables, so the pre-rendered filters might not apply
+            return super.createMatchFilterFactory(rootExpression);
+        }
+
+    }
+
+}
@@ -0,0 +1,149 @@
+//@formatter:off
+/*
+ * TimePartitionPruner
+ * Copyright 2025 Karl Eilebrecht
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"):
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+//@formatter:on
+package de.calamanari.adl.solr.cnv;
+
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+
+import de.calamanari.adl.CombinedExpressionType;
+import de.calamanari.adl.solr.cnv.ast.BooleanClause;
+import de.calamanari.adl.solr.cnv.ast.BooleanNode;
+import de.calamanari.adl.solr.cnv.ast.FilterNode;
+import de.calamanari.adl.solr.cnv.ast.FilterRange;
+import de.calamanari.adl.solr.cnv.ast.SolrQueryNode;
+import de.calamanari.adl.solr.config.TimePartitioning;
+
+/**
+ * The {@link TimePartitionPruner} determines the partitions (monthly collections) of a time-partitioned dependent document type that can contain documents
+ * matching the sub-query of a join.
+ * <p>
+ * The pruner evaluates the {@link FilterRange}s the leaves derive from their range and value conditions on the partition key field (including the
+ * day-aligned ranges created for date arguments) and combines them along the sub-query's AND/OR structure, partitions are addressed by their month offset from the first
+ * partition. Any part of the sub-query it cannot interpret (negations, mixed groups, functions, raw text) is
+ * conservatively treated as <i>may match in every partition</i>, so pruning never removes a partition that could contribute a match.
+ * 
+ * @author <a href="mailto:Karl.Eilebrecht(a/t)calamanari.de">Karl Eilebrecht</a>
+ */
+public final class TimePartitionPruner {
+
+    private final TimePartitioning partitioning;
+
+    private final List<String> partitionNames;
+
+    /**
+     * @param partitioning NOT NULL
+     */
+    public TimePartitionPruner(TimePartitioning partitioning) {
+        if (partitioning == null) {
+            throw new IllegalArgumentException("Argument partitioning must not be null.");
+        }
+        this.partitioning = partitioning;
+        this.partitionNames = partitioning.partitionNames();
+    }
+
+    /**
+     * @param subQuery conditions on the dependent document (sub-query of a join), NOT NULL
+     * @return collection names of the partitions that may contain matching documents in chronological order, may be empty
+     */
+    public List<String> selectPartitionNames(SolrQueryNode subQuery) {
+        BitSet selection = evaluate(subQuery);
+        List<String> res = new ArrayList<>(selection.cardinality());
+        selection.stream().forEach(idx -> res.add(partitionNames.get(idx)));
+        return Collections.unmodifiableList(res);
+    }
+
+    /**
+     * @return the partitioning this pruner works on
+     */
+    public TimePartitioning getPartitioning() {
+        return partitioning;
+    }
+
+    private BitSet evaluate(SolrQueryNode node) {
+        return switch (node) {
+        case FilterNode filterNode -> evaluateFilter(filterNode);
+        case BooleanNode group -> evaluateGroup(group);
+        default -> allPartitions();
+        };
+    }
+
+    private BitSet evaluateGroup(BooleanNode group) {
+        List<BooleanClause> clauses = group.clauses();
+        if (clauses.size() == 1) {
+            return clauses.get(0).negated() ? allPartitions() : evaluate(clauses.get(0).node());
+        }
+        if (!group.isHomogeneous()) {
+            return allPartitions();
+        }
+        boolean isAnd = group.commonCombiner() == CombinedExpressionType.AND;
+        BitSet res = isAnd ? allPartitions() : new BitSet(partitionNames.size());
+        for (BooleanClause clause : clauses) {
+            BitSet clauseSelection = clause.negated() ? allPartitions() : evaluate(clause.node());
+            if (isAnd) {
+                res.and(clauseSelection);
+            }
+            else {
+                res.or(clauseSelection);
+            }
+        }
+        return res;
+    }
+
+    /**
+     * Interprets the {@link FilterRange} of a leaf on the partition key field, leaves without a range or with bounds that are not plain instants (e.g., date
+     * math) may match in every partition
+     * 
+     * @param filterNode
+     * @return selected partitions
+     */
+    private BitSet evaluateFilter(FilterNode filterNode) {
+        FilterRange range = filterNode.range();
+        if (range == null || !range.fieldName().equals(partitioning.partitionKeyFieldName())) {
+            return allPartitions();
+        }
+        try {
+            return partitioning.selectPartitionIndexes(parseBound(range.lowerBound()), range.lowerBoundInclusive(), parseBound(range.upperBound()),
+                    range.upperBoundInclusive());
+        }
+        catch (DateTimeParseException _) {
+            // not a plain date value (e.g., date math), we cannot prune
+            return allPartitions();
+        }
+    }
+
+    private BitSet allPartitions() {
+        BitSet res = new BitSet(partitionNames.size());
+        res.set(0, partitionNames.size());
+        return res;
+    }
+
+    /**
+     * @param bound plain value or null
+     * @return instant or null if unbounded
+     * @throws DateTimeParseException if the bound is not an ISO-instant
+     */
+    private static Instant parseBound(String bound) {
+        return bound == null ? null : Instant.parse(bound);
+    }
+
+}
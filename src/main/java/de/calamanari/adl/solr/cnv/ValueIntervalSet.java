@@ -0,0 +1,358 @@
+//@formatter:off
+/*
+ * ValueIntervalSet
+ * Copyright 2025 Karl Eilebrecht
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"):
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+//@formatter:on
+
+package de.calamanari.adl.solr.cnv;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * A {@link ValueIntervalSet} is an immutable, normalized set of disjoint intervals over the values of a single argument.
+ * <p>
+ * The {@link DefaultMatchTreeHelper} uses this representation to merge (OR) or intersect (AND) range conditions related to the same field, so that the
+ * converter can emit the minimal set of range queries and detect conditions that can never be fulfilled.
+ * <p>
+ * The values are kept as strings (as they appear in the expression) and get ordered by the given comparator. The set does not make any assumptions about the
+ * <i>density</i> of the value space, e.g., <code>(5 .. 6)</code> is <i>not</i> considered empty, even if the values are integers.
+ * 
+ * @author <a href="mailto:Karl.Eilebrecht(a/t)calamanari.de">Karl Eilebrecht</a>
+ */
+public final class ValueIntervalSet {
+
+    /**
+     * The ordered disjoint intervals, no interval overlaps or touches another
+     */
+    private final List<ValueInterval> intervals;
+
+    /**
+     * Orders the values
+     */
+    private final Comparator<String> valueComparator;
+
+    /**
+     * @param valueComparator to order the values
+     * @param intervals list of non-empty intervals
+     */
+    private ValueIntervalSet(Comparator<String> valueComparator, List<ValueInterval> intervals) {
+        this.valueComparator = valueComparator;
+        this.intervals = Collections.unmodifiableList(normalize(valueComparator, intervals));
+    }
+
+    /**
+     * @param valueComparator NOT NULL
+     * @return empty set
+     */
+    public static ValueIntervalSet empty(Comparator<String> valueComparator) {
+        assertComparatorNotNull(valueComparator);
+        return new ValueIntervalSet(valueComparator, Collections.emptyList());
+    }
+
+    /**
+     * @param valueComparator NOT NULL
+     * @param value NOT NULL
+     * @return set containing exactly the given value
+     */
+    public static ValueIntervalSet point(Comparator<String> valueComparator, String value) {
+        return of(valueComparator, value, true, value, true);
+    }
+
+    /**
+     * @param valueComparator NOT NULL
+     * @param value lower bound, NOT NULL
+     * @param inclusive true if the value itself is included
+     * @return set containing all values greater than (or equal to) the given value
+     */
+    public static ValueIntervalSet greaterThan(Comparator<String> valueComparator, String value, boolean inclusive) {
+        assertValueNotNull(value);
+        return of(valueComparator, value, inclusive, null, false);
+    }
+
+    /**
+     * @param valueComparator NOT NULL
+     * @param value upper bound, NOT NULL
+     * @param inclusive true if the value itself is included
+     * @return set containing all values less than (or equal to) the given value
+     */
+    public static ValueIntervalSet lessThan(Comparator<String> valueComparator, String value, boolean inclusive) {
+        assertValueNotNull(value);
+        return of(valueComparator, null, false, value, inclusive);
+    }
+
+    /**
+     * @param valueComparator NOT NULL
+     * @param lowerBound value or null (unbounded)
+     * @param isLowerBoundIncluded true if the lower bound value belongs to the interval (ignored if lowerBound is null)
+     * @param upperBound value or null (unbounded)
+     * @param isUpperBoundIncluded true if the upper bound value belongs to the interval (ignored if upperBound is null)
+     * @return set with the given single interval or an empty set if the bounds do not describe any value
+     */
+    public static ValueIntervalSet of(Comparator<String> valueComparator, String lowerBound, boolean isLowerBoundIncluded, String upperBound,
+            boolean isUpperBoundIncluded) {
+        assertComparatorNotNull(valueComparator);
+        ValueInterval interval = createInterval(valueComparator, lowerBound, isLowerBoundIncluded, upperBound, isUpperBoundIncluded);
+        return new ValueIntervalSet(valueComparator, interval == null ? Collections.emptyList() : Collections.singletonList(interval));
+    }
+
+    /**
+     * @param other set to be merged with this one (same comparator expected)
+     * @return new set containing all values contained in this set or the other set
+     */
+    public ValueIntervalSet union(ValueIntervalSet other) {
+        List<ValueInterval> temp = new ArrayList<>(intervals);
+        temp.addAll(other.intervals);
+        return new ValueIntervalSet(valueComparator, temp);
+    }
+
+    /**
+     * @param other set to be intersected with this one (same comparator expected)
+     * @return new set containing all values contained in this set as well as in the other set
+     */
+    public ValueIntervalSet intersect(ValueIntervalSet other) {
+        List<ValueInterval> temp = new ArrayList<>();
+        for (ValueInterval left : intervals) {
+            for (ValueInterval right : other.intervals) {
+                ValueInterval intersection = intersect(valueComparator, left, right);
+                if (intersection != null) {
+                    temp.add(intersection);
+                }
+            }
+        }
+        return new ValueIntervalSet(valueComparator, temp);
+    }
+
+    /**
+     * @return true if this set does not contain any value
+     */
+    public boolean isEmpty() {
+        return intervals.isEmpty();
+    }
+
+    /**
+     * @return true if this set contains all possible values
+     */
+    public boolean isFull() {
+        return intervals.size() == 1 && intervals.get(0).isUnbounded();
+    }
+
+    /**
+     * @return the ordered list of disjoint intervals, unmodifiable
+     */
+    public List<ValueInterval> intervals() {
+        return intervals;
+    }
+
+    /**
+     * @return number of disjoint intervals in this set
+     */
+    public int size() {
+        return intervals.size();
+    }
+
+    @Override
+    public String toString() {
+        return intervals.isEmpty() ? "{}" : intervals.toString();
+    }
+
+    /**
+     * Creates the intersection of two intervals
+     * 
+     * @param valueComparator
+     * @param left
+     * @param right
+     * @return intersection or null if the intersection is empty
+     */
+    private static ValueInterval intersect(Comparator<String> valueComparator, ValueInterval left, ValueInterval right) {
+        String lowerBound = left.lowerBound();
+        boolean isLowerBoundIncluded = left.isLowerBoundIncluded();
+        int cmp = compareLowerBounds(valueComparator, left, right);
+        if (cmp < 0 || (cmp == 0 && !right.isLowerBoundIncluded())) {
+            lowerBound = right.lowerBound();
+            isLowerBoundIncluded = right.isLowerBoundIncluded();
+        }
+
+        String upperBound = left.upperBound();
+        boolean isUpperBoundIncluded = left.isUpperBoundIncluded();
+        cmp = compareUpperBounds(valueComparator, left, right);
+        if (cmp > 0 || (cmp == 0 && !right.isUpperBoundIncluded())) {
+            upperBound = right.upperBound();
+            isUpperBoundIncluded = right.isUpperBoundIncluded();
+        }
+        return createInterval(valueComparator, lowerBound, isLowerBoundIncluded, upperBound, isUpperBoundIncluded);
+    }
+
+    /**
+     * @param valueComparator
+     * @param lowerBound
+     * @param isLowerBoundIncluded
+     * @param upperBound
+     * @param isUpperBoundIncluded
+     * @return interval or null if the interval would be empty
+     */
+    private static ValueInterval createInterval(Comparator<String> valueComparator, String lowerBound, boolean isLowerBoundIncluded, String upperBound,
+            boolean isUpperBoundIncluded) {
+        if (lowerBound != null && upperBound != null) {
+            int cmp = valueComparator.compare(lowerBound, upperBound);
+            if (cmp > 0 || (cmp == 0 && !(isLowerBoundIncluded && isUpperBoundIncluded))) {
+                return null;
+            }
+            else if (cmp == 0) {
+                // enforce identical bounds for a single value
+                upperBound = lowerBound;
+            }
+        }
+        return new ValueInterval(lowerBound, lowerBound != null && isLowerBoundIncluded, upperBound, upperBound != null && isUpperBoundIncluded);
+    }
+
+    /**
+     * Sorts the intervals and merges all overlapping or touching ones
+     * 
+     * @param valueComparator
+     * @param intervals
+     * @return list of disjoint intervals
+     */
+    private static List<ValueInterval> normalize(Comparator<String> valueComparator, List<ValueInterval> intervals) {
+        if (intervals.size() < 2) {
+            return new ArrayList<>(intervals);
+        }
+        List<ValueInterval> sorted = new ArrayList<>(intervals);
+        Collections.sort(sorted, (left, right) -> compareLowerBounds(valueComparator, left, right));
+
+        List<ValueInterval> res = new ArrayList<>();
+        ValueInterval current = sorted.get(0);
+        for (int i = 1; i < sorted.size(); i++) {
+            ValueInterval next = sorted.get(i);
+            if (isOverlappingOrTouching(valueComparator, current, next)) {
+                current = (compareUpperBounds(valueComparator, current, next) < 0) ? next.withLowerBoundOf(current) : current;
+            }
+            else {
+                res.add(current);
+                current = next;
+            }
+        }
+        res.add(current);
+        return res;
+    }
+
+    /**
+     * @param valueComparator
+     * @param left with lower bound less than or equal to the lower bound of right
+     * @param right
+     * @return true if the two intervals can be combined into one
+     */
+    private static boolean isOverlappingOrTouching(Comparator<String> valueComparator, ValueInterval left, ValueInterval right) {
+        if (left.upperBound() == null || right.lowerBound() == null) {
+            return true;
+        }
+        int cmp = valueComparator.compare(right.lowerBound(), left.upperBound());
+        return cmp < 0 || (cmp == 0 && (right.isLowerBoundIncluded() || left.isUpperBoundIncluded()));
+    }
+
+    /**
+     * Orders lower bounds: unbounded first, for the same value the included bound comes first
+     * 
+     * @param valueComparator
+     * @param left
+     * @param right
+     * @return comparison result
+     */
+    private static int compareLowerBounds(Comparator<String> valueComparator, ValueInterval left, ValueInterval right) {
+        if (left.lowerBound() == null || right.lowerBound() == null) {
+            return Boolean.compare(left.lowerBound() != null, right.lowerBound() != null);
+        }
+        int res = valueComparator.compare(left.lowerBound(), right.lowerBound());
+        if (res == 0) {
+            res = Boolean.compare(right.isLowerBoundIncluded(), left.isLowerBoundIncluded());
+        }
+        return res;
+    }
+
+    /**
+     * Orders upper bounds: unbounded last, for the same value the included bound comes last
+     * 
+     * @param valueComparator
+     * @param left
+     * @param right
+     * @return comparison result
+     */
+    private static int compareUpperBounds(Comparator<String> valueComparator, ValueInterval left, ValueInterval right) {
+        if (left.upperBound() == null || right.upperBound() == null) {
+            return Boolean.compare(left.upperBound() == null, right.upperBound() == null);
+        }
+        int res = valueComparator.compare(left.upperBound(), right.upperBound());
+        if (res == 0) {
+            res = Boolean.compare(left.isUpperBoundIncluded(), right.isUpperBoundIncluded());
+        }
+        return res;
+    }
+
+    private static void assertComparatorNotNull(Comparator<String> valueComparator) {
+        if (valueComparator == null) {
+            throw new IllegalArgumentException("The valueComparator must not be null.");
+        }
+    }
+
+    private static void assertValueNotNull(String value) {
+        if (value == null) {
+            throw new IllegalArgumentException("The bound value must not be null.");
+        }
+    }
+
+    /**
+     * A single non-empty interval, a null-bound means <i>unbounded</i>.
+     * 
+     * @param lowerBound value or null
+     * @param isLowerBoundIncluded true if the lower bound value belongs to the interval
+     * @param upperBound value or null
+     * @param isUpperBoundIncluded true if the upper bound value belongs to the interval
+     */
+    public record ValueInterval(String lowerBound, boolean isLowerBoundIncluded, String upperBound, boolean isUpperBoundIncluded) {
+
+        /**
+         * @return true if this interval only contains a single value
+         */
+        public boolean isPoint() {
+            return lowerBound != null && lowerBound.equals(upperBound);
+        }
+
+        /**
+         * @return true if neither the lower nor the upper bound is limited
+         */
+        public boolean isUnbounded() {
+            return lowerBound == null && upperBound == null;
+        }
+
+        /**
+         * @param other
+         * @return new interval with the lower bound of the other interval and the upper bound of this interval
+         */
+        ValueInterval withLowerBoundOf(ValueInterval other) {
+            return new ValueInterval(other.lowerBound, other.isLowerBoundIncluded, upperBound, isUpperBoundIncluded);
+        }
+
+        @Override
+        public String toString() {
+            return (lowerBound == null ? "(*" : (isLowerBoundIncluded ? "[" : "(") + lowerBound) + " .. "
+                    + (upperBound == null ? "*)" : upperBound + (isUpperBoundIncluded ? "]" : ")"));
+        }
+
+    }
+
+}
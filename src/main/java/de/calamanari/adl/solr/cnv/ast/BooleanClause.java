@@ -0,0 +1,63 @@
+//@formatter:off
+/*
+ * BooleanClause
+ * Copyright 2025 Karl Eilebrecht
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"):
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+//@formatter:on
+
+package de.calamanari.adl.solr.cnv.ast;
+
+import java.io.Serializable;
+
+import de.calamanari.adl.CombinedExpressionType;
+
+/**
+ * A {@link BooleanClause} is a member of a {@link BooleanNode}. It combines its node with the previous clause of the group.
+ * 
+ * @param combiner AND/OR to connect this clause with the previous one, null for the first clause of a group
+ * @param negated true if the node is negated (<code>NOT</code>)
+ * @param node the member node, NOT NULL
+ * @author <a href="mailto:Karl.Eilebrecht(a/t)calamanari.de">Karl Eilebrecht</a>
+ */
+public record BooleanClause(CombinedExpressionType combiner, boolean negated, SolrQueryNode node) implements Serializable {
+
+    /**
+     * @param combiner AND/OR to connect this clause with the previous one, null for the first clause of a group
+     * @param negated true if the node is negated (<code>NOT</code>)
+     * @param node the member node, NOT NULL
+     */
+    public BooleanClause {
+        if (node == null) {
+            throw new IllegalArgumentException(String.format("Argument node must not be null, given: combiner=%s, negated=%s", combiner, negated));
+        }
+    }
+
+    /**
+     * @param combiner new combiner (null for first position)
+     * @return clause with the given combiner, same negation and node
+     */
+    public BooleanClause withCombiner(CombinedExpressionType combiner) {
+        return combiner == this.combiner ? this : new BooleanClause(combiner, negated, node);
+    }
+
+    /**
+     * @param node replacement
+     * @return clause with the same combiner and negation but the given node
+     */
+    public BooleanClause withNode(SolrQueryNode node) {
+        return node == this.node ? this : new BooleanClause(combiner, negated, node);
+    }
+
+}
@@ -0,0 +1,88 @@
+//@formatter:off
+/*
+ * BooleanNode
+ * Copyright 2025 Karl Eilebrecht
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"):
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+//@formatter:on
+
+package de.calamanari.adl.solr.cnv.ast;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import de.calamanari.adl.CombinedExpressionType;
+
+/**
+ * A {@link BooleanNode} is a group of clauses combined with AND/OR, optionally negated.
+ * <p>
+ * The clauses are kept in the order they were added, the combiners are <i>not</i> normalized. This way the tree reproduces exactly the query the converter
+ * composed. A group is <b>homogeneous</b> if all of its clauses (except for the first) share the same combiner.
+ * 
+ * @param clauses members of this group, NOT NULL, may be empty
+ * @param braced true if the group will be surrounded by braces, false for the root of a query or join sub-query
+ * @author <a href="mailto:Karl.Eilebrecht(a/t)calamanari.de">Karl Eilebrecht</a>
+ */
+public record BooleanNode(List<BooleanClause> clauses, boolean braced) implements SolrQueryNode {
+
+    /**
+     * @param clauses members of this group, NOT NULL, may be empty
+     * @param braced true if the group will be surrounded by braces, false for the root of a query or join sub-query
+     */
+    public BooleanNode(List<BooleanClause> clauses, boolean braced) {
+        if (clauses == null || clauses.stream().anyMatch(clause -> clause == null)) {
+            throw new IllegalArgumentException(String.format("Argument clauses must not be null or contain nulls, given: clauses=%s", clauses));
+        }
+        this.clauses = Collections.unmodifiableList(new ArrayList<>(clauses));
+        this.braced = braced;
+    }
+
+    /**
+     * Returns the combiner common to all the clauses of this group
+     * 
+     * @return combiner or null if this group is not homogeneous or does not have more than one clause
+     */
+    public CombinedExpressionType commonCombiner() {
+        CombinedExpressionType res = null;
+        for (int i = 1; i < clauses.size(); i++) {
+            CombinedExpressionType combiner = clauses.get(i).combiner();
+            if (combiner == null || (res != null && res != combiner)) {
+                return null;
+            }
+            res = combiner;
+        }
+        return res;
+    }
+
+    /**
+     * @return true if this group has at least two clauses all combined with the same combiner and the first clause does not have a combiner
+     */
+    public boolean isHomogeneous() {
+        return clauses.size() > 1 && clauses.get(0).combiner() == null && commonCombiner() != null;
+    }
+
+    /**
+     * @return true if any of the clauses is negated
+     */
+    public boolean containsNegation() {
+        return clauses.stream().anyMatch(BooleanClause::negated);
+    }
+
+    @Override
+    public boolean containsRawText() {
+        return clauses.stream().anyMatch(clause -> clause.node().containsRawText());
+    }
+
+}
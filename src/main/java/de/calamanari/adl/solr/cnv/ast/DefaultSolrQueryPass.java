@@ -0,0 +1,353 @@
+//@formatter:off
+/*
+ * DefaultSolrQueryPass
+ * Copyright 2025 Karl Eilebrecht
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"):
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+//@formatter:on
+
+package de.calamanari.adl.solr.cnv.ast;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.UnaryOperator;
+
+import de.calamanari.adl.CombinedExpressionType;
+
+/**
+ * Default optimizations on a query tree.
+ * <p>
+ * Passes that only remove redundancy are applied by default (see {@link #defaultPasses()}), passes that restructure the query (e.g., merging joins) must be
+ * enabled explicitly (see {@link #allPasses()}).
+ * <p>
+ * All passes are conservative: they only touch groups without raw text (see {@link RawNode}) and never change the set of matching documents. In particular
+ * the passes respect the way the standard query parser treats negations (<code>a OR NOT b</code> means <i>a and not b</i>), so no negated clause will be moved
+ * into a different OR-group.
+ * 
+ * @author <a href="mailto:Karl.Eilebrecht(a/t)calamanari.de">Karl Eilebrecht</a>
+ */
+public enum DefaultSolrQueryPass implements SolrQueryPass {
+
+    /**
+     * Removes superfluous braces:
+     * <ul>
+     * <li>A group that only contains another group or a join gets replaced with its member: <code>((a OR b))</code> becomes <code>(a OR b)</code></li>
+     * <li>A group combined with the same combiner as its parent gets merged into the parent: <code>a AND (b AND c)</code> becomes
+     * <code>a AND b AND c</code>, unless it starts with a negation or is an OR-group containing a negation.</li>
+     * </ul>
+     */
+    FLATTEN_BRACES(false) {
+
+        @Override
+        public SolrQueryNode apply(SolrQueryNode root) {
+            return transformGroups(root, DefaultSolrQueryPass::flattenBraces);
+        }
+
+    },
+
+    /**
+     * Removes duplicate clauses from groups with a common combiner: <code>a OR b OR a</code> becomes <code>a OR b</code>.
+     */
+    REMOVE_DUPLICATE_CLAUSES(true) {
+
+        @Override
+        public SolrQueryNode apply(SolrQueryNode root) {
+            return transformGroups(root, DefaultSolrQueryPass::removeDuplicateClauses);
+        }
+
+    },
+
+    /**
+     * Combines joins of the same kind to the same node type inside an OR-group into a single join: <code>{!join v="nt AND a"} OR {!join v="nt AND b"}</code>
+     * becomes <code>{!join v="nt AND ((a) OR (b))"}</code>.
+     * <p>
+     * This reduces the number of joins Solr must execute. Joins combined with AND will never be merged because this would change the semantics (all
+     * conditions would have to be met by the <i>same</i> sub-document).
+     */
+    MERGE_OR_JOINS(false) {
+
+        @Override
+        public SolrQueryNode apply(SolrQueryNode root) {
+            return transformGroups(root, DefaultSolrQueryPass::mergeOrJoins);
+        }
+
+    };
+
+    /**
+     * Used as a placeholder to compare joins regardless of their sub-queries
+     */
+    private static final BooleanNode EMPTY_GROUP = new BooleanNode(Collections.emptyList(), false);
+
+    /**
+     * true if this pass is part of the default optimization
+     */
+    private final boolean appliedByDefault;
+
+    private DefaultSolrQueryPass(boolean appliedByDefault) {
+        this.appliedByDefault = appliedByDefault;
+    }
+
+    /**
+     * @return true if this pass is part of the default optimization
+     */
+    public boolean isAppliedByDefault() {
+        return appliedByDefault;
+    }
+
+    /**
+     * @return the passes applied by default in order of application
+     */
+    public static List<SolrQueryPass> defaultPasses() {
+        return Arrays.stream(values()).filter(DefaultSolrQueryPass::isAppliedByDefault).map(SolrQueryPass.class::cast).toList();
+    }
+
+    /**
+     * @return all passes in order of application
+     */
+    public static List<SolrQueryPass> allPasses() {
+        return Arrays.asList(values());
+    }
+
+    /**
+     * Applies all the given passes in order
+     * 
+     * @param root query tree
+     * @param passes to be applied
+     * @return optimized tree or root if there was nothing to change
+     */
+    public static SolrQueryNode applyAll(SolrQueryNode root, List<? extends SolrQueryPass> passes) {
+        SolrQueryNode res = root;
+        for (SolrQueryPass pass : passes) {
+            res = pass.apply(res);
+        }
+        return res;
+    }
+
+    /**
+     * Rewrites the tree bottom-up by applying the given function to every group, including the sub-queries of joins
+     * 
+     * @param node start node
+     * @param groupRewriter returns the group or a replacement
+     * @return node or replacement
+     */
+    private static SolrQueryNode transformGroups(SolrQueryNode node, UnaryOperator<BooleanNode> groupRewriter) {
+        switch (node) {
+        case BooleanNode group:
+            return groupRewriter.apply(transformMembers(group, groupRewriter));
+        case DependentJoinNode join:
+            BooleanNode dependentSubQuery = (BooleanNode) transformGroups(join.subQuery(), groupRewriter);
+            return dependentSubQuery == join.subQuery() ? join : join.withSubQuery(dependentSubQuery);
+        case NestedJoinNode join:
+            BooleanNode nestedSubQuery = (BooleanNode) transformGroups(join.subQuery(), groupRewriter);
+            return nestedSubQuery == join.subQuery() ? join : join.withSubQuery(nestedSubQuery);
+        default:
+            return node;
+        }
+    }
+
+    private static BooleanNode transformMembers(BooleanNode group, UnaryOperator<BooleanNode> groupRewriter) {
+        List<BooleanClause> clauses = new ArrayList<>(group.clauses().size());
+        boolean modified = false;
+        for (BooleanClause clause : group.clauses()) {
+            BooleanClause updatedClause = clause.withNode(transformGroups(clause.node(), groupRewriter));
+            modified = modified || updatedClause != clause;
+            clauses.add(updatedClause);
+        }
+        return modified ? new BooleanNode(clauses, group.braced()) : group;
+    }
+
+    /**
+     * @param group
+     * @return true if the group has a single clause or a common combiner and does not contain any raw text
+     */
+    private static boolean isCombinable(BooleanNode group) {
+        return !group.containsRawText() && (group.clauses().size() == 1 || group.isHomogeneous());
+    }
+
+    private static BooleanNode flattenBraces(BooleanNode group) {
+        if (!isCombinable(group)) {
+            return group;
+        }
+        CombinedExpressionType combiner = group.commonCombiner();
+        List<BooleanClause> clauses = new ArrayList<>();
+        boolean modified = false;
+        for (BooleanClause clause : group.clauses()) {
+            BooleanClause unwrapped = unwrapSingleMember(clause);
+            modified = modified || unwrapped != clause;
+            if (!unwrapped.negated() && unwrapped.node() instanceof BooleanNode member && isSpliceable(member, combiner)) {
+                List<BooleanClause> memberClauses = member.clauses();
+                clauses.add(memberClauses.get(0).withCombiner(unwrapped.combiner()));
+                clauses.addAll(memberClauses.subList(1, memberClauses.size()));
+                modified = true;
+            }
+            else {
+                clauses.add(unwrapped);
+            }
+        }
+        if (!modified) {
+            return group;
+        }
+        return new BooleanNode(clauses, group.braced());
+    }
+
+    /**
+     * Replaces a braced group that only contains another group or a join with the member
+     */
+    private static BooleanClause unwrapSingleMember(BooleanClause clause) {
+        BooleanClause res = clause;
+        while (res.node() instanceof BooleanNode group && group.braced() && group.clauses().size() == 1) {
+            BooleanClause member = group.clauses().get(0);
+            if (member.negated() || !((member.node() instanceof BooleanNode memberGroup && memberGroup.braced())
+                    || member.node() instanceof DependentJoinNode || member.node() instanceof NestedJoinNode)) {
+                break;
+            }
+            res = res.withNode(member.node());
+        }
+        return res;
+    }
+
+    /**
+     * @param member group to be spliced into its parent
+     * @param parentCombiner combiner of the parent, null if the parent has a single clause
+     * @return true if the member's clauses can replace the member in the parent group without changing the semantics
+     */
+    private static boolean isSpliceable(BooleanNode member, CombinedExpressionType parentCombiner) {
+        if (!member.braced() || member.clauses().isEmpty() || !isCombinable(member) || member.clauses().get(0).negated()) {
+            return false;
+        }
+        if (parentCombiner == null) {
+            // the parent only consists of the member
+            return true;
+        }
+        CombinedExpressionType memberCombiner = member.commonCombiner();
+        if (memberCombiner != null && memberCombiner != parentCombiner) {
+            return false;
+        }
+        // a negation inside an OR-group limits the matches of the whole group
+        return parentCombiner == CombinedExpressionType.AND || !member.containsNegation();
+    }
+
+    private static BooleanNode mergeOrJoins(BooleanNode group) {
+        if (!isCombinable(group) || group.commonCombiner() != CombinedExpressionType.OR) {
+            return group;
+        }
+        Map<SolrQueryNode, List<BooleanNode>> subQueriesByJoin = new LinkedHashMap<>();
+        for (BooleanClause clause : group.clauses()) {
+            SolrQueryNode joinKey = createJoinKey(clause);
+            if (joinKey != null) {
+                subQueriesByJoin.computeIfAbsent(joinKey, key -> new ArrayList<>()).add(subQueryOf(clause.node()));
+            }
+        }
+        if (subQueriesByJoin.values().stream().noneMatch(subQueries -> subQueries.size() > 1)) {
+            return group;
+        }
+        List<BooleanClause> clauses = new ArrayList<>();
+        Set<SolrQueryNode> joinsAdded = new HashSet<>();
+        for (BooleanClause clause : group.clauses()) {
+            SolrQueryNode joinKey = createJoinKey(clause);
+            List<BooleanNode> subQueries = joinKey == null ? null : subQueriesByJoin.get(joinKey);
+            if (subQueries == null || subQueries.size() == 1) {
+                clauses.add(clause);
+            }
+            else if (joinsAdded.add(joinKey)) {
+                BooleanNode mergedSubQuery = mergeSubQueries(subQueries);
+                SolrQueryNode mergedJoin = (clause.node() instanceof DependentJoinNode join) ? join.withSubQuery(mergedSubQuery)
+                        : ((NestedJoinNode) clause.node()).withSubQuery(mergedSubQuery);
+                clauses.add(new BooleanClause(clauses.isEmpty() ? null : CombinedExpressionType.OR, false, mergedJoin));
+            }
+        }
+        return new BooleanNode(clauses, group.braced());
+    }
+
+    /**
+     * @return the join node with an empty sub query or null if the clause is not a positive join with a sub query starting with a positive condition
+     */
+    private static SolrQueryNode createJoinKey(BooleanClause clause) {
+        if (clause.negated() || clause.node().containsRawText()) {
+            return null;
+        }
+        BooleanNode subQuery = (clause.node() instanceof DependentJoinNode || clause.node() instanceof NestedJoinNode) ? subQueryOf(clause.node()) : null;
+        if (subQuery == null || subQuery.clauses().isEmpty() || subQuery.clauses().get(0).negated()) {
+            return null;
+        }
+        switch (clause.node()) {
+        case DependentJoinNode join:
+            return join.withSubQuery(EMPTY_GROUP);
+        case NestedJoinNode join:
+            return join.withSubQuery(EMPTY_GROUP);
+        default:
+            return null;
+        }
+    }
+
+    private static BooleanNode subQueryOf(SolrQueryNode join) {
+        return (join instanceof DependentJoinNode dependentJoin) ? dependentJoin.subQuery() : ((NestedJoinNode) join).subQuery();
+    }
+
+    /**
+     * Combines the given sub queries with OR. If all sub queries start with the same (node type) condition followed by AND, this condition will be applied
+     * only once.
+     */
+    private static BooleanNode mergeSubQueries(List<BooleanNode> subQueries) {
+        List<BooleanClause> orClauses = new ArrayList<>();
+        if (haveCommonFirstClause(subQueries)) {
+            for (BooleanNode subQuery : subQueries) {
+                List<BooleanClause> remainder = new ArrayList<>(subQuery.clauses().subList(1, subQuery.clauses().size()));
+                remainder.set(0, remainder.get(0).withCombiner(null));
+                orClauses.add(new BooleanClause(orClauses.isEmpty() ? null : CombinedExpressionType.OR, false, new BooleanNode(remainder, true)));
+            }
+            BooleanClause first = subQueries.get(0).clauses().get(0);
+            return new BooleanNode(List.of(first, new BooleanClause(CombinedExpressionType.AND, false, new BooleanNode(orClauses, true))), false);
+        }
+        for (BooleanNode subQuery : subQueries) {
+            orClauses.add(new BooleanClause(orClauses.isEmpty() ? null : CombinedExpressionType.OR, false, new BooleanNode(subQuery.clauses(), true)));
+        }
+        return new BooleanNode(orClauses, false);
+    }
+
+    private static boolean haveCommonFirstClause(List<BooleanNode> subQueries) {
+        BooleanClause first = subQueries.get(0).clauses().isEmpty() ? null : subQueries.get(0).clauses().get(0);
+        if (first == null || first.negated()) {
+            return false;
+        }
+        for (BooleanNode subQuery : subQueries) {
+            if (subQuery.clauses().size() < 2 || !subQuery.isHomogeneous() || subQuery.commonCombiner() != CombinedExpressionType.AND
+                    || !subQuery.clauses().get(0).equals(first) || subQuery.clauses().get(1).negated()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static BooleanNode removeDuplicateClauses(BooleanNode group) {
+        if (group.clauses().size() < 2 || !isCombinable(group)) {
+            return group;
+        }
+        Set<BooleanClause> seen = new HashSet<>();
+        List<BooleanClause> clauses = new ArrayList<>(group.clauses().size());
+        for (BooleanClause clause : group.clauses()) {
+            if (seen.add(clause.withCombiner(null))) {
+                clauses.add(clause);
+            }
+        }
+        return clauses.size() == group.clauses().size() ? group : new BooleanNode(clauses, group.braced());
+    }
+
+}
@@ -0,0 +1,85 @@
+//@formatter:off
+/*
+ * DependentJoinNode
+ * Copyright 2025 Karl Eilebrecht
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"):
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+//@formatter:on
+
+package de.calamanari.adl.solr.cnv.ast;
+
+/**
+ * A {@link DependentJoinNode} represents a join from the main document to a dependent document (<code>{!join from=... to=... v="..."}</code>).
+ * <p>
+ * If the dependent documents reside in a different collection (e.g., a time partition) the join reads them from the collection {@link #fromIndex()}
+ * (<code>{!join fromIndex=... from=... to=... v="..."}</code>).
+ * 
+ * @param nodeType type of the dependent document, NOT NULL
+ * @param fromFieldName name of the field in the dependent document that refers to the main document, NOT NULL
+ * @param toFieldName name of the unique key field of the main document, NOT NULL
+ * @param subQuery conditions on the dependent document, NOT NULL, not braced
+ * @param fromIndex collection the dependent documents reside in or null if they are stored along with the main documents
+ * @author <a href="mailto:Karl.Eilebrecht(a/t)calamanari.de">Karl Eilebrecht</a>
+ */
+public record DependentJoinNode(String nodeType, String fromFieldName, String toFieldName, BooleanNode subQuery, String fromIndex) implements SolrQueryNode {
+
+    /**
+     * @param nodeType type of the dependent document, NOT NULL
+     * @param fromFieldName name of the field in the dependent document that refers to the main document, NOT NULL
+     * @param toFieldName name of the unique key field of the main document, NOT NULL
+     * @param subQuery conditions on the dependent document, NOT NULL, not braced
+     * @param fromIndex collection the dependent documents reside in or null if they are stored along with the main documents
+     */
+    public DependentJoinNode {
+        if (nodeType == null || fromFieldName == null || toFieldName == null || subQuery == null || (fromIndex != null && fromIndex.isBlank())) {
+            throw new IllegalArgumentException(String.format(
+                    "Arguments must not be null (fromIndex must not be blank), given: nodeType=%s, fromFieldName=%s, toFieldName=%s, subQuery=%s, fromIndex=%s",
+                    nodeType, fromFieldName, toFieldName, subQuery, fromIndex));
+        }
+    }
+
+    /**
+     * Creates a join to dependent documents in the main collection
+     * 
+     * @param nodeType type of the dependent document, NOT NULL
+     * @param fromFieldName name of the field in the dependent document that refers to the main document, NOT NULL
+     * @param toFieldName name of the unique key field of the main document, NOT NULL
+     * @param subQuery conditions on the dependent document, NOT NULL, not braced
+     */
+    public DependentJoinNode(String nodeType, String fromFieldName, String toFieldName, BooleanNode subQuery) {
+        this(nodeType, fromFieldName, toFieldName, subQuery, null);
+    }
+
+    /**
+     * @param subQuery replacement
+     * @return join with the same settings but the given sub query
+     */
+    public DependentJoinNode withSubQuery(BooleanNode subQuery) {
+        return new DependentJoinNode(nodeType, fromFieldName, toFieldName, subQuery, fromIndex);
+    }
+
+    /**
+     * @param fromIndex collection the dependent documents reside in, null for the main collection
+     * @return join with the same settings but reading the dependent documents from the given collection
+     */
+    public DependentJoinNode withFromIndex(String fromIndex) {
+        return new DependentJoinNode(nodeType, fromFieldName, toFieldName, subQuery, fromIndex);
+    }
+
+    @Override
+    public boolean containsRawText() {
+        return subQuery.containsRawText();
+    }
+
+}
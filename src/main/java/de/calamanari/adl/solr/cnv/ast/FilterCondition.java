@@ -0,0 +1,56 @@
+//@formatter:off
+/*
+ * FilterCondition
+ * Copyright 2025 Karl Eilebrecht
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"):
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+//@formatter:on
+
+package de.calamanari.adl.solr.cnv.ast;
+
+import java.io.Serializable;
+
+/**
+ * A {@link FilterCondition} is the typed content of a leaf ({@link FilterNode}) of the query tree: the field, the values resp. bounds and the query parser
+ * parameters of an atomic condition.
+ * <p>
+ * Values and bounds are kept <i>formatted</i>, means exactly as the formatter of the field's type created them for the standard query parser (escaped). This
+ * way a condition renders the same query string the converter created before, consumers that need the plain values can unescape them (see
+ * {@link de.calamanari.adl.solr.SolrFormatUtils#unescape(String)}).
+ * <p>
+ * Filter queries that do not come with any further information (e.g., from a custom {@link de.calamanari.adl.solr.cnv.MatchFilterFactory}) are wrapped as
+ * {@link QueryStringCondition}.
+ * 
+ * @author <a href="mailto:Karl.Eilebrecht(a/t)calamanari.de">Karl Eilebrecht</a>
+ */
+public sealed interface FilterCondition extends Serializable
+        permits TermCondition, TermListCondition, TermsCondition, RangeCondition, WildcardCondition, FrangeCondition, QueryStringCondition {
+
+    /**
+     * Appends this condition in the syntax of the Solr standard query parser
+     * 
+     * @param sb
+     */
+    void appendTo(StringBuilder sb);
+
+    /**
+     * @return this condition in the syntax of the Solr standard query parser
+     */
+    default String toQueryString() {
+        StringBuilder sb = new StringBuilder();
+        appendTo(sb);
+        return sb.toString();
+    }
+
+}
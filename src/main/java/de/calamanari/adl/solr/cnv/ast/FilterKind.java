@@ -0,0 +1,80 @@
+//@formatter:off
+/*
+ * FilterKind
+ * Copyright 2025 Karl Eilebrecht
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"):
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+//@formatter:on
+
+package de.calamanari.adl.solr.cnv.ast;
+
+import java.util.List;
+
+import de.calamanari.adl.solr.SolrConditionType;
+import de.calamanari.adl.solr.SolrFilterQuery;
+
+/**
+ * Classification of the leaves ({@link FilterNode}s) of a Solr query tree
+ * 
+ * @author <a href="mailto:Karl.Eilebrecht(a/t)calamanari.de">Karl Eilebrecht</a>
+ */
+public enum FilterKind {
+
+    /**
+     * Node type filter (all documents of a type, including any configured document filters)
+     */
+    NODE_TYPE,
+
+    /**
+     * Function range query (inlined <code>{!frange ...}</code>)
+     */
+    FRANGE,
+
+    /**
+     * Range query on a field (e.g., <code>field:[* TO 5]</code>)
+     */
+    RANGE,
+
+    /**
+     * Terms query (inlined terms query parser on a single field, e.g., <code>{!terms f=field}a,b,c</code>)
+     */
+    TERMS,
+
+    /**
+     * Term query (value match including OR-lists, any-value match or text-contains)
+     */
+    TERM;
+
+    /**
+     * Determines the kind of the given filter query from the condition types its creator assigned, applicable if the condition is only known by its query
+     * string (see {@link QueryStringCondition})
+     * 
+     * @param filterQuery NOT NULL
+     * @return kind of filter
+     */
+    public static FilterKind of(SolrFilterQuery filterQuery) {
+        List<SolrConditionType> conditionTypes = filterQuery.conditionTypes();
+        if (conditionTypes.contains(SolrConditionType.ALL_DOCS) || conditionTypes.contains(SolrConditionType.ALL_SUB_DOCS)) {
+            return NODE_TYPE;
+        }
+        else if (conditionTypes.contains(SolrConditionType.FRANGE)) {
+            return FRANGE;
+        }
+        else if (conditionTypes.contains(SolrConditionType.CMP_RANGE)) {
+            return RANGE;
+        }
+        return TERM;
+    }
+
+}
@@ -0,0 +1,112 @@
+//@formatter:off
+/*
+ * FilterNode
+ * Copyright 2025 Karl Eilebrecht
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"):
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+//@formatter:on
+
+package de.calamanari.adl.solr.cnv.ast;
+
+import java.util.List;
+
+import de.calamanari.adl.solr.SolrConditionType;
+import de.calamanari.adl.solr.SolrFilterQuery;
+import de.calamanari.adl.solr.SolrQueryField;
+
+/**
+ * A {@link FilterNode} is a leaf of the query tree holding an atomic condition created by the {@link de.calamanari.adl.solr.cnv.MatchFilterFactory}.
+ * <p>
+ * The {@link FilterCondition} carries the typed content (field, values resp. bounds, query parser parameters) the serializers derive their output from, the
+ * {@link SolrFilterQuery} is the rendered condition along with the involved fields and condition types.
+ * <p>
+ * <b>Note:</b> The query string of a filter node can be composite text (e.g., <code>(color:red OR color:blue)</code>), it will be treated as a unit.
+ * 
+ * @param condition typed condition, NOT NULL
+ * @param filterQuery the filter query, NOT NULL, its query string must be the rendered condition
+ * @author <a href="mailto:Karl.Eilebrecht(a/t)calamanari.de">Karl Eilebrecht</a>
+ */
+public record FilterNode(FilterCondition condition, SolrFilterQuery filterQuery) implements SolrQueryNode {
+
+    /**
+     * @param condition typed condition, NOT NULL
+     * @param filterQuery the filter query, NOT NULL, its query string must be the rendered condition
+     */
+    public FilterNode {
+        if (condition == null || filterQuery == null) {
+            throw new IllegalArgumentException(String.format(
+                    "Arguments condition and filterQuery must not be null, given: condition=%s, filterQuery=%s", condition, filterQuery));
+        }
+        if (!filterQuery.queryString().equals(condition.toQueryString().trim())) {
+            throw new IllegalArgumentException(String.format(
+                    "The query string of the filter query must be the rendered condition, given: condition=%s, filterQuery=%s", condition, filterQuery));
+        }
+    }
+
+    /**
+     * Creates a leaf and the filter query from the given condition
+     * 
+     * @param condition typed condition, NOT NULL
+     * @param fields fields involved in the condition
+     * @param conditionTypes types of the condition
+     */
+    public FilterNode(FilterCondition condition, List<SolrQueryField> fields, List<SolrConditionType> conditionTypes) {
+        this(condition, condition == null ? null : new SolrFilterQuery(condition.toQueryString(), fields, conditionTypes));
+    }
+
+    /**
+     * Creates a leaf for a filter query only known by its query string, see {@link QueryStringCondition}
+     * 
+     * @param filterQuery the filter query, NOT NULL
+     */
+    public FilterNode(SolrFilterQuery filterQuery) {
+        this(filterQuery == null ? null : new QueryStringCondition(filterQuery.queryString()), filterQuery);
+    }
+
+    /**
+     * @return classification of the filter derived from the condition
+     */
+    public FilterKind kind() {
+        List<SolrConditionType> conditionTypes = filterQuery.conditionTypes();
+        if (conditionTypes.contains(SolrConditionType.ALL_DOCS) || conditionTypes.contains(SolrConditionType.ALL_SUB_DOCS)) {
+            return FilterKind.NODE_TYPE;
+        }
+        return switch (condition) {
+        case TermsCondition _ -> FilterKind.TERMS;
+        case RangeCondition _ -> FilterKind.RANGE;
+        case FrangeCondition _ -> FilterKind.FRANGE;
+        case QueryStringCondition _ -> FilterKind.of(filterQuery);
+        case TermCondition _, TermListCondition _, WildcardCondition _ -> FilterKind.TERM;
+        };
+    }
+
+    /**
+     * Derives the values of a single field this leaf matches from its condition, so the range always agrees with the rendered query.
+     * 
+     * @return range of a value or range condition, null for any other condition
+     */
+    public FilterRange range() {
+        return switch (condition) {
+        case RangeCondition rangeCondition -> rangeCondition.toFilterRange();
+        case TermCondition termCondition -> termCondition.toFilterRange();
+        default -> null;
+        };
+    }
+
+    @Override
+    public boolean containsRawText() {
+        return false;
+    }
+
+}
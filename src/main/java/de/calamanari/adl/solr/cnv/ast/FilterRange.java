@@ -0,0 +1,66 @@
+//@formatter:off
+/*
+ * FilterRange
+ * Copyright 2025 Karl Eilebrecht
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"):
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+//@formatter:on
+
+package de.calamanari.adl.solr.cnv.ast;
+
+import java.io.Serializable;
+
+/**
+ * A {@link FilterRange} describes the values of a single field a leaf ({@link FilterNode}) can match, so that consumers of the query tree do not need to
+ * parse the query string.
+ * <p>
+ * The bounds are the plain (unescaped) values as sent to Solr. A value match is a range with identical bounds, both inclusive.
+ * 
+ * @param fieldName the field the bounds apply to, NOT NULL
+ * @param lowerBound plain value of the lower bound, null means unbounded
+ * @param lowerBoundInclusive true if the lower bound is included
+ * @param upperBound plain value of the upper bound, null means unbounded
+ * @param upperBoundInclusive true if the upper bound is included
+ * @author <a href="mailto:Karl.Eilebrecht(a/t)calamanari.de">Karl Eilebrecht</a>
+ */
+public record FilterRange(String fieldName, String lowerBound, boolean lowerBoundInclusive, String upperBound, boolean upperBoundInclusive)
+        implements Serializable {
+
+    /**
+     * @param fieldName the field the bounds apply to, NOT NULL
+     * @param lowerBound plain value of the lower bound, null means unbounded
+     * @param lowerBoundInclusive true if the lower bound is included
+     * @param upperBound plain value of the upper bound, null means unbounded
+     * @param upperBoundInclusive true if the upper bound is included
+     */
+    public FilterRange {
+        if (fieldName == null) {
+            throw new IllegalArgumentException(String.format("Argument fieldName must not be null, given: fieldName=%s, lowerBound=%s, upperBound=%s",
+                    fieldName, lowerBound, upperBound));
+        }
+    }
+
+    /**
+     * @param fieldName NOT NULL
+     * @param value plain value, NOT NULL
+     * @return range that only contains the given value
+     */
+    public static FilterRange ofValue(String fieldName, String value) {
+        if (value == null) {
+            throw new IllegalArgumentException(String.format("Argument value must not be null, given: fieldName=%s, value=%s", fieldName, value));
+        }
+        return new FilterRange(fieldName, value, true, value, true);
+    }
+
+}
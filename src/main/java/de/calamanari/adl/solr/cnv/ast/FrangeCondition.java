@@ -0,0 +1,66 @@
+//@formatter:off
+/*
+ * FrangeCondition
+ * Copyright 2025 Karl Eilebrecht
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"):
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+//@formatter:on
+
+package de.calamanari.adl.solr.cnv.ast;
+
+import de.calamanari.adl.solr.SolrFormatUtils;
+
+import static de.calamanari.adl.solr.SolrFormatConstants.COLON;
+import static de.calamanari.adl.solr.SolrFormatConstants.DOUBLE_QUOTES;
+import static de.calamanari.adl.solr.SolrFormatConstants.INLINE_QUERY;
+
+/**
+ * A {@link FrangeCondition} matches the documents where the result of a function lies in the given range, e.g., <code>{!frange l=1 u=1}if(...,1,0)</code>
+ * <p>
+ * In Solr frange-queries cannot have "neighbors" (even enclosing them in braces leads to parser errors). The only way to let them play well with other
+ * conditions is inlining them using the <code>_query_</code> syntax.
+ * 
+ * @param lowerBound lower bound of the function value (inclusive)
+ * @param upperBound upper bound of the function value (inclusive)
+ * @param function the function query, NOT NULL
+ * @author <a href="mailto:Karl.Eilebrecht(a/t)calamanari.de">Karl Eilebrecht</a>
+ */
+public record FrangeCondition(int lowerBound, int upperBound, String function) implements FilterCondition {
+
+    /**
+     * @param lowerBound lower bound of the function value (inclusive)
+     * @param upperBound upper bound of the function value (inclusive)
+     * @param function the function query, NOT NULL
+     */
+    public FrangeCondition {
+        if (function == null || function.isBlank()) {
+            throw new IllegalArgumentException(String.format("Argument function must not be null or blank, given: lowerBound=%s, upperBound=%s, function=%s",
+                    lowerBound, upperBound, function));
+        }
+    }
+
+    @Override
+    public void appendTo(StringBuilder sb) {
+        StringBuilder sbFrange = new StringBuilder();
+        SolrFormatUtils.appendFrangeHeader(sbFrange, lowerBound, upperBound);
+        sbFrange.append(function);
+
+        sb.append(INLINE_QUERY);
+        sb.append(COLON);
+        sb.append(DOUBLE_QUOTES);
+        SolrFormatUtils.appendEscaped(sb, sbFrange.toString());
+        sb.append(DOUBLE_QUOTES);
+    }
+
+}
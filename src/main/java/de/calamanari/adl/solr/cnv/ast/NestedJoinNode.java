@@ -0,0 +1,60 @@
+//@formatter:off
+/*
+ * NestedJoinNode
+ * Copyright 2025 Karl Eilebrecht
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"):
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+//@formatter:on
+
+package de.calamanari.adl.solr.cnv.ast;
+
+/**
+ * A {@link NestedJoinNode} represents a block join from a nested document to its parent (<code>{!parent which="..." v="..."}</code>).
+ * 
+ * @param nodeType type of the nested document, NOT NULL
+ * @param parentNodeTypeFieldName name of the field that identifies the parent documents, NOT NULL
+ * @param parentNodeType node type of the parent documents, NOT NULL
+ * @param subQuery conditions on the nested document, NOT NULL, not braced
+ * @author <a href="mailto:Karl.Eilebrecht(a/t)calamanari.de">Karl Eilebrecht</a>
+ */
+public record NestedJoinNode(String nodeType, String parentNodeTypeFieldName, String parentNodeType, BooleanNode subQuery) implements SolrQueryNode {
+
+    /**
+     * @param nodeType type of the nested document, NOT NULL
+     * @param parentNodeTypeFieldName name of the field that identifies the parent documents, NOT NULL
+     * @param parentNodeType node type of the parent documents, NOT NULL
+     * @param subQuery conditions on the nested document, NOT NULL, not braced
+     */
+    public NestedJoinNode {
+        if (nodeType == null || parentNodeTypeFieldName == null || parentNodeType == null || subQuery == null) {
+            throw new IllegalArgumentException(
+                    String.format("Arguments must not be null, given: nodeType=%s, parentNodeTypeFieldName=%s, parentNodeType=%s, subQuery=%s", nodeType,
+                            parentNodeTypeFieldName, parentNodeType, subQuery));
+        }
+    }
+
+    /**
+     * @param subQuery replacement
+     * @return join with the same settings but the given sub query
+     */
+    public NestedJoinNode withSubQuery(BooleanNode subQuery) {
+        return new NestedJoinNode(nodeType, parentNodeTypeFieldName, parentNodeType, subQuery);
+    }
+
+    @Override
+    public boolean containsRawText() {
+        return subQuery.containsRawText();
+    }
+
+}
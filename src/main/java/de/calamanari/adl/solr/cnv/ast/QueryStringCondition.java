@@ -0,0 +1,47 @@
+//@formatter:off
+/*
+ * QueryStringCondition
+ * Copyright 2025 Karl Eilebrecht
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"):
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+//@formatter:on
+
+package de.calamanari.adl.solr.cnv.ast;
+
+/**
+ * A {@link QueryStringCondition} is a condition only known by its query string, e.g., a node type filter including document filters or a filter query from
+ * a custom {@link de.calamanari.adl.solr.cnv.MatchFilterFactory}.
+ * <p>
+ * <b>Note:</b> The query string can be composite text (e.g., <code>(node_type:pos AND tenant:17)</code>), it will be treated as a unit.
+ * 
+ * @param queryString the condition in the syntax of the standard query parser, NOT NULL
+ * @author <a href="mailto:Karl.Eilebrecht(a/t)calamanari.de">Karl Eilebrecht</a>
+ */
+public record QueryStringCondition(String queryString) implements FilterCondition {
+
+    /**
+     * @param queryString the condition in the syntax of the standard query parser, NOT NULL
+     */
+    public QueryStringCondition {
+        if (queryString == null) {
+            throw new IllegalArgumentException("Argument queryString must not be null.");
+        }
+    }
+
+    @Override
+    public void appendTo(StringBuilder sb) {
+        sb.append(queryString);
+    }
+
+}
@@ -0,0 +1,81 @@
+//@formatter:off
+/*
+ * RangeCondition
+ * Copyright 2025 Karl Eilebrecht
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"):
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+//@formatter:on
+
+package de.calamanari.adl.solr.cnv.ast;
+
+import de.calamanari.adl.solr.SolrFormatUtils;
+
+import static de.calamanari.adl.solr.SolrFormatConstants.ASTERISK;
+import static de.calamanari.adl.solr.SolrFormatConstants.COLON;
+
+/**
+ * A {@link RangeCondition} matches the values of a field between two bounds, e.g., <code>age:[18 TO *]</code>
+ * 
+ * @param fieldName Solr field, NOT NULL
+ * @param lowerBound formatted lower bound, null means unbounded
+ * @param lowerBoundInclusive true if the lower bound is included
+ * @param upperBound formatted upper bound, null means unbounded
+ * @param upperBoundInclusive true if the upper bound is included
+ * @author <a href="mailto:Karl.Eilebrecht(a/t)calamanari.de">Karl Eilebrecht</a>
+ */
+public record RangeCondition(String fieldName, String lowerBound, boolean lowerBoundInclusive, String upperBound, boolean upperBoundInclusive)
+        implements FilterCondition {
+
+    /**
+     * @param fieldName Solr field, NOT NULL
+     * @param lowerBound formatted lower bound, null means unbounded
+     * @param lowerBoundInclusive true if the lower bound is included
+     * @param upperBound formatted upper bound, null means unbounded
+     * @param upperBoundInclusive true if the upper bound is included
+     */
+    public RangeCondition {
+        if (fieldName == null) {
+            throw new IllegalArgumentException(String.format("Argument fieldName must not be null, given: fieldName=%s, lowerBound=%s, upperBound=%s",
+                    fieldName, lowerBound, upperBound));
+        }
+    }
+
+    /**
+     * Appends the range in Solr syntax without the field name, e.g. <code>[* TO 10}</code>
+     * 
+     * @param sb
+     */
+    public void appendRangeTo(StringBuilder sb) {
+        sb.append(lowerBoundInclusive ? "[" : "{");
+        sb.append(lowerBound == null ? "" + ASTERISK : lowerBound);
+        sb.append(" TO ");
+        sb.append(upperBound == null ? "" + ASTERISK : upperBound);
+        sb.append(upperBoundInclusive ? "]" : "}");
+    }
+
+    /**
+     * @return the values this condition matches with plain (unescaped) bounds
+     */
+    public FilterRange toFilterRange() {
+        return new FilterRange(fieldName, lowerBound == null ? null : SolrFormatUtils.unescape(lowerBound), lowerBoundInclusive,
+                upperBound == null ? null : SolrFormatUtils.unescape(upperBound), upperBoundInclusive);
+    }
+
+    @Override
+    public void appendTo(StringBuilder sb) {
+        sb.append(fieldName).append(COLON);
+        appendRangeTo(sb);
+    }
+
+}
@@ -0,0 +1,44 @@
+//@formatter:off
+/*
+ * RawNode
+ * Copyright 2025 Karl Eilebrecht
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"):
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+//@formatter:on
+
+package de.calamanari.adl.solr.cnv.ast;
+
+/**
+ * A {@link RawNode} holds text appended <i>as-is</i>. Its semantics are unknown, thus optimizations won't touch any group containing raw text.
+ * 
+ * @param text to be rendered as-is, NOT NULL
+ * @author <a href="mailto:Karl.Eilebrecht(a/t)calamanari.de">Karl Eilebrecht</a>
+ */
+public record RawNode(String text) implements SolrQueryNode {
+
+    /**
+     * @param text to be rendered as-is, NOT NULL
+     */
+    public RawNode {
+        if (text == null) {
+            throw new IllegalArgumentException("Argument text must not be null.");
+        }
+    }
+
+    @Override
+    public boolean containsRawText() {
+        return true;
+    }
+
+}
@@ -0,0 +1,189 @@
+//@formatter:off
+/*
+ * SolrJsonQuerySerializer
+ * Copyright 2025 Karl Eilebrecht
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"):
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+//@formatter:on
+
+package de.calamanari.adl.solr.cnv.ast;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import de.calamanari.adl.CombinedExpressionType;
+import de.calamanari.adl.FormatStyle;
+
+/**
+ * The {@link SolrJsonQuerySerializer} renders a query tree in the syntax of the
+ * <a href="https://solr.apache.org/guide/solr/latest/query-guide/json-query-dsl.html">Solr JSON Query DSL</a>.
+ * <p>
+ * Groups become <code>bool</code>-queries, joins become <code>join</code> resp. <code>parent</code> queries with their sub-queries as nested JSON objects.
+ * Leaves with a {@link TermsCondition} resp. {@link FrangeCondition} become <code>terms</code> resp. <code>frange</code> objects created from the typed
+ * parameters of the condition. This way, no sub-query must be escaped, neither by the converter nor un-escaped by Solr when parsing the query. Any other
+ * leaf will be rendered as a string in the syntax of the standard query parser.
+ * <p>
+ * The mapping to <code>bool</code> reproduces what the standard query parser creates from a group: in an AND-group positive clauses become <code>must</code>,
+ * in an OR-group <code>should</code>, negated clauses always become <code>must_not</code>. Groups mixing AND and OR or with raw text members are rendered as a
+ * string (see {@link SolrQueryStringSerializer}) to preserve the precedence rules of the standard query parser.
+ * 
+ * @author <a href="mailto:Karl.Eilebrecht(a/t)calamanari.de">Karl Eilebrecht</a>
+ */
+public class SolrJsonQuerySerializer implements SolrQuerySerializer<String> {
+
+    /**
+     * Name of the element that holds the sub-query of a query parser (equivalent to <code>v</code>)
+     */
+    private static final String QUERY = "query";
+
+    private static final JsonNodeFactory NODE_FACTORY = JsonNodeFactory.instance;
+
+    /**
+     * inline or pretty-print formatting
+     */
+    private final FormatStyle formatStyle;
+
+    /**
+     * fallback for groups that cannot be expressed as bool-queries
+     */
+    private final SolrQueryStringSerializer fallbackSerializer = new SolrQueryStringSerializer(FormatStyle.INLINE);
+
+    /**
+     * @param formatStyle inline or pretty-print, NOT NULL
+     */
+    public SolrJsonQuerySerializer(FormatStyle formatStyle) {
+        if (formatStyle == null) {
+            throw new IllegalArgumentException("Argument formatStyle must not be null.");
+        }
+        this.formatStyle = formatStyle;
+    }
+
+    /**
+     * Creates an inline serializer
+     */
+    public SolrJsonQuerySerializer() {
+        this(FormatStyle.INLINE);
+    }
+
+    @Override
+    public String serialize(SolrQueryNode root) {
+        JsonNode jsonNode = toJsonNode(root);
+        return formatStyle.isMultiLine() ? jsonNode.toPrettyString() : jsonNode.toString();
+    }
+
+    /**
+     * @param root query tree
+     * @return JSON representation of the tree, either an object or a text node with a standard query
+     */
+    public JsonNode toJsonNode(SolrQueryNode root) {
+        switch (root) {
+        case FilterNode filterNode:
+            return createLeafNode(filterNode);
+        case RawNode rawNode:
+            return NODE_FACTORY.textNode(rawNode.text());
+        case BooleanNode booleanNode:
+            return createBooleanNode(booleanNode);
+        case DependentJoinNode join:
+            ObjectNode dependentJoinParams = NODE_FACTORY.objectNode();
+            if (join.fromIndex() != null) {
+                dependentJoinParams.put("fromIndex", join.fromIndex());
+            }
+            dependentJoinParams.put("from", join.fromFieldName());
+            dependentJoinParams.put("to", join.toFieldName());
+            dependentJoinParams.set(QUERY, toJsonNode(join.subQuery()));
+            return wrap("join", dependentJoinParams);
+        case NestedJoinNode join:
+            ObjectNode nestedJoinParams = NODE_FACTORY.objectNode();
+            nestedJoinParams.put("which", join.parentNodeTypeFieldName() + ":" + join.parentNodeType());
+            nestedJoinParams.set(QUERY, toJsonNode(join.subQuery()));
+            return wrap("parent", nestedJoinParams);
+        }
+    }
+
+    /**
+     * @return the format style of this serializer
+     */
+    public FormatStyle getFormatStyle() {
+        return formatStyle;
+    }
+
+    private JsonNode createBooleanNode(BooleanNode booleanNode) {
+        List<BooleanClause> clauses = booleanNode.clauses();
+        if (clauses.size() == 1 && !clauses.get(0).negated()) {
+            return toJsonNode(clauses.get(0).node());
+        }
+        if (clauses.stream().anyMatch(clause -> clause.node() instanceof RawNode) || (clauses.size() > 1 && !booleanNode.isHomogeneous())) {
+            return NODE_FACTORY.textNode(fallbackSerializer.serialize(booleanNode));
+        }
+        String positiveOccur = booleanNode.commonCombiner() == CombinedExpressionType.OR ? "should" : "must";
+        List<JsonNode> positives = new ArrayList<>();
+        List<JsonNode> negatives = new ArrayList<>();
+        for (BooleanClause clause : clauses) {
+            (clause.negated() ? negatives : positives).add(toJsonNode(clause.node()));
+        }
+        ObjectNode boolParams = NODE_FACTORY.objectNode();
+        if (!positives.isEmpty()) {
+            boolParams.set(positiveOccur, createArrayNode(positives));
+        }
+        if (!negatives.isEmpty()) {
+            boolParams.set("must_not", createArrayNode(negatives));
+        }
+        return wrap("bool", boolParams);
+    }
+
+    private static ArrayNode createArrayNode(List<JsonNode> members) {
+        ArrayNode res = NODE_FACTORY.arrayNode(members.size());
+        res.addAll(members);
+        return res;
+    }
+
+    private static ObjectNode wrap(String name, JsonNode params) {
+        ObjectNode res = NODE_FACTORY.objectNode();
+        res.set(name, params);
+        return res;
+    }
+
+    /**
+     * Creates an object for terms and frange conditions, any other condition will be returned as text node
+     * 
+     * @param filterNode
+     * @return JSON node
+     */
+    private static JsonNode createLeafNode(FilterNode filterNode) {
+        switch (filterNode.condition()) {
+        case TermsCondition terms:
+            ObjectNode termsParams = NODE_FACTORY.objectNode();
+            termsParams.put("f", terms.fieldName());
+            if (terms.method() != null) {
+                termsParams.put("method", terms.method());
+            }
+            termsParams.put(QUERY, terms.joinedTerms());
+            return wrap("terms", termsParams);
+        case FrangeCondition frange:
+            ObjectNode frangeParams = NODE_FACTORY.objectNode();
+            frangeParams.put("l", String.valueOf(frange.lowerBound()));
+            frangeParams.put("u", String.valueOf(frange.upperBound()));
+            frangeParams.put(QUERY, frange.function());
+            return wrap("frange", frangeParams);
+        default:
+            return NODE_FACTORY.textNode(filterNode.filterQuery().queryString());
+        }
+    }
+
+}
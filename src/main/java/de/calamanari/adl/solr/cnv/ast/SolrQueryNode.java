@@ -0,0 +1,39 @@
+//@formatter:off
+/*
+ * SolrQueryNode
+ * Copyright 2025 Karl Eilebrecht
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"):
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+//@formatter:on
+
+package de.calamanari.adl.solr.cnv.ast;
+
+import java.io.Serializable;
+
+/**
+ * A {@link SolrQueryNode} is an element of the intermediate tree the converter composes before rendering the final Solr filter query.
+ * <p>
+ * The tree keeps the structure (groups, joins, negations) of the query separate from its textual representation, so optimizations ({@link SolrQueryPass})
+ * can work on the structure and a {@link SolrQuerySerializer} can produce any target format.
+ * 
+ * @author <a href="mailto:Karl.Eilebrecht(a/t)calamanari.de">Karl Eilebrecht</a>
+ */
+public sealed interface SolrQueryNode extends Serializable permits FilterNode, RawNode, BooleanNode, DependentJoinNode, NestedJoinNode {
+
+    /**
+     * @return true if this node or any of its descendants is a {@link RawNode}, means the tree contains text of unknown semantics
+     */
+    boolean containsRawText();
+
+}
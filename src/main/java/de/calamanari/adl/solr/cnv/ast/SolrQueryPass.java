@@ -0,0 +1,38 @@
+//@formatter:off
+/*
+ * SolrQueryPass
+ * Copyright 2025 Karl Eilebrecht
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"):
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+//@formatter:on
+
+package de.calamanari.adl.solr.cnv.ast;
+
+/**
+ * A {@link SolrQueryPass} is an optimization step on the query tree. Passes are applied in order before the tree gets serialized.
+ * <p>
+ * <b>Contract:</b> A pass must not change the set of documents the query matches, and it must return the given instance if there was nothing to change.
+ * 
+ * @author <a href="mailto:Karl.Eilebrecht(a/t)calamanari.de">Karl Eilebrecht</a>
+ */
+@FunctionalInterface
+public interface SolrQueryPass {
+
+    /**
+     * @param root tree to be optimized
+     * @return optimized tree or the given root if there was nothing to change
+     */
+    SolrQueryNode apply(SolrQueryNode root);
+
+}
@@ -0,0 +1,37 @@
+//@formatter:off
+/*
+ * SolrQuerySerializer
+ * Copyright 2025 Karl Eilebrecht
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"):
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+//@formatter:on
+
+package de.calamanari.adl.solr.cnv.ast;
+
+/**
+ * A {@link SolrQuerySerializer} renders a query tree into a target representation (e.g., a standard query parser string).
+ * 
+ * @param <T> type of the serialized query
+ * @author <a href="mailto:Karl.Eilebrecht(a/t)calamanari.de">Karl Eilebrecht</a>
+ */
+@FunctionalInterface
+public interface SolrQuerySerializer<T> {
+
+    /**
+     * @param root query tree
+     * @return serialized query
+     */
+    T serialize(SolrQueryNode root);
+
+}
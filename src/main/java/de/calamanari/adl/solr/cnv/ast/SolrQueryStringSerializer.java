@@ -0,0 +1,217 @@
+//@formatter:off
+/*
+ * SolrQueryStringSerializer
+ * Copyright 2025 Karl Eilebrecht
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"):
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+//@formatter:on
+
+package de.calamanari.adl.solr.cnv.ast;
+
+import de.calamanari.adl.CombinedExpressionType;
+import de.calamanari.adl.FormatStyle;
+import de.calamanari.adl.FormatUtils;
+import de.calamanari.adl.solr.SolrFormatConstants;
+import de.calamanari.adl.solr.SolrFormatUtils;
+
+import static de.calamanari.adl.solr.SolrFormatConstants.CLOSE_BRACE;
+import static de.calamanari.adl.solr.SolrFormatConstants.OPEN_BRACE;
+
+/**
+ * The {@link SolrQueryStringSerializer} renders a query tree in the syntax of the Solr standard query parser, inline or pretty-printed.
+ * <p>
+ * Joins are rendered as local parameter queries, the sub-query gets escaped and placed in the <code>v</code>-parameter.
+ * 
+ * @author <a href="mailto:Karl.Eilebrecht(a/t)calamanari.de">Karl Eilebrecht</a>
+ */
+public class SolrQueryStringSerializer implements SolrQuerySerializer<String> {
+
+    /**
+     * inline or pretty-print formatting
+     */
+    private final FormatStyle formatStyle;
+
+    /**
+     * @param formatStyle inline or pretty-print, NOT NULL
+     */
+    public SolrQueryStringSerializer(FormatStyle formatStyle) {
+        if (formatStyle == null) {
+            throw new IllegalArgumentException("Argument formatStyle must not be null.");
+        }
+        this.formatStyle = formatStyle;
+    }
+
+    @Override
+    public String serialize(SolrQueryNode root) {
+        Emitter emitter = new Emitter();
+        emitter.appendNode(root);
+        return emitter.mainBuilder.toString();
+    }
+
+    /**
+     * @return the format style of this serializer
+     */
+    public FormatStyle getFormatStyle() {
+        return formatStyle;
+    }
+
+    /**
+     * State of a single serialization run
+     */
+    private final class Emitter {
+
+        /**
+         * The builder for the main-level of the Solr-expression
+         */
+        private final StringBuilder mainBuilder = new StringBuilder();
+
+        /**
+         * The join-builder is a sub-builder while rendering a join. We need it to apply escaping before appending the join-condition to the main builder.
+         */
+        private final StringBuilder joinBuilder = new StringBuilder();
+
+        /**
+         * Reference to the current output string builder
+         */
+        private StringBuilder output = mainBuilder;
+
+        /**
+         * number of open braces on the main builder
+         */
+        private int openMainBraceCount = 0;
+
+        /**
+         * number of open braces on the join builder
+         */
+        private int openJoinBraceCount = 0;
+
+        private void appendNode(SolrQueryNode node) {
+            switch (node) {
+            case FilterNode filterNode:
+                filterNode.condition().appendTo(output);
+                break;
+            case RawNode rawNode:
+                output.append(rawNode.text());
+                break;
+            case BooleanNode booleanNode:
+                appendBooleanNode(booleanNode);
+                break;
+            case DependentJoinNode join:
+                startJoin(node);
+                mainBuilder.append("{!join ");
+                if (join.fromIndex() != null) {
+                    mainBuilder.append("fromIndex=").append(join.fromIndex()).append(' ');
+                }
+                mainBuilder.append("from=").append(join.fromFieldName());
+                mainBuilder.append(" to=").append(join.toFieldName());
+                appendNode(join.subQuery());
+                endJoin();
+                break;
+            case NestedJoinNode join:
+                startJoin(node);
+                mainBuilder.append("{!parent which=").append('"').append(join.parentNodeTypeFieldName()).append(':').append(join.parentNodeType())
+                        .append('"');
+                appendNode(join.subQuery());
+                endJoin();
+                break;
+            }
+        }
+
+        private void appendBooleanNode(BooleanNode booleanNode) {
+            if (booleanNode.braced()) {
+                openBrace();
+            }
+            for (BooleanClause clause : booleanNode.clauses()) {
+                if (clause.combiner() != null) {
+                    appendCombiner(clause.combiner() == CombinedExpressionType.AND ? SolrFormatConstants.AND : SolrFormatConstants.OR);
+                }
+                if (clause.negated()) {
+                    appendNOT();
+                }
+                appendNode(clause.node());
+            }
+            if (booleanNode.braced()) {
+                closeBrace();
+            }
+        }
+
+        private void startJoin(SolrQueryNode join) {
+            if (output == joinBuilder) {
+                throw new IllegalStateException(String.format("Joins cannot be nested, given: %s", join));
+            }
+            output = joinBuilder;
+        }
+
+        private void endJoin() {
+            String subQuery = SolrFormatUtils.escape(joinBuilder.toString());
+            mainBuilder.append(" v=").append('"').append(subQuery).append('"').append('}');
+            joinBuilder.setLength(0);
+            output = mainBuilder;
+        }
+
+        private void openBrace() {
+            output.append(OPEN_BRACE);
+            if (output == joinBuilder) {
+                openJoinBraceCount++;
+            }
+            else {
+                openMainBraceCount++;
+            }
+            appendLineBreak(false);
+        }
+
+        private void closeBrace() {
+            if (output == joinBuilder) {
+                openJoinBraceCount--;
+            }
+            else {
+                openMainBraceCount--;
+            }
+            appendLineBreak(false);
+            output.append(CLOSE_BRACE);
+        }
+
+        private void appendCombiner(String combiner) {
+            appendLineBreak(true);
+            output.append(combiner);
+            output.append(' ');
+        }
+
+        private void appendNOT() {
+            if (!FormatUtils.endsWith(output, " ")) {
+                output.append(' ');
+            }
+            output.append(SolrFormatConstants.NOT);
+            output.append(' ');
+        }
+
+        private void appendLineBreak(boolean spaceRequired) {
+            if (formatStyle.isMultiLine()) {
+                output.append("\n");
+                int indentCount = (openMainBraceCount + openJoinBraceCount);
+                if (output == joinBuilder) {
+                    indentCount++;
+                }
+                for (int i = 0; i < indentCount; i++) {
+                    output.append(formatStyle.getIndent());
+                }
+            }
+            else if (spaceRequired) {
+                output.append(" ");
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,435 @@
+//@formatter:off
+/*
+ * SolrStreamingExpressionSerializer
+ * Copyright 2025 Karl Eilebrecht
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"):
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+//@formatter:on
+
+package de.calamanari.adl.solr.cnv.ast;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import de.calamanari.adl.CombinedExpressionType;
+import de.calamanari.adl.FormatStyle;
+import de.calamanari.adl.solr.SolrFormatConstants;
+import de.calamanari.adl.solr.config.ConfigUtils;
+
+/**
+ * The {@link SolrStreamingExpressionSerializer} renders a query tree as a
+ * <a href="https://solr.apache.org/guide/solr/latest/query-guide/streaming-expressions.html">Solr streaming expression</a>, an alternative execution plan
+ * for queries with joins to dependent documents.
+ * <p>
+ * Instead of resolving a <code>{!join ...}</code> inside a filter query, the main documents and the dependent documents will be exported separately
+ * (<code>search(... qt="/export")</code>), both sorted by the main document key, and combined by the stream decorators <code>innerJoin</code>,
+ * <code>intersect</code>, <code>complement</code> and <code>merge</code>:
+ * <ul>
+ * <li>Any part of the tree without a {@link DependentJoinNode} will be pushed down into the query of a single <code>search</code>, including block joins
+ * ({@link NestedJoinNode}).</li>
+ * <li>A join becomes
+ * <code>innerJoin(<i>main</i>, unique(search(<i>dependent</i>, fl="main_id", sort="main_id asc"), over="main_id"), on="id=main_id")</code>, a negated join
+ * will be removed from the result with <code>complement(<i>result</i>, <i>join</i>, on="id")</code>.</li>
+ * <li>An OR-group with joins becomes <code>unique(merge(...), over="id")</code>, negated members of an OR-group will be removed from the result like the
+ * standard query parser does.</li>
+ * </ul>
+ * Every stream created by this serializer emits the unique keys of the main documents, sorted ascending. Groups mixing AND and OR that contain joins cannot
+ * be expressed and will be rejected.
+ * <p>
+ * <b>Note:</b> The <code>/export</code> handler requires <i>docValues</i> for the unique key field and the fields referring to the main document.
+ * 
+ * @author <a href="mailto:Karl.Eilebrecht(a/t)calamanari.de">Karl Eilebrecht</a>
+ */
+public class SolrStreamingExpressionSerializer implements SolrQuerySerializer<String> {
+
+    /**
+     * Default request handler for the searches, streams the full sorted result set
+     */
+    public static final String DEFAULT_REQUEST_HANDLER = "/export";
+
+    /**
+     * collection to be searched
+     */
+    private final String collectionName;
+
+    /**
+     * unique key of the main documents, all streams are sorted by this field
+     */
+    private final String uniqueKeyFieldName;
+
+    /**
+     * request handler (<code>qt</code>) of the searches
+     */
+    private final String requestHandler;
+
+    /**
+     * inline or pretty-print formatting
+     */
+    private final FormatStyle formatStyle;
+
+    /**
+     * renders the queries of the searches
+     */
+    private final SolrQueryStringSerializer queryStringSerializer = new SolrQueryStringSerializer(FormatStyle.INLINE);
+
+    /**
+     * @param collectionName name of the collection to be searched, NOT NULL
+     * @param uniqueKeyFieldName name of the unique key field, null defaults to {@link SolrFormatConstants#DEFAULT_UNIQUE_KEY_FIELD_NAME}
+     * @param requestHandler request handler of the searches, null defaults to {@link #DEFAULT_REQUEST_HANDLER}
+     * @param formatStyle inline or pretty-print, NOT NULL
+     */
+    public SolrStreamingExpressionSerializer(String collectionName, String uniqueKeyFieldName, String requestHandler, FormatStyle formatStyle) {
+        if (collectionName == null || collectionName.isBlank() || collectionName.indexOf('"') > -1 || collectionName.indexOf(',') > -1
+                || (uniqueKeyFieldName != null && !ConfigUtils.isValidSolrName(uniqueKeyFieldName))
+                || (requestHandler != null && !requestHandler.startsWith("/")) || formatStyle == null) {
+            throw new IllegalArgumentException(String.format(
+                    "Arguments must not be null, collectionName must be a plain name, uniqueKeyFieldName a valid solr field name, requestHandler a path, "
+                            + "given: collectionName=%s, uniqueKeyFieldName=%s, requestHandler=%s, formatStyle=%s",
+                    collectionName, uniqueKeyFieldName, requestHandler, formatStyle));
+        }
+        this.collectionName = collectionName;
+        this.uniqueKeyFieldName = uniqueKeyFieldName == null ? SolrFormatConstants.DEFAULT_UNIQUE_KEY_FIELD_NAME : uniqueKeyFieldName;
+        this.requestHandler = requestHandler == null ? DEFAULT_REQUEST_HANDLER : requestHandler;
+        this.formatStyle = formatStyle;
+    }
+
+    /**
+     * Creates an inline serializer for the given collection using the {@link #DEFAULT_REQUEST_HANDLER}
+     * 
+     * @param collectionName name of the collection to be searched, NOT NULL
+     * @param uniqueKeyFieldName name of the unique key field, null defaults to {@link SolrFormatConstants#DEFAULT_UNIQUE_KEY_FIELD_NAME}
+     */
+    public SolrStreamingExpressionSerializer(String collectionName, String uniqueKeyFieldName) {
+        this(collectionName, uniqueKeyFieldName, null, FormatStyle.INLINE);
+    }
+
+    @Override
+    public String serialize(SolrQueryNode root) {
+        StringBuilder sb = new StringBuilder();
+        createStream(root, Collections.emptyList()).appendTo(sb, formatStyle, 0);
+        return sb.toString();
+    }
+
+    /**
+     * Creates a single expression for multiple query trees (e.g., the filter queries of a query definition) to be combined with AND
+     * 
+     * @param roots query trees, NOT NULL, not empty
+     * @return streaming expression
+     */
+    public String serialize(List<SolrQueryNode> roots) {
+        if (roots == null || roots.isEmpty() || roots.stream().anyMatch(root -> root == null)) {
+            throw new IllegalArgumentException(String.format("Argument roots must not be null or empty or contain nulls, given: roots=%s", roots));
+        }
+        if (roots.size() == 1) {
+            return serialize(roots.get(0));
+        }
+        List<BooleanClause> clauses = new ArrayList<>(roots.size());
+        for (SolrQueryNode root : roots) {
+            clauses.add(new BooleanClause(clauses.isEmpty() ? null : CombinedExpressionType.AND, false, asClauseNode(root)));
+        }
+        return serialize(new BooleanNode(clauses, false));
+    }
+
+    /**
+     * @return name of the collection to be searched
+     */
+    public String getCollectionName() {
+        return collectionName;
+    }
+
+    /**
+     * @return name of the unique key field of the main documents
+     */
+    public String getUniqueKeyFieldName() {
+        return uniqueKeyFieldName;
+    }
+
+    /**
+     * @return request handler of the searches
+     */
+    public String getRequestHandler() {
+        return requestHandler;
+    }
+
+    /**
+     * @return the format style of this serializer
+     */
+    public FormatStyle getFormatStyle() {
+        return formatStyle;
+    }
+
+    /**
+     * @param node
+     * @return true if the given node is a join to dependent documents or a group that contains any
+     */
+    private static boolean containsDependentJoin(SolrQueryNode node) {
+        if (node instanceof BooleanNode group) {
+            return group.clauses().stream().anyMatch(clause -> containsDependentJoin(clause.node()));
+        }
+        return node instanceof DependentJoinNode;
+    }
+
+    /**
+     * Creates a stream of the unique keys of all main documents matching the given node and the domain
+     * 
+     * @param node
+     * @param domain clauses (AND) all returned documents must match
+     * @return stream
+     */
+    private StreamFunction createStream(SolrQueryNode node, List<BooleanClause> domain) {
+        if (!containsDependentJoin(node)) {
+            return createMainSearch(appendClause(domain, false, node));
+        }
+        return switch (node) {
+        case DependentJoinNode join -> createJoinStream(createMainSearch(domain), join);
+        case BooleanNode group when group.clauses().size() > 1 && group.commonCombiner() == CombinedExpressionType.OR -> createOrStream(group, domain);
+        case BooleanNode group when group.clauses().size() < 2 || group.isHomogeneous() -> createAndStream(group, domain);
+        default -> throw new IllegalArgumentException(
+                String.format("Unable to create a streaming expression for a group mixing AND and OR with joins, given: %s", node));
+        };
+    }
+
+    /**
+     * All clauses without joins will be pushed into the domain, the joins will be applied one after another.
+     * 
+     * @param group
+     * @param domain
+     * @return stream
+     */
+    private StreamFunction createAndStream(BooleanNode group, List<BooleanClause> domain) {
+        List<BooleanClause> groupDomain = domain;
+        List<BooleanClause> joinClauses = new ArrayList<>();
+        for (BooleanClause clause : group.clauses()) {
+            if (containsDependentJoin(clause.node())) {
+                joinClauses.add(clause);
+            }
+            else {
+                groupDomain = appendClause(groupDomain, clause.negated(), clause.node());
+            }
+        }
+        StreamFunction res = null;
+        for (BooleanClause clause : joinClauses) {
+            if (!clause.negated()) {
+                res = (res == null) ? createStream(clause.node(), groupDomain) : intersect(res, clause.node(), groupDomain);
+            }
+        }
+        if (res == null) {
+            res = createMainSearch(groupDomain);
+        }
+        return removeNegatedJoins(res, joinClauses, groupDomain);
+    }
+
+    /**
+     * The positive members will be merged, negated members without joins restrict the domain, negated joins will be removed from the result.
+     * 
+     * @param group
+     * @param domain
+     * @return stream
+     */
+    private StreamFunction createOrStream(BooleanNode group, List<BooleanClause> domain) {
+        List<BooleanClause> groupDomain = domain;
+        List<BooleanClause> negatedJoinClauses = new ArrayList<>();
+        for (BooleanClause clause : group.clauses()) {
+            if (clause.negated()) {
+                if (containsDependentJoin(clause.node())) {
+                    negatedJoinClauses.add(clause);
+                }
+                else {
+                    groupDomain = appendClause(groupDomain, true, clause.node());
+                }
+            }
+        }
+        List<BooleanClause> plainClauses = new ArrayList<>();
+        List<StreamFunction> members = new ArrayList<>();
+        for (BooleanClause clause : group.clauses()) {
+            if (!clause.negated()) {
+                if (containsDependentJoin(clause.node())) {
+                    members.add(createStream(clause.node(), groupDomain));
+                }
+                else {
+                    plainClauses.add(clause.withCombiner(plainClauses.isEmpty() ? null : CombinedExpressionType.OR));
+                }
+            }
+        }
+        if (plainClauses.size() == 1) {
+            members.add(0, createMainSearch(appendClause(groupDomain, false, plainClauses.get(0).node())));
+        }
+        else if (!plainClauses.isEmpty()) {
+            members.add(0, createMainSearch(appendClause(groupDomain, false, new BooleanNode(plainClauses, true))));
+        }
+        StreamFunction res = null;
+        if (members.isEmpty()) {
+            res = createMainSearch(groupDomain);
+        }
+        else if (members.size() == 1) {
+            res = members.get(0);
+        }
+        else {
+            List<Object> mergeParams = new ArrayList<>(members);
+            mergeParams.add(namedParam("on", uniqueKeyFieldName + " asc"));
+            res = new StreamFunction("unique", List.of(new StreamFunction("merge", mergeParams), namedParam("over", uniqueKeyFieldName)));
+        }
+        return removeNegatedJoins(res, negatedJoinClauses, groupDomain);
+    }
+
+    /**
+     * @param stream
+     * @param node node with joins
+     * @param domain
+     * @return intersection of the given stream with the one of the node
+     */
+    private StreamFunction intersect(StreamFunction stream, SolrQueryNode node, List<BooleanClause> domain) {
+        if (node instanceof DependentJoinNode join) {
+            return createJoinStream(stream, join);
+        }
+        return new StreamFunction("intersect", List.of(stream, createStream(node, domain), namedParam("on", uniqueKeyFieldName)));
+    }
+
+    /**
+     * @param stream
+     * @param clauses candidates, only negated clauses will be considered
+     * @param domain
+     * @return stream without the documents matching any of the negated clauses
+     */
+    private StreamFunction removeNegatedJoins(StreamFunction stream, List<BooleanClause> clauses, List<BooleanClause> domain) {
+        StreamFunction res = stream;
+        for (BooleanClause clause : clauses) {
+            if (clause.negated()) {
+                res = new StreamFunction("complement", List.of(res, createStream(clause.node(), domain), namedParam("on", uniqueKeyFieldName)));
+            }
+        }
+        return res;
+    }
+
+    /**
+     * @param mainStream stream of main documents
+     * @param join
+     * @return the main documents with at least one dependent document matching the sub-query of the join
+     */
+    private StreamFunction createJoinStream(StreamFunction mainStream, DependentJoinNode join) {
+        String dependentCollectionName = join.fromIndex() == null ? collectionName : join.fromIndex();
+        StreamFunction dependentSearch = createSearch(dependentCollectionName, queryStringSerializer.serialize(join.subQuery()), join.fromFieldName());
+        StreamFunction dependentKeys = new StreamFunction("unique", List.of(dependentSearch, namedParam("over", join.fromFieldName())));
+        return new StreamFunction("innerJoin", List.of(mainStream, dependentKeys, namedParam("on", join.toFieldName() + "=" + join.fromFieldName())));
+    }
+
+    /**
+     * @param domain
+     * @return search for the unique keys of all main documents matching the domain
+     */
+    private StreamFunction createMainSearch(List<BooleanClause> domain) {
+        if (domain.isEmpty()) {
+            return createSearch(SolrFormatConstants.QUERY_ALL_DOCUMENTS, uniqueKeyFieldName);
+        }
+        SolrQueryNode query = new BooleanNode(domain, false);
+        if (domain.size() == 1 && !domain.get(0).negated() && domain.get(0).node() instanceof BooleanNode group) {
+            // a single group does not need any braces
+            query = new BooleanNode(group.clauses(), false);
+        }
+        return createSearch(queryStringSerializer.serialize(query), uniqueKeyFieldName);
+    }
+
+    /**
+     * @param query
+     * @param fieldName field to be returned and sorted by
+     * @return search function
+     */
+    private StreamFunction createSearch(String query, String fieldName) {
+        return createSearch(collectionName, query, fieldName);
+    }
+
+    /**
+     * @param searchCollectionName collection to be searched
+     * @param query
+     * @param fieldName field to be returned and sorted by
+     * @return search function
+     */
+    private StreamFunction createSearch(String searchCollectionName, String query, String fieldName) {
+        return new StreamFunction("search", List.of(searchCollectionName, namedParam("q", query.trim()), namedParam("fl", fieldName),
+                namedParam("sort", fieldName + " asc"), namedParam("qt", requestHandler)));
+    }
+
+    /**
+     * @param domain
+     * @param negated
+     * @param node
+     * @return new domain with the given node appended (AND)
+     */
+    private static List<BooleanClause> appendClause(List<BooleanClause> domain, boolean negated, SolrQueryNode node) {
+        List<BooleanClause> res = new ArrayList<>(domain.size() + 1);
+        res.addAll(domain);
+        res.add(new BooleanClause(res.isEmpty() ? null : CombinedExpressionType.AND, negated, asClauseNode(node)));
+        return res;
+    }
+
+    /**
+     * @param node
+     * @return node that can be combined with other clauses without changing the precedence
+     */
+    private static SolrQueryNode asClauseNode(SolrQueryNode node) {
+        if (node instanceof BooleanNode group && !group.braced() && group.clauses().size() > 1) {
+            return new BooleanNode(group.clauses(), true);
+        }
+        return node;
+    }
+
+    /**
+     * @param name
+     * @param value
+     * @return named parameter in streaming expression syntax, value in double quotes
+     */
+    private static String namedParam(String name, String value) {
+        return name + "=\"" + value.replace("\"", "\\\"") + "\"";
+    }
+
+    /**
+     * Function call in a streaming expression, parameters are either plain text or nested functions
+     * 
+     * @param name
+     * @param params
+     */
+    private record StreamFunction(String name, List<Object> params) {
+
+        void appendTo(StringBuilder sb, FormatStyle style, int level) {
+            sb.append(name).append('(');
+            boolean nestedFunctions = style.isMultiLine() && params.stream().anyMatch(StreamFunction.class::isInstance);
+            for (int i = 0; i < params.size(); i++) {
+                if (i > 0) {
+                    sb.append(',');
+                    if (!nestedFunctions) {
+                        sb.append(' ');
+                    }
+                }
+                if (nestedFunctions) {
+                    sb.append('\n');
+                    sb.append(style.getIndent().repeat(level + 1));
+                }
+                if (params.get(i) instanceof StreamFunction function) {
+                    function.appendTo(sb, style, level + 1);
+                }
+                else {
+                    sb.append(params.get(i));
+                }
+            }
+            if (nestedFunctions) {
+                sb.append('\n');
+                sb.append(style.getIndent().repeat(level));
+            }
+            sb.append(')');
+        }
+
+    }
+
+}
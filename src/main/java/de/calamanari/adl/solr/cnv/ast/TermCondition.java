@@ -0,0 +1,57 @@
+//@formatter:off
+/*
+ * TermCondition
+ * Copyright 2025 Karl Eilebrecht
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"):
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+//@formatter:on
+
+package de.calamanari.adl.solr.cnv.ast;
+
+import de.calamanari.adl.solr.SolrFormatUtils;
+
+import static de.calamanari.adl.solr.SolrFormatConstants.COLON;
+
+/**
+ * A {@link TermCondition} matches a single value of a field, e.g., <code>color:red</code>
+ * 
+ * @param fieldName Solr field, NOT NULL
+ * @param value formatted value, NOT NULL
+ * @author <a href="mailto:Karl.Eilebrecht(a/t)calamanari.de">Karl Eilebrecht</a>
+ */
+public record TermCondition(String fieldName, String value) implements FilterCondition {
+
+    /**
+     * @param fieldName Solr field, NOT NULL
+     * @param value formatted value, NOT NULL
+     */
+    public TermCondition {
+        if (fieldName == null || value == null) {
+            throw new IllegalArgumentException(String.format("Arguments fieldName and value must not be null, given: fieldName=%s, value=%s", fieldName, value));
+        }
+    }
+
+    /**
+     * @return the value this condition matches as a range with identical (unescaped) bounds
+     */
+    public FilterRange toFilterRange() {
+        return FilterRange.ofValue(fieldName, SolrFormatUtils.unescape(value));
+    }
+
+    @Override
+    public void appendTo(StringBuilder sb) {
+        sb.append(fieldName).append(COLON).append(value);
+    }
+
+}
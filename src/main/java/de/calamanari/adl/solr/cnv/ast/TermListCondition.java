@@ -0,0 +1,64 @@
+//@formatter:off
+/*
+ * TermListCondition
+ * Copyright 2025 Karl Eilebrecht
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"):
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+//@formatter:on
+
+package de.calamanari.adl.solr.cnv.ast;
+
+import java.util.List;
+import java.util.Objects;
+
+import static de.calamanari.adl.solr.SolrFormatConstants.CLOSE_BRACE;
+import static de.calamanari.adl.solr.SolrFormatConstants.COLON;
+import static de.calamanari.adl.solr.SolrFormatConstants.OPEN_BRACE;
+import static de.calamanari.adl.solr.SolrFormatConstants.OR;
+
+/**
+ * A {@link TermListCondition} matches any of the given values of a field expressed as an OR-list, e.g., <code>color:(blue OR red)</code>
+ * 
+ * @param fieldName Solr field, NOT NULL
+ * @param values formatted values, NOT NULL, not empty
+ * @author <a href="mailto:Karl.Eilebrecht(a/t)calamanari.de">Karl Eilebrecht</a>
+ */
+public record TermListCondition(String fieldName, List<String> values) implements FilterCondition {
+
+    /**
+     * @param fieldName Solr field, NOT NULL
+     * @param values formatted values, NOT NULL, not empty
+     */
+    public TermListCondition {
+        if (fieldName == null || values == null || values.isEmpty() || values.stream().anyMatch(Objects::isNull)) {
+            throw new IllegalArgumentException(String
+                    .format("Argument fieldName must not be null, values must not be null or empty nor contain nulls, given: fieldName=%s, values=%s", fieldName,
+                            values));
+        }
+        values = List.copyOf(values);
+    }
+
+    @Override
+    public void appendTo(StringBuilder sb) {
+        sb.append(fieldName).append(COLON).append(OPEN_BRACE);
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) {
+                sb.append(' ').append(OR).append(' ');
+            }
+            sb.append(values.get(i));
+        }
+        sb.append(CLOSE_BRACE);
+    }
+
+}
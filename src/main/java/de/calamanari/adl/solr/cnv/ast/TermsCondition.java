@@ -0,0 +1,77 @@
+//@formatter:off
+/*
+ * TermsCondition
+ * Copyright 2025 Karl Eilebrecht
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"):
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+//@formatter:on
+
+package de.calamanari.adl.solr.cnv.ast;
+
+import java.util.List;
+
+import de.calamanari.adl.solr.SolrFormatUtils;
+
+import static de.calamanari.adl.solr.SolrFormatConstants.COLON;
+import static de.calamanari.adl.solr.SolrFormatConstants.COMMA;
+import static de.calamanari.adl.solr.SolrFormatConstants.DOUBLE_QUOTES;
+import static de.calamanari.adl.solr.SolrFormatConstants.INLINE_QUERY;
+
+/**
+ * A {@link TermsCondition} matches any of the given terms of a field using the terms query parser, e.g., <code>{!terms f=color}blue,red</code>
+ * <p>
+ * Like frange, the terms query must be inlined (<code>_query_:"..."</code>) to be combined with other conditions.
+ * 
+ * @param fieldName Solr field, NOT NULL
+ * @param method query implementation (e.g., {@link de.calamanari.adl.solr.SolrFormatConstants#TERMS_METHOD_DOC_VALUES}) or null to use the default method
+ * @param terms plain values (not escaped), NOT NULL, not empty, must not contain any comma
+ * @author <a href="mailto:Karl.Eilebrecht(a/t)calamanari.de">Karl Eilebrecht</a>
+ */
+public record TermsCondition(String fieldName, String method, List<String> terms) implements FilterCondition {
+
+    /**
+     * @param fieldName Solr field, NOT NULL
+     * @param method query implementation or null to use the default method
+     * @param terms plain values (not escaped), NOT NULL, not empty, must not contain any comma
+     */
+    public TermsCondition {
+        if (fieldName == null || terms == null || terms.isEmpty() || terms.stream().anyMatch(term -> term == null || term.indexOf(COMMA) > -1)) {
+            throw new IllegalArgumentException(String.format(
+                    "Argument fieldName must not be null, terms must not be null or empty nor contain nulls or commas, given: fieldName=%s, method=%s, terms=%s",
+                    fieldName, method, terms));
+        }
+        terms = List.copyOf(terms);
+    }
+
+    /**
+     * @return the comma-separated terms (the query of the terms query parser)
+     */
+    public String joinedTerms() {
+        return String.join("" + COMMA, terms);
+    }
+
+    @Override
+    public void appendTo(StringBuilder sb) {
+        StringBuilder sbTerms = new StringBuilder();
+        SolrFormatUtils.appendTermsHeader(sbTerms, fieldName, method);
+        sbTerms.append(joinedTerms());
+
+        sb.append(INLINE_QUERY);
+        sb.append(COLON);
+        sb.append(DOUBLE_QUOTES);
+        SolrFormatUtils.appendEscaped(sb, sbTerms.toString());
+        sb.append(DOUBLE_QUOTES);
+    }
+
+}
@@ -0,0 +1,50 @@
+//@formatter:off
+/*
+ * WildcardCondition
+ * Copyright 2025 Karl Eilebrecht
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"):
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+//@formatter:on
+
+package de.calamanari.adl.solr.cnv.ast;
+
+import static de.calamanari.adl.solr.SolrFormatConstants.COLON;
+
+/**
+ * A {@link WildcardCondition} matches the values of a field against a pattern, e.g., <code>color:*</code> (any value) or <code>story:*fox*</code>
+ * (contains)
+ * 
+ * @param fieldName Solr field, NOT NULL
+ * @param pattern formatted pattern including the wildcards, NOT NULL
+ * @author <a href="mailto:Karl.Eilebrecht(a/t)calamanari.de">Karl Eilebrecht</a>
+ */
+public record WildcardCondition(String fieldName, String pattern) implements FilterCondition {
+
+    /**
+     * @param fieldName Solr field, NOT NULL
+     * @param pattern formatted pattern including the wildcards, NOT NULL
+     */
+    public WildcardCondition {
+        if (fieldName == null || pattern == null) {
+            throw new IllegalArgumentException(
+                    String.format("Arguments fieldName and pattern must not be null, given: fieldName=%s, pattern=%s", fieldName, pattern));
+        }
+    }
+
+    @Override
+    public void appendTo(StringBuilder sb) {
+        sb.append(fieldName).append(COLON).append(pattern);
+    }
+
+}
@@ -120,6 +120,11 @@ public abstract class AbstractDocumentConfigBuilder<T extends AbstractDocumentCo
      */
     protected AutoMappingConfig pendingAutoMappingConfig = null;
 
+    /**
+     * optional partitioning of a dependent sub-document
+     */
+    protected TimePartitioning timePartitioning = null;
+
     /**
      * multi-doc marker (default setting)
      */
@@ -265,6 +270,17 @@ public abstract class AbstractDocumentConfigBuilder<T extends AbstractDocumentCo
         return builder;
     }
 
+    /**
+     * @see ConfigBuilderInterfaces.TemplateDocumentSetTimePartitioning#timePartitioned(TimePartitioning)
+     */
+    public T timePartitioned(TimePartitioning timePartitioning) {
+        if (timePartitioning == null) {
+            throw new ConfigException(String.format("The argument timePartitioning must not be null (nodeType=%s).", nodeType));
+        }
+        this.timePartitioning = timePartitioning;
+        return builder;
+    }
+
     /**
      * @see ConfigBuilderInterfaces.TemplateDocumentAddField#dataField(String, AdlSolrType)
      */
@@ -404,7 +420,8 @@ public abstract class AbstractDocumentConfigBuilder<T extends AbstractDocumentCo
     public SubDocumentConfig createSubDocumentConfig() {
         addPendingFieldOrAutoMapping();
         return new SubDocumentConfig(nodeType, documentNature, documentFilters, argFieldMap,
-                autoMappingPolicies.isEmpty() ? DefaultAutoMappingPolicy.NONE : new CompositeAutoMappingPolicy(autoMappingPolicies), argMetaInfoLookup);
+                autoMappingPolicies.isEmpty() ? DefaultAutoMappingPolicy.NONE : new CompositeAutoMappingPolicy(autoMappingPolicies), argMetaInfoLookup,
+                timePartitioning);
     }
 
     /**
@@ -0,0 +1,55 @@
+//@formatter:off
+/*
+ * AffixLocalArgNameExtractor
+ * Copyright 2025 Karl Eilebrecht
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"):
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+//@formatter:on
+
+package de.calamanari.adl.solr.config;
+
+/**
+ * An {@link AffixLocalArgNameExtractor} restricts a delegate {@link LocalArgNameExtractor} to argNames with a given prefix and/or suffix and <i>declares</i>
+ * these requirements, see {@link LocalArgNameExtractor#withAffixes(String, String, LocalArgNameExtractor)}.
+ * <p>
+ * Instances are immutable as long as the delegate is immutable.
+ * 
+ * @param requiredPrefix prefix each argName must start with, empty means no restriction
+ * @param requiredSuffix suffix each argName must end with, empty means no restriction
+ * @param delegate the extractor to be called for matching argNames
+ * @author <a href="mailto:Karl.Eilebrecht(a/t)calamanari.de">Karl Eilebrecht</a>
+ */
+public record AffixLocalArgNameExtractor(String requiredPrefix, String requiredSuffix, LocalArgNameExtractor delegate) implements LocalArgNameExtractor {
+
+    /**
+     * @param requiredPrefix prefix each argName must start with, null or empty means no restriction
+     * @param requiredSuffix suffix each argName must end with, null or empty means no restriction
+     * @param delegate the extractor to be called for matching argNames, if null, uses {@link LocalArgNameExtractor#validateOnly()}
+     */
+    public AffixLocalArgNameExtractor(String requiredPrefix, String requiredSuffix, LocalArgNameExtractor delegate) {
+        this.requiredPrefix = requiredPrefix == null ? "" : requiredPrefix;
+        this.requiredSuffix = requiredSuffix == null ? "" : requiredSuffix;
+        this.delegate = delegate == null ? LocalArgNameExtractor.validateOnly() : delegate;
+    }
+
+    @Override
+    public String apply(String argName) {
+        if (argName == null || argName.length() < requiredPrefix.length() + requiredSuffix.length() || !argName.startsWith(requiredPrefix)
+                || !argName.endsWith(requiredSuffix)) {
+            return null;
+        }
+        return delegate.apply(argName);
+    }
+
+}
@@ -51,4 +51,28 @@ public interface AutoMappingPolicy extends Serializable {
      */
     ArgFieldAssignment map(String argName, ProcessContext ctx);
 
+    /**
+     * Declares a prefix every argName must start with to be applicable to this policy.
+     * <p>
+     * This is an optional <i>hint</i> for dispatching (see {@link AutoMappingPolicyDispatcher}): if {@link #isApplicable(String)} returns true then the argName
+     * <b>must</b> start with the returned prefix. The default (empty string) does not restrict anything.
+     * 
+     * @return required prefix or empty string, by default empty
+     */
+    default String requiredPrefix() {
+        return "";
+    }
+
+    /**
+     * Declares a suffix every argName must end with to be applicable to this policy.
+     * <p>
+     * This is an optional <i>hint</i> for dispatching (see {@link AutoMappingPolicyDispatcher}): if {@link #isApplicable(String)} returns true then the argName
+     * <b>must</b> end with the returned suffix. The default (empty string) does not restrict anything.
+     * 
+     * @return required suffix or empty string, by default empty
+     */
+    default String requiredSuffix() {
+        return "";
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,206 @@
+//@formatter:off
+/*
+ * AutoMappingPolicyDispatcher
+ * Copyright 2025 Karl Eilebrecht
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"):
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+//@formatter:on
+
+package de.calamanari.adl.solr.config;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The {@link AutoMappingPolicyDispatcher} is a compiled index over a list of {@link AutoMappingPolicy}s to quickly find the <i>first</i> applicable policy
+ * for a given argName.
+ * <p>
+ * Policies are indexed by their declared {@link AutoMappingPolicy#requiredPrefix()} (prefix trie) and {@link AutoMappingPolicy#requiredSuffix()} (trie of the
+ * reversed suffixes). For a given argName both tries are walked once (time proportional to the length of the argName) to determine the candidate policies.
+ * Only the candidates will be probed with {@link AutoMappingPolicy#isApplicable(String)} in their original order. Policies without any declaration are
+ * candidates for every argName.
+ * <p>
+ * As long as every policy honors its declarations, the result is identical to probing all policies in order.
+ * <p>
+ * Instances are immutable, the list of policies will be copied.
+ * 
+ * @author <a href="mailto:Karl.Eilebrecht(a/t)calamanari.de">Karl Eilebrecht</a>
+ */
+public final class AutoMappingPolicyDispatcher {
+
+    /**
+     * the policies in order of probing
+     */
+    private final List<AutoMappingPolicy> policies;
+
+    /**
+     * index over the required prefixes
+     */
+    private final TrieNode prefixIndex = new TrieNode();
+
+    /**
+     * index over the reversed required suffixes
+     */
+    private final TrieNode suffixIndex = new TrieNode();
+
+    /**
+     * true if at least one policy declared a prefix or suffix, otherwise all policies are candidates for any argName
+     */
+    private final boolean indexed;
+
+    /**
+     * @param policies the policies in the order they should be probed, null means empty list
+     */
+    public AutoMappingPolicyDispatcher(List<AutoMappingPolicy> policies) {
+        this.policies = policies == null ? List.of() : List.copyOf(policies);
+        boolean anyDeclaration = false;
+        for (int idx = 0; idx < this.policies.size(); idx++) {
+            AutoMappingPolicy policy = this.policies.get(idx);
+            String prefix = nullToEmpty(policy.requiredPrefix());
+            String suffix = nullToEmpty(policy.requiredSuffix());
+            anyDeclaration = anyDeclaration || !prefix.isEmpty() || !suffix.isEmpty();
+            prefixIndex.insert(prefix, false, idx);
+            suffixIndex.insert(suffix, true, idx);
+        }
+        this.indexed = anyDeclaration;
+    }
+
+    /**
+     * Returns the first policy (in order of the list) which {@link AutoMappingPolicy#isApplicable(String)} to the given argName.
+     * 
+     * @param argName to be mapped
+     * @return first applicable policy or null if there is none
+     */
+    public AutoMappingPolicy findFirstApplicable(String argName) {
+        if (argName == null || !indexed) {
+            return policies.stream().filter(policy -> policy.isApplicable(argName)).findFirst().orElse(null);
+        }
+        BitSet candidates = candidates(argName);
+        for (int idx = candidates.nextSetBit(0); idx >= 0; idx = candidates.nextSetBit(idx + 1)) {
+            AutoMappingPolicy policy = policies.get(idx);
+            if (policy.isApplicable(argName)) {
+                return policy;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Determines the indexes of the policies that may be applicable to the given argName according to their declarations.
+     * 
+     * @param argName not null
+     * @return bit set with the candidate indexes
+     */
+    BitSet candidates(String argName) {
+        BitSet res = prefixIndex.collect(argName, false);
+        res.and(suffixIndex.collect(argName, true));
+        return res;
+    }
+
+    /**
+     * @return the policies in order of probing
+     */
+    public List<AutoMappingPolicy> getPolicies() {
+        return policies;
+    }
+
+    /**
+     * Returns the longest prefix all of the given policies have in common according to their declarations.
+     * 
+     * @param policies
+     * @return common prefix or empty string
+     */
+    static String commonRequiredPrefix(List<AutoMappingPolicy> policies) {
+        List<String> prefixes = new ArrayList<>(policies.size());
+        policies.forEach(policy -> prefixes.add(nullToEmpty(policy.requiredPrefix())));
+        return commonAffix(prefixes, false);
+    }
+
+    /**
+     * Returns the longest suffix all of the given policies have in common according to their declarations.
+     * 
+     * @param policies
+     * @return common suffix or empty string
+     */
+    static String commonRequiredSuffix(List<AutoMappingPolicy> policies) {
+        List<String> suffixes = new ArrayList<>(policies.size());
+        policies.forEach(policy -> suffixes.add(nullToEmpty(policy.requiredSuffix())));
+        return commonAffix(suffixes, true);
+    }
+
+    private static String commonAffix(List<String> affixes, boolean reverse) {
+        if (affixes.isEmpty()) {
+            return "";
+        }
+        String res = affixes.get(0);
+        for (int i = 1; i < affixes.size() && !res.isEmpty(); i++) {
+            String affix = affixes.get(i);
+            int len = 0;
+            int max = Math.min(res.length(), affix.length());
+            while (len < max && charAt(res, len, reverse) == charAt(affix, len, reverse)) {
+                len++;
+            }
+            res = reverse ? res.substring(res.length() - len) : res.substring(0, len);
+        }
+        return res;
+    }
+
+    private static char charAt(String s, int pos, boolean reverse) {
+        return reverse ? s.charAt(s.length() - 1 - pos) : s.charAt(pos);
+    }
+
+    private static String nullToEmpty(String s) {
+        return s == null ? "" : s;
+    }
+
+    @Override
+    public String toString() {
+        return this.getClass().getSimpleName() + " [policies=" + policies.size() + ", indexed=" + indexed + "]";
+    }
+
+    /**
+     * Node of a character trie, each node knows the policies whose declared affix ends here
+     */
+    private static final class TrieNode {
+
+        private final Map<Character, TrieNode> children = new HashMap<>();
+
+        private final BitSet terminal = new BitSet();
+
+        void insert(String affix, boolean reverse, int policyIdx) {
+            TrieNode node = this;
+            for (int i = 0; i < affix.length(); i++) {
+                node = node.children.computeIfAbsent(charAt(affix, i, reverse), k -> new TrieNode());
+            }
+            node.terminal.set(policyIdx);
+        }
+
+        BitSet collect(String argName, boolean reverse) {
+            BitSet res = new BitSet();
+            TrieNode node = this;
+            res.or(node.terminal);
+            for (int i = 0; i < argName.length() && node != null; i++) {
+                node = node.children.get(charAt(argName, i, reverse));
+                if (node != null) {
+                    res.or(node.terminal);
+                }
+            }
+            return res;
+        }
+    }
+
+}
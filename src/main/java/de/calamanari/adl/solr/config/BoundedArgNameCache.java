@@ -0,0 +1,106 @@
+//@formatter:off
+/*
+ * BoundedArgNameCache
+ * Copyright 2025 Karl Eilebrecht
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"):
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+//@formatter:on
+
+package de.calamanari.adl.solr.config;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Concurrent cache of values resolved by argName with a maximum number of entries
+ * <p>
+ * If the maximum number of entries is reached, some arbitrary entry will be evicted. Under concurrency the cache may temporarily exceed the limit by the
+ * number of competing threads, but every thread trims the cache after adding its entry.
+ * 
+ * @param <T> type of the cached values
+ * @author <a href="mailto:Karl.Eilebrecht(a/t)calamanari.de">Karl Eilebrecht</a>
+ */
+final class BoundedArgNameCache<T> {
+
+    private final Map<String, T> cache = new ConcurrentHashMap<>();
+
+    private final int maxSize;
+
+    /**
+     * @param maxSize maximum number of entries, &gt;0
+     */
+    BoundedArgNameCache(int maxSize) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException(String.format("Argument maxSize must be positive, given: maxSize=%d", maxSize));
+        }
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * @param argName
+     * @return cached value or null
+     */
+    T get(String argName) {
+        return cache.get(argName);
+    }
+
+    /**
+     * @param argName
+     * @return true if there is a value for the given argName
+     */
+    boolean containsKey(String argName) {
+        return cache.containsKey(argName);
+    }
+
+    /**
+     * Adds the entry (unless present) and evicts arbitrary other entries as long as the cache exceeds the limit.
+     * 
+     * @param argName
+     * @param value NOT NULL
+     * @return the cached value for the argName (the given one or the one added concurrently before)
+     */
+    T put(String argName, T value) {
+        T existing = cache.putIfAbsent(argName, value);
+        Iterator<String> it = cache.keySet().iterator();
+        while (cache.size() > maxSize && it.hasNext()) {
+            if (!it.next().equals(argName)) {
+                it.remove();
+            }
+        }
+        return existing != null ? existing : value;
+    }
+
+    /**
+     * @return number of entries
+     */
+    int size() {
+        return cache.size();
+    }
+
+    /**
+     * @return maximum number of entries
+     */
+    int maxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Removes all entries
+     */
+    void clear() {
+        cache.clear();
+    }
+
+}
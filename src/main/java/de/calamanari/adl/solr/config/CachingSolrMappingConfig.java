@@ -0,0 +1,197 @@
+//@formatter:off
+/*
+ * CachingSolrMappingConfig
+ * Copyright 2025 Karl Eilebrecht
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"):
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+//@formatter:on
+
+package de.calamanari.adl.solr.config;
+
+import java.util.List;
+
+import de.calamanari.adl.ProcessContext;
+import de.calamanari.adl.cnv.tps.ConfigException;
+import de.calamanari.adl.cnv.tps.LookupException;
+
+import static de.calamanari.adl.solr.config.ConfigUtils.assertContextNotNull;
+import static de.calamanari.adl.solr.config.ConfigUtils.assertValidArgName;
+
+/**
+ * The {@link CachingSolrMappingConfig} is a thread-safe decorator that caches the argName resolution of another {@link SolrMappingConfig}.
+ * <p>
+ * During a single conversion the same argName will be resolved many times (assignment, field, type, node type), and resolving an auto-mapped argName means
+ * running the extractors of all the configured policies and creating new objects again and again. This cache resolves each argName only once and shares the
+ * result across threads and conversions. Instances of this class are meant to be created once and then <i>shared</i>.
+ * <p>
+ * Lookups against this cache are <b>side-effect-free</b>: The delegate resolves any argName in a <i>private</i> {@link ProcessContext}, so the caller's
+ * context will never be modified (e.g., by auto-mapping policies setting variables like
+ * {@value de.calamanari.adl.solr.config.DefaultAutoMappingPolicy#VAR_ARG_NAME_LOCAL}). Consequently, caching is only applicable if the mapping does not depend
+ * on the variables or flags of the process context, which is true for all the mappings and policies in this package.
+ * <p>
+ * The cache is bounded: if the maximum number of entries is reached, some arbitrary entry will be evicted. Failed resolutions (exceptions) won't be cached.
+ * 
+ * @author <a href="mailto:Karl.Eilebrecht(a/t)calamanari.de">Karl Eilebrecht</a>
+ */
+public final class CachingSolrMappingConfig implements SolrMappingConfig {
+
+    private static final long serialVersionUID = -6081939452187232707L;
+
+    /**
+     * Default maximum number of argNames kept in the cache: {@value}
+     */
+    public static final int DEFAULT_MAX_SIZE = 10_000;
+
+    /**
+     * the config that resolves argNames
+     */
+    private final SolrMappingConfig delegate;
+
+    /**
+     * maximum number of argNames kept in each of the caches
+     */
+    private final int maxSize;
+
+    /**
+     * The node type infos won't change, so we can prepare the list once
+     */
+    private final transient List<NodeTypeMetaInfo> allNodeTypeMetaInfos;
+
+    private final transient NodeTypeMetaInfo mainNodeTypeMetaInfo;
+
+    private final transient BoundedArgNameCache<ArgFieldAssignment> assignmentCache;
+
+    private final transient BoundedArgNameCache<NodeTypeMetaInfo> nodeTypeMetaInfoCache;
+
+    /**
+     * @param delegate mapping config to be cached, NOT NULL
+     * @param maxSize maximum number of cached argNames, &gt;0
+     */
+    public CachingSolrMappingConfig(SolrMappingConfig delegate, int maxSize) {
+        if (delegate == null || maxSize < 1) {
+            throw new ConfigException(String.format("Argument delegate must not be null, maxSize must be positive, given: delegate=%s, maxSize=%d", delegate,
+                    maxSize));
+        }
+        this.delegate = delegate instanceof CachingSolrMappingConfig cachingConfig ? cachingConfig.delegate : delegate;
+        this.maxSize = maxSize;
+        this.assignmentCache = new BoundedArgNameCache<>(maxSize);
+        this.nodeTypeMetaInfoCache = new BoundedArgNameCache<>(maxSize);
+        this.allNodeTypeMetaInfos = List.copyOf(this.delegate.allNodeTypeMetaInfos());
+        this.mainNodeTypeMetaInfo = this.delegate.mainNodeTypeMetaInfo();
+    }
+
+    /**
+     * Creates a cache with the {@link #DEFAULT_MAX_SIZE}
+     * 
+     * @param delegate mapping config to be cached, NOT NULL
+     */
+    public CachingSolrMappingConfig(SolrMappingConfig delegate) {
+        this(delegate, DEFAULT_MAX_SIZE);
+    }
+
+    /**
+     * @return the underlying mapping config
+     */
+    public SolrMappingConfig getDelegate() {
+        return delegate;
+    }
+
+    /**
+     * @return maximum number of cached argNames
+     */
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * @return number of currently cached assignments
+     */
+    public int size() {
+        return assignmentCache.size();
+    }
+
+    /**
+     * Removes all entries from the cache
+     */
+    public void clear() {
+        assignmentCache.clear();
+        nodeTypeMetaInfoCache.clear();
+    }
+
+    @Override
+    public boolean contains(String argName) {
+        assertValidArgName(argName);
+        return assignmentCache.containsKey(argName) || delegate.contains(argName);
+    }
+
+    /**
+     * @param ctx only validated, the delegate resolves the argName in a private context
+     * @throws LookupException if there is no assignment for the given argName
+     */
+    @Override
+    public ArgFieldAssignment lookupAssignment(String argName, ProcessContext ctx) {
+        assertContextNotNull(ctx);
+        assertValidArgName(argName);
+        ArgFieldAssignment res = assignmentCache.get(argName);
+        if (res == null) {
+            res = delegate.lookupAssignment(argName, ProcessContext.empty());
+            assignmentCache.put(argName, res);
+        }
+        return res;
+    }
+
+    /**
+     * @param ctx only validated, the delegate resolves the argName in a private context
+     * @throws LookupException if there is no {@link NodeTypeMetaInfo} for the given argName
+     */
+    @Override
+    public NodeTypeMetaInfo lookupNodeTypeMetaInfo(String argName, ProcessContext ctx) {
+        assertContextNotNull(ctx);
+        assertValidArgName(argName);
+        NodeTypeMetaInfo res = nodeTypeMetaInfoCache.get(argName);
+        if (res == null) {
+            res = delegate.lookupNodeTypeMetaInfo(argName, ProcessContext.empty());
+            nodeTypeMetaInfoCache.put(argName, res);
+        }
+        return res;
+    }
+
+    @Override
+    public int numberOfNodeTypes() {
+        return allNodeTypeMetaInfos.size();
+    }
+
+    @Override
+    public List<NodeTypeMetaInfo> allNodeTypeMetaInfos() {
+        return allNodeTypeMetaInfos;
+    }
+
+    @Override
+    public NodeTypeMetaInfo mainNodeTypeMetaInfo() {
+        return mainNodeTypeMetaInfo;
+    }
+
+    /**
+     * @return new instance (the caches and the prepared node type infos are not serialized)
+     */
+    private Object readResolve() {
+        return new CachingSolrMappingConfig(delegate, maxSize);
+    }
+
+    @Override
+    public String toString() {
+        return this.getClass().getSimpleName() + "[delegate=" + delegate + ", maxSize=" + maxSize + ", size=" + assignmentCache.size() + "]";
+    }
+
+}
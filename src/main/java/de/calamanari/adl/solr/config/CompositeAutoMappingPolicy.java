@@ -19,10 +19,13 @@
 
 package de.calamanari.adl.solr.config;
 
+import java.io.Serializable;
+import java.util.AbstractList;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
+import java.util.RandomAccess;
 
 import de.calamanari.adl.AudlangMessage;
 import de.calamanari.adl.CommonErrors;
@@ -33,11 +36,13 @@ import de.calamanari.adl.cnv.tps.ConfigException;
  * A {@link CompositeAutoMappingPolicy} allows combining a list of policies into a common policy that can apply different rules or patterns to determine the
  * column assignment for a given argName.
  * <p>
- * The policies will be probed in order of appearance in the configured list.
+ * The policies will be probed in order of appearance in the configured list. Probing is backed by an {@link AutoMappingPolicyDispatcher}, so members that
+ * declare a {@link AutoMappingPolicy#requiredPrefix()} or {@link AutoMappingPolicy#requiredSuffix()} will be skipped without calling
+ * {@link AutoMappingPolicy#isApplicable(String)} if the argName does not match. The result is the same as probing all members one by one.
  * <p>
  * Instances are <i>deeply</i> immutable.
  * 
- * @param members the child policies in the order they should be probed
+ * @param members the child policies in the order they should be probed, null gracefully means empty list
  * @author <a href="mailto:Karl.Eilebrecht(a/t)calamanari.de">Karl Eilebrecht</a>
  */
 public record CompositeAutoMappingPolicy(List<AutoMappingPolicy> members) implements AutoMappingPolicy {
@@ -45,29 +50,119 @@ public record CompositeAutoMappingPolicy(List<AutoMappingPolicy> members) implem
     /**
      * @param members the child policies in the order they should be probed, null gracefully means empty list
      */
-    public CompositeAutoMappingPolicy(List<AutoMappingPolicy> members) {
+    public CompositeAutoMappingPolicy {
         if (members != null && members.stream().anyMatch(Objects::isNull)) {
             throw new IllegalArgumentException("The members list must not contain any nulls, given: " + members);
         }
-        if (members == null) {
-            this.members = Collections.emptyList();
-        }
-        else {
-            this.members = Collections.unmodifiableList(new ArrayList<>(members));
+        if (!(members instanceof IndexedMemberList)) {
+            members = new IndexedMemberList(members == null ? Collections.emptyList() : new ArrayList<>(members));
         }
     }
 
     @Override
     public boolean isApplicable(String argName) {
-        return members.stream().anyMatch(member -> member.isApplicable(argName));
+        return indexedMembers().dispatcher().findFirstApplicable(argName) != null;
     }
 
     @Override
     public ArgFieldAssignment map(String argName, ProcessContext ctx) {
-        return members.stream().filter(member -> member.isApplicable(argName)).findFirst()
-                .orElseThrow(() -> new ConfigException("Auto-mapping error: No field assignment configured for argName=" + argName,
-                        AudlangMessage.argMsg(CommonErrors.ERR_3000_MAPPING_FAILED, argName)))
-                .map(argName, ctx);
+        AutoMappingPolicy member = indexedMembers().dispatcher().findFirstApplicable(argName);
+        if (member == null) {
+            throw new ConfigException("Auto-mapping error: No field assignment configured for argName=" + argName,
+                    AudlangMessage.argMsg(CommonErrors.ERR_3000_MAPPING_FAILED, argName));
+        }
+        return member.map(argName, ctx);
+    }
+
+    /**
+     * @return the longest prefix all members have in common according to their declarations
+     */
+    @Override
+    public String requiredPrefix() {
+        return indexedMembers().requiredPrefix();
+    }
+
+    /**
+     * @return the longest suffix all members have in common according to their declarations
+     */
+    @Override
+    public String requiredSuffix() {
+        return indexedMembers().requiredSuffix();
+    }
+
+    /**
+     * @return the members list, always an {@link IndexedMemberList} after construction
+     */
+    private IndexedMemberList indexedMembers() {
+        return (IndexedMemberList) members;
+    }
+
+    /**
+     * Unmodifiable member list that carries the dispatcher index and the common affixes derived from the members.
+     * <p>
+     * Equality is list equality, so this list is indistinguishable from any other list with the same members. The derived state is lazily built and not
+     * serialized, a serialized list is replaced by a plain copy of the members, which the record's canonical constructor indexes again.
+     */
+    private static final class IndexedMemberList extends AbstractList<AutoMappingPolicy> implements RandomAccess, Serializable {
+
+        private static final long serialVersionUID = -3209781623544316590L;
+
+        private final transient List<AutoMappingPolicy> members;
+
+        private transient volatile AutoMappingPolicyDispatcher dispatcher;
+
+        private transient volatile String requiredPrefix;
+
+        private transient volatile String requiredSuffix;
+
+        IndexedMemberList(List<AutoMappingPolicy> members) {
+            this.members = members;
+        }
+
+        @Override
+        public AutoMappingPolicy get(int index) {
+            return members.get(index);
+        }
+
+        @Override
+        public int size() {
+            return members.size();
+        }
+
+        AutoMappingPolicyDispatcher dispatcher() {
+            AutoMappingPolicyDispatcher res = dispatcher;
+            if (res == null) {
+                res = new AutoMappingPolicyDispatcher(members);
+                dispatcher = res;
+            }
+            return res;
+        }
+
+        String requiredPrefix() {
+            String res = requiredPrefix;
+            if (res == null) {
+                res = AutoMappingPolicyDispatcher.commonRequiredPrefix(members);
+                requiredPrefix = res;
+            }
+            return res;
+        }
+
+        String requiredSuffix() {
+            String res = requiredSuffix;
+            if (res == null) {
+                res = AutoMappingPolicyDispatcher.commonRequiredSuffix(members);
+                requiredSuffix = res;
+            }
+            return res;
+        }
+
+        /**
+         * @return plain copy of the members, the derived index is rebuilt by the record's canonical constructor
+         */
+        private Object writeReplace() {
+            return new ArrayList<>(members);
+        }
+
     }
 
 }
@@ -85,6 +85,24 @@ public class ConfigBuilderInterfaces {
 
     }
 
+    /**
+     * Template interface for documentation
+     */
+    public static interface TemplateDocumentSetTimePartitioning {
+
+        /**
+         * Tells that the documents of this <i>dependent</i> sub-config reside in monthly collections (partitions) rather than in the main collection.
+         * <p>
+         * Joins to this node type will only target the partitions that can contain matching documents according to the date conditions on the partition key.
+         * 
+         * @param timePartitioning partitioning of the dependent documents, NOT NULL
+         * @return builder
+         * @see SubDocumentConfig#withTimePartitioning(TimePartitioning)
+         */
+        Object timePartitioned(TimePartitioning timePartitioning);
+
+    }
+
     /**
      * Template interface for documentation
      */
@@ -316,13 +334,23 @@ public class ConfigBuilderInterfaces {
         SubDocumentAddFilterFieldOrFieldOrAutoMapping nested();
 
         @Override
-        SubDocumentAddFilterFieldOrFieldOrAutoMapping dependent();
+        SubDocumentSetTimePartitioningOrAddFilterFieldOrFieldOrAutoMapping dependent();
 
         @Override
         SubDocumentAddFilterFieldOrFieldOrAutoMapping nestedMultiDoc();
 
         @Override
-        SubDocumentAddFilterFieldOrFieldOrAutoMapping dependentMultiDoc();
+        SubDocumentSetTimePartitioningOrAddFilterFieldOrFieldOrAutoMapping dependentMultiDoc();
+
+    }
+
+    /**
+     * Fluent API to build a {@link SubDocumentConfig} of a dependent document
+     */
+    public static interface SubDocumentSetTimePartitioning extends TemplateDocumentSetTimePartitioning {
+
+        @Override
+        SubDocumentAddFilterFieldOrFieldOrAutoMapping timePartitioned(TimePartitioning timePartitioning);
 
     }
 
@@ -469,13 +497,22 @@ public class ConfigBuilderInterfaces {
         // combined
     }
 
+    /**
+     * Fluent API to build a {@link SubDocumentConfig}
+     */
+    public static interface SubDocumentSetTimePartitioningOrAddFilterFieldOrFieldOrAutoMapping
+            extends SubDocumentSetTimePartitioning, SubDocumentAddFilterFieldOrFieldOrAutoMapping {
+        // combined
+    }
+
     /**
      * Fluent API to build a {@link SubDocumentConfig}
      */
     public static interface SubDocumentConfigBuilder
             extends SubDocumentSetNature, SubDocumentAddField, SubDocumentAddFieldStep1, SubDocumentAddFieldStep2OrStep3OrAddFieldOrAutoMappingOrExit,
             SubDocumentAddFieldStep3OrAddFieldOrAutoMappingOrExit, SubDocumentAddAutoMappingOrExit, SubDocumentAddAutoMappingStep2OrAutoMappingOrExit,
-            SubDocumentAddFilterFieldOrFieldOrAutoMapping, SubDocumentAddFieldOrAutoMapping, SubDocumentAddFieldOrAutoMappingOrExit {
+            SubDocumentAddFilterFieldOrFieldOrAutoMapping, SubDocumentSetTimePartitioningOrAddFilterFieldOrFieldOrAutoMapping, SubDocumentAddFieldOrAutoMapping,
+            SubDocumentAddFieldOrAutoMappingOrExit {
         // tagging interface to centralize the knowledge about the required combination here
     }
 
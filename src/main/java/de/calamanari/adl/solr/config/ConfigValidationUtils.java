@@ -20,13 +20,17 @@
 package de.calamanari.adl.solr.config;
 
 import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import de.calamanari.adl.AudlangMessage;
 import de.calamanari.adl.CommonErrors;
@@ -42,6 +46,12 @@ import de.calamanari.adl.solr.SolrFormatConstants;
  */
 public class ConfigValidationUtils {
 
+    /**
+     * Number of static mappings to be checked against the auto-mapping policies of the sub-document configurations, beyond which the checks will run in
+     * parallel, see {@link #validateNoStaticFieldStealing(String, List, Map, List)}
+     */
+    public static final int PARALLEL_VALIDATION_THRESHOLD = 10_000;
+
     private ConfigValidationUtils() {
         // utilities
     }
@@ -174,7 +184,9 @@ public class ConfigValidationUtils {
         }
 
         Set<String> subNodeTypes = HashSet.newHashSet(subDocumentConfigs.size());
-        Map<String, ArgFieldAssignment> allArgFieldMap = new HashMap<>(argFieldMap);
+
+        // reverse index of the static mappings of the sub-documents (the main config's argFieldMap will be checked directly, no copy)
+        Map<String, ArgFieldAssignment> subArgFieldMap = new HashMap<>();
         for (SubDocumentConfig config : subDocumentConfigs) {
             if (config == null) {
                 throw new ConfigException(String.format(
@@ -193,7 +205,7 @@ public class ConfigValidationUtils {
                         subNodeType, nodeType, documentFilters, argFieldMap, subDocumentConfigs));
             }
             subNodeTypes.add(subNodeType);
-            ArgFieldAssignment duplicateAssignment = ConfigValidationUtils.detectDuplicateArgNameMapping(config, allArgFieldMap);
+            ArgFieldAssignment duplicateAssignment = ConfigValidationUtils.detectDuplicateArgNameMapping(config, argFieldMap, subArgFieldMap);
             if (duplicateAssignment != null) {
                 throw new ConfigException(String.format(
                         "Duplicate mapping detected for argName=%s to nodeType=%s (already mapped to nodeType=%s, fieldName=%s), given: main nodeType=%s, documentFilters=%s, argFieldMap=%s, subDocumentConfigs=%s",
@@ -201,7 +213,7 @@ public class ConfigValidationUtils {
                         nodeType, documentFilters, argFieldMap, subDocumentConfigs));
 
             }
-            allArgFieldMap.putAll(config.argFieldMap());
+            subArgFieldMap.putAll(config.argFieldMap());
         }
     }
 
@@ -293,6 +305,12 @@ public class ConfigValidationUtils {
      * <li>Static argName mappings defined in the main configuration could be stolen by auto-mappers defined in any sub-configuration.</li>
      * <li>Static argName mappings defined in a sub-configuration (nested or dependent) could be stolen by auto-mappers of any previous sub-configuration</li>
      * </ul>
+     * <p>
+     * To avoid probing every static mapping against every sub-configuration, the static mappings of the sub-configurations are indexed once (argName to
+     * position of the first sub-config), and the auto-mapping policies by their declared prefixes and suffixes (see {@link AutoMappingPolicyDispatcher}). Only
+     * the sub-configurations with a policy that may be applicable will be probed. If there are more than
+     * {@link #PARALLEL_VALIDATION_THRESHOLD} static mappings in a configuration, the probing runs in parallel. The reported violation is always the first one
+     * in order of the configuration.
      * 
      * @param nodeType null ignored
      * @param documentFilters debug only
@@ -305,26 +323,23 @@ public class ConfigValidationUtils {
         argFieldMap = argFieldMap == null ? Collections.emptyMap() : argFieldMap;
         subDocumentConfigs = subDocumentConfigs == null ? Collections.emptyList() : subDocumentConfigs;
 
+        FieldStealingIndex index = new FieldStealingIndex(subDocumentConfigs);
+
         // check the main config fields against all sub config because the main config is the fallback (comes last)
-        for (String argName : argFieldMap.keySet()) {
-            String errMsg = ConfigValidationUtils.createMessageOnFieldStealing(subDocumentConfigs, nodeType, argName);
-            if (errMsg != null) {
-                throw new ConfigException(String.format("%s%ngiven: nodeType=%s, documentFilters=%s, argFieldMap=%s, subDocumentConfigs=%s", errMsg, nodeType,
-                        documentFilters, argFieldMap, subDocumentConfigs));
-            }
+        String errMsg = index.createMessageOnFieldStealing(argFieldMap.keySet(), subDocumentConfigs.size(), nodeType);
+        if (errMsg != null) {
+            throw new ConfigException(String.format("%s%ngiven: nodeType=%s, documentFilters=%s, argFieldMap=%s, subDocumentConfigs=%s", errMsg, nodeType,
+                    documentFilters, argFieldMap, subDocumentConfigs));
         }
 
         // check sub-configs in order of appearance against predecessors
-        List<SubDocumentConfig> previousConfigs = new ArrayList<>(subDocumentConfigs.size());
-        for (SubDocumentConfig currentConfig : subDocumentConfigs) {
-            for (String argName : currentConfig.argFieldMap().keySet()) {
-                String errMsg = ConfigValidationUtils.createMessageOnFieldStealing(previousConfigs, currentConfig.nodeType(), argName);
-                if (errMsg != null) {
-                    throw new ConfigException(String.format("%s%ngiven: nodeType=%s, documentFilters=%s, argFieldMap=%s, subDocumentConfigs=%s", errMsg,
-                            nodeType, documentFilters, argFieldMap, subDocumentConfigs));
-                }
+        for (int idx = 1; idx < subDocumentConfigs.size(); idx++) {
+            SubDocumentConfig currentConfig = subDocumentConfigs.get(idx);
+            errMsg = index.createMessageOnFieldStealing(currentConfig.argFieldMap().keySet(), idx, currentConfig.nodeType());
+            if (errMsg != null) {
+                throw new ConfigException(String.format("%s%ngiven: nodeType=%s, documentFilters=%s, argFieldMap=%s, subDocumentConfigs=%s", errMsg, nodeType,
+                        documentFilters, argFieldMap, subDocumentConfigs));
             }
-            previousConfigs.add(currentConfig);
         }
 
     }
@@ -359,38 +374,123 @@ public class ConfigValidationUtils {
     }
 
     /**
-     * Returns an an error message string if the given argName gets consumed (mapper applicable) by any of the previous configs.
-     * 
-     * @param previousConfigs
-     * @param currentNodeType
-     * @param argName
-     * @return error message string or null if no consumption
+     * Index over a list of sub-document configurations to quickly find the first configuration that would consume a given argName.
      */
-    private static String createMessageOnFieldStealing(List<SubDocumentConfig> previousConfigs, String currentNodeType, String argName) {
-        for (SubDocumentConfig previousConfig : previousConfigs) {
-            if (previousConfig.contains(argName)) {
+    private static class FieldStealingIndex {
+
+        private final List<SubDocumentConfig> subDocumentConfigs;
+
+        /**
+         * argName to the position of the first sub-config that maps it statically
+         */
+        private final Map<String, Integer> staticArgNameIndex = new HashMap<>();
+
+        /**
+         * the auto-mapping policies of the sub-configs (members of composites listed individually) indexed by their declared prefixes and suffixes
+         */
+        private final AutoMappingPolicyDispatcher autoMappingIndex;
+
+        /**
+         * for each policy in the {@link #autoMappingIndex} the position of the related sub-config (ascending)
+         */
+        private final int[] autoMappingConfigPositions;
+
+        FieldStealingIndex(List<SubDocumentConfig> subDocumentConfigs) {
+            this.subDocumentConfigs = subDocumentConfigs;
+            List<AutoMappingPolicy> policies = new ArrayList<>();
+            List<Integer> positions = new ArrayList<>();
+            for (int idx = 0; idx < subDocumentConfigs.size(); idx++) {
+                SubDocumentConfig config = subDocumentConfigs.get(idx);
+                for (String argName : config.argFieldMap().keySet()) {
+                    staticArgNameIndex.putIfAbsent(argName, idx);
+                }
+                AutoMappingPolicy policy = config.autoMappingPolicy();
+                List<AutoMappingPolicy> members = (policy instanceof CompositeAutoMappingPolicy composite) ? composite.members() : List.of(policy);
+                for (AutoMappingPolicy member : members) {
+                    if (member != DefaultAutoMappingPolicy.NONE) {
+                        policies.add(member);
+                        positions.add(idx);
+                    }
+                }
+            }
+            this.autoMappingIndex = new AutoMappingPolicyDispatcher(policies);
+            this.autoMappingConfigPositions = positions.stream().mapToInt(Integer::intValue).toArray();
+        }
+
+        /**
+         * Returns an error message string for the first of the given argNames that gets consumed by any of the sub-configs before the given limit.
+         * 
+         * @param argNames to be checked
+         * @param limit position of the current config (exclusive)
+         * @param currentNodeType
+         * @return error message string or null if no consumption
+         */
+        String createMessageOnFieldStealing(Collection<String> argNames, int limit, String currentNodeType) {
+            if (limit == 0 || argNames.isEmpty()) {
+                return null;
+            }
+            Stream<String> argNameStream = argNames.size() > PARALLEL_VALIDATION_THRESHOLD ? argNames.parallelStream() : argNames.stream();
+            return argNameStream.map(argName -> createMessageOnFieldStealing(argName, limit, currentNodeType)).filter(Objects::nonNull).findFirst()
+                    .orElse(null);
+        }
+
+        /**
+         * Returns an error message string if the given argName gets consumed (static mapping or mapper applicable) by any of the previous configs.
+         * 
+         * @param argName
+         * @param limit position of the current config (exclusive)
+         * @param currentNodeType
+         * @return error message string or null if no consumption
+         */
+        private String createMessageOnFieldStealing(String argName, int limit, String currentNodeType) {
+            int firstIdx = staticArgNameIndex.getOrDefault(argName, limit);
+            BitSet candidates = autoMappingIndex.candidates(argName);
+            int prevPosition = -1;
+            for (int i = candidates.nextSetBit(0); i >= 0 && autoMappingConfigPositions[i] < Math.min(firstIdx, limit); i = candidates.nextSetBit(i + 1)) {
+                int position = autoMappingConfigPositions[i];
+                if (position != prevPosition && subDocumentConfigs.get(position).contains(argName)) {
+                    firstIdx = position;
+                }
+                prevPosition = position;
+            }
+            if (firstIdx < limit && !subDocumentConfigs.get(firstIdx).contains(argName)) {
+                // static mapping rejected by the guardian lookup of that sub-config, rare case, probe one by one
+                firstIdx = limit;
+                for (int idx = 0; idx < limit && firstIdx == limit; idx++) {
+                    if (subDocumentConfigs.get(idx).contains(argName)) {
+                        firstIdx = idx;
+                    }
+                }
+            }
+            if (firstIdx < limit) {
                 return String.format("""
                         Field stealing detected! Auto-mapping must not hide static mappings.
                         The argName=%s statically mapped to nodeType=%s (victim) will be auto-mapped prematurely to nodeType=%s.
                         Resolution FIRST considers the sub-configurations (in order of appearance in the configuration) and
                         FINALLY checks the main document configuration.
                         Change your auto-mapper to ignore this field or remove the static mapping.
-                        """, argName, currentNodeType, previousConfig.nodeType());
+                        """, argName, currentNodeType, subDocumentConfigs.get(firstIdx).nodeType());
             }
+            return null;
         }
-        return null;
+
     }
 
     /**
-     * Checks whether the argument name is already mapped by the sub-config
+     * Checks whether any argument name of the sub-config is already mapped
      * 
      * @param currentSubConfig
-     * @param allArgFieldMap all previous assignments
+     * @param mainArgFieldMap assignments of the main config (may be null)
+     * @param subArgFieldMap all previous assignments of sub-configs
      * @return existing assignment
      */
-    private static ArgFieldAssignment detectDuplicateArgNameMapping(SubDocumentConfig currentSubConfig, Map<String, ArgFieldAssignment> allArgFieldMap) {
+    private static ArgFieldAssignment detectDuplicateArgNameMapping(SubDocumentConfig currentSubConfig, Map<String, ArgFieldAssignment> mainArgFieldMap,
+            Map<String, ArgFieldAssignment> subArgFieldMap) {
         for (String argName : currentSubConfig.argFieldMap().keySet()) {
-            ArgFieldAssignment prevAssignment = allArgFieldMap.get(argName);
+            ArgFieldAssignment prevAssignment = mainArgFieldMap == null ? null : mainArgFieldMap.get(argName);
+            if (prevAssignment == null) {
+                prevAssignment = subArgFieldMap.get(argName);
+            }
             if (prevAssignment != null) {
                 return prevAssignment;
             }
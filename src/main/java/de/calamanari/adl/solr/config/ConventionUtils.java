@@ -23,6 +23,7 @@ import de.calamanari.adl.cnv.tps.AdlType;
 import de.calamanari.adl.cnv.tps.DefaultAdlType;
 import de.calamanari.adl.solr.AdlSolrType;
 import de.calamanari.adl.solr.DefaultAdlSolrType;
+import de.calamanari.adl.solr.DictionaryEncodedSolrType;
 import de.calamanari.adl.solr.SolrFormatConstants;
 
 import static de.calamanari.adl.cnv.tps.DefaultAdlType.BOOL;
@@ -166,6 +167,7 @@ public class ConventionUtils {
      * <li>{@link DefaultAdlSolrType#SOLR_FLOAT} {@link DefaultAdlType#DECIMAL}</li>
      * <li>{@link DefaultAdlSolrType#SOLR_DOUBLE} -&gt; {@link DefaultAdlType#DECIMAL}</li>
      * <li>{@link DefaultAdlSolrType#SOLR_DATE} -&gt; {@link DefaultAdlType#DATE}</li>
+     * <li>{@link DictionaryEncodedSolrType} -&gt; {@link DefaultAdlType#STRING}</li>
      * </ul>
      * 
      * @param fieldType Solr field type to be mapped to an Audlang type
@@ -175,6 +177,9 @@ public class ConventionUtils {
         if (fieldType == null) {
             return null;
         }
+        if (fieldType instanceof DictionaryEncodedSolrType) {
+            return STRING;
+        }
         AdlSolrType baseFieldType = fieldType.getBaseType();
         switch (baseFieldType) {
         case SOLR_STRING:
@@ -21,6 +21,7 @@ package de.calamanari.adl.solr.config;
 
 import de.calamanari.adl.cnv.tps.ConfigException;
 import de.calamanari.adl.solr.AdlSolrType;
+import de.calamanari.adl.solr.SolrFieldStorage;
 import de.calamanari.adl.solr.SolrFormatConstants;
 
 import static de.calamanari.adl.solr.config.ConfigUtils.isValidSolrName;
@@ -31,6 +32,8 @@ import static de.calamanari.adl.solr.config.ConfigUtils.isValidSolrName;
  * name but different type in a nested document.
  * <p>
  * The properties {@link #nodeType} and {@link #fieldName} will be validated against some rules, see {@link ConfigUtils#isValidSolrName(String)}
+ * <p>
+ * The storage capabilities of the field (indexed, docValues) are defined by its type, see {@link #storage()}.
  * 
  * @param nodeType identifies the root or a child document this field belongs to
  * @param fieldName solr field name
@@ -54,4 +57,11 @@ public record DataField(String nodeType, String fieldName, AdlSolrType fieldType
         }
     }
 
+    /**
+     * @return storage capabilities of this field, derived from the {@link #fieldType()}
+     */
+    public SolrFieldStorage storage() {
+        return fieldType.getStorage();
+    }
+
 }
@@ -129,6 +129,16 @@ public class DefaultAutoMappingPolicy implements AutoMappingPolicy {
      */
     protected final ArgMetaInfoLookup argMetaLookup;
 
+    /**
+     * Prefix declared by the configured extractor (see {@link LocalArgNameExtractor#requiredPrefix()})
+     */
+    private final String requiredPrefix;
+
+    /**
+     * Suffix declared by the configured extractor (see {@link LocalArgNameExtractor#requiredSuffix()})
+     */
+    private final String requiredSuffix;
+
     /**
      * Creates a new policy object.
      * 
@@ -163,8 +173,10 @@ public class DefaultAutoMappingPolicy implements AutoMappingPolicy {
         this.isCollectionOverride = isCollectionOverride;
         this.argMetaLookup = argMetaLookup;
         this.isMultiDoc = isMultiDoc;
-        this.extractorFunction = createExtractorFunctionWithTypeResolutionCheck(
-                extractorFunction != null ? extractorFunction : LocalArgNameExtractor.validateOnly());
+        LocalArgNameExtractor baseExtractorFunction = extractorFunction != null ? extractorFunction : LocalArgNameExtractor.validateOnly();
+        this.requiredPrefix = baseExtractorFunction.requiredPrefix() == null ? "" : baseExtractorFunction.requiredPrefix();
+        this.requiredSuffix = baseExtractorFunction.requiredSuffix() == null ? "" : baseExtractorFunction.requiredSuffix();
+        this.extractorFunction = createExtractorFunctionWithTypeResolutionCheck(baseExtractorFunction);
     }
 
     /**
@@ -223,6 +235,30 @@ public class DefaultAutoMappingPolicy implements AutoMappingPolicy {
 
     }
 
+    /**
+     * Returns the prefix declared by the extractor function this policy was created with.
+     * <p>
+     * <b>Note:</b> Sub-classes that override {@link #isApplicable(String)} to accept further argNames must override this method accordingly.
+     * 
+     * @return declared prefix or empty string
+     */
+    @Override
+    public String requiredPrefix() {
+        return requiredPrefix;
+    }
+
+    /**
+     * Returns the suffix declared by the extractor function this policy was created with.
+     * <p>
+     * <b>Note:</b> Sub-classes that override {@link #isApplicable(String)} to accept further argNames must override this method accordingly.
+     * 
+     * @return declared suffix or empty string
+     */
+    @Override
+    public String requiredSuffix() {
+        return requiredSuffix;
+    }
+
     /**
      * This TEMPLATE METHOD allows sub-classes to compute and set further global variables which can then be referenced inside the mapping process.
      * <p>
@@ -36,6 +36,9 @@ import java.util.function.UnaryOperator;
  * <li>The returned <code>localArgName</code> must be a a valid Solr-name (see {@link ConfigUtils#isValidSolrName(String)}), otherwise the result will be
  * skipped (as if it was <b>null</b>).</li>
  * </ul>
+ * <p>
+ * Extractors created with {@link #withAffixes(String, String, LocalArgNameExtractor)} or any of the related factory methods <i>declare</i> the prefix and suffix
+ * an argName must have. An {@link AutoMappingPolicy} can expose this information to allow fast dispatching (see {@link AutoMappingPolicyDispatcher}).
  * 
  * @author <a href="mailto:Karl.Eilebrecht(a/t)calamanari.de">Karl Eilebrecht</a>
  */
@@ -50,4 +53,73 @@ public interface LocalArgNameExtractor extends UnaryOperator<String>, Serializab
     static LocalArgNameExtractor validateOnly() {
         return t -> ConfigUtils.isValidSolrName(t) ? t : null;
     }
+
+    /**
+     * Declares the prefix every argName must start with to get a non-null result from this extractor.
+     * 
+     * @return required prefix or empty string, by default empty
+     */
+    default String requiredPrefix() {
+        return "";
+    }
+
+    /**
+     * Declares the suffix every argName must end with to get a non-null result from this extractor.
+     * 
+     * @return required suffix or empty string, by default empty
+     */
+    default String requiredSuffix() {
+        return "";
+    }
+
+    /**
+     * Restricts the given extractor to argNames that start with the given prefix and end with the given suffix.
+     * 
+     * @param requiredPrefix prefix each argName must start with, null or empty means no restriction
+     * @param requiredSuffix suffix each argName must end with, null or empty means no restriction
+     * @param delegate to be called with the argName if it matches, if null, uses {@link #validateOnly()}
+     * @return extractor that declares the given prefix and suffix
+     */
+    static LocalArgNameExtractor withAffixes(String requiredPrefix, String requiredSuffix, LocalArgNameExtractor delegate) {
+        return new AffixLocalArgNameExtractor(requiredPrefix, requiredSuffix, delegate);
+    }
+
+    /**
+     * Shorthand for {@link #withAffixes(String, String, LocalArgNameExtractor)} without any suffix
+     * 
+     * @param requiredPrefix prefix each argName must start with
+     * @param delegate to be called with the argName if it matches, if null, uses {@link #validateOnly()}
+     * @return extractor that declares the given prefix
+     */
+    static LocalArgNameExtractor withPrefix(String requiredPrefix, LocalArgNameExtractor delegate) {
+        return withAffixes(requiredPrefix, null, delegate);
+    }
+
+    /**
+     * Shorthand for {@link #withAffixes(String, String, LocalArgNameExtractor)} without any prefix
+     * 
+     * @param requiredSuffix suffix each argName must end with
+     * @param delegate to be called with the argName if it matches, if null, uses {@link #validateOnly()}
+     * @return extractor that declares the given suffix
+     */
+    static LocalArgNameExtractor withSuffix(String requiredSuffix, LocalArgNameExtractor delegate) {
+        return withAffixes(null, requiredSuffix, delegate);
+    }
+
+    /**
+     * Only responsible for argNames that start with the given prefix, returns the remainder of the argName after checking that it is a valid Solr-name (see
+     * {@link ConfigUtils#isValidSolrName(String)}).
+     * <p>
+     * E.g., <code>stripPrefix("pos.")</code> maps the argName <code>pos.amount_d</code> to <code>amount_d</code>.
+     * 
+     * @param requiredPrefix prefix each argName must start with
+     * @return extractor that declares the given prefix
+     */
+    static LocalArgNameExtractor stripPrefix(String requiredPrefix) {
+        final int len = requiredPrefix == null ? 0 : requiredPrefix.length();
+        return withPrefix(requiredPrefix, t -> {
+            String res = t.substring(len);
+            return ConfigUtils.isValidSolrName(res) ? res : null;
+        });
+    }
 }
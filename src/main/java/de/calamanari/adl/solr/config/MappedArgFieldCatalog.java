@@ -0,0 +1,592 @@
+//@formatter:off
+/*
+ * MappedArgFieldCatalog
+ * Copyright 2025 Karl Eilebrecht
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"):
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+//@formatter:on
+
+package de.calamanari.adl.solr.config;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import de.calamanari.adl.AudlangMessage;
+import de.calamanari.adl.CommonErrors;
+import de.calamanari.adl.ProcessContext;
+import de.calamanari.adl.cnv.tps.AdlType;
+import de.calamanari.adl.cnv.tps.ArgMetaInfo;
+import de.calamanari.adl.cnv.tps.ArgMetaInfoLookup;
+import de.calamanari.adl.cnv.tps.ConfigException;
+import de.calamanari.adl.cnv.tps.DefaultAdlType;
+import de.calamanari.adl.cnv.tps.LookupException;
+import de.calamanari.adl.solr.AdlSolrType;
+import de.calamanari.adl.solr.DefaultAdlSolrType;
+import de.calamanari.adl.solr.SolrFieldStorage;
+
+import static de.calamanari.adl.solr.config.ConfigUtils.assertValidArgName;
+
+/**
+ * A {@link MappedArgFieldCatalog} is a read-only catalog of {@link ArgFieldAssignment}s backed by a <i>memory-mapped</i> file in a compact binary format
+ * (sorted by argName), see {@link #write(Path, Collection)}.
+ * <p>
+ * It is meant for very large logical data models (hundreds of thousands of argNames) where setting up static mappings (see
+ * {@link MainDocumentConfig#argFieldMap()}) would cost a lot of time and heap for every configuration instance. Opening a catalog only reads the header and the
+ * small pools of the distinct node types and type names. An argName gets resolved on first use with a binary search on the mapped file, only a bounded number
+ * of resolved assignments is kept on the heap (see {@link #open(Path, Collection, int)}), so the catalog never materializes on the heap entirely.
+ * <p>
+ * The catalog plugs into the existing configuration as the <i>logical data model</i> ({@link ArgMetaInfoLookup}) and as an {@link AutoMappingPolicy} per
+ * node type, e.g.:
+ * 
+ * <pre>
+ * MappedArgFieldCatalog catalog = MappedArgFieldCatalog.open(path);
+ * MainDocumentConfig config = MainDocumentConfig.forNodeType("profile", catalog)
+ *                                 .autoMapped(catalog::createAutoMappingPolicy)
+ *                             .get();
+ * </pre>
+ * <p>
+ * Types are stored by name, field types by the name of their {@link AdlSolrType#getStorageNeutralType()} plus the {@link SolrFieldStorage}.
+ * {@link DefaultAdlType}s and {@link DefaultAdlSolrType}s will be resolved automatically, any other (custom) type must be passed to
+ * {@link #open(Path, Collection)}, otherwise opening the catalog fails.
+ * <p>
+ * Instances are safe to be used concurrently. On deserialization the file will be mapped again.
+ * 
+ * @author <a href="mailto:Karl.Eilebrecht(a/t)calamanari.de">Karl Eilebrecht</a>
+ */
+public final class MappedArgFieldCatalog implements ArgMetaInfoLookup {
+
+    private static final long serialVersionUID = 8135227731609245011L;
+
+    /**
+     * File format marker (ADLC)
+     */
+    private static final int MAGIC = 0x41444C43;
+
+    private static final int VERSION = 1;
+
+    private static final int FLAG_ALWAYS_KNOWN = 1;
+
+    private static final int FLAG_COLLECTION = 2;
+
+    private static final int FLAG_MULTI_DOC = 4;
+
+    private static final int MAX_POOL_SIZE = 0xFFFF;
+
+    /**
+     * Default maximum number of resolved assignments kept on the heap: {@value}
+     */
+    public static final int DEFAULT_MAX_RESOLVED_ASSIGNMENTS = CachingSolrMappingConfig.DEFAULT_MAX_SIZE;
+
+    /**
+     * location of the catalog
+     */
+    private final String fileName;
+
+    /**
+     * custom types by name
+     */
+    private final LinkedHashMap<String, AdlType> customTypes;
+
+    /**
+     * the mapped catalog file
+     */
+    private final transient ByteBuffer buffer;
+
+    /**
+     * number of entries (argNames) in the catalog
+     */
+    private final transient int numberOfEntries;
+
+    /**
+     * position of the offset table (one int per entry)
+     */
+    private final transient int offsetTablePosition;
+
+    /**
+     * the distinct node types, referenced by index from each entry
+     */
+    private final transient String[] nodeTypes;
+
+    /**
+     * the distinct argTypes, referenced by index from each entry
+     */
+    private final transient AdlType[] argTypes;
+
+    /**
+     * the distinct field types (first dimension) for each {@link SolrFieldStorage} (second dimension), referenced by index from each entry
+     */
+    private final transient AdlSolrType[][] fieldTypes;
+
+    /**
+     * maximum number of resolved assignments kept on the heap
+     */
+    private final int maxResolvedAssignments;
+
+    /**
+     * recently resolved assignments (bounded)
+     */
+    private final transient BoundedArgNameCache<ArgFieldAssignment> resolvedAssignments;
+
+    private MappedArgFieldCatalog(Path file, LinkedHashMap<String, AdlType> customTypes, int maxResolvedAssignments) {
+        this.fileName = file.toString();
+        this.customTypes = customTypes;
+        this.maxResolvedAssignments = maxResolvedAssignments;
+        this.resolvedAssignments = new BoundedArgNameCache<>(maxResolvedAssignments);
+        this.buffer = map(file);
+        try {
+            if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+                throw new ConfigException(String.format("Not a catalog file (or unsupported version), given: file=%s", file));
+            }
+            this.numberOfEntries = buffer.getInt(8);
+            List<String> names = new ArrayList<>();
+            int pos = readPool(12, names);
+            this.nodeTypes = names.toArray(new String[0]);
+            names.clear();
+            pos = readPool(pos, names);
+            this.argTypes = names.stream().map(this::resolveArgType).toArray(AdlType[]::new);
+            names.clear();
+            pos = readPool(pos, names);
+            this.fieldTypes = new AdlSolrType[names.size()][];
+            for (int i = 0; i < names.size(); i++) {
+                AdlSolrType fieldType = resolveSolrType(names.get(i));
+                fieldTypes[i] = Arrays.stream(SolrFieldStorage.values()).map(fieldType::withStorage).toArray(AdlSolrType[]::new);
+            }
+            this.offsetTablePosition = pos;
+        }
+        catch (IndexOutOfBoundsException ex) {
+            throw new ConfigException(String.format("Corrupted catalog file, given: file=%s", file), ex);
+        }
+    }
+
+    /**
+     * Reads a pool (int size, then each name as unsigned short length + UTF-8 bytes)
+     * 
+     * @param pos start position
+     * @param names to be filled
+     * @return position after the pool
+     */
+    private int readPool(int pos, List<String> names) {
+        int size = buffer.getInt(pos);
+        pos = pos + 4;
+        for (int i = 0; i < size; i++) {
+            int len = Short.toUnsignedInt(buffer.getShort(pos));
+            names.add(decode(pos + 2, len));
+            pos = pos + 2 + len;
+        }
+        return pos;
+    }
+
+    /**
+     * Opens the given catalog, all types must be {@link DefaultAdlType}s resp. {@link DefaultAdlSolrType}s.
+     * 
+     * @param file catalog file, see {@link #write(Path, Collection)}
+     * @return catalog
+     * @throws ConfigException if the file cannot be read or it is invalid
+     */
+    public static MappedArgFieldCatalog open(Path file) {
+        return open(file, null);
+    }
+
+    /**
+     * Opens the given catalog
+     * 
+     * @param file catalog file, see {@link #write(Path, Collection)}
+     * @param customTypes additional types ({@link AdlType}s and {@link AdlSolrType}s) to be resolved by their {@link AdlType#name()} (resp. the name of
+     *            the {@link AdlSolrType#getStorageNeutralType()}), may be null
+     * @return catalog
+     * @throws ConfigException if the file cannot be read, it is invalid or it references unknown types
+     */
+    public static MappedArgFieldCatalog open(Path file, Collection<? extends AdlType> customTypes) {
+        return open(file, customTypes, DEFAULT_MAX_RESOLVED_ASSIGNMENTS);
+    }
+
+    /**
+     * Opens the given catalog
+     * 
+     * @param file catalog file, see {@link #write(Path, Collection)}
+     * @param customTypes additional types ({@link AdlType}s and {@link AdlSolrType}s) to be resolved by their {@link AdlType#name()} (resp. the name of
+     *            the {@link AdlSolrType#getStorageNeutralType()}), may be null
+     * @param maxResolvedAssignments maximum number of resolved assignments kept on the heap, &gt;0
+     * @return catalog
+     * @throws ConfigException if the file cannot be read, it is invalid or it references unknown types
+     */
+    public static MappedArgFieldCatalog open(Path file, Collection<? extends AdlType> customTypes, int maxResolvedAssignments) {
+        if (file == null || maxResolvedAssignments < 1) {
+            throw new ConfigException(String.format(
+                    "Argument file must not be null, maxResolvedAssignments must be positive, given: file=%s, maxResolvedAssignments=%d", file,
+                    maxResolvedAssignments));
+        }
+        LinkedHashMap<String, AdlType> customTypeMap = new LinkedHashMap<>();
+        if (customTypes != null) {
+            customTypes.stream().map(type -> type instanceof AdlSolrType solrType ? solrType.getStorageNeutralType() : type)
+                    .forEach(type -> customTypeMap.put(type.name(), type));
+        }
+        return new MappedArgFieldCatalog(file, customTypeMap, maxResolvedAssignments);
+    }
+
+    /**
+     * Writes the given assignments to the given file in the catalog format.
+     * <p>
+     * Entries will be sorted by argName. The argName, the field name, the node type and the type names must not exceed 65535 bytes (UTF-8), there must
+     * not be more than 65535 distinct node types resp. type names.
+     * 
+     * @param file destination (will be overwritten)
+     * @param assignments to be written, argNames must be unique
+     * @throws ConfigException if the file cannot be written or the assignments cannot be stored
+     */
+    public static void write(Path file, Collection<ArgFieldAssignment> assignments) {
+        if (file == null || assignments == null) {
+            throw new ConfigException(String.format("Arguments must not be null, given: file=%s, assignments=%s", file,
+                    assignments == null ? null : "[" + assignments.size() + "]"));
+        }
+        List<byte[]> argNames = new ArrayList<>(assignments.size());
+        Map<byte[], ArgFieldAssignment> entries = new HashMap<>();
+        for (ArgFieldAssignment assignment : assignments) {
+            byte[] argName = encode(assignment.arg().argName());
+            argNames.add(argName);
+            entries.put(argName, assignment);
+        }
+        argNames.sort(Arrays::compareUnsigned);
+        Map<String, Integer> nodeTypePool = new LinkedHashMap<>();
+        Map<String, Integer> argTypePool = new LinkedHashMap<>();
+        Map<String, Integer> fieldTypePool = new LinkedHashMap<>();
+        for (int i = 0; i < argNames.size(); i++) {
+            if (i > 0 && Arrays.equals(argNames.get(i - 1), argNames.get(i))) {
+                throw new ConfigException(String.format("Duplicate argName, given: argName=%s", new String(argNames.get(i), StandardCharsets.UTF_8)));
+            }
+            ArgFieldAssignment assignment = entries.get(argNames.get(i));
+            addToPool(nodeTypePool, assignment.field().nodeType());
+            addToPool(argTypePool, typeNameOf(assignment.arg().type()));
+            addToPool(fieldTypePool, typeNameOf(assignment.field().fieldType()));
+        }
+
+        try (OutputStream os = Files.newOutputStream(file); DataOutputStream dos = new DataOutputStream(new BufferedOutputStream(os))) {
+            dos.writeInt(MAGIC);
+            dos.writeInt(VERSION);
+            dos.writeInt(argNames.size());
+            int pos = 12;
+            pos = pos + writePool(dos, nodeTypePool);
+            pos = pos + writePool(dos, argTypePool);
+            pos = pos + writePool(dos, fieldTypePool);
+            pos = Math.addExact(pos, Math.multiplyExact(4, argNames.size()));
+            List<byte[]> encodedEntries = new ArrayList<>(argNames.size());
+            for (byte[] argName : argNames) {
+                byte[] entry = encodeEntry(argName, entries.get(argName), nodeTypePool, argTypePool, fieldTypePool);
+                dos.writeInt(pos);
+                pos = Math.addExact(pos, entry.length);
+                encodedEntries.add(entry);
+            }
+            for (byte[] entry : encodedEntries) {
+                dos.write(entry);
+            }
+        }
+        catch (IOException | ArithmeticException ex) {
+            throw new ConfigException(String.format("Unable to write catalog file, given: file=%s", file), ex);
+        }
+    }
+
+    /**
+     * Layout: argName (len+bytes), fieldName (len+bytes), nodeType (pool idx), argType (pool idx), fieldType (pool idx), storage (ordinal), flags
+     */
+    private static byte[] encodeEntry(byte[] argName, ArgFieldAssignment assignment, Map<String, Integer> nodeTypePool, Map<String, Integer> argTypePool,
+            Map<String, Integer> fieldTypePool) throws IOException {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream(argName.length + 32);
+        try (DataOutputStream dos = new DataOutputStream(bos)) {
+            writeString(dos, argName);
+            writeString(dos, encode(assignment.field().fieldName()));
+            dos.writeShort(nodeTypePool.get(assignment.field().nodeType()));
+            dos.writeShort(argTypePool.get(typeNameOf(assignment.arg().type())));
+            dos.writeShort(fieldTypePool.get(typeNameOf(assignment.field().fieldType())));
+            dos.writeByte(assignment.field().fieldType().getStorage().ordinal());
+            int flags = (assignment.arg().isAlwaysKnown() ? FLAG_ALWAYS_KNOWN : 0) | (assignment.field().isCollection() ? FLAG_COLLECTION : 0)
+                    | (assignment.isMultiDoc() ? FLAG_MULTI_DOC : 0);
+            dos.writeByte(flags);
+        }
+        return bos.toByteArray();
+    }
+
+    private static int writeString(DataOutputStream dos, byte[] value) throws IOException {
+        if (value.length > 0xFFFF) {
+            throw new ConfigException(String.format("Name too long (max. 65535 bytes), given: length=%d", value.length));
+        }
+        dos.writeShort(value.length);
+        dos.write(value);
+        return 2 + value.length;
+    }
+
+    private static int writePool(DataOutputStream dos, Map<String, Integer> pool) throws IOException {
+        dos.writeInt(pool.size());
+        int len = 4;
+        for (String name : pool.keySet()) {
+            len = len + writeString(dos, encode(name));
+        }
+        return len;
+    }
+
+    private static void addToPool(Map<String, Integer> pool, String name) {
+        if (!pool.containsKey(name)) {
+            if (pool.size() == MAX_POOL_SIZE) {
+                throw new ConfigException(String.format("Too many distinct node types and type names (max. 65535), given: name=%s", name));
+            }
+            pool.put(name, pool.size());
+        }
+    }
+
+    /**
+     * Field types are stored by the name of their {@link AdlSolrType#getStorageNeutralType()} (the storage is stored separately), all other types by their
+     * name.
+     * 
+     * @param type
+     * @return name to be stored
+     */
+    private static String typeNameOf(AdlType type) {
+        if (type instanceof AdlSolrType solrType) {
+            return solrType.getStorageNeutralType().name();
+        }
+        return type.name();
+    }
+
+    private static MappedByteBuffer map(Path file) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new ConfigException(String.format("Catalog file too large (max. 2GB), given: file=%s, size=%d", file, channel.size()));
+            }
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        catch (IOException ex) {
+            throw new ConfigException(String.format("Unable to read catalog file, given: file=%s", file), ex);
+        }
+    }
+
+    private static byte[] encode(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private String decode(int pos, int len) {
+        byte[] bytes = new byte[len];
+        buffer.get(pos, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private AdlType resolveArgType(String name) {
+        AdlType res = customTypes.get(name);
+        if (res == null) {
+            try {
+                res = DefaultAdlType.valueOf(name);
+            }
+            catch (IllegalArgumentException ex) {
+                throw new ConfigException(String.format("Unknown argType in catalog (custom types must be registered), given: file=%s, name=%s", fileName, name),
+                        ex);
+            }
+        }
+        return res;
+    }
+
+    private AdlSolrType resolveSolrType(String name) {
+        AdlType res = customTypes.get(name);
+        if (res == null) {
+            try {
+                res = DefaultAdlSolrType.valueOf(name);
+            }
+            catch (IllegalArgumentException ex) {
+                throw new ConfigException(
+                        String.format("Unknown fieldType in catalog (custom types must be registered), given: file=%s, name=%s", fileName, name), ex);
+            }
+        }
+        if (res instanceof AdlSolrType solrType) {
+            return solrType;
+        }
+        throw new ConfigException(String.format("Registered type is not an AdlSolrType, given: file=%s, name=%s, type=%s", fileName, name, res));
+    }
+
+    private int entryPosition(int idx) {
+        return buffer.getInt(offsetTablePosition + 4 * idx);
+    }
+
+    /**
+     * Binary search in the sorted entries comparing the UTF-8 bytes
+     * 
+     * @param key encoded argName
+     * @return entry position or -1 if not found
+     */
+    private int findEntryPosition(byte[] key) {
+        int low = 0;
+        int high = numberOfEntries - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int pos = entryPosition(mid);
+            int cmp = compareToKey(pos + 2, Short.toUnsignedInt(buffer.getShort(pos)), key);
+            if (cmp < 0) {
+                low = mid + 1;
+            }
+            else if (cmp > 0) {
+                high = mid - 1;
+            }
+            else {
+                return pos;
+            }
+        }
+        return -1;
+    }
+
+    private int compareToKey(int pos, int len, byte[] key) {
+        int max = Math.min(len, key.length);
+        for (int i = 0; i < max; i++) {
+            int cmp = Byte.compareUnsigned(buffer.get(pos + i), key[i]);
+            if (cmp != 0) {
+                return cmp;
+            }
+        }
+        return Integer.compare(len, key.length);
+    }
+
+    private ArgFieldAssignment decodeEntry(String argName, int entryPos) {
+        int pos = entryPos + 2 + Short.toUnsignedInt(buffer.getShort(entryPos));
+        int fieldNameLen = Short.toUnsignedInt(buffer.getShort(pos));
+        String fieldName = decode(pos + 2, fieldNameLen);
+        pos = pos + 2 + fieldNameLen;
+        String nodeType = nodeTypes[Short.toUnsignedInt(buffer.getShort(pos))];
+        AdlType argType = argTypes[Short.toUnsignedInt(buffer.getShort(pos + 2))];
+        AdlSolrType fieldType = fieldTypes[Short.toUnsignedInt(buffer.getShort(pos + 4))][buffer.get(pos + 6)];
+        int flags = buffer.get(pos + 7);
+        boolean isCollection = (flags & FLAG_COLLECTION) != 0;
+        return new ArgFieldAssignment(new ArgMetaInfo(argName, argType, (flags & FLAG_ALWAYS_KNOWN) != 0, isCollection),
+                new DataField(nodeType, fieldName, fieldType, isCollection), (flags & FLAG_MULTI_DOC) != 0);
+    }
+
+    /**
+     * Returns the assignment for the given argName, resolved on first access
+     * 
+     * @param argName
+     * @return assignment or null if the catalog does not contain the argName
+     */
+    public ArgFieldAssignment lookupAssignment(String argName) {
+        if (argName == null) {
+            return null;
+        }
+        ArgFieldAssignment res = resolvedAssignments.get(argName);
+        if (res == null) {
+            int entryPos = findEntryPosition(encode(argName));
+            if (entryPos >= 0) {
+                res = resolvedAssignments.put(argName, decodeEntry(argName, entryPos));
+            }
+        }
+        return res;
+    }
+
+    @Override
+    public boolean contains(String argName) {
+        return lookupAssignment(argName) != null;
+    }
+
+    @Override
+    public ArgMetaInfo lookup(String argName) {
+        assertValidArgName(argName);
+        ArgFieldAssignment assignment = lookupAssignment(argName);
+        if (assignment == null) {
+            throw new LookupException("No meta data available for argName=" + argName, AudlangMessage.argMsg(CommonErrors.ERR_3000_MAPPING_FAILED, argName));
+        }
+        return assignment.arg();
+    }
+
+    /**
+     * Creates an {@link AutoMappingPolicy} that maps all argNames of this catalog assigned to a field of the given node type. The method signature is
+     * compatible to {@link ConfigBuilderInterfaces.TemplateDocumentAddAutoMapping#autoMapped(java.util.function.BiFunction)}.
+     * 
+     * @param nodeType the node type of the document configuration
+     * @param argMetaInfoLookup ignored (the catalog itself is the logical data model)
+     * @return policy
+     */
+    public AutoMappingPolicy createAutoMappingPolicy(String nodeType, ArgMetaInfoLookup argMetaInfoLookup) {
+        return new CatalogAutoMappingPolicy(this, nodeType);
+    }
+
+    /**
+     * @return number of argNames in the catalog
+     */
+    public int size() {
+        return numberOfEntries;
+    }
+
+    /**
+     * @return number of resolved assignments currently kept on the heap
+     */
+    public int numberOfResolvedAssignments() {
+        return resolvedAssignments.size();
+    }
+
+    /**
+     * @return the file the catalog was read from
+     */
+    public Path getFile() {
+        return Path.of(fileName);
+    }
+
+    @Override
+    public String toString() {
+        return this.getClass().getSimpleName() + " [file=" + fileName + ", size=" + numberOfEntries + ", resolved=" + resolvedAssignments.size() + "]";
+    }
+
+    /**
+     * The mapped file is not serialized, so we must map it again
+     * 
+     * @return new instance
+     */
+    private Object readResolve() {
+        return open(Path.of(fileName), customTypes.values(), maxResolvedAssignments);
+    }
+
+    /**
+     * Policy that maps the argNames of the catalog assigned to a particular node type
+     * 
+     * @param catalog the backing catalog
+     * @param nodeType the node type
+     */
+    private record CatalogAutoMappingPolicy(MappedArgFieldCatalog catalog, String nodeType) implements AutoMappingPolicy {
+
+        @Override
+        public boolean isApplicable(String argName) {
+            ArgFieldAssignment assignment = catalog.lookupAssignment(argName);
+            return assignment != null && assignment.field().nodeType().equals(nodeType);
+        }
+
+        @Override
+        public ArgFieldAssignment map(String argName, ProcessContext ctx) {
+            if (!isApplicable(argName)) {
+                throw new ConfigException("Auto-mapping error: this mapper is not applicable to argName=" + argName,
+                        AudlangMessage.argMsg(CommonErrors.ERR_3000_MAPPING_FAILED, argName));
+            }
+            return catalog.lookupAssignment(argName);
+        }
+
+    }
+
+}
@@ -47,4 +47,11 @@ public interface NodeTypeMetaInfo extends Serializable {
      */
     List<FilterField> documentFilters();
 
+    /**
+     * @return partitioning of the documents of this node type across monthly collections or null (default) if the documents reside in the main collection
+     */
+    default TimePartitioning timePartitioning() {
+        return null;
+    }
+
 }
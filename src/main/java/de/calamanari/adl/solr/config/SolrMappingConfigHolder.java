@@ -0,0 +1,300 @@
+//@formatter:off
+/*
+ * SolrMappingConfigHolder
+ * Copyright 2025 Karl Eilebrecht
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"):
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+//@formatter:on
+
+package de.calamanari.adl.solr.config;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import de.calamanari.adl.cnv.tps.ConfigException;
+
+/**
+ * The {@link SolrMappingConfigHolder} allows replacing the {@link SolrMappingConfig} of running converters (hot-reload) without rebuilding them.
+ * <p>
+ * Each configuration gets a {@link Version} number. A conversion <i>pins</i> the current version by acquiring a {@link Lease} and works on this version until
+ * the lease gets closed, so a {@link #swap(SolrMappingConfig)} never affects a conversion in progress. Swapping is atomic and lock-free, in-flight conversions
+ * keep working on the old version (they <i>drain</i>) while new conversions already use the new one. The caller can wait for the old version to be drained
+ * (see {@link Version#awaitDrained(long, TimeUnit)}), e.g., to release related resources.
+ * <p>
+ * Any caches bound to a configuration instance (e.g., {@link CachingSolrMappingConfig}) are automatically tied to the version. Other dependent caches can
+ * either key their entries by {@link Version#number()} or register a {@link SwapListener} to be invalidated or migrated after a swap.
+ * <p>
+ * Instances are safe to be used concurrently.
+ * 
+ * @author <a href="mailto:Karl.Eilebrecht(a/t)calamanari.de">Karl Eilebrecht</a>
+ */
+public final class SolrMappingConfigHolder {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SolrMappingConfigHolder.class);
+
+    /**
+     * the current version
+     */
+    private final AtomicReference<Version> currentVersion;
+
+    /**
+     * listeners to be notified after each swap
+     */
+    private final List<SwapListener> swapListeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * @param initialConfig NOT NULL, becomes version 1
+     */
+    public SolrMappingConfigHolder(SolrMappingConfig initialConfig) {
+        assertConfigNotNull(initialConfig);
+        this.currentVersion = new AtomicReference<>(new Version(1, initialConfig));
+    }
+
+    private static void assertConfigNotNull(SolrMappingConfig config) {
+        if (config == null) {
+            throw new ConfigException("Argument config must not be null.");
+        }
+    }
+
+    /**
+     * @return the current version (new conversions will use this one)
+     */
+    public Version currentVersion() {
+        return currentVersion.get();
+    }
+
+    /**
+     * Pins the current version for a conversion.
+     * <p>
+     * The caller <b>must</b> close the lease after the conversion, so the version can be drained after a swap.
+     * 
+     * @return lease on the current version
+     */
+    public Lease acquire() {
+        while (true) {
+            Version version = currentVersion.get();
+            version.inFlightCount.incrementAndGet();
+            if (currentVersion.get() == version) {
+                return new Lease(version);
+            }
+            // concurrent swap, the version might already be considered drained, so we retry with the new one
+            version.release();
+        }
+    }
+
+    /**
+     * Atomically replaces the current configuration, conversions in progress continue with the previous version.
+     * 
+     * @param newConfig NOT NULL
+     * @return the previous (retired) version, see {@link Version#awaitDrained(long, TimeUnit)}
+     */
+    public Version swap(SolrMappingConfig newConfig) {
+        assertConfigNotNull(newConfig);
+        Version retiredVersion = null;
+        Version newVersion = null;
+        do {
+            retiredVersion = currentVersion.get();
+            newVersion = new Version(retiredVersion.number() + 1, newConfig);
+        } while (!currentVersion.compareAndSet(retiredVersion, newVersion));
+        retiredVersion.retire();
+        LOGGER.debug("Mapping configuration swapped: version {} -> {}", retiredVersion.number(), newVersion.number());
+        for (SwapListener listener : swapListeners) {
+            listener.configSwapped(retiredVersion, newVersion);
+        }
+        return retiredVersion;
+    }
+
+    /**
+     * @param listener to be notified after each swap (in the thread that performed the swap), NOT NULL
+     */
+    public void addSwapListener(SwapListener listener) {
+        if (listener == null) {
+            throw new ConfigException("Argument listener must not be null.");
+        }
+        swapListeners.add(listener);
+    }
+
+    /**
+     * @param listener to be removed
+     */
+    public void removeSwapListener(SwapListener listener) {
+        swapListeners.remove(listener);
+    }
+
+    @Override
+    public String toString() {
+        return this.getClass().getSimpleName() + " [currentVersion=" + currentVersion.get() + "]";
+    }
+
+    /**
+     * Callback to invalidate or migrate dependent caches after a swap
+     */
+    @FunctionalInterface
+    public interface SwapListener {
+
+        /**
+         * Called after the new version became the current one
+         * 
+         * @param retiredVersion the previous version (in-flight conversions may still use it)
+         * @param currentVersion the new version
+         */
+        void configSwapped(Version retiredVersion, Version currentVersion);
+
+    }
+
+    /**
+     * A particular version of the configuration with its number of in-flight conversions
+     */
+    public static final class Version {
+
+        private final long number;
+
+        private final SolrMappingConfig config;
+
+        private final AtomicInteger inFlightCount = new AtomicInteger();
+
+        private volatile boolean retired = false;
+
+        private Version(long number, SolrMappingConfig config) {
+            this.number = number;
+            this.config = config;
+        }
+
+        /**
+         * @return version number, increasing with each swap
+         */
+        public long number() {
+            return number;
+        }
+
+        /**
+         * @return the configuration of this version
+         */
+        public SolrMappingConfig config() {
+            return config;
+        }
+
+        /**
+         * @return number of leases not yet closed
+         */
+        public int inFlightCount() {
+            return inFlightCount.get();
+        }
+
+        /**
+         * @return true if this version has been replaced by a newer one
+         */
+        public boolean isRetired() {
+            return retired;
+        }
+
+        /**
+         * @return true if this version has been retired and there are no more conversions in progress using it
+         */
+        public boolean isDrained() {
+            return retired && inFlightCount.get() == 0;
+        }
+
+        /**
+         * Waits until this version is drained
+         * 
+         * @param timeout maximum time to wait
+         * @param unit of the timeout
+         * @return true if drained, false if the timeout elapsed or this version is still the current one
+         * @throws InterruptedException if the current thread was interrupted while waiting
+         */
+        public synchronized boolean awaitDrained(long timeout, TimeUnit unit) throws InterruptedException {
+            long deadlineNanos = System.nanoTime() + unit.toNanos(timeout);
+            while (!isDrained()) {
+                long remainingMillis = TimeUnit.NANOSECONDS.toMillis(deadlineNanos - System.nanoTime());
+                if (!retired || remainingMillis <= 0) {
+                    return false;
+                }
+                this.wait(remainingMillis);
+            }
+            return true;
+        }
+
+        private void retire() {
+            retired = true;
+            notifyIfDrained();
+        }
+
+        private void release() {
+            if (inFlightCount.decrementAndGet() == 0) {
+                notifyIfDrained();
+            }
+        }
+
+        private void notifyIfDrained() {
+            if (isDrained()) {
+                synchronized (this) {
+                    this.notifyAll();
+                }
+            }
+        }
+
+        @Override
+        public String toString() {
+            return "Version [number=" + number + ", inFlightCount=" + inFlightCount.get() + ", retired=" + retired + "]";
+        }
+
+    }
+
+    /**
+     * A lease pins a version for the duration of a conversion
+     */
+    public static final class Lease implements AutoCloseable {
+
+        private final Version version;
+
+        private final AtomicInteger closed = new AtomicInteger();
+
+        private Lease(Version version) {
+            this.version = version;
+        }
+
+        /**
+         * @return the pinned version
+         */
+        public Version version() {
+            return version;
+        }
+
+        /**
+         * @return the configuration of the pinned version
+         */
+        public SolrMappingConfig config() {
+            return version.config();
+        }
+
+        /**
+         * Releases the version, subsequent calls have no effect
+         */
+        @Override
+        public void close() {
+            if (closed.compareAndSet(0, 1)) {
+                version.release();
+            }
+        }
+
+    }
+
+}
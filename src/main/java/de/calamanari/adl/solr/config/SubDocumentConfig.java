@@ -48,10 +48,13 @@ import static de.calamanari.adl.solr.config.ConfigUtils.assertValidArgName;
  * @param argFieldMap static assignments of arg names to Solr-fields may be empty or null
  * @param autoMappingPolicy dynamic assignments of arg names to Solr-fields may be null
  * @param guardianLookup logical data model to restrict argNames and associated types, optional, may be null
+ * @param timePartitioning if not null, the documents reside in monthly collections rather than in the main collection, only applicable to
+ *            {@link SolrDocumentNature#DEPENDENT} documents, see {@link #withTimePartitioning(TimePartitioning)}
  * @author <a href="mailto:Karl.Eilebrecht(a/t)calamanari.de">Karl Eilebrecht</a>
  */
 public record SubDocumentConfig(String nodeType, SolrDocumentNature documentNature, List<FilterField> documentFilters,
-        Map<String, ArgFieldAssignment> argFieldMap, AutoMappingPolicy autoMappingPolicy, ArgMetaInfoLookup guardianLookup) implements NodeTypeMetaInfo {
+        Map<String, ArgFieldAssignment> argFieldMap, AutoMappingPolicy autoMappingPolicy, ArgMetaInfoLookup guardianLookup, TimePartitioning timePartitioning)
+        implements NodeTypeMetaInfo {
 
     /**
      * Entry point for fluently setting up a sub-document config (without main) in the the physical data model and along with it the logical data model (mapped
@@ -85,9 +88,11 @@ public record SubDocumentConfig(String nodeType, SolrDocumentNature documentNatu
      * @param argFieldMap static assignments of arg names to Solr-fields may be empty or null
      * @param autoMappingPolicy dynamic assignments of arg names to Solr-fields may be null
      * @param guardianLookup logical data model to restrict argNames and associated types, optional, must be unique across main-config or null
+     * @param timePartitioning if not null, the documents reside in monthly collections rather than in the main collection, only applicable to
+     *            {@link SolrDocumentNature#DEPENDENT} documents
      */
     public SubDocumentConfig(String nodeType, SolrDocumentNature documentNature, List<FilterField> documentFilters, Map<String, ArgFieldAssignment> argFieldMap,
-            AutoMappingPolicy autoMappingPolicy, ArgMetaInfoLookup guardianLookup) {
+            AutoMappingPolicy autoMappingPolicy, ArgMetaInfoLookup guardianLookup, TimePartitioning timePartitioning) {
 
         ConfigValidationUtils.validateRequiredDocumentConfigFields(nodeType, documentNature, documentFilters, argFieldMap);
         ConfigValidationUtils.validateDocumentFilters(nodeType, documentNature, documentFilters, argFieldMap);
@@ -100,6 +105,12 @@ public record SubDocumentConfig(String nodeType, SolrDocumentNature documentNatu
                     nodeType, documentNature, documentFilters, argFieldMap));
         }
 
+        if (timePartitioning != null && documentNature != SolrDocumentNature.DEPENDENT) {
+            throw new ConfigException(String.format(
+                    "Time partitioning is only applicable to dependent documents, given: nodeType=%s, documentNature=%s, timePartitioning=%s", nodeType,
+                    documentNature, timePartitioning));
+        }
+
         Map<String, ArgFieldAssignment> tempMap = new TreeMap<>(argFieldMap);
 
         this.nodeType = nodeType;
@@ -108,6 +119,33 @@ public record SubDocumentConfig(String nodeType, SolrDocumentNature documentNatu
         this.argFieldMap = Collections.unmodifiableMap(tempMap);
         this.autoMappingPolicy = autoMappingPolicy == null ? DefaultAutoMappingPolicy.NONE : autoMappingPolicy;
         this.guardianLookup = guardianLookup;
+        this.timePartitioning = timePartitioning;
+    }
+
+    /**
+     * @param nodeType document structure, value stored in the Solr-field <code><b>"node_type"</b></code> required
+     * @param documentNature kind of sub-document (nested or dependent) required, <b>not</b> {@link SolrDocumentNature#MAIN}
+     * @param documentFilters static filters to be applied to this document type independent from the current query, may be empty or null
+     * @param argFieldMap static assignments of arg names to Solr-fields may be empty or null
+     * @param autoMappingPolicy dynamic assignments of arg names to Solr-fields may be null
+     * @param guardianLookup logical data model to restrict argNames and associated types, optional, must be unique across main-config or null
+     */
+    public SubDocumentConfig(String nodeType, SolrDocumentNature documentNature, List<FilterField> documentFilters, Map<String, ArgFieldAssignment> argFieldMap,
+            AutoMappingPolicy autoMappingPolicy, ArgMetaInfoLookup guardianLookup) {
+        this(nodeType, documentNature, documentFilters, argFieldMap, autoMappingPolicy, guardianLookup, null);
+    }
+
+    /**
+     * Returns a copy of this configuration with the documents residing in monthly collections (partitions) rather than in the main collection.
+     * <p>
+     * Joins to this node type will only target the partitions that can contain matching documents according to the date conditions on the partition key.
+     * 
+     * @param timePartitioning partitioning of the dependent documents, null to remove the partitioning
+     * @return new configuration
+     * @throws ConfigException if this is not a {@link SolrDocumentNature#DEPENDENT} document configuration
+     */
+    public SubDocumentConfig withTimePartitioning(TimePartitioning timePartitioning) {
+        return new SubDocumentConfig(nodeType, documentNature, documentFilters, argFieldMap, autoMappingPolicy, guardianLookup, timePartitioning);
     }
 
     /**
@@ -0,0 +1,163 @@
+//@formatter:off
+/*
+ * TimePartitioning
+ * Copyright 2025 Karl Eilebrecht
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"):
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+//@formatter:on
+package de.calamanari.adl.solr.config;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import de.calamanari.adl.cnv.tps.ConfigException;
+
+/**
+ * A {@link TimePartitioning} describes a dependent document type whose documents are not stored in the main collection but split into <b>monthly</b>
+ * collections (partitions) by the value of a date field (the partition key).
+ * <p>
+ * Each partition holds the documents with a partition key in <code>[begin of month .. begin of next month)</code> (UTC), the partition's collection name is
+ * derived from the month using the {@link #collectionNamePattern()} (e.g., <code>'pos_'uuuu_MM</code> yields <code>pos_2024_03</code>).
+ * <p>
+ * The partitions from {@link #firstPartition()} to {@link #lastPartition()} are expected to exist. The configuration must be updated when a new monthly
+ * collection gets added.
+ * 
+ * @param partitionKeyFieldName name of the date field in the dependent document the partitioning is based on, must comply to
+ *            {@link ConfigUtils#isValidSolrName(String)}
+ * @param collectionNamePattern {@link DateTimeFormatter}-pattern to derive the collection name of a partition from its month, NOT NULL
+ * @param firstPartition month of the first existing partition, NOT NULL
+ * @param lastPartition month of the last existing partition, NOT NULL, not before firstPartition
+ * @author <a href="mailto:Karl.Eilebrecht(a/t)calamanari.de">Karl Eilebrecht</a>
+ */
+public record TimePartitioning(String partitionKeyFieldName, String collectionNamePattern, YearMonth firstPartition, YearMonth lastPartition)
+        implements Serializable {
+
+    /**
+     * @param partitionKeyFieldName name of the date field in the dependent document the partitioning is based on, must comply to
+     *            {@link ConfigUtils#isValidSolrName(String)}
+     * @param collectionNamePattern {@link DateTimeFormatter}-pattern to derive the collection name of a partition from its month, NOT NULL
+     * @param firstPartition month of the first existing partition, NOT NULL
+     * @param lastPartition month of the last existing partition, NOT NULL, not before firstPartition
+     */
+    public TimePartitioning {
+        if (!ConfigUtils.isValidSolrName(partitionKeyFieldName) || collectionNamePattern == null || firstPartition == null || lastPartition == null
+                || lastPartition.isBefore(firstPartition)) {
+            throw new ConfigException(String.format(
+                    "Invalid time partitioning, given: partitionKeyFieldName=%s, collectionNamePattern=%s, firstPartition=%s, lastPartition=%s",
+                    partitionKeyFieldName, collectionNamePattern, firstPartition, lastPartition));
+        }
+        DateTimeFormatter formatter = null;
+        try {
+            formatter = DateTimeFormatter.ofPattern(collectionNamePattern);
+            formatter.format(firstPartition);
+        }
+        catch (RuntimeException ex) {
+            throw new ConfigException(String.format("Invalid collection name pattern, given: partitionKeyFieldName=%s, collectionNamePattern=%s",
+                    partitionKeyFieldName, collectionNamePattern), ex);
+        }
+        Map<String, YearMonth> monthsByName = new HashMap<>();
+        for (YearMonth month = firstPartition; !month.isAfter(lastPartition); month = month.plusMonths(1)) {
+            String name = formatter.format(month);
+            YearMonth otherMonth = monthsByName.putIfAbsent(name, month);
+            if (!ConfigUtils.isValidSolrName(name) || otherMonth != null) {
+                throw new ConfigException(String.format(
+                        "The collection name pattern must produce valid and distinct names for all partitions, given: collectionNamePattern=%s (%s -> %s%s)",
+                        collectionNamePattern, month, name, otherMonth != null ? ", same as " + otherMonth : ""));
+            }
+        }
+    }
+
+    /**
+     * @return collection names of all partitions in chronological order
+     */
+    public List<String> partitionNames() {
+        return selectPartitionNames(null, false, null, false);
+    }
+
+    /**
+     * @param month
+     * @return name of the partition's collection for the given month (no matter if the partition exists)
+     */
+    public String partitionNameOf(YearMonth month) {
+        return DateTimeFormatter.ofPattern(collectionNamePattern).format(month);
+    }
+
+    /**
+     * Returns the partitions that may contain documents with a partition key in the given interval.
+     * 
+     * @param lowerBound start of the interval, null means unbounded
+     * @param lowerBoundInclusive true if the lower bound is included
+     * @param upperBound end of the interval, null means unbounded
+     * @param upperBoundInclusive true if the upper bound is included
+     * @return collection names of the partitions overlapping the given interval in chronological order, may be empty
+     */
+    public List<String> selectPartitionNames(Instant lowerBound, boolean lowerBoundInclusive, Instant upperBound, boolean upperBoundInclusive) {
+        BitSet selection = selectPartitionIndexes(lowerBound, lowerBoundInclusive, upperBound, upperBoundInclusive);
+        List<String> res = new ArrayList<>(selection.cardinality());
+        selection.stream().forEach(idx -> res.add(partitionNameOf(firstPartition.plusMonths(idx))));
+        return Collections.unmodifiableList(res);
+    }
+
+    /**
+     * Returns the partitions that may contain documents with a partition key in the given interval as indexes, where the index of a partition is its month
+     * offset from the {@link #firstPartition()}, which is also its position in {@link #partitionNames()}.
+     * 
+     * @param lowerBound start of the interval, null means unbounded
+     * @param lowerBoundInclusive true if the lower bound is included
+     * @param upperBound end of the interval, null means unbounded
+     * @param upperBoundInclusive true if the upper bound is included
+     * @return indexes of the partitions overlapping the given interval, may be empty
+     */
+    public BitSet selectPartitionIndexes(Instant lowerBound, boolean lowerBoundInclusive, Instant upperBound, boolean upperBoundInclusive) {
+        BitSet res = new BitSet();
+        if (lowerBound != null && upperBound != null && isEmptyInterval(lowerBound, lowerBoundInclusive, upperBound, upperBoundInclusive)) {
+            return res;
+        }
+        int idx = 0;
+        for (YearMonth month = firstPartition; !month.isAfter(lastPartition); month = month.plusMonths(1)) {
+            Instant begin = beginOf(month);
+            Instant end = beginOf(month.plusMonths(1));
+            boolean upperOk = upperBound == null || upperBound.isAfter(begin) || (upperBoundInclusive && upperBound.equals(begin));
+            boolean lowerOk = lowerBound == null || lowerBound.isBefore(end);
+            if (upperOk && lowerOk) {
+                res.set(idx);
+            }
+            idx++;
+        }
+        return res;
+    }
+
+    /**
+     * @param month
+     * @return first instant of the given month (UTC)
+     */
+    private static Instant beginOf(YearMonth month) {
+        return month.atDay(1).atStartOfDay().toInstant(ZoneOffset.UTC);
+    }
+
+    private static boolean isEmptyInterval(Instant lowerBound, boolean lowerBoundInclusive, Instant upperBound, boolean upperBoundInclusive) {
+        int cmp = lowerBound.compareTo(upperBound);
+        return cmp > 0 || (cmp == 0 && !(lowerBoundInclusive && upperBoundInclusive));
+    }
+
+}
@@ -0,0 +1,483 @@
+//@formatter:off
+/*
+ * CachingSolrQueryExecutor
+ * Copyright 2025 Karl Eilebrecht
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"):
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+//@formatter:on
+
+package de.calamanari.adl.solr.exec;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.apache.solr.client.solrj.SolrClient;
+import org.apache.solr.client.solrj.SolrServerException;
+import org.apache.solr.client.solrj.request.LukeRequest;
+import org.apache.solr.client.solrj.response.LukeResponse;
+import org.apache.solr.common.params.ModifiableSolrParams;
+import org.apache.solr.common.params.SolrParams;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import de.calamanari.adl.solr.DefaultQueryType;
+import de.calamanari.adl.solr.SolrFilterQuery;
+import de.calamanari.adl.solr.SolrQueryDefinition;
+
+/**
+ * The {@link CachingSolrQueryExecutor} is a {@link SolrQueryExecutor} that caches the counts ({@link #count(SolrQueryDefinition)},
+ * {@link #countAll(List)}) and the id sets ({@link #materializeIntIds(SolrQueryDefinition)}) of popular query definitions on the client side.
+ * <p>
+ * The cache key is the main query plus the sorted lists of the distinct filter queries and the distinct route keys of the definition, so definitions that
+ * only differ in the order of their filter queries share the same entry, while results obtained with different routing (<code>_route_</code>) are kept
+ * apart. The cache is bound to the <b>index version</b> of the collection: before answering from the cache the executor checks the current index version
+ * (via <code>/admin/luke</code>, at most once per configured interval, by default every {@value #DEFAULT_VERSION_CHECK_INTERVAL_MILLIS} ms). As soon as a
+ * new searcher with a changed index has been opened, all entries get invalidated. The cache is limited by the number of entries and by their estimated size
+ * in bytes (id sets can be large), the least recently used entries will be evicted first.
+ * <p>
+ * <b>Notes:</b>
+ * <ul>
+ * <li>With a version check interval greater than 0 the results can be stale for up to that interval after a commit.</li>
+ * <li>In a SolrCloud setup the index version is taken from the replica answering the luke request. Different replicas usually have different versions,
+ * which reduces the hit rate but never leads to outdated results. You can override {@link #fetchIndexVersion()} to provide a better indicator.</li>
+ * <li>The results of {@link #materializeIntIds(SolrQueryDefinition)} are cached as they were computed, so a limited
+ * {@link SolrQueryTuning#maxResults()} also limits the cached id set.</li>
+ * </ul>
+ * 
+ * @author <a href="mailto:Karl.Eilebrecht(a/t)calamanari.de">Karl Eilebrecht</a>
+ */
+public class CachingSolrQueryExecutor extends SolrQueryExecutor {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CachingSolrQueryExecutor.class);
+
+    /**
+     * Default maximum number of cache entries
+     */
+    public static final int DEFAULT_MAX_ENTRIES = 1_000;
+
+    /**
+     * Default maximum estimated size of all cache entries in bytes: {@value}
+     */
+    public static final long DEFAULT_MAX_BYTES = 64L * 1024 * 1024;
+
+    /**
+     * Default minimum time between two checks of the index version: {@value}
+     */
+    public static final long DEFAULT_VERSION_CHECK_INTERVAL_MILLIS = 1_000;
+
+    /**
+     * Estimated size of a cache entry without the strings of its key and the id set
+     */
+    private static final long ENTRY_OVERHEAD_BYTES = 128;
+
+    /**
+     * Entry of the luke response with the index version
+     */
+    private static final String INDEX_VERSION = "version";
+
+    /**
+     * Value before the first version check
+     */
+    private static final long UNKNOWN_VERSION = Long.MIN_VALUE;
+
+    private final int maxEntries;
+
+    private final long maxBytes;
+
+    private final long versionCheckIntervalMillis;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /**
+     * LRU-cache (access-order), guarded by the lock
+     */
+    private final LinkedHashMap<CacheKey, CacheEntry> cache = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * estimated size of all entries in the cache, guarded by the lock
+     */
+    private long cacheBytes = 0;
+
+    private long indexVersion = UNKNOWN_VERSION;
+
+    private long lastVersionCheckNanos = 0;
+
+    private final AtomicLong cacheHits = new AtomicLong();
+
+    private final AtomicLong cacheMisses = new AtomicLong();
+
+    /**
+     * @param solrClient client to send the requests, NOT NULL
+     * @param collectionName name of the collection to be queried, null to use the default collection of the client
+     * @param tunings settings per query type, see {@link SolrQueryExecutor#SolrQueryExecutor(SolrClient, String, Map, Executor)}
+     * @param executor for asynchronous calls, null to start a virtual thread per call
+     * @param maxEntries maximum number of cached results, positive
+     * @param versionCheckIntervalMillis minimum time between two checks of the index version, 0 to check before every cache access
+     * @param maxBytes maximum estimated size of all cached results in bytes, positive
+     */
+    public CachingSolrQueryExecutor(SolrClient solrClient, String collectionName, Map<DefaultQueryType, SolrQueryTuning> tunings, Executor executor,
+            int maxEntries, long versionCheckIntervalMillis, long maxBytes) {
+        super(solrClient, collectionName, tunings, executor);
+        if (maxEntries < 1 || versionCheckIntervalMillis < 0 || maxBytes < 1) {
+            throw new IllegalArgumentException(String.format(
+                    "Arguments maxEntries and maxBytes must be positive, versionCheckIntervalMillis must not be negative, given: maxEntries=%s, "
+                            + "versionCheckIntervalMillis=%s, maxBytes=%s",
+                    maxEntries, versionCheckIntervalMillis, maxBytes));
+        }
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+        this.versionCheckIntervalMillis = versionCheckIntervalMillis;
+    }
+
+    /**
+     * Creates an executor with a cache limited to {@link #DEFAULT_MAX_BYTES}
+     * 
+     * @param solrClient client to send the requests, NOT NULL
+     * @param collectionName name of the collection to be queried, null to use the default collection of the client
+     * @param tunings settings per query type, see {@link SolrQueryExecutor#SolrQueryExecutor(SolrClient, String, Map, Executor)}
+     * @param executor for asynchronous calls, null to start a virtual thread per call
+     * @param maxEntries maximum number of cached results, positive
+     * @param versionCheckIntervalMillis minimum time between two checks of the index version, 0 to check before every cache access
+     */
+    public CachingSolrQueryExecutor(SolrClient solrClient, String collectionName, Map<DefaultQueryType, SolrQueryTuning> tunings, Executor executor,
+            int maxEntries, long versionCheckIntervalMillis) {
+        this(solrClient, collectionName, tunings, executor, maxEntries, versionCheckIntervalMillis, DEFAULT_MAX_BYTES);
+    }
+
+    /**
+     * Creates an executor with default settings ({@link #DEFAULT_MAX_ENTRIES}, {@link #DEFAULT_MAX_BYTES},
+     * {@link #DEFAULT_VERSION_CHECK_INTERVAL_MILLIS})
+     * 
+     * @param solrClient client to send the requests, NOT NULL
+     * @param collectionName name of the collection to be queried, null to use the default collection of the client
+     */
+    public CachingSolrQueryExecutor(SolrClient solrClient, String collectionName) {
+        this(solrClient, collectionName, null, null, DEFAULT_MAX_ENTRIES, DEFAULT_VERSION_CHECK_INTERVAL_MILLIS, DEFAULT_MAX_BYTES);
+    }
+
+    @Override
+    public long count(SolrQueryDefinition queryDefinition) {
+        if (queryDefinition == null) {
+            throw new IllegalArgumentException("Argument queryDefinition must not be null.");
+        }
+        CacheKey key = CacheKey.of(DefaultQueryType.SELECT_COUNT, queryDefinition);
+        long version = ensureCurrentIndexVersion();
+        Long res = lookup(key, Long.class);
+        if (res == null) {
+            res = super.count(queryDefinition);
+            put(key, res, version);
+        }
+        return res;
+    }
+
+    /**
+     * Only the counts missing in the cache will be requested from Solr (in a single request per main query), see {@link SolrQueryExecutor#countAll(List)}
+     */
+    @Override
+    public List<Long> countAll(List<SolrQueryDefinition> queryDefinitions) {
+        if (queryDefinitions == null || queryDefinitions.stream().anyMatch(Objects::isNull)) {
+            throw new IllegalArgumentException(
+                    String.format("Argument queryDefinitions must not be null or contain nulls, given: queryDefinitions=%s", queryDefinitions));
+        }
+        List<Long> res = new ArrayList<>(queryDefinitions.size());
+        List<SolrQueryDefinition> missingDefinitions = new ArrayList<>();
+        List<Integer> missingIndexes = new ArrayList<>();
+        long version = ensureCurrentIndexVersion();
+        for (int i = 0; i < queryDefinitions.size(); i++) {
+            Long count = lookup(CacheKey.of(DefaultQueryType.SELECT_COUNT, queryDefinitions.get(i)), Long.class);
+            res.add(count);
+            if (count == null) {
+                missingDefinitions.add(queryDefinitions.get(i));
+                missingIndexes.add(i);
+            }
+        }
+        if (!missingDefinitions.isEmpty()) {
+            List<Long> counts = super.countAll(missingDefinitions);
+            for (int i = 0; i < counts.size(); i++) {
+                res.set(missingIndexes.get(i), counts.get(i));
+                put(CacheKey.of(DefaultQueryType.SELECT_COUNT, missingDefinitions.get(i)), counts.get(i), version);
+            }
+        }
+        return res;
+    }
+
+    /**
+     * @return copy of the cached id set or a freshly materialized one, see {@link SolrQueryExecutor#materializeIntIds(SolrQueryDefinition)}
+     */
+    @Override
+    public RoaringIdBitmap materializeIntIds(SolrQueryDefinition queryDefinition) {
+        if (queryDefinition == null) {
+            throw new IllegalArgumentException("Argument queryDefinition must not be null.");
+        }
+        CacheKey key = CacheKey.of(DefaultQueryType.SELECT_IDS, queryDefinition);
+        long version = ensureCurrentIndexVersion();
+        RoaringIdBitmap res = lookup(key, RoaringIdBitmap.class);
+        if (res == null) {
+            res = super.materializeIntIds(queryDefinition);
+            put(key, res.copy(), version);
+            return res;
+        }
+        return res.copy();
+    }
+
+    /**
+     * Removes all entries from the cache
+     */
+    public void clearCache() {
+        lock.lock();
+        try {
+            cache.clear();
+            cacheBytes = 0;
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return current estimated size of all cache entries in bytes
+     */
+    public long getCacheBytes() {
+        lock.lock();
+        try {
+            return cacheBytes;
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return current number of cache entries
+     */
+    public int getCacheSize() {
+        lock.lock();
+        try {
+            return cache.size();
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return number of results served from the cache since creation
+     */
+    public long getCacheHits() {
+        return cacheHits.get();
+    }
+
+    /**
+     * @return number of results not found in the cache since creation
+     */
+    public long getCacheMisses() {
+        return cacheMisses.get();
+    }
+
+    /**
+     * @return the configured maximum number of cache entries
+     */
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    /**
+     * @return the configured maximum estimated size of all cache entries in bytes
+     */
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    /**
+     * Determines the current version of the index, any change of the returned value invalidates the cache.
+     * <p>
+     * This implementation returns the index version reported by <code>/admin/luke</code> (index information only).
+     * 
+     * @return index version
+     * @throws SolrQueryExecutionException if the request failed
+     */
+    protected long fetchIndexVersion() {
+        LukeRequest request = new LukeRequest() {
+
+            private static final long serialVersionUID = -2843719906457236012L;
+
+            @Override
+            public SolrParams getParams() {
+                ModifiableSolrParams params = new ModifiableSolrParams(super.getParams());
+                params.set("show", "index");
+                return params;
+            }
+
+        };
+        request.setNumTerms(0);
+        request.setShowSchema(false);
+        LukeResponse response = null;
+        try {
+            response = request.process(getSolrClient(), getCollectionName());
+        }
+        catch (SolrServerException | IOException | RuntimeException ex) {
+            throw new SolrQueryExecutionException(String.format("Unable to determine the index version, given: collectionName=%s", getCollectionName()), ex);
+        }
+        Object version = response.getIndexInfo() == null ? null : response.getIndexInfo().get(INDEX_VERSION);
+        if (version instanceof Number number) {
+            return number.longValue();
+        }
+        throw new SolrQueryExecutionException(
+                String.format("Unable to determine the index version, given: collectionName=%s, indexInfo=%s", getCollectionName(), response.getIndexInfo()));
+    }
+
+    /**
+     * Checks the index version if the check interval has elapsed and clears the cache if the version has changed
+     * 
+     * @return the validated index version, results computed afterwards must be stored for this version (see {@link #put(CacheKey, Object, long)})
+     */
+    private long ensureCurrentIndexVersion() {
+        lock.lock();
+        try {
+            if (indexVersion != UNKNOWN_VERSION && versionCheckIntervalMillis > 0
+                    && System.nanoTime() - lastVersionCheckNanos < TimeUnit.MILLISECONDS.toNanos(versionCheckIntervalMillis)) {
+                return indexVersion;
+            }
+        }
+        finally {
+            lock.unlock();
+        }
+        // the version must be obtained before any query, so a result can only be newer (never older) than the version it is cached for
+        long currentVersion = fetchIndexVersion();
+        lock.lock();
+        try {
+            if (currentVersion != indexVersion) {
+                if (!cache.isEmpty()) {
+                    LOGGER.debug("Index version changed from {} to {}, invalidating {} cached result(s).", indexVersion, currentVersion, cache.size());
+                }
+                cache.clear();
+                cacheBytes = 0;
+                indexVersion = currentVersion;
+            }
+            lastVersionCheckNanos = System.nanoTime();
+            return currentVersion;
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @param <T>
+     * @param key
+     * @param type
+     * @return cached result or null, call {@link #ensureCurrentIndexVersion()} before
+     */
+    private <T> T lookup(CacheKey key, Class<T> type) {
+        Object res = null;
+        lock.lock();
+        try {
+            CacheEntry entry = cache.get(key);
+            res = entry == null ? null : entry.value();
+        }
+        finally {
+            lock.unlock();
+        }
+        if (type.isInstance(res)) {
+            cacheHits.incrementAndGet();
+            return type.cast(res);
+        }
+        cacheMisses.incrementAndGet();
+        return null;
+    }
+
+    /**
+     * Stores the result unless the index version has changed since the given version was validated. Otherwise, a slow query against the old searcher could
+     * add an outdated result to the cache after it has been cleared for the new version.
+     * 
+     * @param key
+     * @param value
+     * @param version index version validated before the result was computed
+     */
+    private void put(CacheKey key, Object value, long version) {
+        long bytes = key.estimateBytes() + (value instanceof RoaringIdBitmap ids ? ids.serializedSizeInBytes() : Long.BYTES);
+        if (bytes > maxBytes) {
+            LOGGER.trace("Result of {} bytes exceeds the cache limit of {} bytes, result not cached.", bytes, maxBytes);
+            return;
+        }
+        lock.lock();
+        try {
+            if (version == indexVersion) {
+                CacheEntry previous = cache.put(key, new CacheEntry(value, bytes));
+                cacheBytes = cacheBytes + bytes - (previous == null ? 0 : previous.bytes());
+                evictLeastRecentlyUsedEntries();
+            }
+            else {
+                LOGGER.trace("Index version changed from {} to {} during the query, result not cached.", version, indexVersion);
+            }
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes the least recently used entries while the cache exceeds any of its limits, guarded by the lock
+     */
+    private void evictLeastRecentlyUsedEntries() {
+        Iterator<CacheEntry> it = cache.values().iterator();
+        while ((cache.size() > maxEntries || cacheBytes > maxBytes) && it.hasNext()) {
+            cacheBytes = cacheBytes - it.next().bytes();
+            it.remove();
+        }
+    }
+
+    /**
+     * Identifies a result independent from the order of the filter queries and the route keys
+     * 
+     * @param queryType {@link DefaultQueryType#SELECT_COUNT} or {@link DefaultQueryType#SELECT_IDS}
+     * @param mainQueryString
+     * @param filterQueryStrings sorted, distinct
+     * @param routeKeys sorted, distinct (see {@link SolrQueryDefinition#routeKeys()})
+     */
+    private record CacheKey(DefaultQueryType queryType, String mainQueryString, List<String> filterQueryStrings, List<String> routeKeys) {
+
+        static CacheKey of(DefaultQueryType queryType, SolrQueryDefinition queryDefinition) {
+            return new CacheKey(queryType, queryDefinition.mainQueryString(),
+                    queryDefinition.filterQueries().stream().map(SolrFilterQuery::queryString).distinct().sorted().toList(),
+                    queryDefinition.routeKeys());
+        }
+
+        /**
+         * @return estimated size of the key in bytes
+         */
+        long estimateBytes() {
+            long chars = mainQueryString.length() + filterQueryStrings.stream().mapToLong(String::length).sum()
+                    + routeKeys.stream().mapToLong(String::length).sum();
+            return ENTRY_OVERHEAD_BYTES + 2 * chars;
+        }
+    }
+
+    /**
+     * @param value cached result
+     * @param bytes estimated size of the entry (key and value)
+     */
+    private record CacheEntry(Object value, long bytes) {
+    }
+
+}
@@ -0,0 +1,410 @@
+//@formatter:off
+/*
+ * RoaringIdBitmap
+ * Copyright 2025 Karl Eilebrecht
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"):
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+//@formatter:on
+
+package de.calamanari.adl.solr.exec;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * A {@link RoaringIdBitmap} is a compressed set of integer ids (e.g., the ids of an audience) following the concept of
+ * <a href="https://roaringbitmap.org/">Roaring Bitmaps</a>.
+ * <p>
+ * The ids are partitioned by their upper 16 bits into containers. A container with up to {@value #MAX_ARRAY_CONTAINER_SIZE} ids stores the lower 16 bits as a
+ * sorted array, a larger one as a bitmap of 8 KB. Thus, the memory consumption depends on the number <i>and</i> the distribution of the ids but never exceeds
+ * two bytes per id plus a small overhead per container.
+ * <p>
+ * {@link #writeTo(OutputStream)} creates the <a href="https://github.com/RoaringBitmap/RoaringFormatSpec">portable Roaring serialization format</a> (without
+ * run containers), so downstream systems can read the file with any Roaring implementation (e.g., <code>RoaringBitmap.deserialize(...)</code> in Java).
+ * <p>
+ * Like in other Roaring implementations ids are treated as <i>unsigned</i> 32-bit integers. Instances are <i>not</i> thread-safe.
+ * 
+ * @author <a href="mailto:Karl.Eilebrecht(a/t)calamanari.de">Karl Eilebrecht</a>
+ */
+public final class RoaringIdBitmap {
+
+    /**
+     * Cookie of the portable format if there are no run containers
+     */
+    private static final int SERIAL_COOKIE_NO_RUNCONTAINER = 12346;
+
+    /**
+     * Containers with more ids will be converted into bitmaps
+     */
+    public static final int MAX_ARRAY_CONTAINER_SIZE = 4096;
+
+    /**
+     * Number of 64-bit words of a bitmap container (65536 bits)
+     */
+    private static final int BITMAP_CONTAINER_WORDS = 1024;
+
+    /**
+     * upper 16 bits of the ids in the container at the same position, ascending
+     */
+    private char[] keys = new char[4];
+
+    private Container[] containers = new Container[4];
+
+    private int numberOfContainers = 0;
+
+    /**
+     * @param id to be added
+     * @return true if the id was added, false if it was already present
+     */
+    public boolean add(int id) {
+        char key = (char) (id >>> 16);
+        int idx = findContainer(key);
+        if (idx < 0) {
+            idx = -idx - 1;
+            insertContainer(idx, key);
+        }
+        return containers[idx].add((char) id);
+    }
+
+    /**
+     * @param id
+     * @return true if the bitmap contains the given id
+     */
+    public boolean contains(int id) {
+        int idx = findContainer((char) (id >>> 16));
+        return idx > -1 && containers[idx].contains((char) id);
+    }
+
+    /**
+     * @return number of ids in this bitmap
+     */
+    public long cardinality() {
+        long res = 0;
+        for (int i = 0; i < numberOfContainers; i++) {
+            res = res + containers[i].cardinality;
+        }
+        return res;
+    }
+
+    /**
+     * @return true if there are no ids
+     */
+    public boolean isEmpty() {
+        return numberOfContainers == 0;
+    }
+
+    /**
+     * Passes all ids in ascending (unsigned) order to the consumer
+     * 
+     * @param consumer
+     */
+    public void forEach(IntConsumer consumer) {
+        for (int i = 0; i < numberOfContainers; i++) {
+            containers[i].forEach(keys[i] << 16, consumer);
+        }
+    }
+
+    /**
+     * @return independent copy of this bitmap
+     */
+    public RoaringIdBitmap copy() {
+        RoaringIdBitmap res = new RoaringIdBitmap();
+        res.keys = Arrays.copyOf(keys, keys.length);
+        res.containers = new Container[containers.length];
+        for (int i = 0; i < numberOfContainers; i++) {
+            res.containers[i] = containers[i].copy();
+        }
+        res.numberOfContainers = numberOfContainers;
+        return res;
+    }
+
+    /**
+     * @return size of the portable serialization format in bytes, see {@link #writeTo(OutputStream)}
+     */
+    public long serializedSizeInBytes() {
+        long res = 8L + 8L * numberOfContainers;
+        for (int i = 0; i < numberOfContainers; i++) {
+            res = res + containers[i].serializedSizeInBytes();
+        }
+        return res;
+    }
+
+    /**
+     * Writes this bitmap in the portable Roaring format (little endian, no run containers)
+     * 
+     * @param os destination, will not be closed
+     * @throws IOException
+     */
+    public void writeTo(OutputStream os) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(8 + 8 * numberOfContainers).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(SERIAL_COOKIE_NO_RUNCONTAINER);
+        header.putInt(numberOfContainers);
+        for (int i = 0; i < numberOfContainers; i++) {
+            header.putChar(keys[i]);
+            header.putChar((char) (containers[i].cardinality - 1));
+        }
+        long offset = header.capacity();
+        for (int i = 0; i < numberOfContainers; i++) {
+            header.putInt((int) offset);
+            offset = offset + containers[i].serializedSizeInBytes();
+        }
+        os.write(header.array());
+        for (int i = 0; i < numberOfContainers; i++) {
+            containers[i].writeTo(os);
+        }
+    }
+
+    /**
+     * @return this bitmap in the portable Roaring format, see {@link #writeTo(OutputStream)}
+     */
+    public byte[] toByteArray() {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream((int) Math.min(Integer.MAX_VALUE - 8, serializedSizeInBytes()));
+        try {
+            writeTo(bos);
+        }
+        catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return bos.toByteArray();
+    }
+
+    /**
+     * Reads a bitmap in the portable Roaring format without run containers, see {@link #writeTo(OutputStream)}
+     * 
+     * @param is source, will not be closed
+     * @return bitmap
+     * @throws IOException on read error or if the data is not in the expected format
+     */
+    public static RoaringIdBitmap readFrom(InputStream is) throws IOException {
+        ByteBuffer cookieAndSize = readFully(is, 8);
+        int cookie = cookieAndSize.getInt();
+        int size = cookieAndSize.getInt();
+        if (cookie != SERIAL_COOKIE_NO_RUNCONTAINER || size < 0 || size > 65536) {
+            throw new IOException(String.format("Unsupported format (only portable format without run containers), given: cookie=%s, size=%s", cookie, size));
+        }
+        ByteBuffer descriptions = readFully(is, 8 * size);
+        RoaringIdBitmap res = new RoaringIdBitmap();
+        for (int i = 0; i < size; i++) {
+            char key = descriptions.getChar(4 * i);
+            int cardinality = descriptions.getChar(4 * i + 2) + 1;
+            if (i > 0 && key <= res.keys[i - 1]) {
+                throw new IOException(String.format("Corrupted bitmap, container keys must be strictly ascending, given: key[%s]=%s, key[%s]=%s", i - 1,
+                        (int) res.keys[i - 1], i, (int) key));
+            }
+            res.insertContainer(i, key);
+            res.containers[i].read(is, cardinality);
+        }
+        return res;
+    }
+
+    private static ByteBuffer readFully(InputStream is, int length) throws IOException {
+        byte[] data = is.readNBytes(length);
+        if (data.length < length) {
+            throw new IOException(String.format("Unexpected end of data, expected %s bytes, given: %s", length, data.length));
+        }
+        return ByteBuffer.wrap(data).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * @param key
+     * @return index of the container or <code>(-(insertion point) - 1)</code>
+     */
+    private int findContainer(char key) {
+        // ids often arrive in (almost) ascending order
+        if (numberOfContainers > 0 && keys[numberOfContainers - 1] == key) {
+            return numberOfContainers - 1;
+        }
+        return Arrays.binarySearch(keys, 0, numberOfContainers, key);
+    }
+
+    private void insertContainer(int idx, char key) {
+        if (numberOfContainers == keys.length) {
+            int newLength = Math.min(65536, keys.length * 2);
+            keys = Arrays.copyOf(keys, newLength);
+            containers = Arrays.copyOf(containers, newLength);
+        }
+        System.arraycopy(keys, idx, keys, idx + 1, numberOfContainers - idx);
+        System.arraycopy(containers, idx, containers, idx + 1, numberOfContainers - idx);
+        keys[idx] = key;
+        containers[idx] = new Container();
+        numberOfContainers++;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (!(obj instanceof RoaringIdBitmap other) || other.numberOfContainers != numberOfContainers) {
+            return false;
+        }
+        for (int i = 0; i < numberOfContainers; i++) {
+            if (keys[i] != other.keys[i] || !containers[i].equals(other.containers[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int res = numberOfContainers;
+        for (int i = 0; i < numberOfContainers; i++) {
+            res = 31 * res + keys[i];
+            res = 31 * res + containers[i].cardinality;
+        }
+        return res;
+    }
+
+    @Override
+    public String toString() {
+        return RoaringIdBitmap.class.getSimpleName() + "[cardinality=" + cardinality() + ", containers=" + numberOfContainers + "]";
+    }
+
+    /**
+     * Lower 16 bits of the ids with the same upper 16 bits, either a sorted array or a bitmap
+     */
+    private static final class Container {
+
+        private char[] values = new char[4];
+
+        private long[] bitmap = null;
+
+        private int cardinality = 0;
+
+        boolean add(char value) {
+            if (bitmap != null) {
+                long mask = 1L << value;
+                int wordIdx = value >>> 6;
+                if ((bitmap[wordIdx] & mask) != 0) {
+                    return false;
+                }
+                bitmap[wordIdx] |= mask;
+                cardinality++;
+                return true;
+            }
+            int idx = (cardinality > 0 && values[cardinality - 1] < value) ? -cardinality - 1 : Arrays.binarySearch(values, 0, cardinality, value);
+            if (idx > -1) {
+                return false;
+            }
+            if (cardinality == MAX_ARRAY_CONTAINER_SIZE) {
+                convertToBitmap();
+                return add(value);
+            }
+            idx = -idx - 1;
+            if (cardinality == values.length) {
+                values = Arrays.copyOf(values, Math.min(MAX_ARRAY_CONTAINER_SIZE, values.length * 2));
+            }
+            System.arraycopy(values, idx, values, idx + 1, cardinality - idx);
+            values[idx] = value;
+            cardinality++;
+            return true;
+        }
+
+        boolean contains(char value) {
+            if (bitmap != null) {
+                return (bitmap[value >>> 6] & (1L << value)) != 0;
+            }
+            return Arrays.binarySearch(values, 0, cardinality, value) > -1;
+        }
+
+        private void convertToBitmap() {
+            bitmap = new long[BITMAP_CONTAINER_WORDS];
+            for (int i = 0; i < cardinality; i++) {
+                bitmap[values[i] >>> 6] |= 1L << values[i];
+            }
+            values = null;
+        }
+
+        Container copy() {
+            Container res = new Container();
+            res.values = values == null ? null : Arrays.copyOf(values, values.length);
+            res.bitmap = bitmap == null ? null : Arrays.copyOf(bitmap, bitmap.length);
+            res.cardinality = cardinality;
+            return res;
+        }
+
+        void forEach(int high, IntConsumer consumer) {
+            if (bitmap != null) {
+                for (int wordIdx = 0; wordIdx < BITMAP_CONTAINER_WORDS; wordIdx++) {
+                    long word = bitmap[wordIdx];
+                    while (word != 0) {
+                        consumer.accept(high | (wordIdx << 6) | Long.numberOfTrailingZeros(word));
+                        word &= word - 1;
+                    }
+                }
+            }
+            else {
+                for (int i = 0; i < cardinality; i++) {
+                    consumer.accept(high | values[i]);
+                }
+            }
+        }
+
+        int serializedSizeInBytes() {
+            return bitmap != null ? BITMAP_CONTAINER_WORDS * 8 : cardinality * 2;
+        }
+
+        void writeTo(OutputStream os) throws IOException {
+            ByteBuffer buffer = ByteBuffer.allocate(serializedSizeInBytes()).order(ByteOrder.LITTLE_ENDIAN);
+            if (bitmap != null) {
+                buffer.asLongBuffer().put(bitmap);
+            }
+            else {
+                buffer.asCharBuffer().put(values, 0, cardinality);
+            }
+            os.write(buffer.array());
+        }
+
+        void read(InputStream is, int cardinality) throws IOException {
+            if (cardinality > MAX_ARRAY_CONTAINER_SIZE) {
+                bitmap = new long[BITMAP_CONTAINER_WORDS];
+                readFully(is, BITMAP_CONTAINER_WORDS * 8).asLongBuffer().get(bitmap);
+                values = null;
+                this.cardinality = Arrays.stream(bitmap).mapToInt(Long::bitCount).sum();
+                if (this.cardinality != cardinality) {
+                    throw new IOException(String.format("Corrupted bitmap container, expected cardinality %s, given: %s", cardinality, this.cardinality));
+                }
+            }
+            else {
+                values = new char[cardinality];
+                readFully(is, cardinality * 2).asCharBuffer().get(values);
+                for (int i = 1; i < cardinality; i++) {
+                    if (values[i] <= values[i - 1]) {
+                        throw new IOException(String.format("Corrupted array container, values must be strictly ascending, given: value[%s]=%s, value[%s]=%s",
+                                i - 1, (int) values[i - 1], i, (int) values[i]));
+                    }
+                }
+                this.cardinality = cardinality;
+            }
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof Container other && cardinality == other.cardinality && (bitmap != null ? Arrays.equals(bitmap, other.bitmap)
+                    : Arrays.equals(values, 0, cardinality, other.values, 0, cardinality));
+        }
+
+        @Override
+        public int hashCode() {
+            return cardinality;
+        }
+
+    }
+
+}
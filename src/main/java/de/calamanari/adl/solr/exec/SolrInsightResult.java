@@ -0,0 +1,72 @@
+//@formatter:off
+/*
+ * SolrInsightResult
+ * Copyright 2025 Karl Eilebrecht
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"):
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+//@formatter:on
+package de.calamanari.adl.solr.exec;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import de.calamanari.adl.solr.SolrInsightQueryDefinition;
+
+/**
+ * A {@link SolrInsightResult} contains the number of documents matching a query along with the breakdowns of these documents by the values of the requested
+ * argNames.
+ * <p>
+ * Each breakdown maps the values (in the order returned by Solr, highest count first) to the number of matching main documents with that value. Values not
+ * contained in a breakdown (e.g., because of the limit) have not been counted, not necessarily zero.
+ * <p>
+ * <b>Note:</b> The counts of breakdowns on dependent documents are computed with <code>unique(main_id)</code>, which Solr only guarantees to be exact in a
+ * single-shard setup. In a distributed request with more than 100 distinct main documents per shard and value the count is an estimate, and it can even
+ * exceed the total count.
+ * <p>
+ * Instances are <i>deeply immutable</i>.
+ * 
+ * @see SolrQueryExecutor#countWithFacets(SolrInsightQueryDefinition)
+ * @param count number of documents matching the query
+ * @param breakdowns by argName (in the order of the facets), each mapping the values to the number of matching main documents, NOT NULL
+ * @author <a href="mailto:Karl.Eilebrecht(a/t)calamanari.de">Karl Eilebrecht</a>
+ */
+public record SolrInsightResult(long count, Map<String, Map<String, Long>> breakdowns) implements Serializable {
+
+    /**
+     * @param count number of documents matching the query
+     * @param breakdowns by argName (in the order of the facets), each mapping the values to the number of matching main documents, NOT NULL
+     */
+    public SolrInsightResult(long count, Map<String, Map<String, Long>> breakdowns) {
+        if (count < 0 || breakdowns == null || breakdowns.values().stream()
+                .anyMatch(breakdown -> breakdown == null || breakdown.values().stream().anyMatch(valueCount -> valueCount == null || valueCount < 0))) {
+            throw new IllegalArgumentException(String.format(
+                    "Counts must not be negative, breakdowns must not be null or contain nulls, given: count=%s, breakdowns=%s", count, breakdowns));
+        }
+        this.count = count;
+        Map<String, Map<String, Long>> temp = new LinkedHashMap<>();
+        breakdowns.forEach((argName, breakdown) -> temp.put(argName, Collections.unmodifiableMap(new LinkedHashMap<>(breakdown))));
+        this.breakdowns = Collections.unmodifiableMap(temp);
+    }
+
+    /**
+     * @param argName
+     * @return breakdown of the matching documents by the values of the given argName, empty if not requested
+     */
+    public Map<String, Long> breakdown(String argName) {
+        return breakdowns.getOrDefault(argName, Collections.emptyMap());
+    }
+
+}
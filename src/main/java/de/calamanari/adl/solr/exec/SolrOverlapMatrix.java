@@ -0,0 +1,105 @@
+//@formatter:off
+/*
+ * SolrOverlapMatrix
+ * Copyright 2025 Karl Eilebrecht
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"):
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+//@formatter:on
+
+package de.calamanari.adl.solr.exec;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+/**
+ * A {@link SolrOverlapMatrix} contains the counts of a list of queries (diagonal) and the number of documents matching both queries of any pair (overlap).
+ * <p>
+ * Instances are <i>deeply immutable</i>.
+ * 
+ * @see SolrQueryExecutor#countOverlaps(java.util.List)
+ * @author <a href="mailto:Karl.Eilebrecht(a/t)calamanari.de">Karl Eilebrecht</a>
+ */
+public final class SolrOverlapMatrix implements Serializable {
+
+    private static final long serialVersionUID = 2317842616367340196L;
+
+    private final long[][] counts;
+
+    /**
+     * @param counts square matrix, symmetric, NOT NULL
+     */
+    public SolrOverlapMatrix(long[][] counts) {
+        if (counts == null || Arrays.stream(counts).anyMatch(row -> row == null || row.length != counts.length)) {
+            throw new IllegalArgumentException(String.format("Argument counts must be a square matrix, given: counts=%s", Arrays.deepToString(counts)));
+        }
+        for (int i = 0; i < counts.length; i++) {
+            for (int j = i + 1; j < counts.length; j++) {
+                if (counts[i][j] != counts[j][i] || counts[i][j] > Math.min(counts[i][i], counts[j][j])) {
+                    throw new IllegalArgumentException(
+                            String.format("Argument counts must be symmetric, an overlap cannot exceed the counts of the queries, given: counts=%s",
+                                    Arrays.deepToString(counts)));
+                }
+            }
+        }
+        this.counts = Arrays.stream(counts).map(long[]::clone).toArray(long[][]::new);
+    }
+
+    /**
+     * @return number of queries
+     */
+    public int size() {
+        return counts.length;
+    }
+
+    /**
+     * @param index position of the query
+     * @return number of documents matching the query
+     */
+    public long count(int index) {
+        return counts[index][index];
+    }
+
+    /**
+     * @param index1 position of the first query
+     * @param index2 position of the second query
+     * @return number of documents matching both queries
+     */
+    public long overlap(int index1, int index2) {
+        return counts[index1][index2];
+    }
+
+    /**
+     * @return copy of the matrix
+     */
+    public long[][] toArray() {
+        return Arrays.stream(counts).map(long[]::clone).toArray(long[][]::new);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return obj instanceof SolrOverlapMatrix other && Arrays.deepEquals(counts, other.counts);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.deepHashCode(counts);
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.stream(counts).map(Arrays::toString).collect(Collectors.joining(",\n ", "[", "]"));
+    }
+
+}
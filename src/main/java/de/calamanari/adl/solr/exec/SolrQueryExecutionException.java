@@ -0,0 +1,46 @@
+//@formatter:off
+/*
+ * SolrQueryExecutionException
+ * Copyright 2025 Karl Eilebrecht
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"):
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+//@formatter:on
+
+package de.calamanari.adl.solr.exec;
+
+/**
+ * Unchecked exception thrown by the {@link SolrQueryExecutor} if a request to Solr failed or returned an incomplete result.
+ * 
+ * @author <a href="mailto:Karl.Eilebrecht(a/t)calamanari.de">Karl Eilebrecht</a>
+ */
+public class SolrQueryExecutionException extends RuntimeException {
+
+    private static final long serialVersionUID = -5217354160487613049L;
+
+    /**
+     * @param message
+     */
+    public SolrQueryExecutionException(String message) {
+        super(message);
+    }
+
+    /**
+     * @param message
+     * @param cause
+     */
+    public SolrQueryExecutionException(String message, Throwable cause) {
+        super(message, cause);
+    }
+
+}
@@ -0,0 +1,659 @@
+//@formatter:off
+/*
+ * SolrQueryExecutor
+ * Copyright 2025 Karl Eilebrecht
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"):
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+//@formatter:on
+
+package de.calamanari.adl.solr.exec;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+import org.apache.solr.client.solrj.SolrClient;
+import org.apache.solr.client.solrj.SolrServerException;
+import org.apache.solr.client.solrj.request.SolrQuery;
+import org.apache.solr.client.solrj.request.SolrQuery.ORDER;
+import org.apache.solr.client.solrj.response.QueryResponse;
+import org.apache.solr.common.SolrDocument;
+import org.apache.solr.common.params.CursorMarkParams;
+import org.apache.solr.common.util.NamedList;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import de.calamanari.adl.solr.DefaultQueryType;
+import de.calamanari.adl.solr.SolrFilterQuery;
+import de.calamanari.adl.solr.SolrFacetDefinition;
+import de.calamanari.adl.solr.SolrFormatConstants;
+import de.calamanari.adl.solr.SolrInsightQueryDefinition;
+import de.calamanari.adl.solr.SolrQueryDefinition;
+
+/**
+ * The {@link SolrQueryExecutor} runs {@link SolrQueryDefinition}s against a collection using a {@link SolrClient} for any of the {@link DefaultQueryType}s.
+ * <ul>
+ * <li>{@link DefaultQueryType#SELECT_COUNT} sends a single request with <code>rows=0</code>, {@link DefaultQueryType#SELECT_COUNT_WITH_FACETS}
+ * additionally requests the breakdowns of an {@link SolrInsightQueryDefinition} (see {@link #countWithFacets(SolrInsightQueryDefinition)}).</li>
+ * <li>All other types fetch the documents page by page with <code>cursorMark</code> (deep paging), so there is no limit on the number of results besides the
+ * configured {@link SolrQueryTuning#maxResults()}. Because deep paging requires a sort on the unique key, the documents will always be returned in ascending
+ * order of the unique key.</li>
+ * </ul>
+ * The settings (page size, limit, time allowed, additional parameters) can be configured per query type (see {@link SolrQueryTuning}).
+ * <p>
+ * If a definition carries {@link SolrQueryDefinition#routeKeys()} they will be sent as <code>_route_</code> parameter, so a query only touches the shard(s)
+ * of the given shard keys.
+ * <p>
+ * Many counts can be obtained at once with {@link #countAll(List)}, which sends a single request per main query instead of one per definition,
+ * {@link #countOverlaps(List)} additionally counts the pairwise intersections.
+ * <p>
+ * To hand over a large result to a slow consumer (file writer, message queue) {@link #publish(SolrQueryDefinition, DefaultQueryType)} provides a
+ * {@link java.util.concurrent.Flow.Publisher} that respects the demand of the subscriber.
+ * <p>
+ * With {@link #materializeIntIds(SolrQueryDefinition)} the ids of a (potentially huge) result can be collected in a compressed {@link RoaringIdBitmap}.
+ * <p>
+ * The asynchronous methods run the blocking calls on the given {@link Executor}, by default each call gets its own virtual thread. This class does not hold
+ * any locks, so it is safe to be used concurrently.
+ * <p>
+ * <b>Note:</b> This class requires SolrJ on the classpath, the converter itself does not.
+ * 
+ * @author <a href="mailto:Karl.Eilebrecht(a/t)calamanari.de">Karl Eilebrecht</a>
+ */
+public class SolrQueryExecutor {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SolrQueryExecutor.class);
+
+    /**
+     * Field list to return full documents
+     */
+    private static final String ALL_FIELDS = "*";
+
+    /**
+     * Document transformer to include nested documents
+     */
+    private static final String CHILD_DOCUMENTS = "[child]";
+
+    /**
+     * Response header entry Solr sets if a request was interrupted (e.g., timeAllowed exceeded)
+     */
+    private static final String PARTIAL_RESULTS = "partialResults";
+
+    /**
+     * Request parameter for JSON facets
+     */
+    private static final String JSON_FACET_PARAM = "json.facet";
+
+    /**
+     * Response entry with the results of JSON facets
+     */
+    private static final String FACETS = "facets";
+
+    /**
+     * Request parameter to restrict a query to the shard(s) of the given shard keys
+     */
+    private static final String ROUTE_PARAM = "_route_";
+
+    /**
+     * Name prefix of the JSON facet buckets for batch counting
+     */
+    private static final String COUNT_BUCKET_PREFIX = "c";
+
+    private final SolrClient solrClient;
+
+    private final String collectionName;
+
+    private final Map<DefaultQueryType, SolrQueryTuning> tunings;
+
+    private final Executor executor;
+
+    /**
+     * @param solrClient client to send the requests, NOT NULL
+     * @param collectionName name of the collection to be queried, null to use the default collection of the client
+     * @param tunings settings per query type, missing entries default to {@link SolrQueryTuning#forQueryType(DefaultQueryType)}, null means all defaults
+     * @param executor for asynchronous calls, null to start a virtual thread per call
+     */
+    public SolrQueryExecutor(SolrClient solrClient, String collectionName, Map<DefaultQueryType, SolrQueryTuning> tunings, Executor executor) {
+        if (solrClient == null || (collectionName != null && collectionName.isBlank())) {
+            throw new IllegalArgumentException(
+                    String.format("Argument solrClient must not be null, collectionName must not be blank, given: solrClient=%s, collectionName=%s", solrClient,
+                            collectionName));
+        }
+        this.solrClient = solrClient;
+        this.collectionName = collectionName;
+        this.tunings = new EnumMap<>(DefaultQueryType.class);
+        for (DefaultQueryType queryType : DefaultQueryType.values()) {
+            SolrQueryTuning tuning = tunings == null ? null : tunings.get(queryType);
+            this.tunings.put(queryType, tuning == null ? SolrQueryTuning.forQueryType(queryType) : tuning);
+        }
+        this.executor = executor == null ? Thread::startVirtualThread : executor;
+    }
+
+    /**
+     * Creates an executor with default settings
+     * 
+     * @param solrClient client to send the requests, NOT NULL
+     * @param collectionName name of the collection to be queried, null to use the default collection of the client
+     */
+    public SolrQueryExecutor(SolrClient solrClient, String collectionName) {
+        this(solrClient, collectionName, null, null);
+    }
+
+    /**
+     * @param queryDefinition
+     * @return number of documents matching the query
+     * @throws SolrQueryExecutionException if the request failed
+     */
+    public long count(SolrQueryDefinition queryDefinition) {
+        return forEachDocument(queryDefinition, DefaultQueryType.SELECT_COUNT, document -> {
+            // no documents
+        });
+    }
+
+    /**
+     * Runs the query and collects the result in memory, see also {@link #forEachDocument(SolrQueryDefinition, DefaultQueryType, Consumer)}
+     * 
+     * @param queryDefinition
+     * @param queryType
+     * @return result
+     * @throws SolrQueryExecutionException if any request failed
+     */
+    public SolrQueryResult execute(SolrQueryDefinition queryDefinition, DefaultQueryType queryType) {
+        List<SolrDocument> documents = new ArrayList<>();
+        long numFound = forEachDocument(queryDefinition, queryType, documents::add);
+        return new SolrQueryResult(queryType, numFound, documents, queryDefinition.uniqueKeyFieldName());
+    }
+
+    /**
+     * Runs the query and passes each document to the consumer as soon as its page has been received, so large results don't need to be held in memory.
+     * 
+     * @param queryDefinition
+     * @param queryType
+     * @param consumer receives the documents in the order of the unique key (not called for {@link DefaultQueryType#SELECT_COUNT})
+     * @return number of documents matching the query
+     * @throws SolrQueryExecutionException if any request failed
+     */
+    public long forEachDocument(SolrQueryDefinition queryDefinition, DefaultQueryType queryType, Consumer<? super SolrDocument> consumer) {
+        if (queryDefinition == null || queryType == null || consumer == null) {
+            throw new IllegalArgumentException(String.format("Arguments must not be null, given: queryDefinition=%s, queryType=%s, consumer=%s",
+                    queryDefinition, queryType, consumer));
+        }
+        return forEachPage(queryDefinition, queryType, page -> {
+            page.forEach(consumer);
+            return true;
+        });
+    }
+
+    /**
+     * Runs the query and passes each page to the consumer as soon as it has been received. The next page will only be requested after the consumer returned.
+     * 
+     * @param queryDefinition NOT NULL
+     * @param queryType NOT NULL
+     * @param pageConsumer receives the documents of each page in the order of the unique key (not called for {@link DefaultQueryType#SELECT_COUNT}), returns
+     *            false to stop fetching further pages
+     * @return number of documents matching the query
+     * @throws SolrQueryExecutionException if any request failed
+     */
+    long forEachPage(SolrQueryDefinition queryDefinition, DefaultQueryType queryType, Predicate<? super List<SolrDocument>> pageConsumer) {
+        SolrQueryTuning tuning = tunings.get(queryType);
+        SolrQuery solrQuery = createSolrQuery(queryDefinition, queryType, tuning);
+        if (queryType.isCount()) {
+            solrQuery.setRows(0);
+            return query(solrQuery).getResults().getNumFound();
+        }
+        String cursorMark = CursorMarkParams.CURSOR_MARK_START;
+        long numFound = 0;
+        long numFetched = 0;
+        int numPages = 0;
+        while (numFetched < tuning.maxResults()) {
+            solrQuery.set(CursorMarkParams.CURSOR_MARK_PARAM, cursorMark);
+            solrQuery.setRows((int) Math.min(tuning.pageSize(), tuning.maxResults() - numFetched));
+            QueryResponse response = query(solrQuery);
+            numPages++;
+            numFound = response.getResults().getNumFound();
+            numFetched = numFetched + response.getResults().size();
+            String nextCursorMark = response.getNextCursorMark();
+            if ((!response.getResults().isEmpty() && !pageConsumer.test(response.getResults())) || nextCursorMark == null
+                    || nextCursorMark.equals(cursorMark)) {
+                break;
+            }
+            cursorMark = nextCursorMark;
+        }
+        LOGGER.debug("Fetched {} of {} documents in {} page(s) ({}).", numFetched, numFound, numPages, queryType);
+        return numFound;
+    }
+
+    /**
+     * Materializes the ids of all documents matching the query (e.g., an audience) in a {@link RoaringIdBitmap}.
+     * <p>
+     * The ids are fetched page by page ({@link DefaultQueryType#SELECT_IDS}) and added to the bitmap as soon as a page arrives, so apart from the compressed
+     * bitmap only a single page is held in memory regardless of the size of the result. The result can be written to a file for downstream systems, see
+     * {@link RoaringIdBitmap#writeTo(java.io.OutputStream)}.
+     * 
+     * @param queryDefinition
+     * @return bitmap with the ids of all matching documents (limited by the {@link SolrQueryTuning#maxResults()} of {@link DefaultQueryType#SELECT_IDS})
+     * @throws SolrQueryExecutionException if any request failed or if any id is not an integer
+     */
+    public RoaringIdBitmap materializeIntIds(SolrQueryDefinition queryDefinition) {
+        if (queryDefinition == null) {
+            throw new IllegalArgumentException("Argument queryDefinition must not be null.");
+        }
+        RoaringIdBitmap res = new RoaringIdBitmap();
+        String uniqueKeyFieldName = queryDefinition.uniqueKeyFieldName();
+        forEachDocument(queryDefinition, DefaultQueryType.SELECT_IDS, document -> res.add(toIntId(document.getFieldValue(uniqueKeyFieldName))));
+        return res;
+    }
+
+    /**
+     * Creates a <i>cold</i> {@link java.util.concurrent.Flow.Publisher} for the result of the given query. Each subscription executes the query and emits the
+     * documents page by page, the next page will only be fetched after the subscriber has requested the previous one. See {@link SolrResultPublisher}.
+     * 
+     * @param queryDefinition
+     * @param queryType any type except {@link DefaultQueryType#SELECT_COUNT}, e.g., {@link DefaultQueryType#SELECT_IDS} to only emit the ids
+     * @return publisher, subscriptions run on the executor of this instance
+     */
+    public SolrResultPublisher publish(SolrQueryDefinition queryDefinition, DefaultQueryType queryType) {
+        return new SolrResultPublisher(this, queryDefinition, queryType, executor);
+    }
+
+    /**
+     * @param queryDefinition
+     * @return future with the bitmap, completes exceptionally with a {@link SolrQueryExecutionException} on error
+     */
+    public CompletableFuture<RoaringIdBitmap> materializeIntIdsAsync(SolrQueryDefinition queryDefinition) {
+        return CompletableFuture.supplyAsync(() -> materializeIntIds(queryDefinition), executor);
+    }
+
+    private static int toIntId(Object value) {
+        if (value instanceof Integer intValue) {
+            return intValue;
+        }
+        try {
+            return Integer.parseInt(String.valueOf(value));
+        }
+        catch (NumberFormatException ex) {
+            throw new SolrQueryExecutionException(String.format("Unable to materialize ids, expected an integer id, given: %s", value), ex);
+        }
+    }
+
+    /**
+     * Counts the matches of many queries with a single request per main query and routing (usually only one).
+     * <p>
+     * Filter queries shared by all the given definitions (e.g., the filter on the main document type) will be sent as regular filter queries. The
+     * remaining filter queries of each definition become a JSON facet <code>query</code> bucket whose domain is restricted by these filters. Each count is
+     * identical to the one {@link #count(SolrQueryDefinition)} would return for the same definition. Like filter queries the filters of the buckets can
+     * benefit from Solr's filter cache.
+     * 
+     * @param queryDefinitions the queries to be counted, NOT NULL, must not contain nulls
+     * @return the counts in the order of the given definitions
+     * @throws SolrQueryExecutionException if any request failed
+     */
+    public List<Long> countAll(List<SolrQueryDefinition> queryDefinitions) {
+        if (queryDefinitions == null || queryDefinitions.stream().anyMatch(Objects::isNull)) {
+            throw new IllegalArgumentException(
+                    String.format("Argument queryDefinitions must not be null or contain nulls, given: queryDefinitions=%s", queryDefinitions));
+        }
+        Map<String, List<Integer>> indexesByMainQuery = new LinkedHashMap<>();
+        for (int i = 0; i < queryDefinitions.size(); i++) {
+            SolrQueryDefinition queryDefinition = queryDefinitions.get(i);
+            indexesByMainQuery.computeIfAbsent(queryDefinition.mainQueryString() + " " + queryDefinition.routeKeys(), key -> new ArrayList<>()).add(i);
+        }
+        Long[] res = new Long[queryDefinitions.size()];
+        for (List<Integer> indexes : indexesByMainQuery.values()) {
+            countBatch(indexes.stream().map(queryDefinitions::get).toList(), indexes, res);
+        }
+        return Arrays.asList(res);
+    }
+
+    /**
+     * @param queryDefinitions
+     * @return future with the counts in the order of the given definitions, completes exceptionally with a {@link SolrQueryExecutionException} on error
+     */
+    public CompletableFuture<List<Long>> countAllAsync(List<SolrQueryDefinition> queryDefinitions) {
+        return CompletableFuture.supplyAsync(() -> countAll(queryDefinitions), executor);
+    }
+
+    /**
+     * Counts the given definitions (all with the same main query) with a single request
+     * 
+     * @param queryDefinitions
+     * @param indexes positions of the definitions in the result
+     * @param res to store the counts
+     */
+    private void countBatch(List<SolrQueryDefinition> queryDefinitions, List<Integer> indexes, Long[] res) {
+        SolrQueryDefinition sharedQueryDefinition = createSharedQueryDefinition(queryDefinitions);
+        SolrQuery solrQuery = createSolrQuery(sharedQueryDefinition, DefaultQueryType.SELECT_COUNT, tunings.get(DefaultQueryType.SELECT_COUNT));
+        solrQuery.setRows(0);
+
+        ObjectNode facets = JsonNodeFactory.instance.objectNode();
+        for (int i = 0; i < queryDefinitions.size(); i++) {
+            List<String> filters = getRemainingFilters(queryDefinitions.get(i), sharedQueryDefinition);
+            if (!filters.isEmpty()) {
+                facets.set(COUNT_BUCKET_PREFIX + i, createQueryBucket(filters));
+            }
+        }
+        if (!facets.isEmpty()) {
+            solrQuery.set(JSON_FACET_PARAM, facets.toString());
+        }
+        QueryResponse response = query(solrQuery);
+        long numFound = response.getResults().getNumFound();
+        NamedList<?> facetResult = (NamedList<?>) response.getResponse().get(FACETS);
+        for (int i = 0; i < queryDefinitions.size(); i++) {
+            res[indexes.get(i)] = facets.has(COUNT_BUCKET_PREFIX + i) ? getBucketCount(facetResult, COUNT_BUCKET_PREFIX + i) : numFound;
+        }
+        LOGGER.debug("Counted {} queries with {} shared filter queries in a single request.", queryDefinitions.size(),
+                sharedQueryDefinition.filterQueries().size());
+    }
+
+    /**
+     * Counts the matches of the given queries and the pairwise overlaps (intersections) with a single request.
+     * <p>
+     * Filter queries shared by all the given definitions will be sent as regular filter queries (base). For each definition there is a JSON facet
+     * <code>query</code> bucket whose domain is restricted by its remaining filter queries, with a nested bucket for each subsequent definition. Thus, the
+     * nested bucket counts the documents matching both definitions. Each count is identical to the one {@link #count(SolrQueryDefinition)} would return for a
+     * definition with the filter queries of both definitions.
+     * <p>
+     * The request will only be routed (see {@link SolrQueryDefinition#routeKeys()}) if all definitions have the same route keys.
+     * 
+     * @param queryDefinitions the queries to be compared, NOT NULL, must not contain nulls, all with the same main query
+     * @return matrix with the counts (diagonal) and the overlaps
+     * @throws SolrQueryExecutionException if the request failed
+     */
+    public SolrOverlapMatrix countOverlaps(List<SolrQueryDefinition> queryDefinitions) {
+        if (queryDefinitions == null || queryDefinitions.stream().anyMatch(Objects::isNull)
+                || queryDefinitions.stream().map(SolrQueryDefinition::mainQueryString).distinct().count() > 1) {
+            throw new IllegalArgumentException(String.format(
+                    "Argument queryDefinitions must not be null or contain nulls, all definitions must have the same main query, given: queryDefinitions=%s",
+                    queryDefinitions));
+        }
+        int size = queryDefinitions.size();
+        long[][] counts = new long[size][size];
+        if (size == 0) {
+            return new SolrOverlapMatrix(counts);
+        }
+        SolrQueryDefinition sharedQueryDefinition = createSharedQueryDefinition(queryDefinitions);
+        SolrQuery solrQuery = createSolrQuery(sharedQueryDefinition, DefaultQueryType.SELECT_COUNT, tunings.get(DefaultQueryType.SELECT_COUNT));
+        solrQuery.setRows(0);
+
+        List<List<String>> filters = queryDefinitions.stream().map(queryDefinition -> getRemainingFilters(queryDefinition, sharedQueryDefinition)).toList();
+        ObjectNode facets = JsonNodeFactory.instance.objectNode();
+        for (int i = 0; i < size; i++) {
+            ObjectNode bucket = createQueryBucket(filters.get(i));
+            facets.set(COUNT_BUCKET_PREFIX + i, bucket);
+            if (i < size - 1) {
+                ObjectNode nestedFacets = bucket.putObject("facet");
+                for (int j = i + 1; j < size; j++) {
+                    nestedFacets.set(COUNT_BUCKET_PREFIX + j, createQueryBucket(filters.get(j)));
+                }
+            }
+        }
+        solrQuery.set(JSON_FACET_PARAM, facets.toString());
+        QueryResponse response = query(solrQuery);
+        NamedList<?> facetResult = (NamedList<?>) response.getResponse().get(FACETS);
+        for (int i = 0; i < size; i++) {
+            counts[i][i] = getBucketCount(facetResult, COUNT_BUCKET_PREFIX + i);
+            NamedList<?> bucketResult = facetResult == null ? null : (NamedList<?>) facetResult.get(COUNT_BUCKET_PREFIX + i);
+            for (int j = i + 1; j < size; j++) {
+                counts[i][j] = getBucketCount(bucketResult, COUNT_BUCKET_PREFIX + j);
+                counts[j][i] = counts[i][j];
+            }
+        }
+        LOGGER.debug("Counted {} queries and their overlaps with {} shared filter queries in a single request.", size,
+                sharedQueryDefinition.filterQueries().size());
+        return new SolrOverlapMatrix(counts);
+    }
+
+    /**
+     * @param queryDefinitions
+     * @return future with the overlap matrix, completes exceptionally with a {@link SolrQueryExecutionException} on error
+     */
+    public CompletableFuture<SolrOverlapMatrix> countOverlapsAsync(List<SolrQueryDefinition> queryDefinitions) {
+        return CompletableFuture.supplyAsync(() -> countOverlaps(queryDefinitions), executor);
+    }
+
+    /**
+     * Counts the documents matching the query and breaks them down by the values of the requested argNames, all in a single request (see
+     * {@link DefaultQueryType#SELECT_COUNT_WITH_FACETS}).
+     * <p>
+     * The count of each value is identical to the one {@link #count(SolrQueryDefinition)} would return for the query combined with a match of the argName
+     * against that value. In a distributed setup the counts of breakdowns on dependent documents can be estimates, see {@link SolrInsightResult}.
+     * 
+     * @param insightQueryDefinition query and facets, NOT NULL
+     * @return count and breakdowns
+     * @throws SolrQueryExecutionException if the request failed
+     */
+    public SolrInsightResult countWithFacets(SolrInsightQueryDefinition insightQueryDefinition) {
+        if (insightQueryDefinition == null) {
+            throw new IllegalArgumentException("Argument insightQueryDefinition must not be null.");
+        }
+        SolrQuery solrQuery = createSolrQuery(insightQueryDefinition.queryDefinition(), DefaultQueryType.SELECT_COUNT_WITH_FACETS,
+                tunings.get(DefaultQueryType.SELECT_COUNT_WITH_FACETS));
+        solrQuery.setRows(0);
+        if (!insightQueryDefinition.facets().isEmpty()) {
+            solrQuery.set(JSON_FACET_PARAM, insightQueryDefinition.toJsonFacetParam());
+        }
+        QueryResponse response = query(solrQuery);
+        NamedList<?> facetResult = (NamedList<?>) response.getResponse().get(FACETS);
+        Map<String, Map<String, Long>> breakdowns = new LinkedHashMap<>();
+        for (SolrFacetDefinition facet : insightQueryDefinition.facets()) {
+            breakdowns.put(facet.argName(), getBreakdown(facetResult, facet.argName()));
+        }
+        LOGGER.debug("Counted query with {} breakdown(s) in a single request.", breakdowns.size());
+        return new SolrInsightResult(response.getResults().getNumFound(), breakdowns);
+    }
+
+    /**
+     * @param insightQueryDefinition
+     * @return future with the count and the breakdowns, completes exceptionally with a {@link SolrQueryExecutionException} on error
+     */
+    public CompletableFuture<SolrInsightResult> countWithFacetsAsync(SolrInsightQueryDefinition insightQueryDefinition) {
+        return CompletableFuture.supplyAsync(() -> countWithFacets(insightQueryDefinition), executor);
+    }
+
+    /**
+     * @param facetResult facet result containing the facet (or null)
+     * @param facetName
+     * @return values mapped to the number of main documents, empty if missing (Solr omits the facets if the result is empty)
+     */
+    private static Map<String, Long> getBreakdown(NamedList<?> facetResult, String facetName) {
+        Map<String, Long> res = new LinkedHashMap<>();
+        NamedList<?> termsResult = facetResult == null ? null : (NamedList<?>) facetResult.get(facetName);
+        List<?> buckets = termsResult == null ? null : (List<?>) termsResult.get("buckets");
+        if (buckets != null) {
+            for (Object element : buckets) {
+                NamedList<?> bucket = (NamedList<?>) element;
+                Object value = bucket.get("val");
+                Object mainCount = bucket.get(SolrFacetDefinition.MAIN_DOCUMENT_COUNT);
+                res.put(value instanceof Date date ? date.toInstant().toString() : String.valueOf(value),
+                        ((Number) (mainCount == null ? bucket.get("count") : mainCount)).longValue());
+            }
+        }
+        return res;
+    }
+
+    /**
+     * @param queryDefinitions NOT EMPTY, all with the same main query
+     * @return definition with the main query, the filter queries and the route keys all the given definitions have in common
+     */
+    private static SolrQueryDefinition createSharedQueryDefinition(List<SolrQueryDefinition> queryDefinitions) {
+        List<SolrFilterQuery> sharedFilterQueries = new ArrayList<>();
+        for (SolrFilterQuery filterQuery : queryDefinitions.get(0).filterQueries()) {
+            if (queryDefinitions.stream().allMatch(queryDefinition -> containsFilterQuery(queryDefinition, filterQuery.queryString()))) {
+                sharedFilterQueries.add(filterQuery);
+            }
+        }
+        // routing is only possible if all definitions address the same shard(s)
+        List<String> routeKeys = queryDefinitions.get(0).routeKeys();
+        boolean sameRouting = queryDefinitions.stream().allMatch(queryDefinition -> queryDefinition.routeKeys().equals(routeKeys));
+        return new SolrQueryDefinition(queryDefinitions.get(0).mainQueryString(), sharedFilterQueries, queryDefinitions.get(0).uniqueKeyFieldName(),
+                sameRouting ? routeKeys : null);
+    }
+
+    /**
+     * @param queryDefinition
+     * @param sharedQueryDefinition
+     * @return the query strings of the filter queries of the given definition not covered by the shared definition
+     */
+    private static List<String> getRemainingFilters(SolrQueryDefinition queryDefinition, SolrQueryDefinition sharedQueryDefinition) {
+        return queryDefinition.filterQueries().stream().map(SolrFilterQuery::queryString)
+                .filter(queryString -> !containsFilterQuery(sharedQueryDefinition, queryString)).toList();
+    }
+
+    /**
+     * @param filters restrict the domain of the bucket, empty means the bucket counts the parent domain
+     * @return JSON facet query bucket
+     */
+    private static ObjectNode createQueryBucket(List<String> filters) {
+        ObjectNode bucket = JsonNodeFactory.instance.objectNode();
+        bucket.put("type", "query");
+        bucket.put("q", SolrFormatConstants.QUERY_ALL_DOCUMENTS);
+        if (!filters.isEmpty()) {
+            ArrayNode filterArray = bucket.putObject("domain").putArray("filter");
+            filters.forEach(filterArray::add);
+        }
+        return bucket;
+    }
+
+    /**
+     * @param parentResult facet result containing the bucket (or null)
+     * @param bucketName
+     * @return count of the bucket, 0 if missing (Solr omits the buckets if the parent domain is empty)
+     */
+    private static long getBucketCount(NamedList<?> parentResult, String bucketName) {
+        NamedList<?> bucketResult = parentResult == null ? null : (NamedList<?>) parentResult.get(bucketName);
+        return bucketResult == null ? 0 : ((Number) bucketResult.get("count")).longValue();
+    }
+
+    /**
+     * @param queryDefinition
+     * @param queryString
+     * @return true if the definition contains a filter query with the given query string
+     */
+    private static boolean containsFilterQuery(SolrQueryDefinition queryDefinition, String queryString) {
+        return queryDefinition.filterQueries().stream().anyMatch(filterQuery -> filterQuery.queryString().equals(queryString));
+    }
+
+    /**
+     * @param queryDefinition
+     * @return future with the number of documents matching the query, completes exceptionally with a {@link SolrQueryExecutionException} on error
+     */
+    public CompletableFuture<Long> countAsync(SolrQueryDefinition queryDefinition) {
+        return CompletableFuture.supplyAsync(() -> count(queryDefinition), executor);
+    }
+
+    /**
+     * @param queryDefinition
+     * @param queryType
+     * @return future with the result, completes exceptionally with a {@link SolrQueryExecutionException} on error
+     */
+    public CompletableFuture<SolrQueryResult> executeAsync(SolrQueryDefinition queryDefinition, DefaultQueryType queryType) {
+        return CompletableFuture.supplyAsync(() -> execute(queryDefinition, queryType), executor);
+    }
+
+    /**
+     * @param queryType
+     * @return the settings applied to the given query type
+     */
+    public SolrQueryTuning getTuning(DefaultQueryType queryType) {
+        return tunings.get(queryType);
+    }
+
+    /**
+     * @return name of the collection to be queried or null if the client's default collection is used
+     */
+    public String getCollectionName() {
+        return collectionName;
+    }
+
+    /**
+     * @return the client this executor sends the requests to
+     */
+    protected SolrClient getSolrClient() {
+        return solrClient;
+    }
+
+    /**
+     * Creates the Solr query for the given definition (without paging parameters). Subclasses may override this method to add further settings.
+     * 
+     * @param queryDefinition
+     * @param queryType
+     * @param tuning
+     * @return Solr query
+     */
+    protected SolrQuery createSolrQuery(SolrQueryDefinition queryDefinition, DefaultQueryType queryType, SolrQueryTuning tuning) {
+        SolrQuery solrQuery = new SolrQuery();
+        solrQuery.setQuery(queryDefinition.mainQueryString());
+        solrQuery.setFilterQueries(queryDefinition.filterQueries().stream().map(SolrFilterQuery::queryString).toArray(String[]::new));
+        switch (queryType) {
+        case SELECT_COUNT, SELECT_COUNT_WITH_FACETS:
+            break;
+        case SELECT_IDS, SELECT_IDS_ORDERED:
+            solrQuery.setFields(queryDefinition.uniqueKeyFieldName());
+            break;
+        case SELECT_DOCUMENTS, SELECT_DOCUMENTS_ORDERED:
+            solrQuery.setFields(ALL_FIELDS);
+            break;
+        case SELECT_DOCUMENTS_WITH_NESTING, SELECT_DOCUMENTS_ORDERED_WITH_NESTING:
+            solrQuery.setFields(ALL_FIELDS, CHILD_DOCUMENTS);
+            break;
+        }
+        if (!queryType.isCount()) {
+            // deep paging with cursorMark requires a sort on the unique key
+            solrQuery.setSort(queryDefinition.uniqueKeyFieldName(), ORDER.asc);
+        }
+        if (tuning.timeAllowedMillis() > 0) {
+            solrQuery.setTimeAllowed((int) Math.min(Integer.MAX_VALUE, tuning.timeAllowedMillis()));
+        }
+        if (!queryDefinition.routeKeys().isEmpty()) {
+            solrQuery.set(ROUTE_PARAM, String.join(",", queryDefinition.routeKeys()));
+        }
+        tuning.additionalParams().forEach(solrQuery::set);
+        return solrQuery;
+    }
+
+    /**
+     * @param solrQuery
+     * @return response
+     * @throws SolrQueryExecutionException if the request failed or the result is incomplete
+     */
+    private QueryResponse query(SolrQuery solrQuery) {
+        QueryResponse response = null;
+        try {
+            response = collectionName == null ? solrClient.query(solrQuery) : solrClient.query(collectionName, solrQuery);
+        }
+        catch (SolrServerException | IOException | RuntimeException ex) {
+            throw new SolrQueryExecutionException(String.format("Query execution failed, given: collectionName=%s, solrQuery=%s", collectionName, solrQuery),
+                    ex);
+        }
+        if (response.getResponseHeader() != null && Boolean.TRUE.equals(response.getResponseHeader().get(PARTIAL_RESULTS))) {
+            throw new SolrQueryExecutionException(
+                    String.format("Incomplete result (partial results), given: collectionName=%s, solrQuery=%s", collectionName, solrQuery));
+        }
+        return response;
+    }
+
+}
@@ -0,0 +1,74 @@
+//@formatter:off
+/*
+ * SolrQueryResult
+ * Copyright 2025 Karl Eilebrecht
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"):
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+//@formatter:on
+
+package de.calamanari.adl.solr.exec;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.solr.common.SolrDocument;
+
+import de.calamanari.adl.solr.DefaultQueryType;
+
+/**
+ * A {@link SolrQueryResult} is the outcome of a query executed by the {@link SolrQueryExecutor}.
+ * 
+ * @param queryType the type of the query, NOT NULL
+ * @param numFound total number of matching documents
+ * @param documents the fetched documents (empty for {@link DefaultQueryType#SELECT_COUNT}, maybe less than <code>numFound</code> if limited), null means empty
+ * @param uniqueKeyFieldName name of the unique key field, NOT NULL
+ * @author <a href="mailto:Karl.Eilebrecht(a/t)calamanari.de">Karl Eilebrecht</a>
+ */
+public record SolrQueryResult(DefaultQueryType queryType, long numFound, List<SolrDocument> documents, String uniqueKeyFieldName) {
+
+    /**
+     * @param queryType the type of the query, NOT NULL
+     * @param numFound total number of matching documents
+     * @param documents the fetched documents (empty for {@link DefaultQueryType#SELECT_COUNT}, maybe less than <code>numFound</code> if limited), null means
+     *            empty
+     * @param uniqueKeyFieldName name of the unique key field, NOT NULL
+     */
+    public SolrQueryResult(DefaultQueryType queryType, long numFound, List<SolrDocument> documents, String uniqueKeyFieldName) {
+        if (queryType == null || numFound < 0 || uniqueKeyFieldName == null) {
+            throw new IllegalArgumentException(String.format(
+                    "Arguments must not be null, numFound must not be negative, given: queryType=%s, numFound=%s, documents=%s, uniqueKeyFieldName=%s", queryType,
+                    numFound, documents, uniqueKeyFieldName));
+        }
+        this.queryType = queryType;
+        this.numFound = numFound;
+        this.documents = documents == null ? Collections.emptyList() : Collections.unmodifiableList(new ArrayList<>(documents));
+        this.uniqueKeyFieldName = uniqueKeyFieldName;
+    }
+
+    /**
+     * @return the unique keys of the fetched documents in the order of the result
+     */
+    public List<String> ids() {
+        return documents.stream().map(document -> String.valueOf(document.getFieldValue(uniqueKeyFieldName))).toList();
+    }
+
+    /**
+     * @return true if not all matching documents have been fetched
+     */
+    public boolean isTruncated() {
+        return !queryType.isCount() && documents.size() < numFound;
+    }
+
+}
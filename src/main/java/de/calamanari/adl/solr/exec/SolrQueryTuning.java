@@ -0,0 +1,119 @@
+//@formatter:off
+/*
+ * SolrQueryTuning
+ * Copyright 2025 Karl Eilebrecht
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"):
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+//@formatter:on
+
+package de.calamanari.adl.solr.exec;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import de.calamanari.adl.solr.DefaultQueryType;
+
+/**
+ * A {@link SolrQueryTuning} holds the execution settings the {@link SolrQueryExecutor} applies to a particular {@link DefaultQueryType}.
+ * <p>
+ * Instances are <i>deeply immutable</i>.
+ * 
+ * @param pageSize number of documents to be fetched per request (deep paging with <code>cursorMark</code>), must be positive
+ * @param maxResults limits the number of documents to be fetched (the number of matches will still be reported), must be positive
+ * @param timeAllowedMillis time limit for each request (<code>timeAllowed</code>), a request exceeding the limit fails, 0 means no limit
+ * @param additionalParams further parameters to be sent with each request (e.g., <code>cache=false</code>), null means empty
+ * @author <a href="mailto:Karl.Eilebrecht(a/t)calamanari.de">Karl Eilebrecht</a>
+ */
+public record SolrQueryTuning(int pageSize, long maxResults, long timeAllowedMillis, Map<String, String> additionalParams) implements Serializable {
+
+    /**
+     * Default page size for queries returning full documents
+     */
+    public static final int DEFAULT_DOCUMENT_PAGE_SIZE = 1_000;
+
+    /**
+     * Default page size for queries returning ids only
+     */
+    public static final int DEFAULT_ID_PAGE_SIZE = 10_000;
+
+    /**
+     * @param pageSize number of documents to be fetched per request (deep paging with <code>cursorMark</code>), must be positive
+     * @param maxResults limits the number of documents to be fetched (the number of matches will still be reported), must be positive
+     * @param timeAllowedMillis time limit for each request (<code>timeAllowed</code>), a request exceeding the limit fails, 0 means no limit
+     * @param additionalParams further parameters to be sent with each request (e.g., <code>cache=false</code>), null means empty
+     */
+    public SolrQueryTuning(int pageSize, long maxResults, long timeAllowedMillis, Map<String, String> additionalParams) {
+        if (pageSize < 1 || maxResults < 1 || timeAllowedMillis < 0 || (additionalParams != null
+                && additionalParams.entrySet().stream().anyMatch(entry -> entry.getKey() == null || entry.getKey().isBlank() || entry.getValue() == null))) {
+            throw new IllegalArgumentException(String.format(
+                    "Page size and max results must be positive, timeAllowedMillis must not be negative, additional params must not contain blank keys or null values, "
+                            + "given: pageSize=%s, maxResults=%s, timeAllowedMillis=%s, additionalParams=%s",
+                    pageSize, maxResults, timeAllowedMillis, additionalParams));
+        }
+        this.pageSize = pageSize;
+        this.maxResults = maxResults;
+        this.timeAllowedMillis = timeAllowedMillis;
+        this.additionalParams = additionalParams == null ? Collections.emptyMap() : Collections.unmodifiableMap(new LinkedHashMap<>(additionalParams));
+    }
+
+    /**
+     * @param queryType
+     * @return default settings for the given query type (unlimited, no time limit)
+     */
+    public static SolrQueryTuning forQueryType(DefaultQueryType queryType) {
+        return switch (queryType) {
+        case SELECT_IDS, SELECT_IDS_ORDERED, SELECT_COUNT, SELECT_COUNT_WITH_FACETS -> new SolrQueryTuning(DEFAULT_ID_PAGE_SIZE, Long.MAX_VALUE, 0, null);
+        case SELECT_DOCUMENTS, SELECT_DOCUMENTS_ORDERED, SELECT_DOCUMENTS_WITH_NESTING, SELECT_DOCUMENTS_ORDERED_WITH_NESTING -> new SolrQueryTuning(
+                DEFAULT_DOCUMENT_PAGE_SIZE, Long.MAX_VALUE, 0, null);
+        };
+    }
+
+    /**
+     * @param pageSize
+     * @return copy of this instance with the given page size
+     */
+    public SolrQueryTuning withPageSize(int pageSize) {
+        return new SolrQueryTuning(pageSize, maxResults, timeAllowedMillis, additionalParams);
+    }
+
+    /**
+     * @param maxResults
+     * @return copy of this instance with the given limit
+     */
+    public SolrQueryTuning withMaxResults(long maxResults) {
+        return new SolrQueryTuning(pageSize, maxResults, timeAllowedMillis, additionalParams);
+    }
+
+    /**
+     * @param timeAllowedMillis
+     * @return copy of this instance with the given time limit
+     */
+    public SolrQueryTuning withTimeAllowedMillis(long timeAllowedMillis) {
+        return new SolrQueryTuning(pageSize, maxResults, timeAllowedMillis, additionalParams);
+    }
+
+    /**
+     * @param name
+     * @param value
+     * @return copy of this instance with the given parameter added
+     */
+    public SolrQueryTuning withAdditionalParam(String name, String value) {
+        Map<String, String> params = new LinkedHashMap<>(additionalParams);
+        params.put(name, value);
+        return new SolrQueryTuning(pageSize, maxResults, timeAllowedMillis, params);
+    }
+
+}
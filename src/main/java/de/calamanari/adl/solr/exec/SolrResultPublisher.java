@@ -0,0 +1,227 @@
+//@formatter:off
+/*
+ * SolrResultPublisher
+ * Copyright 2025 Karl Eilebrecht
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"):
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+//@formatter:on
+
+package de.calamanari.adl.solr.exec;
+
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.apache.solr.common.SolrDocument;
+
+import de.calamanari.adl.solr.DefaultQueryType;
+import de.calamanari.adl.solr.SolrQueryDefinition;
+
+/**
+ * The {@link SolrResultPublisher} is a <i>cold</i> {@link Flow.Publisher} for the result of a query: every subscription executes the query and emits the
+ * documents page by page (one batch per page, see {@link SolrQueryTuning#pageSize()}) in the order of the unique key.
+ * <p>
+ * The publisher respects the demand of the subscriber: a page will only be requested from Solr after the previous one has been requested by the subscriber.
+ * Thus, at most one page per subscription is buffered, no matter how slow the subscriber is. Because deep paging with <code>cursorMark</code> is stateless on
+ * the server side, a slow subscriber does not hold any resources in Solr.
+ * <p>
+ * Cancelling the subscription stops the query before the next page. A failed request gets reported via {@link Flow.Subscriber#onError(Throwable)} with a
+ * {@link SolrQueryExecutionException}.
+ * <p>
+ * Instances are created by {@link SolrQueryExecutor#publish(SolrQueryDefinition, DefaultQueryType)}.
+ * 
+ * @author <a href="mailto:Karl.Eilebrecht(a/t)calamanari.de">Karl Eilebrecht</a>
+ */
+public final class SolrResultPublisher implements Flow.Publisher<List<SolrDocument>> {
+
+    private final SolrQueryExecutor queryExecutor;
+
+    private final SolrQueryDefinition queryDefinition;
+
+    private final DefaultQueryType queryType;
+
+    private final Executor executor;
+
+    /**
+     * @param queryExecutor
+     * @param queryDefinition
+     * @param queryType any type except {@link DefaultQueryType#SELECT_COUNT} and {@link DefaultQueryType#SELECT_COUNT_WITH_FACETS}
+     * @param executor to run the subscriptions (each subscription occupies a thread while it is active)
+     */
+    SolrResultPublisher(SolrQueryExecutor queryExecutor, SolrQueryDefinition queryDefinition, DefaultQueryType queryType, Executor executor) {
+        if (queryExecutor == null || queryDefinition == null || queryType == null || queryType.isCount() || executor == null) {
+            throw new IllegalArgumentException(String.format(
+                    "Arguments must not be null (count types not supported), given: queryExecutor=%s, queryDefinition=%s, queryType=%s, executor=%s",
+                    queryExecutor, queryDefinition, queryType, executor));
+        }
+        this.queryExecutor = queryExecutor;
+        this.queryDefinition = queryDefinition;
+        this.queryType = queryType;
+        this.executor = executor;
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super List<SolrDocument>> subscriber) {
+        if (subscriber == null) {
+            throw new NullPointerException("Argument subscriber must not be null.");
+        }
+        ResultSubscription subscription = new ResultSubscription(subscriber);
+        subscriber.onSubscribe(subscription);
+        try {
+            executor.execute(subscription::run);
+        }
+        catch (RejectedExecutionException ex) {
+            subscription.cancel();
+            subscriber.onError(new SolrQueryExecutionException("Unable to start the query execution.", ex));
+        }
+    }
+
+    /**
+     * @return the query type of the emitted documents
+     */
+    public DefaultQueryType getQueryType() {
+        return queryType;
+    }
+
+    /**
+     * Subscription that fetches the next page only if there is demand, all signals are sent from the thread running the query
+     */
+    private final class ResultSubscription implements Flow.Subscription {
+
+        private final Flow.Subscriber<? super List<SolrDocument>> subscriber;
+
+        private final ReentrantLock lock = new ReentrantLock();
+
+        private final Condition stateChanged = lock.newCondition();
+
+        private long demand = 0;
+
+        private boolean cancelled = false;
+
+        private IllegalArgumentException invalidRequest = null;
+
+        ResultSubscription(Flow.Subscriber<? super List<SolrDocument>> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void request(long n) {
+            lock.lock();
+            try {
+                if (n <= 0 && invalidRequest == null) {
+                    // rule 3.9, reported from the publishing thread to keep the signals serial
+                    invalidRequest = new IllegalArgumentException(String.format("The number of requested elements must be positive, given: n=%s", n));
+                }
+                else if (n > 0) {
+                    demand = (demand + n < 0) ? Long.MAX_VALUE : demand + n;
+                }
+                stateChanged.signalAll();
+            }
+            finally {
+                lock.unlock();
+            }
+        }
+
+        @Override
+        public void cancel() {
+            lock.lock();
+            try {
+                cancelled = true;
+                stateChanged.signalAll();
+            }
+            finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Waits until there is demand or the subscription has ended
+         * 
+         * @return true if the next element can be sent, false if the subscription has been cancelled or an invalid request was made
+         */
+        private boolean awaitDemand() {
+            lock.lock();
+            try {
+                while (demand == 0 && !cancelled && invalidRequest == null) {
+                    stateChanged.await();
+                }
+                if (cancelled || invalidRequest != null) {
+                    return false;
+                }
+                demand--;
+                return true;
+            }
+            catch (InterruptedException _) {
+                Thread.currentThread().interrupt();
+                cancelled = true;
+                return false;
+            }
+            finally {
+                lock.unlock();
+            }
+        }
+
+        private boolean isCancelled() {
+            lock.lock();
+            try {
+                return cancelled;
+            }
+            finally {
+                lock.unlock();
+            }
+        }
+
+        void run() {
+            try {
+                queryExecutor.forEachPage(queryDefinition, queryType, page -> {
+                    if (awaitDemand()) {
+                        subscriber.onNext(page);
+                        return true;
+                    }
+                    return false;
+                });
+            }
+            catch (RuntimeException ex) {
+                if (!isCancelled()) {
+                    cancel();
+                    subscriber.onError(ex);
+                }
+                return;
+            }
+            lock.lock();
+            Throwable error = null;
+            try {
+                if (cancelled) {
+                    return;
+                }
+                error = invalidRequest;
+                cancelled = true;
+            }
+            finally {
+                lock.unlock();
+            }
+            if (error != null) {
+                subscriber.onError(error);
+            }
+            else {
+                subscriber.onComplete();
+            }
+        }
+
+    }
+
+}
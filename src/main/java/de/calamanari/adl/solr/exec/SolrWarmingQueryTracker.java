@@ -0,0 +1,341 @@
+//@formatter:off
+/*
+ * SolrWarmingQueryTracker
+ * Copyright 2025 Karl Eilebrecht
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"):
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+//@formatter:on
+
+package de.calamanari.adl.solr.exec;
+
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import de.calamanari.adl.solr.SolrConditionType;
+import de.calamanari.adl.solr.SolrFilterQuery;
+import de.calamanari.adl.solr.SolrQueryDefinition;
+
+/**
+ * The {@link SolrWarmingQueryTracker} counts how often the converter produced each {@link SolrFilterQuery} to warm the Solr <i>filterCache</i> after a
+ * commit with the most frequent ones.
+ * <p>
+ * After a commit Solr opens a new searcher with empty caches, so the first audience queries must compute all their filter queries from scratch. There are
+ * two ways to avoid this:
+ * <ul>
+ * <li>Export the most frequent filter queries as a <code>newSearcher</code> or <code>firstSearcher</code> event listener for the <code>solrconfig.xml</code>
+ * (see {@link #createWarmingListenerXml(String, int)}), so Solr warms the new searcher before it gets registered.</li>
+ * <li>Replay them with {@link #warmUp(SolrQueryExecutor, int)} right after a commit.</li>
+ * </ul>
+ * The number of tracked filter queries is limited, once exceeded the least frequent ones will be dropped. Thus, the frequencies are approximations for the
+ * popular filter queries and meaningless for rare ones.
+ * <p>
+ * The frequencies <i>age</i>: after a configurable number of recordings (or on demand, see {@link #decay()}) all frequencies get halved and filter queries
+ * with a frequency of 0 will be dropped. This way filter queries that were popular in the past but are no longer used make room for the current ones
+ * instead of being pinned forever.
+ * <p>
+ * Instances are safe to be used concurrently. Rankings are computed from a snapshot of the frequencies taken before sorting.
+ * 
+ * @author <a href="mailto:Karl.Eilebrecht(a/t)calamanari.de">Karl Eilebrecht</a>
+ */
+public class SolrWarmingQueryTracker {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SolrWarmingQueryTracker.class);
+
+    /**
+     * Solr event fired when a new searcher is opened after a commit
+     */
+    public static final String NEW_SEARCHER = "newSearcher";
+
+    /**
+     * Solr event fired when the first searcher is opened after the start of the core
+     */
+    public static final String FIRST_SEARCHER = "firstSearcher";
+
+    /**
+     * Default limit of the number of distinct filter queries to be tracked
+     */
+    public static final int DEFAULT_MAX_TRACKED_QUERIES = 10_000;
+
+    /**
+     * Default number of recordings per {@link #DEFAULT_MAX_TRACKED_QUERIES} between two decays (halving all frequencies)
+     */
+    public static final int DEFAULT_DECAY_FACTOR = 10;
+
+    /**
+     * Descending by frequency, then by query string for a stable order, only to be applied to snapshots
+     */
+    private static final Comparator<FrequencySnapshot> BY_FREQUENCY_DESC = Comparator.comparingLong(FrequencySnapshot::frequency).reversed()
+            .thenComparing(snapshot -> snapshot.filterQuery().queryString());
+
+    private final int maxTrackedQueries;
+
+    private final long decayIntervalRecords;
+
+    private final AtomicLong recordsSinceDecay = new AtomicLong();
+
+    private final Map<String, TrackedFilterQuery> trackedQueries = new ConcurrentHashMap<>();
+
+    private final ReentrantLock pruneLock = new ReentrantLock();
+
+    /**
+     * @param maxTrackedQueries limit of the number of distinct filter queries to be tracked, positive
+     * @param decayIntervalRecords number of recorded filter queries after which all frequencies get halved, positive
+     */
+    public SolrWarmingQueryTracker(int maxTrackedQueries, long decayIntervalRecords) {
+        if (maxTrackedQueries < 1 || decayIntervalRecords < 1) {
+            throw new IllegalArgumentException(
+                    String.format("Arguments maxTrackedQueries and decayIntervalRecords must be positive, given: maxTrackedQueries=%s, decayIntervalRecords=%s",
+                            maxTrackedQueries, decayIntervalRecords));
+        }
+        this.maxTrackedQueries = maxTrackedQueries;
+        this.decayIntervalRecords = decayIntervalRecords;
+    }
+
+    /**
+     * Creates a tracker that halves all frequencies after {@value #DEFAULT_DECAY_FACTOR} times maxTrackedQueries recordings
+     * 
+     * @param maxTrackedQueries limit of the number of distinct filter queries to be tracked, positive
+     */
+    public SolrWarmingQueryTracker(int maxTrackedQueries) {
+        this(maxTrackedQueries, (long) DEFAULT_DECAY_FACTOR * Math.max(maxTrackedQueries, 1));
+    }
+
+    /**
+     * Creates a tracker with a limit of {@value #DEFAULT_MAX_TRACKED_QUERIES} filter queries
+     */
+    public SolrWarmingQueryTracker() {
+        this(DEFAULT_MAX_TRACKED_QUERIES);
+    }
+
+    /**
+     * Records the usage of all filter queries of the given definition
+     * 
+     * @param queryDefinition NOT NULL
+     */
+    public void record(SolrQueryDefinition queryDefinition) {
+        if (queryDefinition == null) {
+            throw new IllegalArgumentException("Argument queryDefinition must not be null.");
+        }
+        queryDefinition.filterQueries().forEach(this::record);
+    }
+
+    /**
+     * Records the usage of a single filter query
+     * 
+     * @param filterQuery NOT NULL
+     */
+    public void record(SolrFilterQuery filterQuery) {
+        if (filterQuery == null) {
+            throw new IllegalArgumentException("Argument filterQuery must not be null.");
+        }
+        trackedQueries.computeIfAbsent(filterQuery.queryString(), key -> new TrackedFilterQuery(filterQuery, new AtomicLong())).frequency().incrementAndGet();
+        if (trackedQueries.size() > maxTrackedQueries) {
+            prune();
+        }
+        if (recordsSinceDecay.incrementAndGet() % decayIntervalRecords == 0) {
+            decay();
+        }
+    }
+
+    /**
+     * Halves the frequencies of all tracked filter queries and drops the ones with a frequency of 0 afterwards.
+     * <p>
+     * This happens automatically after the configured number of recordings. You can also call this method explicitly, e.g., once a day, to let the ranking
+     * follow the current usage.
+     */
+    public void decay() {
+        pruneLock.lock();
+        try {
+            for (TrackedFilterQuery tracked : trackedQueries.values()) {
+                if (tracked.frequency().updateAndGet(frequency -> frequency / 2) == 0) {
+                    trackedQueries.remove(tracked.filterQuery().queryString(), tracked);
+                }
+            }
+        }
+        finally {
+            pruneLock.unlock();
+        }
+    }
+
+    /**
+     * Drops the least frequent entries (a quarter of the limit) to make room for new ones
+     */
+    private void prune() {
+        pruneLock.lock();
+        try {
+            int numberToBeRemoved = trackedQueries.size() - (maxTrackedQueries - maxTrackedQueries / 4);
+            if (numberToBeRemoved > 0) {
+                takeSnapshots(null).stream().sorted(BY_FREQUENCY_DESC.reversed()).limit(numberToBeRemoved)
+                        .forEach(snapshot -> trackedQueries.remove(snapshot.filterQuery().queryString()));
+            }
+        }
+        finally {
+            pruneLock.unlock();
+        }
+    }
+
+    /**
+     * @param limit maximum number of filter queries to be returned
+     * @return the most frequent filter queries, descending by frequency
+     */
+    public List<SolrFilterQuery> getMostFrequentFilterQueries(int limit) {
+        return getMostFrequentFilterQueries(limit, null);
+    }
+
+    /**
+     * @param limit maximum number of filter queries to be returned
+     * @param conditionType only return filter queries with this type of condition, null means any type
+     * @return the most frequent filter queries, descending by frequency
+     */
+    public List<SolrFilterQuery> getMostFrequentFilterQueries(int limit, SolrConditionType conditionType) {
+        if (limit < 0) {
+            throw new IllegalArgumentException(String.format("Argument limit must not be negative, given: limit=%s", limit));
+        }
+        return takeSnapshots(conditionType).stream().sorted(BY_FREQUENCY_DESC).limit(limit).map(FrequencySnapshot::filterQuery).toList();
+    }
+
+    /**
+     * The frequencies change concurrently, so sorting must happen on a snapshot to get a consistent order
+     * 
+     * @param conditionType only include filter queries with this type of condition, null means any type
+     * @return current frequencies of the tracked filter queries
+     */
+    private List<FrequencySnapshot> takeSnapshots(SolrConditionType conditionType) {
+        return trackedQueries.values().stream().filter(tracked -> conditionType == null || tracked.filterQuery().conditionTypes().contains(conditionType))
+                .map(tracked -> new FrequencySnapshot(tracked.filterQuery(), tracked.frequency().get())).toList();
+    }
+
+    /**
+     * @param filterQuery
+     * @return number of times the given filter query has been recorded (reduced by decay, 0 if not or no longer tracked)
+     */
+    public long getFrequency(SolrFilterQuery filterQuery) {
+        TrackedFilterQuery tracked = filterQuery == null ? null : trackedQueries.get(filterQuery.queryString());
+        return tracked == null ? 0 : tracked.frequency().get();
+    }
+
+    /**
+     * @return the accumulated frequencies of the tracked filter queries per condition type (a filter query with multiple types counts for each type)
+     */
+    public Map<SolrConditionType, Long> getFrequencyByConditionType() {
+        Map<SolrConditionType, Long> res = new EnumMap<>(SolrConditionType.class);
+        for (TrackedFilterQuery tracked : trackedQueries.values()) {
+            long frequency = tracked.frequency().get();
+            tracked.filterQuery().conditionTypes().stream().distinct().forEach(conditionType -> res.merge(conditionType, frequency, Long::sum));
+        }
+        return res;
+    }
+
+    /**
+     * @return number of distinct filter queries currently tracked
+     */
+    public int size() {
+        return trackedQueries.size();
+    }
+
+    /**
+     * Removes all tracked filter queries
+     */
+    public void clear() {
+        trackedQueries.clear();
+    }
+
+    /**
+     * Creates a <code>QuerySenderListener</code> configuration for the <code>&lt;query&gt;</code> section of the <code>solrconfig.xml</code> with one
+     * warming query per filter query (<code>q=*:*, fq=..., rows=0</code>), so each filter query gets its own filterCache entry.
+     * 
+     * @param event {@link #NEW_SEARCHER} or {@link #FIRST_SEARCHER}
+     * @param limit maximum number of warming queries
+     * @return XML snippet with the listener configuration
+     */
+    public String createWarmingListenerXml(String event, int limit) {
+        if (!NEW_SEARCHER.equals(event) && !FIRST_SEARCHER.equals(event)) {
+            throw new IllegalArgumentException(
+                    String.format("Argument event must be either %s or %s, given: event=%s", NEW_SEARCHER, FIRST_SEARCHER, event));
+        }
+        StringBuilder sb = new StringBuilder();
+        sb.append("<listener event=\"").append(event).append("\" class=\"solr.QuerySenderListener\">\n");
+        sb.append("  <arr name=\"queries\">\n");
+        for (SolrFilterQuery filterQuery : getMostFrequentFilterQueries(limit)) {
+            sb.append("    <lst>\n");
+            sb.append("      <str name=\"q\">*:*</str>\n");
+            sb.append("      <str name=\"fq\">").append(escapeXml(filterQuery.queryString())).append("</str>\n");
+            sb.append("      <str name=\"rows\">0</str>\n");
+            sb.append("    </lst>\n");
+        }
+        sb.append("  </arr>\n");
+        sb.append("</listener>\n");
+        return sb.toString();
+    }
+
+    /**
+     * Replays the most frequent filter queries (one count request per filter query) to warm the filterCache of the current searcher, e.g., right after a
+     * commit.
+     * 
+     * @param executor to send the requests, NOT NULL
+     * @param limit maximum number of warming queries
+     * @return number of warming queries sent
+     * @throws SolrQueryExecutionException if any request failed
+     */
+    public int warmUp(SolrQueryExecutor executor, int limit) {
+        if (executor == null) {
+            throw new IllegalArgumentException("Argument executor must not be null.");
+        }
+        List<SolrFilterQuery> filterQueries = getMostFrequentFilterQueries(limit);
+        for (SolrFilterQuery filterQuery : filterQueries) {
+            executor.count(new SolrQueryDefinition(null, List.of(filterQuery), null));
+        }
+        LOGGER.debug("Sent {} warming queries.", filterQueries.size());
+        return filterQueries.size();
+    }
+
+    private static String escapeXml(String value) {
+        StringBuilder sb = new StringBuilder(value.length() + 16);
+        for (int i = 0; i < value.length(); i++) {
+            char ch = value.charAt(i);
+            switch (ch) {
+            case '&' -> sb.append("&amp;");
+            case '<' -> sb.append("&lt;");
+            case '>' -> sb.append("&gt;");
+            case '"' -> sb.append("&quot;");
+            case '\'' -> sb.append("&apos;");
+            default -> sb.append(ch);
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * @param filterQuery first recorded instance
+     * @param frequency number of times recorded (reduced by decay)
+     */
+    private record TrackedFilterQuery(SolrFilterQuery filterQuery, AtomicLong frequency) {
+    }
+
+    /**
+     * @param filterQuery
+     * @param frequency frequency at the time the snapshot was taken
+     */
+    private record FrequencySnapshot(SolrFilterQuery filterQuery, long frequency) {
+    }
+
+}
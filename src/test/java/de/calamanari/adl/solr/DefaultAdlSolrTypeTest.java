@@ -241,6 +241,31 @@ class DefaultAdlSolrTypeTest {
 
     }
 
+    @Test
+    void testStorage() {
+
+        assertEquals(SolrFieldStorage.INDEXED, SOLR_STRING.getStorage());
+        assertSame(SOLR_STRING, SOLR_STRING.withStorage(null));
+        assertSame(SOLR_STRING, SOLR_STRING.withStorage(SolrFieldStorage.INDEXED));
+
+        AdlSolrType docValuesType = SOLR_STRING.withStorage(SolrFieldStorage.DOC_VALUES_ONLY);
+        assertDerived(SOLR_STRING, docValuesType);
+        assertEquals(SolrFieldStorage.DOC_VALUES_ONLY, docValuesType.getStorage());
+        assertEquals(SOLR_STRING.getFormatter(), docValuesType.getFormatter());
+        assertFalse(docValuesType.getStorage().isIndexed());
+        assertTrue(docValuesType.getStorage().hasDocValues());
+
+        // storage survives further decoration
+        AdlSolrType customType = docValuesType.withFormatter((_, argValue, _) -> argValue);
+        assertEquals(SolrFieldStorage.DOC_VALUES_ONLY, customType.getStorage());
+        assertEquals(SolrFieldStorage.INDEXED_WITH_DOC_VALUES, customType.withStorage(SolrFieldStorage.INDEXED_WITH_DOC_VALUES).getStorage());
+
+        assertTrue(SolrFieldStorage.INDEXED_WITH_DOC_VALUES.isIndexed());
+        assertTrue(SolrFieldStorage.INDEXED_WITH_DOC_VALUES.hasDocValues());
+        assertFalse(SolrFieldStorage.INDEXED.hasDocValues());
+
+    }
+
     private static void assertDerived(AdlSolrType baseType, AdlSolrType customType) {
 
         assertNotEquals(baseType, customType);
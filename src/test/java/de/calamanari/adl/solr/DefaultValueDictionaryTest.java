@@ -0,0 +1,102 @@
+//@formatter:off
+/*
+ * DefaultValueDictionaryTest
+ * Copyright 2025 Karl Eilebrecht
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"):
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+//@formatter:on
+
+package de.calamanari.adl.solr;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import de.calamanari.adl.DeepCopyUtils;
+import de.calamanari.adl.cnv.tps.ConfigException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * @author <a href="mailto:Karl.Eilebrecht(a/t)calamanari.de">Karl Eilebrecht</a>
+ */
+class DefaultValueDictionaryTest {
+
+    @Test
+    void testBasics() {
+        DefaultValueDictionary dictionary = DefaultValueDictionary.of(Map.of("PRD-4711", 1, "PRD-4712", 2, "XPRD-17", 17L));
+
+        assertEquals(3, dictionary.size());
+        assertEquals(1L, dictionary.lookupCode("PRD-4711"));
+        assertEquals(17L, dictionary.lookupCode("XPRD-17"));
+        assertNull(dictionary.lookupCode("PRD-0000"));
+        assertNull(dictionary.lookupCode(null));
+
+        assertEquals(List.of(1L, 2L, 17L), dictionary.findCodes(value -> value.contains("PRD")));
+        assertEquals(List.of(1L, 2L), dictionary.findCodes(value -> value.startsWith("PRD")));
+        assertEquals(List.of(), dictionary.findCodes(value -> value.startsWith("Y")));
+
+        assertEquals("DefaultValueDictionary[size=3]", dictionary.toString());
+
+        assertEquals(dictionary.toMap(), DeepCopyUtils.deepCopy(dictionary).toMap());
+
+        Map<String, Integer> badMap = new HashMap<>();
+        badMap.put("A", null);
+        assertThrows(ConfigException.class, () -> DefaultValueDictionary.of(badMap));
+        assertThrows(ConfigException.class, () -> DefaultValueDictionary.of(Map.of("", 1)));
+        assertThrows(ConfigException.class, () -> DefaultValueDictionary.of(Map.of("A", 1, "B", 1)));
+        assertThrows(ConfigException.class, () -> DefaultValueDictionary.of(null));
+    }
+
+    @Test
+    void testLoad(@TempDir Path tempDir) throws IOException {
+
+        DefaultValueDictionary dictionary = DefaultValueDictionary.load(new StringReader("""
+                # product codes
+                PRD-4711\t1
+
+                PRD 4712\t 2
+                """));
+
+        assertEquals(2, dictionary.size());
+        assertEquals(2L, dictionary.lookupCode("PRD 4712"));
+
+        Path file = tempDir.resolve("dictionary.txt");
+        Files.writeString(file, "Müller\t-3\nMeier\t4\n", StandardCharsets.UTF_8);
+
+        dictionary = DefaultValueDictionary.load(file);
+        assertEquals(-3L, dictionary.lookupCode("Müller"));
+        assertEquals(List.of(-3L, 4L), dictionary.findCodes(_ -> true));
+
+        assertThrows(ConfigException.class, () -> DefaultValueDictionary.load(new StringReader("PRD-4711 1")));
+        assertThrows(ConfigException.class, () -> DefaultValueDictionary.load(new StringReader("PRD-4711\tx")));
+        assertThrows(ConfigException.class, () -> DefaultValueDictionary.load(new StringReader("\t1")));
+        assertThrows(ConfigException.class, () -> DefaultValueDictionary.load(new StringReader("A\t1\nA\t2")));
+        assertThrows(ConfigException.class, () -> DefaultValueDictionary.load(new StringReader("A\t1\nB\t1")));
+        assertThrows(ConfigException.class, () -> DefaultValueDictionary.load(tempDir.resolve("missing.txt")));
+        assertThrows(ConfigException.class, () -> DefaultValueDictionary.load((Path) null));
+
+    }
+
+}
@@ -0,0 +1,107 @@
+//@formatter:off
+/*
+ * DictionaryEncodedSolrTypeTest
+ * Copyright 2025 Karl Eilebrecht
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"):
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+//@formatter:on
+
+package de.calamanari.adl.solr;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import de.calamanari.adl.DeepCopyUtils;
+import de.calamanari.adl.cnv.tps.AdlFormattingException;
+import de.calamanari.adl.cnv.tps.ConfigException;
+import de.calamanari.adl.irl.MatchOperator;
+
+import static de.calamanari.adl.cnv.tps.DefaultAdlType.DATE;
+import static de.calamanari.adl.cnv.tps.DefaultAdlType.INTEGER;
+import static de.calamanari.adl.cnv.tps.DefaultAdlType.STRING;
+import static de.calamanari.adl.solr.DefaultAdlSolrType.SOLR_INTEGER;
+import static de.calamanari.adl.solr.DefaultAdlSolrType.SOLR_LONG;
+import static de.calamanari.adl.solr.DefaultAdlSolrType.SOLR_STRING;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author <a href="mailto:Karl.Eilebrecht(a/t)calamanari.de">Karl Eilebrecht</a>
+ */
+class DictionaryEncodedSolrTypeTest {
+
+    private static final ValueDictionary DICTIONARY = DefaultValueDictionary.of(Map.of("PRD-4711", 1, "PRD-4712", 2, "PRD-BIG", 3_000_000_000L));
+
+    @Test
+    void testBasics() {
+
+        DictionaryEncodedSolrType type = new DictionaryEncodedSolrType(SOLR_INTEGER, DICTIONARY);
+
+        assertSame(SOLR_INTEGER, type.getBaseType());
+        assertSame(SOLR_INTEGER, type.getCodeType());
+        assertSame(DICTIONARY, type.getDictionary());
+        assertTrue(type.name().startsWith("SOLR_INTEGER-DICT-"));
+        assertEquals(type.name(), type.toString());
+        assertNotEquals(type.name(), new DictionaryEncodedSolrType(SOLR_INTEGER, DICTIONARY).name());
+        assertEquals("PRODUCT", new DictionaryEncodedSolrType("PRODUCT", SOLR_LONG, DICTIONARY).name());
+
+        assertTrue(type.supportsContains());
+        assertTrue(type.supportsLessThanGreaterThan());
+
+        assertTrue(type.isCompatibleWith(STRING));
+        assertFalse(type.isCompatibleWith(INTEGER));
+        assertFalse(type.isCompatibleWith(DATE));
+        assertFalse(type.isCompatibleWith(SOLR_STRING));
+
+        assertEquals(SolrFieldStorage.INDEXED, type.getStorage());
+        AdlSolrType docValuesType = type.withStorage(SolrFieldStorage.DOC_VALUES_ONLY);
+        assertTrue(docValuesType instanceof DictionaryEncodedSolrType);
+        assertEquals(SolrFieldStorage.DOC_VALUES_ONLY, docValuesType.getStorage());
+        assertSame(DICTIONARY, ((DictionaryEncodedSolrType) docValuesType).getDictionary());
+        assertSame(type, type.withStorage(SolrFieldStorage.INDEXED));
+
+        assertThrows(ConfigException.class, () -> new DictionaryEncodedSolrType(SOLR_STRING, DICTIONARY));
+        assertThrows(ConfigException.class, () -> new DictionaryEncodedSolrType(null, DICTIONARY));
+        assertThrows(ConfigException.class, () -> new DictionaryEncodedSolrType(SOLR_INTEGER, null));
+
+    }
+
+    @Test
+    void testFormat() {
+
+        DictionaryEncodedSolrType type = new DictionaryEncodedSolrType(SOLR_INTEGER, DICTIONARY);
+
+        assertEquals("2", type.getFormatter().format("product", "PRD-4712", MatchOperator.EQUALS));
+        assertEquals("7", type.formatCode("product", 7));
+
+        assertThrows(AdlFormattingException.class, () -> type.getFormatter().format("product", "PRD-0000", MatchOperator.EQUALS));
+
+        // code out of integer range
+        assertThrows(AdlFormattingException.class, () -> type.getFormatter().format("product", "PRD-BIG", MatchOperator.EQUALS));
+
+        DictionaryEncodedSolrType typeLong = new DictionaryEncodedSolrType(SOLR_LONG, DICTIONARY);
+        assertEquals("3000000000", typeLong.getFormatter().format("product", "PRD-BIG", MatchOperator.EQUALS));
+
+        DictionaryEncodedSolrType typeCopy = DeepCopyUtils.deepCopy(type);
+        assertEquals(type.name(), typeCopy.name());
+        assertEquals("1", typeCopy.getFormatter().format("product", "PRD-4711", MatchOperator.EQUALS));
+
+    }
+
+}
@@ -0,0 +1,171 @@
+//@formatter:off
+/*
+ * EmbeddedSearchStream
+ * Copyright 2025 Karl Eilebrecht
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"):
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+//@formatter:on
+
+package de.calamanari.adl.solr;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+import org.apache.solr.client.solrj.SolrClient;
+import org.apache.solr.client.solrj.SolrServerException;
+import org.apache.solr.client.solrj.io.Tuple;
+import org.apache.solr.client.solrj.io.comp.FieldComparator;
+import org.apache.solr.client.solrj.io.comp.StreamComparator;
+import org.apache.solr.client.solrj.io.stream.StreamContext;
+import org.apache.solr.client.solrj.io.stream.TupleStream;
+import org.apache.solr.client.solrj.io.stream.expr.Explanation;
+import org.apache.solr.client.solrj.io.stream.expr.Explanation.ExpressionType;
+import org.apache.solr.client.solrj.io.stream.expr.Expressible;
+import org.apache.solr.client.solrj.io.stream.expr.StreamExplanation;
+import org.apache.solr.client.solrj.io.stream.expr.StreamExpression;
+import org.apache.solr.client.solrj.io.stream.expr.StreamExpressionNamedParameter;
+import org.apache.solr.client.solrj.io.stream.expr.StreamExpressionParameter;
+import org.apache.solr.client.solrj.io.stream.expr.StreamExpressionValue;
+import org.apache.solr.client.solrj.io.stream.expr.StreamFactory;
+import org.apache.solr.client.solrj.request.SolrQuery;
+import org.apache.solr.client.solrj.request.SolrQuery.ORDER;
+import org.apache.solr.client.solrj.response.QueryResponse;
+import org.apache.solr.common.SolrDocument;
+
+/**
+ * The {@link EmbeddedSearchStream} replaces the streaming function <code>search</code> for tests with the {@link EmbeddedSolrServer}, which neither supports
+ * the <code>/stream</code> nor the <code>/export</code> handler.
+ * <p>
+ * It runs the query of the search as a regular sorted query against the client from the stream context (key {@link #SOLR_CLIENT_KEY}), so that the original
+ * stream decorators of SolrJ (<code>innerJoin</code>, <code>intersect</code>, <code>complement</code>, <code>merge</code>, <code>unique</code>) can process the results.
+ * <p>
+ * Only single-valued fields and a single sort field are supported, the number of results is limited to {@value EmbeddedSolrServerUtils#MAX_RETURNED_DOCS}.
+ * 
+ * @author <a href="mailto:Karl.Eilebrecht(a/t)calamanari.de">Karl Eilebrecht</a>
+ */
+public class EmbeddedSearchStream extends TupleStream implements Expressible {
+
+    private static final long serialVersionUID = 4406125538329318624L;
+
+    /**
+     * Key of the {@link SolrClient} in the {@link StreamContext}
+     */
+    public static final String SOLR_CLIENT_KEY = "embeddedSolrClient";
+
+    private final String collectionName;
+
+    private final String query;
+
+    private final String fieldName;
+
+    private final String sort;
+
+    private final StreamComparator comparator;
+
+    private transient SolrClient solrClient;
+
+    private transient Iterator<Tuple> tuples;
+
+    /**
+     * Constructor required by the {@link StreamFactory}
+     * 
+     * @param expression
+     * @param factory
+     * @throws IOException
+     */
+    public EmbeddedSearchStream(StreamExpression expression, StreamFactory factory) throws IOException {
+        this.collectionName = factory.getValueOperand(expression, 0);
+        this.query = getNamedValue(expression, factory, "q");
+        this.fieldName = getNamedValue(expression, factory, "fl");
+        this.sort = getNamedValue(expression, factory, "sort");
+        if (fieldName.indexOf(',') > -1 || !sort.equals(fieldName + " asc")) {
+            throw new IOException(String.format("Only a single field sorted ascending is supported, given: fl=%s, sort=%s", fieldName, sort));
+        }
+        this.comparator = factory.constructComparator(sort, FieldComparator.class);
+    }
+
+    private static String getNamedValue(StreamExpression expression, StreamFactory factory, String name) throws IOException {
+        StreamExpressionNamedParameter param = factory.getNamedOperand(expression, name);
+        if (param == null || !(param.getParameter() instanceof StreamExpressionValue value)) {
+            throw new IOException(String.format("Missing parameter %s, given: %s", name, expression));
+        }
+        return value.getValue();
+    }
+
+    @Override
+    public void setStreamContext(StreamContext context) {
+        this.solrClient = (SolrClient) context.get(SOLR_CLIENT_KEY);
+    }
+
+    @Override
+    public List<TupleStream> children() {
+        return Collections.emptyList();
+    }
+
+    @Override
+    public void open() throws IOException {
+        SolrQuery solrQuery = new SolrQuery();
+        solrQuery.setQuery(query);
+        solrQuery.setFields(fieldName);
+        solrQuery.setSort(fieldName, ORDER.asc);
+        solrQuery.setRows(EmbeddedSolrServerUtils.MAX_RETURNED_DOCS);
+        try {
+            QueryResponse response = solrClient.query(collectionName, solrQuery);
+            if (response.getResults().getNumFound() > EmbeddedSolrServerUtils.MAX_RETURNED_DOCS) {
+                throw new IOException("Too many results: " + response.getResults().getNumFound());
+            }
+            List<Tuple> res = new ArrayList<>(response.getResults().size());
+            for (SolrDocument document : response.getResults()) {
+                res.add(new Tuple(fieldName, String.valueOf(document.getFieldValue(fieldName))));
+            }
+            this.tuples = res.iterator();
+        }
+        catch (SolrServerException ex) {
+            throw new IOException(ex);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.tuples = null;
+    }
+
+    @Override
+    public Tuple read() throws IOException {
+        return tuples.hasNext() ? tuples.next() : Tuple.EOF();
+    }
+
+    @Override
+    public StreamComparator getStreamSort() {
+        return comparator;
+    }
+
+    @Override
+    public StreamExpressionParameter toExpression(StreamFactory factory) throws IOException {
+        return new StreamExpression(factory.getFunctionName(this.getClass())).withParameter(collectionName)
+                .withParameter(new StreamExpressionNamedParameter("q", query)).withParameter(new StreamExpressionNamedParameter("fl", fieldName))
+                .withParameter(new StreamExpressionNamedParameter("sort", sort));
+    }
+
+    @Override
+    public Explanation toExplanation(StreamFactory factory) throws IOException {
+        return new StreamExplanation(getStreamNodeId().toString()).withFunctionName(factory.getFunctionName(this.getClass()))
+                .withImplementingClass(this.getClass().getName()).withExpressionType(ExpressionType.STREAM_SOURCE)
+                .withExpression(toExpression(factory).toString());
+    }
+
+}
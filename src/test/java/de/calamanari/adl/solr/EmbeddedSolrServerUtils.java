@@ -34,9 +34,19 @@ import java.util.stream.Collectors;
 import org.apache.solr.client.solrj.SolrClient;
 import org.apache.solr.client.solrj.SolrServerException;
 import org.apache.solr.client.solrj.embedded.EmbeddedSolrServer;
+import org.apache.solr.client.solrj.io.Tuple;
+import org.apache.solr.client.solrj.io.stream.ComplementStream;
+import org.apache.solr.client.solrj.io.stream.InnerJoinStream;
+import org.apache.solr.client.solrj.io.stream.IntersectStream;
+import org.apache.solr.client.solrj.io.stream.MergeStream;
+import org.apache.solr.client.solrj.io.stream.StreamContext;
+import org.apache.solr.client.solrj.io.stream.TupleStream;
+import org.apache.solr.client.solrj.io.stream.UniqueStream;
+import org.apache.solr.client.solrj.io.stream.expr.StreamFactory;
 import org.apache.solr.client.solrj.request.CoreAdminRequest;
 import org.apache.solr.client.solrj.request.SolrQuery;
 import org.apache.solr.client.solrj.request.SolrQuery.ORDER;
+import org.apache.solr.client.solrj.request.json.DirectJsonQueryRequest;
 import org.apache.solr.client.solrj.response.QueryResponse;
 import org.apache.solr.common.SolrDocumentList;
 import org.apache.solr.common.SolrInputDocument;
@@ -547,7 +557,7 @@ public class EmbeddedSolrServerUtils {
         solrQuery.setFilterQueries(query.filterQueries().stream().map(SolrFilterQuery::queryString).toArray(String[]::new));
         solrQuery.setRows(MAX_RETURNED_DOCS);
         switch (queryType) {
-        case SELECT_COUNT:
+        case SELECT_COUNT, SELECT_COUNT_WITH_FACETS:
             solrQuery.setRows(0);
             break;
         case SELECT_DOCUMENTS:
@@ -582,6 +592,83 @@ public class EmbeddedSolrServerUtils {
         }
     }
 
+    /**
+     * Queries the documents filtered by the given JSON query definition using the JSON Request API.
+     * 
+     * @param solrClient
+     * @param query
+     * @param fields comma-separated list of fields to be returned
+     * @return query response (number of results limited to {@value #MAX_RETURNED_DOCS} max)
+     */
+    public static QueryResponse queryJson(SolrClient solrClient, SolrJsonQueryDefinition query, String fields) {
+        String request = query.toJsonRequest();
+        request = request.substring(0, request.length() - 1) + ",\"limit\":" + MAX_RETURNED_DOCS + ",\"fields\":\"" + fields + "\"}";
+        try {
+            return new DirectJsonQueryRequest(request).process(solrClient);
+        }
+        catch (SolrServerException | IOException ex) {
+            throw new RuntimeException(ex);
+        }
+    }
+
+    /**
+     * Queries the document ids as integer filtered by the given JSON query definition (of course this only works if the ids are numeric).
+     * 
+     * @param solrClient
+     * @param query
+     * @return document ids as integers, sorted ascending (for convenient display and comparison)
+     */
+    public static List<Integer> queryIntIdsSorted(SolrClient solrClient, SolrJsonQueryDefinition query) {
+        return queryJson(solrClient, query, query.uniqueKeyFieldName()).getResults().stream().map(e -> e.getFieldValue(query.uniqueKeyFieldName()))
+                .map(String::valueOf).map(Integer::valueOf).sorted().toList();
+    }
+
+    /**
+     * Evaluates the given streaming expression with the original stream decorators of SolrJ, the searches will be executed by {@link EmbeddedSearchStream}s
+     * against the given client.
+     * 
+     * @param solrClient
+     * @param query
+     * @return document ids in the order returned by the stream
+     */
+    public static List<String> queryIds(SolrClient solrClient, SolrStreamingQueryDefinition query) {
+        // @formatter:off
+        StreamFactory factory = new StreamFactory()
+                .withFunctionName("search", EmbeddedSearchStream.class)
+                .withFunctionName("innerJoin", InnerJoinStream.class)
+                .withFunctionName("intersect", IntersectStream.class)
+                .withFunctionName("complement", ComplementStream.class)
+                .withFunctionName("merge", MergeStream.class)
+                .withFunctionName("unique", UniqueStream.class);
+        // @formatter:on
+        StreamContext streamContext = new StreamContext();
+        streamContext.put(EmbeddedSearchStream.SOLR_CLIENT_KEY, solrClient);
+        List<String> res = new ArrayList<>();
+        try (TupleStream stream = factory.constructStream(query.expression())) {
+            stream.setStreamContext(streamContext);
+            stream.open();
+            for (Tuple tuple = stream.read(); !tuple.EOF; tuple = stream.read()) {
+                res.add(tuple.getString(query.uniqueKeyFieldName()));
+            }
+        }
+        catch (IOException ex) {
+            throw new RuntimeException(ex);
+        }
+        return res;
+    }
+
+    /**
+     * Evaluates the given streaming expression (see {@link #queryIds(SolrClient, SolrStreamingQueryDefinition)}) and returns the document ids as integers (of
+     * course this only works if the ids are numeric).
+     * 
+     * @param solrClient
+     * @param query
+     * @return document ids as integers, sorted ascending (for convenient display and comparison)
+     */
+    public static List<Integer> queryIntIdsSorted(SolrClient solrClient, SolrStreamingQueryDefinition query) {
+        return queryIds(solrClient, query).stream().map(Integer::valueOf).sorted().toList();
+    }
+
     /**
      * Queries the number of documents matched by the given query string.
      * <p>
@@ -0,0 +1,146 @@
+//@formatter:off
+/*
+ * SolrDateUtilsTest
+ * Copyright 2025 Karl Eilebrecht
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"):
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+//@formatter:on
+
+package de.calamanari.adl.solr;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TimeZone;
+
+import org.junit.jupiter.api.Disabled;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import de.calamanari.adl.cnv.tps.AdlDateUtils;
+import de.calamanari.adl.cnv.tps.DefaultArgValueFormatter;
+import de.calamanari.adl.irl.MatchOperator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author <a href="mailto:Karl.Eilebrecht(a/t)calamanari.de">Karl Eilebrecht</a>
+ */
+class SolrDateUtilsTest {
+
+    static final Logger LOGGER = LoggerFactory.getLogger(SolrDateUtilsTest.class);
+
+    @Test
+    void testBasics() {
+
+        assertEquals(0L, SolrDateUtils.tryParseUtcMillis("1970-01-01"));
+        assertEquals(86_400_000L, SolrDateUtils.tryParseUtcMillis("1970-01-02"));
+        assertEquals(AdlDateUtils.INVALID_DATE, SolrDateUtils.tryParseUtcMillis(null));
+        assertEquals(AdlDateUtils.INVALID_DATE, SolrDateUtils.tryParseUtcMillis("2024-02-30"));
+        assertEquals(AdlDateUtils.INVALID_DATE, SolrDateUtils.tryParseUtcMillis("2200-01-02"));
+
+        assertTrue(SolrDateUtils.isValidDate("2024-02-29"));
+        assertFalse(SolrDateUtils.isValidDate("2023-02-29"));
+        assertFalse(SolrDateUtils.isValidDate("2023-1-01"));
+
+        assertEquals("2024-03-01", SolrDateUtils.computeDayAfter("2024-02-29"));
+        assertEquals("2025-01-01", SolrDateUtils.computeDayAfter("2024-12-31"));
+        assertEquals("2200-01-02", SolrDateUtils.computeDayAfter("2200-01-01"));
+        assertEquals(AdlDateUtils.MIN_DATE, SolrDateUtils.computeDayAfter("foo"));
+
+        assertTrue(SolrDateUtils.isFullTimestamp("2025-07-03 17:23:48"));
+        assertFalse(SolrDateUtils.isFullTimestamp("2025-07-03 24:00:00"));
+        assertFalse(SolrDateUtils.isFullTimestamp("2025-07-03T17:23:48"));
+        assertFalse(SolrDateUtils.isFullTimestamp("2025-07-03"));
+        assertFalse(SolrDateUtils.isFullTimestamp(null));
+
+        assertEquals("2025-07-03", SolrDateUtils.formatArgDate(DefaultArgValueFormatter.DATE, "arg", "2025-07-03", MatchOperator.EQUALS));
+        assertThrows(RuntimeException.class, () -> SolrDateUtils.formatArgDate(DefaultArgValueFormatter.DATE, "arg", "2025-07-32", MatchOperator.EQUALS));
+
+    }
+
+    @Test
+    void testSameAsLegacy() {
+
+        List<String> values = new ArrayList<>(List.of("0001-01-01", "0000-12-31", "1582-10-04", "1582-10-10", "1582-10-15", "1500-02-29", "1600-02-29",
+                "1900-02-29", "2000-02-29", "2199-12-31", "2200-01-01", "2200-01-02", "9999-12-31", "2024-13-01", "2024-00-10", "2024-01-00", "2024-01-32",
+                "+024-01-01", "2024-0a-01", "2024/01/01", "2024-01-01 ", " 2024-01-01", ""));
+
+        Random rand = new Random(4711);
+        for (int i = 0; i < 100_000; i++) {
+            values.add(String.format("%04d-%02d-%02d", rand.nextInt(2300), rand.nextInt(14), rand.nextInt(33)));
+        }
+
+        for (String value : values) {
+            assertEquals(AdlDateUtils.tryParseUtcMillis(value), SolrDateUtils.tryParseUtcMillis(value), value);
+            assertEquals(AdlDateUtils.computeDayAfter(value), SolrDateUtils.computeDayAfter(value), value);
+            String timestamp = value + String.format(" %02d:%02d:%02d", rand.nextInt(25), rand.nextInt(61), rand.nextInt(61));
+            assertEquals(isLegacyFullTimestamp(timestamp), SolrDateUtils.isFullTimestamp(timestamp), timestamp);
+        }
+
+    }
+
+    @Test
+    @Disabled("Benchmark, takes a while")
+    void benchmarkDateAlignment() {
+
+        List<String> values = new ArrayList<>();
+        Random rand = new Random(4711);
+        for (int i = 0; i < 1_000_000; i++) {
+            values.add(String.format("%04d-%02d-%02d", 1970 + rand.nextInt(100), 1 + rand.nextInt(12), 1 + rand.nextInt(28)));
+        }
+
+        for (int run = 0; run < 3; run++) {
+            long startTimeNanos = System.nanoTime();
+            int count = 0;
+            for (String value : values) {
+                String beginOfDay = DefaultArgValueFormatter.DATE.format("arg", value, MatchOperator.EQUALS);
+                String beginOfNextDay = AdlDateUtils.computeDayAfter(DefaultArgValueFormatter.DATE.format("arg", value, MatchOperator.EQUALS));
+                count = count + DefaultSolrFormatter.SOLR_DATE.format("arg", beginOfDay, MatchOperator.EQUALS).length()
+                        + DefaultSolrFormatter.SOLR_DATE.format("arg", beginOfNextDay, MatchOperator.EQUALS).length();
+            }
+            long legacyMillis = (System.nanoTime() - startTimeNanos) / 1_000_000;
+
+            startTimeNanos = System.nanoTime();
+            for (String value : values) {
+                String beginOfDay = SolrDateUtils.formatArgDate(DefaultArgValueFormatter.DATE, "arg", value, MatchOperator.EQUALS);
+                String beginOfNextDay = SolrDateUtils.computeDayAfter(beginOfDay);
+                count = count + DefaultSolrFormatter.SOLR_DATE.format("arg", beginOfDay, MatchOperator.EQUALS).length()
+                        + DefaultSolrFormatter.SOLR_DATE.format("arg", beginOfNextDay, MatchOperator.EQUALS).length();
+            }
+            long fastMillis = (System.nanoTime() - startTimeNanos) / 1_000_000;
+
+            LOGGER.info("{} date alignments: legacy={} ms, java.time={} ms ({})", values.size(), legacyMillis, fastMillis, count);
+        }
+
+    }
+
+    private static boolean isLegacyFullTimestamp(String value) {
+        SimpleDateFormat sdf = new SimpleDateFormat(AdlDateUtils.AUDLANG_DATE_FORMAT + " HH:mm:ss");
+        sdf.setTimeZone(TimeZone.getTimeZone("UTC"));
+        try {
+            return value.equals(sdf.format(sdf.parse(value)));
+        }
+        catch (ParseException ex) {
+            return false;
+        }
+    }
+
+}
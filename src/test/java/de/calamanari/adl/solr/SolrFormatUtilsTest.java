@@ -69,6 +69,39 @@ class SolrFormatUtilsTest {
 
     }
 
+    @Test
+    void testUnescape() {
+
+        assertThrows(NullPointerException.class, () -> SolrFormatUtils.unescape(null));
+
+        String input = "TheQuickBrownFoxJumpedOverTheLazyDog";
+        assertSame(input, SolrFormatUtils.unescape(input));
+
+        for (String value : new String[] { "", "+a", "ab+ba", "+ab+ \tb+a+", "\\+abba", "abba\\", "\\\\" }) {
+            assertEquals(value, SolrFormatUtils.unescape(SolrFormatUtils.escape(value)));
+        }
+
+        // trailing single backslash remains
+        assertEquals("a\\", SolrFormatUtils.unescape("a\\"));
+
+    }
+
+    @Test
+    void testAppendTermsHeader() {
+        StringBuilder sb = new StringBuilder();
+
+        SolrFormatUtils.appendTermsHeader(sb, "fieldName");
+
+        assertEquals("{!terms f=fieldName}", sb.toString());
+
+        sb.setLength(0);
+
+        SolrFormatUtils.appendTermsHeader(sb, "fieldName", SolrFormatConstants.TERMS_METHOD_DOC_VALUES);
+
+        assertEquals("{!terms f=fieldName method=docValuesTermsFilter}", sb.toString());
+
+    }
+
     @Test
     void testAppendCondition() {
         StringBuilder sb = new StringBuilder();
@@ -0,0 +1,67 @@
+//@formatter:off
+/*
+ * SolrInsightQueryDefinitionTest
+ * Copyright 2025 Karl Eilebrecht
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"):
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+//@formatter:on
+package de.calamanari.adl.solr;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * @author <a href="mailto:Karl.Eilebrecht(a/t)calamanari.de">Karl Eilebrecht</a>
+ */
+class SolrInsightQueryDefinitionTest {
+
+    @Test
+    void testBasics() {
+
+        assertThrows(IllegalArgumentException.class, () -> new SolrFacetDefinition(null, "{}"));
+        assertThrows(IllegalArgumentException.class, () -> new SolrFacetDefinition(" ", "{}"));
+        assertThrows(IllegalArgumentException.class, () -> new SolrFacetDefinition("color", null));
+        assertThrows(IllegalArgumentException.class, () -> new SolrFacetDefinition("color", ""));
+
+        SolrQueryDefinition queryDefinition = new SolrQueryDefinition(null, List.of(), null);
+        SolrFacetDefinition color = new SolrFacetDefinition("color", "{\"type\":\"terms\",\"field\":\"color_s\"}");
+        SolrFacetDefinition quoted = new SolrFacetDefinition("say \"hi\"", "{\"type\":\"terms\",\"field\":\"greeting_s\"}");
+
+        List<SolrFacetDefinition> badFacets = Arrays.asList(color, null);
+
+        assertThrows(IllegalArgumentException.class, () -> new SolrInsightQueryDefinition(null, List.of(color)));
+        assertThrows(IllegalArgumentException.class, () -> new SolrInsightQueryDefinition(queryDefinition, null));
+        assertThrows(IllegalArgumentException.class, () -> new SolrInsightQueryDefinition(queryDefinition, badFacets));
+        assertThrows(IllegalArgumentException.class, () -> new SolrInsightQueryDefinition(queryDefinition, List.of(color, color)));
+
+        assertEquals("{}", new SolrInsightQueryDefinition(queryDefinition, List.of()).toJsonFacetParam());
+
+        List<SolrFacetDefinition> facets = new ArrayList<>(List.of(color, quoted));
+        SolrInsightQueryDefinition definition = new SolrInsightQueryDefinition(queryDefinition, facets);
+        facets.clear();
+        assertEquals(2, definition.facets().size());
+        assertThrows(UnsupportedOperationException.class, () -> definition.facets().clear());
+
+        assertEquals("{\"color\":{\"type\":\"terms\",\"field\":\"color_s\"},\"say \\\"hi\\\"\":{\"type\":\"terms\",\"field\":\"greeting_s\"}}",
+                definition.toJsonFacetParam());
+
+    }
+
+}
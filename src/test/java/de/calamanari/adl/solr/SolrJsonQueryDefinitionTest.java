@@ -0,0 +1,56 @@
+//@formatter:off
+/*
+ * SolrJsonQueryDefinitionTest
+ * Copyright 2025 Karl Eilebrecht
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"):
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+//@formatter:on
+
+package de.calamanari.adl.solr;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * @author <a href="mailto:Karl.Eilebrecht(a/t)calamanari.de">Karl Eilebrecht</a>
+ */
+class SolrJsonQueryDefinitionTest {
+
+    @Test
+    void testBasics() {
+
+        List<String> badFilters = Arrays.asList("\"a:b\"", null);
+
+        assertThrows(IllegalArgumentException.class, () -> new SolrJsonQueryDefinition(" ", null, null));
+        assertThrows(IllegalArgumentException.class, () -> new SolrJsonQueryDefinition(null, badFilters, null));
+        assertThrows(IllegalArgumentException.class, () -> new SolrJsonQueryDefinition(null, List.of(" "), null));
+        assertThrows(IllegalArgumentException.class, () -> new SolrJsonQueryDefinition(null, null, "bad name"));
+
+        SolrJsonQueryDefinition empty = new SolrJsonQueryDefinition(null, null, null);
+        assertEquals(SolrFormatConstants.QUERY_ALL_DOCUMENTS, empty.mainQueryString());
+        assertEquals(SolrFormatConstants.DEFAULT_UNIQUE_KEY_FIELD_NAME, empty.uniqueKeyFieldName());
+        assertEquals("{\"query\":\"*:*\"}", empty.toJsonRequest());
+
+        SolrJsonQueryDefinition definition = new SolrJsonQueryDefinition(null, List.of("\"color:red\"", "{\"bool\":{\"must_not\":[\"a:\\\"b\\\"\"]}}"),
+                "key");
+        assertEquals("{\"query\":\"*:*\",\"filter\":[\"color:red\",{\"bool\":{\"must_not\":[\"a:\\\"b\\\"\"]}}]}", definition.toJsonRequest());
+
+    }
+
+}
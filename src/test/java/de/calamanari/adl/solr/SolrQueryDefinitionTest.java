@@ -31,6 +31,7 @@ import org.junit.jupiter.api.Test;
 import de.calamanari.adl.DeepCopyUtils;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -89,6 +90,15 @@ class SolrQueryDefinitionTest {
 
         assertEquals(new SolrQueryDefinition("foo", filterQueries, null), new SolrQueryDefinition(" foo ", Arrays.asList(fq3, fq1), null));
 
+        assertTrue(new SolrQueryDefinition("foo", filterQueries, null).routeKeys().isEmpty());
+        assertEquals(Arrays.asList("17!", "18!"), new SolrQueryDefinition("foo", filterQueries, null, Arrays.asList("18!", "17!", "18!")).routeKeys());
+        assertEquals(new SolrQueryDefinition("foo", filterQueries, null, Arrays.asList("17!", "18!")),
+                new SolrQueryDefinition("foo", filterQueries, null, Arrays.asList("18!", "17!")));
+        assertNotEquals(new SolrQueryDefinition("foo", filterQueries, null), new SolrQueryDefinition("foo", filterQueries, null, Arrays.asList("17!")));
+        assertThrows(IllegalArgumentException.class, () -> new SolrQueryDefinition("foo", filterQueries, null, Arrays.asList("17!", null)));
+        assertThrows(IllegalArgumentException.class, () -> new SolrQueryDefinition("foo", filterQueries, null, Arrays.asList(" ")));
+        assertThrows(IllegalArgumentException.class, () -> new SolrQueryDefinition("foo", filterQueries, null, Arrays.asList("17!,18!")));
+
     }
 
     @Test
@@ -0,0 +1,48 @@
+//@formatter:off
+/*
+ * SolrStreamingQueryDefinitionTest
+ * Copyright 2025 Karl Eilebrecht
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"):
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+//@formatter:on
+
+package de.calamanari.adl.solr;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * @author <a href="mailto:Karl.Eilebrecht(a/t)calamanari.de">Karl Eilebrecht</a>
+ */
+class SolrStreamingQueryDefinitionTest {
+
+    @Test
+    void testBasics() {
+
+        assertThrows(IllegalArgumentException.class, () -> new SolrStreamingQueryDefinition(null, "search(coll)", null));
+        assertThrows(IllegalArgumentException.class, () -> new SolrStreamingQueryDefinition(" ", "search(coll)", null));
+        assertThrows(IllegalArgumentException.class, () -> new SolrStreamingQueryDefinition("coll", null, null));
+        assertThrows(IllegalArgumentException.class, () -> new SolrStreamingQueryDefinition("coll", " ", null));
+        assertThrows(IllegalArgumentException.class, () -> new SolrStreamingQueryDefinition("coll", "search(coll)", "bad name"));
+
+        SolrStreamingQueryDefinition definition = new SolrStreamingQueryDefinition("coll", " search(coll)\n", null);
+        assertEquals("coll", definition.collectionName());
+        assertEquals("search(coll)", definition.expression());
+        assertEquals(SolrFormatConstants.DEFAULT_UNIQUE_KEY_FIELD_NAME, definition.uniqueKeyFieldName());
+
+    }
+
+}
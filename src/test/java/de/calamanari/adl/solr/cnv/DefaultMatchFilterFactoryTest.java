@@ -40,11 +40,20 @@ import de.calamanari.adl.solr.SolrConditionType;
 import de.calamanari.adl.solr.SolrFilterQuery;
 import de.calamanari.adl.solr.SolrQueryField;
 import de.calamanari.adl.solr.SolrTestBase;
+import de.calamanari.adl.solr.cnv.ast.FilterKind;
+import de.calamanari.adl.solr.cnv.ast.FilterNode;
+import de.calamanari.adl.solr.cnv.ast.FilterRange;
+import de.calamanari.adl.solr.cnv.ast.FrangeCondition;
+import de.calamanari.adl.solr.cnv.ast.RangeCondition;
+import de.calamanari.adl.solr.cnv.ast.TermCondition;
+import de.calamanari.adl.solr.cnv.ast.TermListCondition;
+import de.calamanari.adl.solr.cnv.ast.WildcardCondition;
 import de.calamanari.adl.solr.config.DataField;
 
 import static de.calamanari.adl.solr.cnv.ConversionTestUtils.createDryTestContext;
 import static de.calamanari.adl.solr.cnv.ConversionTestUtils.expr;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -299,6 +308,76 @@ class DefaultMatchFilterFactoryTest extends SolrTestBase {
 
     }
 
+    @Test
+    void testCreateMatchFilterNodeRange() {
+
+        DefaultMatchFilterFactory factory = new DefaultMatchFilterFactory(resetCtx());
+
+        assertEquals(FilterRange.ofValue("story_s", "The quick fox"), factory.createMatchFilterNode(wrap(expr("story_s=\"The quick fox\""))).range());
+        assertEquals(new FilterRange("clicks_l", null, true, "91837362674", false), factory.createMatchFilterNode(wrap(expr("clicks_l < 91837362674"))).range());
+
+        assertEquals(new FilterRange("date_of_birth", "2025-03-01T00:00:00Z", true, "2025-03-02T00:00:00Z", false),
+                factory.createMatchFilterNode(wrap(expr("date_of_birth = 2025-03-01"))).range());
+        assertEquals(new FilterRange("date_of_birth", "2025-03-02T00:00:00Z", true, null, true),
+                factory.createMatchFilterNode(wrap(expr("date_of_birth > 2025-03-01"))).range());
+
+        BetweenMatchWrapper bmw = new BetweenMatchWrapper(wrap(expr("count_i > 1")), wrap(expr("count_i < 5")));
+        FilterNode node = factory.createMatchFilterNode(bmw);
+        assertEquals("count_i:{1 TO 5}", node.filterQuery().queryString());
+        assertEquals(FilterKind.RANGE, node.kind());
+        assertEquals(new FilterRange("count_i", "1", false, "5", false), node.range());
+
+        // no range for contains, reference matches and multiple values
+        assertNull(factory.createMatchFilterNode(wrap(expr("story_s CONTAINS \"the lazy dog\""))).range());
+        assertNull(factory.createMatchFilterNode(wrap(expr("color = @taste"))).range());
+
+        List<MatchExpression> members = List.of(expr("color=blue"), expr("color=red"));
+        assertNull(factory.createMatchFilterNode(new MultiMatchWrapper(NODE_TYPE_1, members, MatchInstruction.DEFAULT, false)).range());
+
+    }
+
+    @Test
+    void testCreateMatchFilterNodeRangeCustomized() {
+
+        // a sub-class adjusting a range condition changes the rendered query and the range alike
+        DefaultMatchFilterFactory factory = new DefaultMatchFilterFactory(resetCtx()) {
+
+            @Override
+            protected RangeCondition createDateAlignedEqualsRange(MatchExpression expression, DataField field) {
+                RangeCondition range = super.createDateAlignedEqualsRange(expression, field);
+                return new RangeCondition(range.fieldName(), range.lowerBound(), true, range.upperBound(), true);
+            }
+
+        };
+
+        FilterNode node = factory.createMatchFilterNode(wrap(expr("date_of_birth = 2025-03-01")));
+        assertEquals("date_of_birth:[2025\\-03\\-01T00\\:00\\:00Z TO 2025\\-03\\-02T00\\:00\\:00Z]", node.filterQuery().queryString());
+        assertEquals(new FilterRange("date_of_birth", "2025-03-01T00:00:00Z", true, "2025-03-02T00:00:00Z", true), node.range());
+
+    }
+
+    @Test
+    void testCreateMatchFilterNodeCondition() {
+
+        DefaultMatchFilterFactory factory = new DefaultMatchFilterFactory(resetCtx());
+
+        assertEquals(new TermCondition("color", "blue"), factory.createMatchFilterNode(wrap(expr("color=blue"))).condition());
+        assertEquals(new RangeCondition("clicks_l", null, true, "91837362674", false),
+                factory.createMatchFilterNode(wrap(expr("clicks_l < 91837362674"))).condition());
+        assertEquals(new WildcardCondition("story_s", "*the\\ lazy\\ dog*"),
+                factory.createMatchFilterNode(wrap(expr("story_s CONTAINS \"the lazy dog\""))).condition());
+
+        FilterNode node = factory.createMatchFilterNode(wrap(expr("color = @taste")));
+        assertTrue(node.condition() instanceof FrangeCondition);
+        assertEquals(FilterKind.FRANGE, node.kind());
+
+        List<MatchExpression> members = List.of(expr("color=blue"), expr("color=red"));
+        node = factory.createMatchFilterNode(new MultiMatchWrapper(NODE_TYPE_1, members, MatchInstruction.DEFAULT, false));
+        assertEquals(new TermListCondition("color", List.of("blue", "red")), node.condition());
+        assertEquals(FilterKind.TERM, node.kind());
+
+    }
+
     @Test
     void testCreateFieldValueConditionSpecial() {
 
@@ -308,16 +387,16 @@ class DefaultMatchFilterFactoryTest extends SolrTestBase {
 
         DefaultMatchFilterFactory factory = new DefaultMatchFilterFactory(resetCtx());
 
-        assertThrows(IllegalArgumentException.class, () -> factory.createFieldValueCondition(expression, field, false));
-        assertThrows(IllegalArgumentException.class, () -> factory.createFieldValueCondition(expression, field, true));
+        assertThrows(IllegalArgumentException.class, () -> factory.createFieldValueConditionNode(expression, field, false));
+        assertThrows(IllegalArgumentException.class, () -> factory.createFieldValueConditionNode(expression, field, true));
 
         MatchExpression expression2 = expr("color CONTAINS red");
 
-        factory.createFieldValueCondition(expression2, field, false);
-        assertThrows(IllegalArgumentException.class, () -> factory.createFieldValueCondition(expression2, field, true));
+        factory.createFieldValueConditionNode(expression2, field, false);
+        assertThrows(IllegalArgumentException.class, () -> factory.createFieldValueConditionNode(expression2, field, true));
 
         MatchExpression expression3 = expr("color = @taste");
-        assertThrows(IllegalArgumentException.class, () -> factory.createFieldValueCondition(expression3, field, false));
+        assertThrows(IllegalArgumentException.class, () -> factory.createFieldValueConditionNode(expression3, field, false));
 
     }
 
@@ -334,7 +413,7 @@ class DefaultMatchFilterFactoryTest extends SolrTestBase {
         String argNameLeft = expression.argName();
         String argNameRight = expression.referencedArgName();
 
-        factory.createFieldFieldCondition(expression, argNameLeft, fieldLeft, argNameRight, fieldRight, false);
+        factory.createFieldFieldConditionNode(expression, argNameLeft, fieldLeft, argNameRight, fieldRight, false);
 
         assertCannotCreateFieldFieldCondition(factory, expression, argNameLeft, fieldLeft, argNameRight, fieldRight, true);
 
@@ -344,7 +423,7 @@ class DefaultMatchFilterFactoryTest extends SolrTestBase {
 
         expression = expr("age = @color");
 
-        factory.createFieldFieldCondition(expression, expression.argName(), dataFieldLeft(expression), expression.referencedArgName(),
+        factory.createFieldFieldConditionNode(expression, expression.argName(), dataFieldLeft(expression), expression.referencedArgName(),
                 dataFieldRight(expression), false);
 
         expression = expr("age = @field_in_different_document_i");
@@ -354,7 +433,7 @@ class DefaultMatchFilterFactoryTest extends SolrTestBase {
 
         expression = expr("budget_md_i = @value_i");
 
-        factory.createFieldFieldCondition(expression, expression.argName(), dataFieldLeft(expression), expression.referencedArgName(),
+        factory.createFieldFieldConditionNode(expression, expression.argName(), dataFieldLeft(expression), expression.referencedArgName(),
                 dataFieldRight(expression), false);
 
         expression = expr("budget_md_i = @value_md_i");
@@ -417,19 +496,19 @@ class DefaultMatchFilterFactoryTest extends SolrTestBase {
 
     private void assertCannotCreateFieldValueCondition(Class<? extends RuntimeException> expectedError, DefaultMatchFilterFactory factory,
             MatchExpression expression, DataField field, boolean orEquals) {
-        assertThrows(expectedError, () -> factory.createFieldValueCondition(expression, field, orEquals));
+        assertThrows(expectedError, () -> factory.createFieldValueConditionNode(expression, field, orEquals));
     }
 
     private void assertCannotCreateFieldFieldCondition(DefaultMatchFilterFactory factory, MatchExpression expression, String argNameLeft, DataField fieldLeft,
             String argNameRight, DataField fieldRight, boolean orEquals) {
         assertThrows(IllegalArgumentException.class,
-                () -> factory.createFieldFieldCondition(expression, argNameLeft, fieldLeft, argNameRight, fieldRight, orEquals));
+                () -> factory.createFieldFieldConditionNode(expression, argNameLeft, fieldLeft, argNameRight, fieldRight, orEquals));
 
     }
 
     private void assertCannotCreateFieldFieldCondition(Class<? extends RuntimeException> expectedError, DefaultMatchFilterFactory factory,
             MatchExpression expression, String argNameLeft, DataField fieldLeft, String argNameRight, DataField fieldRight, boolean orEquals) {
-        assertThrows(expectedError, () -> factory.createFieldFieldCondition(expression, argNameLeft, fieldLeft, argNameRight, fieldRight, orEquals));
+        assertThrows(expectedError, () -> factory.createFieldFieldConditionNode(expression, argNameLeft, fieldLeft, argNameRight, fieldRight, orEquals));
 
     }
 
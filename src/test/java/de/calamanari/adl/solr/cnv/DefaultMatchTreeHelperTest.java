@@ -27,6 +27,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import de.calamanari.adl.CombinedExpressionType;
+import de.calamanari.adl.ConversionException;
 import de.calamanari.adl.solr.SolrTestBase;
 
 import static de.calamanari.adl.solr.cnv.ConversionTestUtils.assertEqualsIgnoreElementOrder;
@@ -38,6 +39,7 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
  * @author <a href="mailto:Karl.Eilebrecht(a/t)calamanari.de">Karl Eilebrecht</a>
@@ -1090,6 +1092,67 @@ class DefaultMatchTreeHelperTest extends SolrTestBase {
 
     }
 
+    @Test
+    void testConsolidateRangeIntersection() {
+
+        assertEquals("SingleMatchWrapper *_[nodeType=node1, type=VALUE_MATCH, matchExpression=age > 30, matchInstruction=DEFAULT]",
+                consolidate("age > 20 AND age > 30").toString());
+
+        assertEquals("SingleMatchWrapper *_[nodeType=node1, type=VALUE_MATCH, matchExpression=age = 7, matchInstruction=DEFAULT]",
+                consolidate("age any of (3, 7) AND age > 5").toString());
+
+        // @formatter:off
+
+        assertEquals(
+                "BetweenMatchWrapper *_[nodeType=node1, type=VALUE_GT_AND_LTE_MATCH, argName=age, "
+                        + "members=[age > 20, age < 30, age = 30], matchInstruction=DEFAULT]",
+                consolidate("age >= 18 AND age > 20 AND age < 40 AND age <= 30").toString());
+
+        // @formatter:on
+
+        assertEquals("SingleMatchWrapper *_[nodeType=node1, type=VALUE_MATCH, matchExpression=date_of_birth > 2024-03-11, matchInstruction=DEFAULT]",
+                consolidate("date_of_birth > 2024-01-01 AND date_of_birth > 2024-03-11").toString());
+
+        // collection fields are not subject to interval algebra
+        assertTrue(consolidate("numbers > 5 AND numbers > 7") instanceof CombinedMatchTreeElement);
+
+    }
+
+    @Test
+    void testConsolidateRangeIntersectionEmpty() {
+
+        assertThrows(ConversionException.class, () -> consolidate("age > 30 AND age < 20"));
+        assertThrows(ConversionException.class, () -> consolidate("age >= 30 AND age < 30"));
+        assertThrows(ConversionException.class, () -> consolidate("date_of_birth < 2024-01-01 AND date_of_birth > 2024-03-11 AND color = red"));
+
+        assertEquals("SingleMatchWrapper *_[nodeType=node1, type=VALUE_MATCH, matchExpression=color = red, matchInstruction=DEFAULT]",
+                consolidate("(age > 30 AND age < 20) OR color = red").toString());
+
+    }
+
+    @Test
+    void testConsolidateRangeUnion() {
+
+        // @formatter:off
+
+        assertEquals(
+                "BetweenMatchWrapper *_[nodeType=node1, type=VALUE_GTE_AND_LTE_MATCH, argName=age, "
+                        + "members=[age > 1, age = 1, age < 9, age = 9], matchInstruction=DEFAULT]",
+                consolidate("age BETWEEN(1,5) OR age BETWEEN(4,9)").toString());
+
+        // @formatter:on
+
+        assertEquals("SingleMatchWrapper *_[nodeType=node1, type=VALUE_MATCH, matchExpression=age > 5, matchInstruction=DEFAULT]",
+                consolidate("age > 5 OR age > 10 OR age = 7").toString());
+
+        MatchTreeElement res = consolidate("age > 5 OR age < 8");
+        assertTrue(res instanceof SingleMatchWrapper smw && smw.type() == MatchWrapperType.ANY_VALUE_MATCH && !smw.isNegation());
+
+        // disjoint ranges remain untouched
+        assertTrue(consolidate("age > 18 OR age < 5") instanceof CombinedMatchTreeElement);
+
+    }
+
     private MatchTreeElement consolidate(String expression) {
         return helper.consolidateMatchTree(matchTreeOf(expression, ctx));
     }
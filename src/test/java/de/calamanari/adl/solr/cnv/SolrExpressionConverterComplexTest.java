@@ -20,6 +20,7 @@
 package de.calamanari.adl.solr.cnv;
 
 import java.io.IOException;
+import java.util.List;
 
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
@@ -29,6 +30,10 @@ import org.slf4j.LoggerFactory;
 import de.calamanari.adl.CommonErrors;
 import de.calamanari.adl.solr.EmbeddedSolrServerUtils;
 import de.calamanari.adl.solr.SolrTestBase;
+import de.calamanari.adl.solr.config.CachingSolrMappingConfig;
+import de.calamanari.adl.solr.config.SolrMappingConfig;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
 
 /**
  * @author <a href="mailto:Karl.Eilebrecht(a/t)calamanari.de">Karl Eilebrecht</a>
@@ -187,15 +192,6 @@ class SolrExpressionConverterComplexTest extends SolrTestBase {
                 node_type:profile
                 AND (
                     (
-                        node_type:profile
-                        AND NOT bstate:*
-                    )
-                    OR (
-                        node_type:profile
-                        AND NOT {!join from=main_id to=id v="\\(node_type\\:survey\\ AND\\ tenant\\:17\\)\\
-                \\ \\ \\ \\ \\ \\ \\ \\ \\ \\ \\ \\ AND\\ srv_carowner_b\\:\\*"}
-                    )
-                    OR (
                         bstate:FALSE
                         AND {!join from=main_id to=id v="\\(node_type\\:survey\\ AND\\ tenant\\:17\\)\\
                 \\ \\ \\ \\ \\ \\ \\ \\ \\ \\ \\ \\ AND\\ srv_carowner_b\\:TRUE"}
@@ -205,6 +201,14 @@ class SolrExpressionConverterComplexTest extends SolrTestBase {
                         AND {!join from=main_id to=id v="\\(node_type\\:survey\\ AND\\ tenant\\:17\\)\\
                 \\ \\ \\ \\ \\ \\ \\ \\ \\ \\ \\ \\ AND\\ srv_carowner_b\\:FALSE"}
                     )
+                    OR (
+                        node_type:profile
+                        AND NOT (
+                            bstate:*
+                            AND {!join from=main_id to=id v="\\(node_type\\:survey\\ AND\\ tenant\\:17\\)\\
+                \\ \\ \\ \\ \\ \\ \\ \\ \\ \\ \\ \\ \\ \\ \\ \\ AND\\ srv_carowner_b\\:\\*"}
+                        )
+                    )
                 )
 
                 ]>>>""", "bState != @q.carOwner.flg");
@@ -228,16 +232,9 @@ class SolrExpressionConverterComplexTest extends SolrTestBase {
 
                 ]>>>""", "STRICT bState != @q.carOwner.flg");
 
-        assertQueryDef("""
-                <<<[
-
-                node_type:profile
-                AND {!join from=main_id to=id v="node_type\\:pos\\
-                \\ \\ \\ \\ AND\\ pos_invdate_dt\\:\\[2024\\\\\\-03\\\\\\-17T00\\\\\\:00\\\\\\:00Z\\ TO\\ 2024\\\\\\-03\\\\\\-18T00\\\\\\:00\\\\\\:00Z\\}\\
-                \\ \\ \\ \\ AND\\ pos_invdate_dt\\:\\[2024\\\\\\-03\\\\\\-21T00\\\\\\:00\\\\\\:00Z\\ TO\\ 2024\\\\\\-03\\\\\\-22T00\\\\\\:00\\\\\\:00Z\\}\\
-                \\ \\ \\ \\ AND\\ pos_quantity_i\\:\\{1\\ TO\\ \\*\\]"}
-
-                ]>>>""", "pos.date = 2024-03-21 and pos.date = 2024-03-17 and pos.quantity > 1");
+        // pos.date is a single-value field that cannot be equal to two different dates in the same document
+        assertThrowsErrorCode(CommonErrors.ERR_1002_ALWAYS_FALSE,
+                () -> assertQueryDef("n/a", "pos.date = 2024-03-21 and pos.date = 2024-03-17 and pos.quantity > 1"));
 
         initTestServerWithHybridMapping(EmbeddedSolrServerUtils.createHybridMappingConfigMakePosDataAllMultiDoc());
 
@@ -506,6 +503,22 @@ class SolrExpressionConverterComplexTest extends SolrTestBase {
 
                 ]>>>""", "q.monthlyIncome.int > 4500 AND q.monthlyIncome.int < 7000");
 
+        assertQueryDef("""
+                <<<[
+
+                {!join from=main_id to=id v="\\(node_type\\:survey\\ AND\\ tenant\\:17\\)\\
+                \\ \\ \\ \\ AND\\ srv_monthlyincome_i\\:\\{4500\\ TO\\ 7000\\}"}
+
+                ]>>>""", "q.monthlyIncome.int > 3000 AND q.monthlyIncome.int > 4500 AND q.monthlyIncome.int < 9000 AND q.monthlyIncome.int < 7000");
+
+        assertQueryDef("""
+                <<<[
+
+                {!join from=main_id to=id v="\\(node_type\\:survey\\ AND\\ tenant\\:17\\)\\
+                \\ \\ \\ \\ AND\\ srv_monthlyincome_i\\:\\[3000\\ TO\\ 7000\\]"}
+
+                ]>>>""", "q.monthlyIncome.int BETWEEN (3000, 5000) OR q.monthlyIncome.int BETWEEN (4500, 7000)");
+
     }
 
     @Test
@@ -519,8 +532,9 @@ class SolrExpressionConverterComplexTest extends SolrTestBase {
 
         // A document with multiple fields should only be marked multi-row if the attributes are unrelated,
         // or you give a clear explanation to the user
-        // The following query does not make any sense on regular data
-        assertQueryResult(list(), "pos.date = 2024-03-21 and pos.date = 2024-03-17 and pos.quantity > 1");
+        // The following query does not make any sense on regular data, the converter detects this without querying Solr
+        assertThrowsErrorCode(CommonErrors.ERR_1002_ALWAYS_FALSE,
+                () -> assertQueryResult(list(), "pos.date = 2024-03-21 and pos.date = 2024-03-17 and pos.quantity > 1"));
 
         initTestServerWithHybridMapping(EmbeddedSolrServerUtils.createHybridMappingConfigMakePosDataAllMultiDoc());
 
@@ -580,4 +594,106 @@ class SolrExpressionConverterComplexTest extends SolrTestBase {
 
     }
 
+
+    @Test
+    void testCombinedNegations() {
+
+        assertQueryDef("""
+                <<<[
+
+                node_type:profile
+                AND NOT (
+                    country:USA
+                    OR provider:ZOMBEE
+                )
+
+                ]>>>""", "provider != ZOMBEE AND home-country != USA");
+
+        assertQueryDef("""
+                <<<[
+
+                node_type:profile
+                AND (
+                    flt_clubmember_b:TRUE
+                    OR (
+                        country:*
+                        AND NOT (
+                            demcode:5
+                            OR country:USA
+                            OR provider:ZOMBEE
+                        )
+                    )
+                )
+
+                ]>>>""", "(provider != ZOMBEE AND STRICT home-country != USA AND demCode != 5) OR clubMember=1");
+
+        // a sole combined negation inside an OR must not be a pure negative sub-query
+        assertQueryDef("""
+                <<<[
+
+                node_type:profile
+                AND (
+                    provider:NONEXIST
+                    OR (
+                        node_type:profile
+                        AND NOT (
+                            {!join from=main_id to=id v="\\(node_type\\:survey\\ AND\\ tenant\\:17\\)\\
+                \\ \\ \\ \\ \\ \\ \\ \\ \\ \\ \\ \\ \\ \\ \\ \\ AND\\ srv_martialstatus_s\\:married"}
+                            OR {!join from=main_id to=id v="\\(node_type\\:survey\\ AND\\ tenant\\:17\\)\\
+                \\ \\ \\ \\ \\ \\ \\ \\ \\ \\ \\ \\ \\ \\ \\ \\ AND\\ srv_vegan_b\\:TRUE"}
+                        )
+                    )
+                )
+
+                ]>>>""", "(q.martialStatus.str != married AND q.vegan.flg != 1) OR provider = NONEXIST");
+
+        assertQueryResult(list(19012, 19014, 19015, 19016, 19017, 19018, 19019, 19020), "q.martialStatus.str != married AND q.vegan.flg != 1");
+        assertQueryResult(list(19012, 19014, 19015, 19016, 19017, 19018, 19019, 19020),
+                "(q.martialStatus.str != married AND q.vegan.flg != 1) OR provider = NONEXIST");
+        assertQueryResult(list(19011, 19012, 19014, 19015, 19016, 19018, 19019, 19020, 19021),
+                "(pos.name != MELON AND pos.date != 2024-03-15) OR provider=NONEXIST");
+
+        List<String> expressions = List.of("(q.martialStatus.str != married AND q.vegan.flg != 1) OR provider = NONEXIST",
+                "(pos.name != MELON AND pos.date != 2024-03-15) OR provider=NONEXIST", "provider != ZOMBEE AND home-country != USA", "provider != ZOMBEE AND STRICT home-country != USA AND demCode != 5",
+                "(provider != ZOMBEE AND STRICT home-country != USA AND demCode != 5) OR clubMember=1",
+                "(q.monthlyIncome.int > 5000 AND q.martialStatus.str != married AND q.vegan.flg != 1) OR provider = ZOMBEE",
+                "provider = LOGMOTH AND STRICT q.martialStatus.str != married AND q.vegan.flg != 1",
+                "pos.name = SANDWICH AND pos.unitPrice > 3.0 AND (pos.date != 2024-03-22 OR pos.anyDate != 2024-03-17)",
+                "pos.name = SANDWICH AND (STRICT pos.date != 2024-03-22 OR pos.anyDate != 2024-03-17 OR pos.quantity != 1)",
+                "bState != @q.carOwner.flg OR home-country != USA OR provider != LOGMOTH", "NOT (clubMember = 1 OR hobbies=origami OR sports=tennis)");
+
+        for (String expression : expressions) {
+            assertEquals(selectIds(expression, null, flags(SolrConversionDirective.DISABLE_NEGATION_COMBINING)), selectIds(expression));
+        }
+
+    }
+
+    @Test
+    void testCachedMappingConfig() {
+
+        // @formatter:off
+        List<String> expressions = List.of(
+                "provider = LOGMOTH AND home-country = USA",
+                "fact.hasDog.flg=1 AND fact.hasCat.flg != 1",
+                "(q.monthlyIncome.int > 4000 AND q.martialStatus.str != married) OR q.children.int > 1",
+                "pos.name = Cheese AND pos.quantity > 1",
+                "bState != @q.carOwner.flg");
+        // @formatter:on
+
+        List<List<Integer>> expected = expressions.stream().map(SolrTestBase::selectIds).toList();
+
+        SolrMappingConfig mappingConfig = currentSolrMappingConfig;
+        try {
+            currentSolrMappingConfig = new CachingSolrMappingConfig(mappingConfig);
+
+            // twice to run against the filled cache
+            assertEquals(expected, expressions.stream().map(SolrTestBase::selectIds).toList());
+            assertEquals(expected, expressions.stream().map(SolrTestBase::selectIds).toList());
+        }
+        finally {
+            currentSolrMappingConfig = mappingConfig;
+        }
+
+    }
+
 }
@@ -0,0 +1,233 @@
+//@formatter:off
+/*
+ * SolrExpressionConverterDictionaryTest
+ * Copyright 2025 Karl Eilebrecht
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"):
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+//@formatter:on
+
+package de.calamanari.adl.solr.cnv;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import de.calamanari.adl.CommonErrors;
+import de.calamanari.adl.ConversionException;
+import de.calamanari.adl.FormatStyle;
+import de.calamanari.adl.solr.DefaultValueDictionary;
+import de.calamanari.adl.solr.DictionaryEncodedSolrType;
+import de.calamanari.adl.solr.SolrTestBase;
+import de.calamanari.adl.solr.config.MainDocumentConfig;
+import de.calamanari.adl.solr.config.SolrMappingConfig;
+
+import static de.calamanari.adl.cnv.StandardConversions.parseCoreExpression;
+import static de.calamanari.adl.solr.DefaultAdlSolrType.SOLR_INTEGER;
+import static de.calamanari.adl.solr.DefaultAdlSolrType.SOLR_STRING;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for string attributes stored as integer codes in Solr, see {@link DictionaryEncodedSolrType}
+ * 
+ * @author <a href="mailto:Karl.Eilebrecht(a/t)calamanari.de">Karl Eilebrecht</a>
+ */
+class SolrExpressionConverterDictionaryTest extends SolrTestBase {
+
+    static final Logger LOGGER = LoggerFactory.getLogger(SolrExpressionConverterDictionaryTest.class);
+
+    /**
+     * The field <code>scode</code> of the test data contains the values 11, 17, 34 and 89
+     */
+    private static final DefaultValueDictionary SEGMENT_DICTIONARY = DefaultValueDictionary
+            .of(Map.of("alpha", 11, "beta", 17, "gamma", 34, "delta", 89, "omega", 99));
+
+    /**
+     * Fullwidth A (U+FF21) for 11 and a supplementary character (U+1F600) for 17, UTF-16 order differs from code point order
+     */
+    private static final DefaultValueDictionary UNI_SEGMENT_DICTIONARY = DefaultValueDictionary.of(Map.of("\uFF21", 11, "\uD83D\uDE00", 17));
+
+    @BeforeAll
+    static void prepareEmbeddedSolr() throws IOException {
+        initTestServerWithHybridMapping(createDictionaryMappingConfig());
+    }
+
+    /**
+     * @return profile mapping with the field <code>scode</code> mapped as a plain integer (<code>sCode</code>) and dictionary-encoded (<code>segment</code>,
+     *         <code>bigSegment</code>, <code>uniSegment</code>)
+     */
+    static SolrMappingConfig createDictionaryMappingConfig() {
+
+        // a dictionary with more entries than we want to list in an OR
+        Map<String, Integer> bigSegmentCodes = new LinkedHashMap<>();
+        for (int i = 1; i <= DefaultMatchFilterFactory.MAX_DICTIONARY_CODES_OR_LIST + 36; i++) {
+            bigSegmentCodes.put(String.format("seg-%03d", i), i);
+        }
+
+        // @formatter:off
+        return MainDocumentConfig.forNodeType("profile")
+                                     .dataField("provider", SOLR_STRING)
+                                         .mappedToArgName("provider")
+                                     .dataField("scode", SOLR_INTEGER)
+                                         .mappedToArgName("sCode")
+                                     .dataField("scode", new DictionaryEncodedSolrType(SOLR_INTEGER, SEGMENT_DICTIONARY))
+                                         .mappedToArgName("segment")
+                                     .dataField("scode", new DictionaryEncodedSolrType(SOLR_INTEGER, DefaultValueDictionary.of(bigSegmentCodes)))
+                                         .mappedToArgName("bigSegment")
+                                     .dataField("scode", new DictionaryEncodedSolrType(SOLR_INTEGER, UNI_SEGMENT_DICTIONARY))
+                                         .mappedToArgName("uniSegment")
+                                 .get();
+        // @formatter:on
+    }
+
+    @Test
+    void testEquals() {
+
+        assertQueryResult(list(19016, 19018), "segment = alpha");
+        assertQueryResult(list(19016, 19018), "sCode = 11");
+        assertQueryResult(list(19011), "segment = delta");
+
+        // unknown to the dictionary
+        assertQueryResult(list(), "segment = sigma");
+
+        // known to the dictionary but not in the index
+        assertQueryResult(list(), "segment = omega");
+
+        assertQueryResult(list(19011, 19012, 19013, 19014, 19015, 19017, 19019, 19020, 19021), "segment != alpha");
+        assertQueryResult(list(19011, 19013, 19014, 19017), "STRICT NOT segment = alpha");
+
+        assertQueryResult(list(19011, 19012, 19013, 19014, 19015, 19016, 19017, 19018, 19019, 19020, 19021), "segment != sigma");
+        assertQueryResult(list(19011, 19013, 19014, 19016, 19017, 19018), "STRICT NOT segment = sigma");
+
+        assertQueryResult(list(19012, 19015, 19019, 19020, 19021), "segment IS UNKNOWN");
+
+        assertQueryResult(list(19013, 19016, 19018), "segment any of (alpha, gamma, sigma)");
+        assertQueryResult(list(), "segment any of (sigma, omega)");
+        assertQueryResult(list(19011, 19012, 19014, 19015, 19017, 19019, 19020, 19021), "segment not any of (alpha, gamma, sigma)");
+
+        assertQueryResult(list(19013, 19016, 19018), "segment = alpha OR sCode = 34");
+
+        assertQueryResult(list(19016, 19018), "bigSegment = seg-011");
+
+    }
+
+    @Test
+    void testDictionaryScan() {
+
+        assertQueryResult(list(19011, 19014, 19017), "segment contains ta");
+        assertQueryResult(list(), "segment contains xyz");
+        assertQueryResult(list(19012, 19013, 19015, 19016, 19018, 19019, 19020, 19021), "segment not contains ta");
+
+        assertQueryResult(list(19014, 19016, 19017, 19018), "segment < delta");
+        assertQueryResult(list(19013), "segment > delta");
+        assertQueryResult(list(19011, 19013, 19014, 19017), "segment between (beta, gamma)");
+        assertQueryResult(list(19011, 19014, 19017), "segment between (b, e)");
+        assertQueryResult(list(), "segment between (x, y)");
+
+        // more matching codes than the limit for OR-lists
+        assertQueryResult(list(19011, 19013, 19014, 19016, 19017, 19018), "bigSegment contains seg");
+        assertQueryResult(list(19011, 19013, 19014, 19017), "bigSegment > seg-011");
+
+    }
+
+    @Test
+    void testDictionaryScanSupplementaryCharacters() {
+
+        // code point order: U+FF21 < U+1F600, although the surrogate pair sorts first in UTF-16
+        assertQueryResult(list(19014, 19017), "uniSegment > \"\uFF21\"");
+        assertQueryResult(list(19016, 19018), "uniSegment < \"\uD83D\uDE00\"");
+        assertQueryResult(list(19014, 19016, 19017, 19018), "uniSegment between (\"\uFF21\", \"\uD83D\uDE00\")");
+        assertQueryResult(list(), "uniSegment between (\"\uD83D\uDE00\", \"\uFF21\")");
+
+    }
+
+    @Test
+    void testQueryDef() {
+
+        assertQueryDef("""
+                <<<[
+
+                scode:11
+
+                ]>>>""", "segment = alpha");
+
+        assertQueryDef("""
+                <<<[
+
+                scode:{0 TO 0}
+
+                ]>>>""", "segment = sigma");
+
+        assertQueryDef("""
+                <<<[
+
+                scode:(11 OR 34)
+
+                ]>>>""", "segment any of (alpha, gamma, sigma)");
+
+        assertQueryDef("""
+                <<<[
+
+                scode:(17 OR 89)
+
+                ]>>>""", "segment contains ta");
+
+        assertQueryDef("""
+                <<<[
+
+                scode:(17 OR 89)
+
+                ]>>>""", "segment between (b, e)");
+
+        assertQueryDef("""
+                <<<[
+
+                scode:(90 OR 91 OR 92 OR 93 OR 94 OR 95 OR 96 OR 97 OR 98 OR 99 OR 100)
+
+                ]>>>""", "bigSegment > seg-089");
+
+        assertTrue(createQueryDefinition("bigSegment > seg-011", FormatStyle.INLINE).toExpressionDebugString()
+                .contains("_query_:\"\\{\\!terms\\ f=scode\\}12,13,14,"));
+
+    }
+
+    @Test
+    void testFacetsNotSupported() {
+
+        SolrExpressionConverter converter = new SolrExpressionConverter(currentSolrMappingConfig);
+
+        assertEquals(1, converter.convertWithFacets(parseCoreExpression("segment = alpha"), List.of("sCode"), 10).facets().size());
+
+        // the buckets would contain the codes
+        assertThrows(ConversionException.class, () -> converter.convertWithFacets(parseCoreExpression("sCode = 11"), List.of("provider", "segment"), 10));
+
+    }
+
+    @Test
+    void testReferenceMatch() {
+
+        assertThrowsErrorCode(CommonErrors.ERR_2101_REFERENCE_MATCH_NOT_SUPPORTED, () -> selectIds("segment = @bigSegment"));
+        assertThrowsErrorCode(CommonErrors.ERR_2101_REFERENCE_MATCH_NOT_SUPPORTED, () -> selectIds("segment = @provider"));
+        assertThrowsErrorCode(CommonErrors.ERR_2101_REFERENCE_MATCH_NOT_SUPPORTED, () -> selectIds("segment = @sCode"));
+
+    }
+
+}
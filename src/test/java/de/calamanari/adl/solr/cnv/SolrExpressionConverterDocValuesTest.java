@@ -0,0 +1,184 @@
+//@formatter:off
+/*
+ * SolrExpressionConverterDocValuesTest
+ * Copyright 2025 Karl Eilebrecht
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"):
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+//@formatter:on
+
+package de.calamanari.adl.solr.cnv;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import de.calamanari.adl.solr.DefaultValueDictionary;
+import de.calamanari.adl.solr.DictionaryEncodedSolrType;
+import de.calamanari.adl.solr.SolrFieldStorage;
+import de.calamanari.adl.solr.SolrTestBase;
+import de.calamanari.adl.solr.config.MainDocumentConfig;
+import de.calamanari.adl.solr.config.SolrMappingConfig;
+
+import static de.calamanari.adl.solr.DefaultAdlSolrType.SOLR_INTEGER;
+import static de.calamanari.adl.solr.DefaultAdlSolrType.SOLR_STRING;
+import static de.calamanari.adl.solr.SolrFieldStorage.DOC_VALUES_ONLY;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Tests for fields without an inverted index (<code>indexed="false" docValues="true"</code>), see {@link SolrFieldStorage}
+ * <p>
+ * The test schema contains docValues-only copies of some fields, so we can compare the results.
+ * 
+ * @author <a href="mailto:Karl.Eilebrecht(a/t)calamanari.de">Karl Eilebrecht</a>
+ */
+class SolrExpressionConverterDocValuesTest extends SolrTestBase {
+
+    static final Logger LOGGER = LoggerFactory.getLogger(SolrExpressionConverterDocValuesTest.class);
+
+    @BeforeAll
+    static void prepareEmbeddedSolr() throws IOException {
+        initTestServerWithHybridMapping(createDocValuesMappingConfig());
+    }
+
+    /**
+     * @return profile mapping with the fields <code>country</code>, <code>scode</code> and <code>flt_sports_ss</code> mapped as indexed fields and their
+     *         docValues-only copies
+     */
+    static SolrMappingConfig createDocValuesMappingConfig() {
+
+        DefaultValueDictionary segmentDictionary = DefaultValueDictionary.of(Map.of("alpha", 11, "beta", 17, "gamma", 34, "delta", 89));
+
+        // @formatter:off
+        return MainDocumentConfig.forNodeType("profile")
+                                     .dataField("country", SOLR_STRING)
+                                         .mappedToArgName("country")
+                                     .dataField("country_dv", SOLR_STRING.withStorage(DOC_VALUES_ONLY))
+                                         .mappedToArgName("countryDv")
+                                     .dataField("scode", SOLR_INTEGER)
+                                         .mappedToArgName("sCode")
+                                     .dataField("scode_dv", SOLR_INTEGER.withStorage(DOC_VALUES_ONLY))
+                                         .mappedToArgName("sCodeDv")
+                                     .dataField("scode", new DictionaryEncodedSolrType(SOLR_INTEGER, segmentDictionary))
+                                         .mappedToArgName("segment")
+                                     .dataField("scode_dv", new DictionaryEncodedSolrType(SOLR_INTEGER, segmentDictionary).withStorage(DOC_VALUES_ONLY))
+                                         .mappedToArgName("segmentDv")
+                                     .dataField("flt_sports_ss", SOLR_STRING)
+                                         .mappedToArgName("sports")
+                                         .asCollection()
+                                     .dataField("sports_dv", SOLR_STRING.withStorage(DOC_VALUES_ONLY))
+                                         .mappedToArgName("sportsDv")
+                                         .asCollection()
+                                 .get();
+        // @formatter:on
+    }
+
+    @Test
+    void testSameResults() {
+
+        // @formatter:off
+        assertSameResults("country", "countryDv", 
+                "%s = USA",
+                "%s != USA",
+                "STRICT NOT %s = USA",
+                "%s any of (USA, Germany, \"Nowhere, Land\")",
+                "%s not any of (USA, Germany)",
+                "%s contains SA",
+                "%s < Germany",
+                "%s > Germany",
+                "%s between (A, M)",
+                "%s IS UNKNOWN",
+                "%s IS NOT UNKNOWN");
+
+        assertSameResults("sCode", "sCodeDv", 
+                "%s = 11",
+                "%s any of (11, 17, 99)",
+                "%s < 30",
+                "%s between (12, 40)",
+                "%s IS UNKNOWN");
+
+        assertSameResults("segment", "segmentDv", 
+                "%s = alpha",
+                "%s any of (alpha, beta, sigma)",
+                "%s contains ta",
+                "%s > beta");
+
+        assertSameResults("sports", "sportsDv", 
+                "%s = tennis",
+                "%s any of (tennis, soccer, \"a,b\")",
+                "STRICT NOT %s any of (tennis, soccer)",
+                "%s contains ball",
+                "%s IS NOT UNKNOWN");
+        // @formatter:on
+
+        assertQueryResult(list(19011, 19013, 19016, 19018), "(countryDv = USA AND sCodeDv > 10) OR segmentDv = alpha");
+
+    }
+
+    @Test
+    void testQueryDef() {
+
+        assertQueryDef("""
+                <<<[
+
+                country_dv:USA
+
+                ]>>>""", "countryDv = USA");
+
+        assertQueryDef("""
+                <<<[
+
+                _query_:"\\{\\!terms\\ f=country_dv\\ method=docValuesTermsFilter\\}Germany,USA"
+
+                ]>>>""", "countryDv any of (USA, Germany)");
+
+        // the terms query parser does not support values containing commas
+        assertQueryDef("""
+                <<<[
+
+                country_dv:(Germany OR Nowhere,\\ Land OR USA)
+
+                ]>>>""", "countryDv any of (USA, Germany, \"Nowhere, Land\")");
+
+        // docValuesTermsFilter is not supported by Solr for point fields
+        assertQueryDef("""
+                <<<[
+
+                scode_dv:(11 OR 17)
+
+                ]>>>""", "sCodeDv any of (11, 17)");
+
+        assertQueryDef("""
+                <<<[
+
+                sports_dv:*ball*
+
+                ]>>>""", "sportsDv contains ball");
+
+    }
+
+    private static void assertSameResults(String argName, String argNameDv, String... expressionTemplates) {
+        List<String> templates = Arrays.asList(expressionTemplates);
+        for (String template : templates) {
+            List<Integer> expected = selectIds(String.format(template, argName));
+            assertEquals(expected, selectIds(String.format(template, argNameDv)), template);
+        }
+    }
+
+}
@@ -30,10 +30,15 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import de.calamanari.adl.CommonErrors;
+import de.calamanari.adl.FormatStyle;
+import de.calamanari.adl.solr.SolrConditionType;
+import de.calamanari.adl.solr.SolrFilterQuery;
+import de.calamanari.adl.solr.SolrQueryDefinition;
 import de.calamanari.adl.solr.SolrTestBase;
 
 import static de.calamanari.adl.solr.cnv.ConversionTestUtils.createDryTestContext;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
@@ -455,4 +460,44 @@ class SolrExpressionConverterTest extends SolrTestBase {
 
     }
 
+    @Test
+    void testSeparateMainDocumentFilter() {
+
+        List<String> expressions = List.of("provider = LOGMOTH", "provider != ZOMBEE", "provider = LOGMOTH AND home-country = USA",
+                "provider = LOGMOTH AND home-country != USA AND q.carOwner.flg=1", "provider = ZOMBEE OR STRICT home-country != USA",
+                "provider = HMPF OR (pos.name=SANDWICH AND pos.unitPrice > 3.0 AND pos.unitPrice < 4.0)");
+
+        for (String expression : expressions) {
+            assertEquals(selectIds(expression), selectIds(expression, null, flags(SolrConversionDirective.SEPARATE_MAIN_DOCUMENT_FILTER)));
+            assertEquals(selectIds(expression, withTenant(89)),
+                    selectIds(expression, withTenant(89), flags(SolrConversionDirective.SEPARATE_MAIN_DOCUMENT_FILTER)));
+
+            SolrQueryDefinition def = createQueryDefinition(expression, null, flags(SolrConversionDirective.SEPARATE_MAIN_DOCUMENT_FILTER),
+                    FormatStyle.INLINE);
+
+            List<SolrFilterQuery> mainDocumentFilters = def.filterQueries().stream()
+                    .filter(fq -> fq.conditionTypes().equals(List.of(SolrConditionType.ALL_DOCS))).toList();
+            assertEquals(1, mainDocumentFilters.size());
+            String mainDocumentFilter = mainDocumentFilters.get(0).queryString();
+
+            if (!expression.startsWith("provider !=")) {
+                // except for the root negation the main document filter is never repeated
+                assertFalse(def.filterQueries().stream().filter(fq -> fq != mainDocumentFilters.get(0))
+                        .anyMatch(fq -> fq.queryString().startsWith(mainDocumentFilter)));
+            }
+        }
+
+        SolrQueryDefinition def1 = createQueryDefinition("provider = LOGMOTH AND home-country = USA", null,
+                flags(SolrConversionDirective.SEPARATE_MAIN_DOCUMENT_FILTER), FormatStyle.INLINE);
+        SolrQueryDefinition def2 = createQueryDefinition("provider = ZOMBEE OR q.carOwner.flg=1", null,
+                flags(SolrConversionDirective.SEPARATE_MAIN_DOCUMENT_FILTER), FormatStyle.INLINE);
+
+        assertEquals(3, def1.filterQueries().size());
+        assertEquals(2, def2.filterQueries().size());
+
+        // the shared filter query is the same for all audiences
+        assertTrue(def1.filterQueries().stream().anyMatch(def2.filterQueries()::contains));
+
+    }
+
 }
@@ -31,10 +31,14 @@ import de.calamanari.adl.solr.SolrConditionType;
 import de.calamanari.adl.solr.SolrFilterQuery;
 import de.calamanari.adl.solr.SolrQueryField;
 import de.calamanari.adl.solr.SolrTestBase;
+import de.calamanari.adl.solr.cnv.ast.BooleanNode;
+import de.calamanari.adl.solr.cnv.ast.FilterKind;
+import de.calamanari.adl.solr.cnv.ast.FilterNode;
 
 import static de.calamanari.adl.solr.cnv.ConversionTestUtils.createDryTestContext;
 import static de.calamanari.adl.solr.cnv.ConversionTestUtils.wrap;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -115,6 +119,24 @@ class SolrFilterQueryBuilderTest extends SolrTestBase {
 
     }
 
+    @Test
+    void testTypedLeaves() {
+
+        SolrFilterQueryBuilder builder = new SolrFilterQueryBuilder(ctx);
+
+        builder.appendFilterNode(ctx.getMatchFilterFactory().createMatchFilterNode(wrap("age > 18", ctx)));
+        assertEquals(FilterKind.RANGE, singleLeaf(builder).kind());
+
+        builder.reset();
+        builder.appendFilterNode(ctx.getMatchFilterFactory().createMatchFilterNode(wrap("color = red", ctx)));
+        assertEquals(FilterKind.TERM, singleLeaf(builder).kind());
+
+        builder.reset();
+        builder.appendFilterQuery(ctx.getMatchFilterFactory().createNodeTypeFilter(NODE_TYPE_1));
+        assertEquals(FilterKind.NODE_TYPE, singleLeaf(builder).kind());
+
+    }
+
     @Test
     void testPrettyPrint() {
 
@@ -242,6 +264,12 @@ class SolrFilterQueryBuilderTest extends SolrTestBase {
 
     }
 
+    private static FilterNode singleLeaf(SolrFilterQueryBuilder builder) {
+        BooleanNode root = assertInstanceOf(BooleanNode.class, builder.getQueryTree());
+        assertEquals(1, root.clauses().size());
+        return assertInstanceOf(FilterNode.class, root.clauses().get(0).node());
+    }
+
     private SolrFilterQuery filter(String expression) {
 
         return ctx.getMatchFilterFactory().createMatchFilter(wrap(expression, ctx));
@@ -0,0 +1,183 @@
+//@formatter:off
+/*
+ * SolrJsonQueryTest
+ * Copyright 2025 Karl Eilebrecht
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"):
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+//@formatter:on
+
+package de.calamanari.adl.solr.cnv;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.apache.solr.client.solrj.SolrServerException;
+import org.apache.solr.client.solrj.request.SolrQuery;
+import org.apache.solr.client.solrj.request.json.DirectJsonQueryRequest;
+import org.apache.solr.client.solrj.response.QueryResponse;
+import org.apache.solr.common.util.NamedList;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Disabled;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import de.calamanari.adl.FormatStyle;
+import de.calamanari.adl.solr.EmbeddedSolrServerUtils;
+import de.calamanari.adl.solr.SolrFilterQuery;
+import de.calamanari.adl.solr.SolrJsonQueryDefinition;
+import de.calamanari.adl.solr.SolrQueryDefinition;
+import de.calamanari.adl.solr.SolrTestBase;
+
+import static de.calamanari.adl.cnv.StandardConversions.parseCoreExpression;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares the JSON Query DSL output against the standard filter queries on the embedded Solr
+ * 
+ * @author <a href="mailto:Karl.Eilebrecht(a/t)calamanari.de">Karl Eilebrecht</a>
+ */
+class SolrJsonQueryTest extends SolrTestBase {
+
+    static final Logger LOGGER = LoggerFactory.getLogger(SolrJsonQueryTest.class);
+
+    // @formatter:off
+    private static final List<String> EXPRESSIONS = List.of(
+            "provider = LOGMOTH AND home-country = USA",
+            "provider = LOGMOTH OR home-country = USA",
+            "(provider = LOGMOTH OR home-country = USA) AND (sCode any of (11, 17) OR bState IS NOT UNKNOWN)",
+            "fact.hasDog.flg=1 AND fact.hasCat.flg != 1",
+            "(q.monthlyIncome.int > 4000 AND q.martialStatus.str != married) OR q.children.int > 1",
+            "(q.monthlyIncome.int > 5000 AND q.martialStatus.str != married) OR (q.vegan.flg != 1 AND q.foodPref.str contains any of (fish, thai))",
+            "(pos.name contains any of (MELON, PUMPKIN, CHEESE) AND pos.date > 2024-03-15) OR STRICT NOT pos.quantity > 2",
+            "(clubMember = 1 OR hobbies=origami) AND STRICT sports!=tennis",
+            "(provider = LOGMOTH AND home-country = USA AND fact.hasDog.flg=1 AND q.monthlySpending.int >= 5000) OR NOT clubMember=1",
+            "(fact.hasPet.flg=1 AND home-city strict not any of (Paris, Berlin)) OR (fact.hasPet.flg=0 AND STRICT home-city != Karlsruhe)",
+            "q.monthlyIncome.int > 4500 AND pos.anyDate = 2024-03-21 AND (q.monthlySpending.int = 5000 OR (q.martialStatus.str=married AND (q.children.int=1 OR q.favColor.str=blue)))",
+            "pos.quantity != 1",
+            "STRICT pos.quantity != 1",
+            "(q.martialStatus.str != married AND q.vegan.flg != 1) OR provider = NONEXIST",
+            "sCode > @tntCode AND nCode < @biCode",
+            "q.monthlySpending.int < @q.monthlyIncome.int OR STRICT q.carOwner.flg != @q.vegetarian.flg",
+            "pos.quantity > @pos.unitPrice",
+            "STRICT NOT pos.quantity > @pos.unitPrice",
+            "bState != @q.carOwner.flg OR home-country != USA OR provider != LOGMOTH",
+            "NOT (clubMember = 1 OR hobbies=origami OR sports=tennis)",
+            "STRICT NOT (pos.anyDate = 2024-03-15 and pos.quantity > 1)"
+            );
+    // @formatter:on
+
+    @BeforeAll
+    static void prepareEmbeddedSolr() throws IOException {
+        initTestServerWithHybridMapping();
+    }
+
+    @Test
+    void testSameResults() {
+
+        for (String expression : EXPRESSIONS) {
+            List<Integer> expected = selectIds(expression);
+            assertEquals(expected, EmbeddedSolrServerUtils.queryIntIdsSorted(testServer, createJsonQueryDefinition(expression, FormatStyle.INLINE)),
+                    expression);
+            assertEquals(expected, EmbeddedSolrServerUtils.queryIntIdsSorted(testServer, createJsonQueryDefinition(expression, FormatStyle.PRETTY_PRINT)),
+                    expression);
+        }
+
+    }
+
+    @Test
+    void testNoEscaping() {
+
+        String expression = "(q.martialStatus.str != married AND q.vegan.flg != 1) OR provider = NONEXIST";
+
+        SolrJsonQueryDefinition jsonQueryDefinition = createJsonQueryDefinition(expression, FormatStyle.INLINE);
+
+        assertEquals(1, jsonQueryDefinition.filters().size());
+        String filter = jsonQueryDefinition.filters().get(0);
+        assertTrue(filter.contains("{\"join\":{\"from\":\"main_id\",\"to\":\"id\",\"query\":{\"bool\":{\"must\":["));
+        assertFalse(filter.contains("\\\\"));
+
+        SolrJsonQueryDefinition jsonQueryDefinition2 = createJsonQueryDefinition("pos.quantity > @pos.unitPrice", FormatStyle.INLINE);
+        assertTrue(jsonQueryDefinition2.filters().get(0).contains("{\"frange\":{\"l\":\"1\",\"u\":\"1\",\"query\":\"if("));
+
+    }
+
+    /**
+     * Compares the time Solr needs to prepare (parse) the filter queries with escaped join sub-queries to the JSON Query DSL
+     */
+    @Test
+    @Disabled("benchmark")
+    void testParseTime() {
+
+        String expression = "(q.monthlyIncome.int > 5000 AND q.martialStatus.str != married) OR (q.vegan.flg != 1 AND q.foodPref.str contains any of (fish, thai)) "
+                + "OR (pos.name contains any of (MELON, PUMPKIN, CHEESE) AND pos.date > 2024-03-15) OR STRICT NOT pos.quantity > @pos.unitPrice "
+                + "OR (fact.hasPet.flg=1 AND home-city strict not any of (Paris, Berlin))";
+
+        SolrQueryDefinition queryDefinition = createQueryDefinition(expression, FormatStyle.INLINE);
+        SolrJsonQueryDefinition jsonQueryDefinition = createJsonQueryDefinition(expression, FormatStyle.INLINE);
+
+        int runs = 2_000;
+
+        // warm-up
+        measurePrepareTime(queryDefinition, jsonQueryDefinition, runs);
+
+        double[] prepareTimes = measurePrepareTime(queryDefinition, jsonQueryDefinition, runs);
+
+        LOGGER.info("Average prepare time of {} runs: standard={} ms, JSON={} ms", runs, prepareTimes[0] / runs, prepareTimes[1] / runs);
+
+    }
+
+    private static double[] measurePrepareTime(SolrQueryDefinition queryDefinition, SolrJsonQueryDefinition jsonQueryDefinition, int runs) {
+        double[] res = new double[2];
+        for (int i = 0; i < runs; i++) {
+            SolrQuery solrQuery = new SolrQuery();
+            solrQuery.setQuery(queryDefinition.mainQueryString());
+            solrQuery.setFilterQueries(queryDefinition.filterQueries().stream().map(SolrFilterQuery::queryString).toArray(String[]::new));
+            solrQuery.setRows(0);
+            solrQuery.set("debug", "timing");
+            try {
+                res[0] += extractPrepareTime(testServer.query(solrQuery));
+            }
+            catch (SolrServerException | IOException ex) {
+                throw new RuntimeException(ex);
+            }
+            String request = jsonQueryDefinition.toJsonRequest();
+            request = request.substring(0, request.length() - 1) + ",\"limit\":0,\"params\":{\"debug\":\"timing\"}}";
+            try {
+                res[1] += extractPrepareTime(new DirectJsonQueryRequest(request).process(testServer));
+            }
+            catch (SolrServerException | IOException ex) {
+                throw new RuntimeException(ex);
+            }
+        }
+        return res;
+    }
+
+    private static double extractPrepareTime(QueryResponse response) {
+        NamedList<?> timing = (NamedList<?>) response.getDebugMap().get("timing");
+        NamedList<?> prepare = (NamedList<?>) timing.get("prepare");
+        NamedList<?> queryComponent = (NamedList<?>) prepare.get("query");
+        return ((Number) queryComponent.get("time")).doubleValue();
+    }
+
+    private static SolrJsonQueryDefinition createJsonQueryDefinition(String expression, FormatStyle style) {
+        SolrExpressionConverter converter = new SolrExpressionConverter(currentSolrMappingConfig);
+        converter.setStyle(style);
+        converter.getInitialVariables().put("tenant", "17");
+        return converter.convertToJson(parseCoreExpression(expression));
+    }
+
+}
@@ -0,0 +1,105 @@
+//@formatter:off
+/*
+ * SolrQueryOptimizationTest
+ * Copyright 2025 Karl Eilebrecht
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"):
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+//@formatter:on
+
+package de.calamanari.adl.solr.cnv;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import de.calamanari.adl.FormatStyle;
+import de.calamanari.adl.solr.SolrTestBase;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+/**
+ * Verifies against the embedded Solr that the query optimizations do not change any result
+ * 
+ * @author <a href="mailto:Karl.Eilebrecht(a/t)calamanari.de">Karl Eilebrecht</a>
+ */
+class SolrQueryOptimizationTest extends SolrTestBase {
+
+    // @formatter:off
+    private static final List<String> EXPRESSIONS = List.of(
+            "provider = LOGMOTH AND home-country = USA",
+            "(provider = LOGMOTH OR home-country = USA) AND (sCode any of (11, 17) OR bState IS NOT UNKNOWN)",
+            "fact.hasDog.flg=1 AND fact.hasCat.flg != 1",
+            "(q.monthlyIncome.int > 4000 AND q.martialStatus.str != married) OR q.children.int > 1",
+            "(q.monthlyIncome.int > 5000 AND q.martialStatus.str != married) OR (q.vegan.flg != 1 AND q.foodPref.str contains any of (fish, thai))",
+            "(pos.name contains any of (MELON, PUMPKIN, CHEESE) AND pos.date > 2024-03-15) OR STRICT NOT pos.quantity > 2",
+            "(clubMember = 1 OR hobbies=origami) AND STRICT sports!=tennis",
+            "(provider = LOGMOTH AND home-country = USA AND fact.hasDog.flg=1 AND q.monthlySpending.int >= 5000) OR NOT clubMember=1",
+            "(fact.hasPet.flg=1 AND home-city strict not any of (Paris, Berlin)) OR (fact.hasPet.flg=0 AND STRICT home-city != Karlsruhe)",
+            "q.monthlyIncome.int > 4500 AND pos.anyDate = 2024-03-21 AND (q.monthlySpending.int = 5000 OR (q.martialStatus.str=married AND (q.children.int=1 OR q.favColor.str=blue)))",
+            "pos.quantity != 1",
+            "STRICT pos.quantity != 1",
+            "(q.martialStatus.str != married AND q.vegan.flg != 1) OR provider = NONEXIST",
+            "(pos.name != MELON AND pos.date != 2024-03-15) OR provider=NONEXIST",
+            "(q.monthlyIncome.int > 5000 AND q.martialStatus.str != married AND q.vegan.flg != 1) OR provider = ZOMBEE",
+            "pos.name = SANDWICH AND (STRICT pos.date != 2024-03-22 OR pos.anyDate != 2024-03-17 OR pos.quantity != 1)",
+            "bState != @q.carOwner.flg OR home-country != USA OR provider != LOGMOTH",
+            "NOT (clubMember = 1 OR hobbies=origami OR sports=tennis)",
+            "STRICT NOT (pos.anyDate = 2024-03-15 and pos.quantity > 1)",
+            "pos.quantity > @pos.unitPrice OR q.vegan.flg = 1 OR q.children.int > 1"
+            );
+    // @formatter:on
+
+    @BeforeAll
+    static void prepareEmbeddedSolr() throws IOException {
+        initTestServerWithHybridMapping();
+    }
+
+    @Test
+    void testSameResults() {
+
+        for (String expression : EXPRESSIONS) {
+            List<Integer> expected = selectIds(expression, null, flags(SolrConversionDirective.DISABLE_QUERY_OPTIMIZATION));
+            assertEquals(expected, selectIds(expression), expression);
+            assertEquals(expected, selectIds(expression, null, flags(SolrConversionDirective.ENABLE_EXTENDED_QUERY_OPTIMIZATION)), expression);
+        }
+
+    }
+
+    @Test
+    void testMergedJoins() {
+
+        String expression = "(q.martialStatus.str != married AND q.vegan.flg != 1) OR provider = NONEXIST";
+
+        String fqDefault = createQueryDefinition(expression, null, null, FormatStyle.INLINE).filterQueries().get(0).queryString();
+        String fqExtended = createQueryDefinition(expression, null, flags(SolrConversionDirective.ENABLE_EXTENDED_QUERY_OPTIMIZATION), FormatStyle.INLINE)
+                .filterQueries().get(0).queryString();
+
+        assertNotEquals(fqDefault, fqExtended);
+        assertEquals(2, countJoins(fqDefault));
+        assertEquals(1, countJoins(fqExtended));
+
+        assertEquals(fqDefault,
+                createQueryDefinition(expression, null, flags(SolrConversionDirective.DISABLE_QUERY_OPTIMIZATION,
+                        SolrConversionDirective.ENABLE_EXTENDED_QUERY_OPTIMIZATION), FormatStyle.INLINE).filterQueries().get(0).queryString());
+
+    }
+
+    private static int countJoins(String fq) {
+        return fq.split("\\{!join", -1).length - 1;
+    }
+
+}
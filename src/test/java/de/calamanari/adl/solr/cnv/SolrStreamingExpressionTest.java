@@ -0,0 +1,146 @@
+//@formatter:off
+/*
+ * SolrStreamingExpressionTest
+ * Copyright 2025 Karl Eilebrecht
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"):
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+//@formatter:on
+
+package de.calamanari.adl.solr.cnv;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import de.calamanari.adl.Flag;
+import de.calamanari.adl.FormatStyle;
+import de.calamanari.adl.solr.EmbeddedSolrServerUtils;
+import de.calamanari.adl.solr.SolrStreamingQueryDefinition;
+import de.calamanari.adl.solr.SolrTestBase;
+
+import static de.calamanari.adl.cnv.StandardConversions.parseCoreExpression;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares the streaming expressions against the standard filter queries on the embedded Solr, see {@link EmbeddedSolrServerUtils#queryIds(
+ * org.apache.solr.client.solrj.SolrClient, SolrStreamingQueryDefinition)}
+ * 
+ * @author <a href="mailto:Karl.Eilebrecht(a/t)calamanari.de">Karl Eilebrecht</a>
+ */
+class SolrStreamingExpressionTest extends SolrTestBase {
+
+    private static final String COLLECTION_NAME = "Audlang";
+
+    // @formatter:off
+    private static final List<String> EXPRESSIONS = List.of(
+            "provider = LOGMOTH AND home-country = USA",
+            "provider = LOGMOTH OR home-country = USA",
+            "(provider = LOGMOTH OR home-country = USA) AND (sCode any of (11, 17) OR bState IS NOT UNKNOWN)",
+            "fact.hasDog.flg=1 AND fact.hasCat.flg != 1",
+            "(q.monthlyIncome.int > 4000 AND q.martialStatus.str != married) OR q.children.int > 1",
+            "(q.monthlyIncome.int > 5000 AND q.martialStatus.str != married) OR (q.vegan.flg != 1 AND q.foodPref.str contains any of (fish, thai))",
+            "(pos.name contains any of (MELON, PUMPKIN, CHEESE) AND pos.date > 2024-03-15) OR STRICT NOT pos.quantity > 2",
+            "(clubMember = 1 OR hobbies=origami) AND STRICT sports!=tennis",
+            "(provider = LOGMOTH AND home-country = USA AND fact.hasDog.flg=1 AND q.monthlySpending.int >= 5000) OR NOT clubMember=1",
+            "(fact.hasPet.flg=1 AND home-city strict not any of (Paris, Berlin)) OR (fact.hasPet.flg=0 AND STRICT home-city != Karlsruhe)",
+            "q.monthlyIncome.int > 4500 AND pos.anyDate = 2024-03-21 AND (q.monthlySpending.int = 5000 OR (q.martialStatus.str=married AND (q.children.int=1 OR q.favColor.str=blue)))",
+            "pos.quantity != 1",
+            "STRICT pos.quantity != 1",
+            "(q.martialStatus.str != married AND q.vegan.flg != 1) OR provider = NONEXIST",
+            "sCode > @tntCode AND nCode < @biCode",
+            "q.monthlySpending.int < @q.monthlyIncome.int OR STRICT q.carOwner.flg != @q.vegetarian.flg",
+            "pos.quantity > @pos.unitPrice",
+            "STRICT NOT pos.quantity > @pos.unitPrice",
+            "bState != @q.carOwner.flg OR home-country != USA OR provider != LOGMOTH",
+            "NOT (clubMember = 1 OR hobbies=origami OR sports=tennis)",
+            "STRICT NOT (pos.anyDate = 2024-03-15 and pos.quantity > 1)",
+            "NOT q.vegan.flg = 1 AND NOT pos.name = MELON",
+            "q.vegan.flg = 1 OR pos.name = MELON OR NOT q.children.int > 1"
+            );
+    // @formatter:on
+
+    @BeforeAll
+    static void prepareEmbeddedSolr() throws IOException {
+        initTestServerWithHybridMapping();
+    }
+
+    @Test
+    void testSameResults() {
+
+        for (String expression : EXPRESSIONS) {
+            List<Integer> expected = selectIds(expression);
+            assertEquals(expected, EmbeddedSolrServerUtils.queryIntIdsSorted(testServer, createStreamingQueryDefinition(expression, null, FormatStyle.INLINE)),
+                    expression);
+            assertEquals(expected,
+                    EmbeddedSolrServerUtils.queryIntIdsSorted(testServer, createStreamingQueryDefinition(expression, null, FormatStyle.PRETTY_PRINT)),
+                    expression);
+        }
+
+    }
+
+    @Test
+    void testSameResultsExtendedOptimization() {
+
+        for (String expression : EXPRESSIONS) {
+            List<Integer> expected = selectIds(expression);
+            assertEquals(expected, EmbeddedSolrServerUtils.queryIntIdsSorted(testServer,
+                    createStreamingQueryDefinition(expression, flags(SolrConversionDirective.ENABLE_EXTENDED_QUERY_OPTIMIZATION), FormatStyle.INLINE)),
+                    expression);
+        }
+
+    }
+
+    @Test
+    void testSortedUniqueResult() {
+
+        for (String expression : EXPRESSIONS) {
+            List<String> ids = EmbeddedSolrServerUtils.queryIds(testServer, createStreamingQueryDefinition(expression, null, FormatStyle.INLINE));
+            assertEquals(ids.stream().distinct().sorted().toList(), ids, expression);
+        }
+
+    }
+
+    @Test
+    void testNoJoinQueries() {
+
+        String expression = "(q.martialStatus.str != married AND q.vegan.flg != 1) OR provider = NONEXIST";
+
+        SolrStreamingQueryDefinition streamingQueryDefinition = createStreamingQueryDefinition(expression, null, FormatStyle.INLINE);
+
+        assertEquals(COLLECTION_NAME, streamingQueryDefinition.collectionName());
+        assertFalse(streamingQueryDefinition.expression().contains("{!join"));
+        assertTrue(streamingQueryDefinition.expression().contains("innerJoin("));
+        assertTrue(streamingQueryDefinition.expression().contains("qt=\"/export\""));
+
+        // no dependent documents involved
+        assertTrue(createStreamingQueryDefinition("provider = LOGMOTH AND home-country = USA", null, FormatStyle.INLINE).expression().startsWith("search("));
+
+    }
+
+    private static SolrStreamingQueryDefinition createStreamingQueryDefinition(String expression, Set<Flag> flags, FormatStyle style) {
+        SolrExpressionConverter converter = new SolrExpressionConverter(currentSolrMappingConfig);
+        converter.setStyle(style);
+        if (flags != null) {
+            converter.getInitialFlags().addAll(flags);
+        }
+        converter.getInitialVariables().put("tenant", "17");
+        return converter.convertToStreamingExpression(parseCoreExpression(expression), COLLECTION_NAME);
+    }
+
+}
@@ -0,0 +1,238 @@
+//@formatter:off
+/*
+ * TenantConverterRegistryTest
+ * Copyright 2025 Karl Eilebrecht
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"):
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+//@formatter:on
+
+package de.calamanari.adl.solr.cnv;
+
+import java.io.Serializable;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+import de.calamanari.adl.irl.CoreExpression;
+import de.calamanari.adl.solr.SolrQueryDefinition;
+import de.calamanari.adl.solr.SolrTestBase;
+import de.calamanari.adl.solr.config.MainDocumentConfig;
+import de.calamanari.adl.solr.config.SolrMappingConfig;
+import de.calamanari.adl.solr.config.SubDocumentConfig;
+
+import static de.calamanari.adl.cnv.StandardConversions.parseCoreExpression;
+import static de.calamanari.adl.solr.DefaultAdlSolrType.SOLR_STRING;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author <a href="mailto:Karl.Eilebrecht(a/t)calamanari.de">Karl Eilebrecht</a>
+ */
+class TenantConverterRegistryTest extends SolrTestBase {
+
+    // @formatter:off
+    private static final SolrMappingConfig CONFIG = MainDocumentConfig.forNodeType(NODE_TYPE_1)
+                                                                          .filteredBy("tenant_s", SOLR_STRING, "${tenant}")
+                                                                          .dataField("color_s", SOLR_STRING)
+                                                                              .mappedToArgName("color")
+                                                                          .subConfig(SubDocumentConfig.forNodeType(NODE_TYPE_2)
+                                                                              .nested()
+                                                                              .filteredBy("source_s", SOLR_STRING, "crm")
+                                                                              .dataField("article_s", SOLR_STRING)
+                                                                                  .mappedToArgName("article")
+                                                                          .get())
+                                                                      .get();
+    // @formatter:on
+
+    private static final CoreExpression EXPRESSION = parseCoreExpression("color = red AND STRICT NOT article = shoe");
+
+    @Test
+    void testBasics() {
+
+        assertThrows(IllegalArgumentException.class, () -> new TenantConverterRegistry(null, 10, Duration.ofMinutes(1)));
+        assertThrows(IllegalArgumentException.class, () -> new TenantConverterRegistry(CONFIG, 0, Duration.ofMinutes(1)));
+        assertThrows(IllegalArgumentException.class, () -> new TenantConverterRegistry(CONFIG, 10, Duration.ZERO));
+        assertThrows(IllegalArgumentException.class, () -> new TenantConverterRegistry(CONFIG, 10, null));
+        assertThrows(IllegalArgumentException.class, () -> new TenantConverterRegistry(CONFIG, " ", null, null, 10, Duration.ofMinutes(1)));
+
+        TenantConverterRegistry registry = new TenantConverterRegistry(CONFIG, 10, Duration.ofMinutes(1));
+
+        assertThrows(IllegalArgumentException.class, () -> registry.createConverter(null));
+
+        assertEquals(TenantConverterRegistry.DEFAULT_TENANT_VARIABLE_NAME, registry.getTenantVariableName());
+        assertEquals(0, registry.numberOfTenants());
+
+        SolrQueryDefinition queryDef17 = registry.convert("17", EXPRESSION);
+        SolrQueryDefinition queryDef18 = registry.convert("18", EXPRESSION);
+
+        assertEquals(2, registry.numberOfTenants());
+        assertTrue(registry.containsTenant("17"));
+        assertTrue(registry.containsTenant("18"));
+
+        assertEquals(convertWithoutRegistry("17", EXPRESSION), queryDef17);
+        assertEquals(convertWithoutRegistry("18", EXPRESSION), queryDef18);
+        assertNotEquals(queryDef17, queryDef18);
+
+        assertTrue(queryDef17.toString().contains("tenant_s:17"));
+        assertTrue(queryDef18.toString().contains("tenant_s:18"));
+
+        // converters can be re-used
+        SolrExpressionConverter converter = registry.createConverter("17");
+        assertEquals(queryDef17, converter.convert(EXPRESSION));
+        assertEquals(queryDef17, converter.convert(EXPRESSION));
+
+        // the caller changed a variable, so the pre-rendered filters must not be used
+        converter.getInitialVariables().put("tenant", "19");
+        assertEquals(convertWithoutRegistry("19", EXPRESSION), converter.convert(EXPRESSION));
+
+    }
+
+    @Test
+    void testCustomVariables() {
+
+        Map<String, Serializable> globalVariables = new HashMap<>();
+        globalVariables.put("client", "should be overwritten");
+
+        // @formatter:off
+        SolrMappingConfig config = MainDocumentConfig.forNodeType(NODE_TYPE_1)
+                                                         .filteredBy("client_s", SOLR_STRING, "C-${client}")
+                                                         .dataField("color_s", SOLR_STRING)
+                                                             .mappedToArgName("color")
+                                                     .get();
+        // @formatter:on
+
+        TenantConverterRegistry registry = new TenantConverterRegistry(config, "client", globalVariables, null, 10, Duration.ofMinutes(1));
+
+        assertTrue(registry.convert("4711", parseCoreExpression("STRICT NOT color = blue")).toString().contains("client_s:C\\-4711"));
+
+    }
+
+    @Test
+    void testEviction() {
+
+        AtomicLong clock = new AtomicLong(0);
+
+        TenantConverterRegistry registry = new TenantConverterRegistry(CONFIG, "tenant", null, null, 3, Duration.ofNanos(1000), clock::get);
+
+        registry.createConverter("1");
+        clock.addAndGet(10);
+        registry.createConverter("2");
+        clock.addAndGet(10);
+        registry.createConverter("3");
+        clock.addAndGet(10);
+        registry.createConverter("1");
+        clock.addAndGet(10);
+
+        // bounded, least recently used tenant goes first
+        registry.createConverter("4");
+        assertEquals(3, registry.numberOfTenants());
+        assertFalse(registry.containsTenant("2"));
+        assertTrue(registry.containsTenant("1"));
+        assertTrue(registry.containsTenant("3"));
+        assertTrue(registry.containsTenant("4"));
+
+        clock.addAndGet(985);
+        assertEquals(1, registry.evictIdleTenants());
+        assertFalse(registry.containsTenant("3"));
+
+        clock.addAndGet(2000);
+        // idle tenants will be evicted during regular access
+        registry.createConverter("5");
+        assertEquals(1, registry.numberOfTenants());
+        assertTrue(registry.containsTenant("5"));
+
+        // an evicted tenant will be prepared again
+        assertEquals(convertWithoutRegistry("2", EXPRESSION), registry.convert("2", EXPRESSION));
+
+    }
+
+    @Test
+    void testManyTenants() {
+
+        TenantConverterRegistry registry = new TenantConverterRegistry(CONFIG, 100, Duration.ofMinutes(1));
+
+        for (int i = 0; i < 3_000; i++) {
+            String tenant = String.valueOf(i);
+            assertTrue(registry.convert(tenant, EXPRESSION).toString().contains("tenant_s:" + tenant));
+            assertTrue(registry.numberOfTenants() <= 100);
+        }
+
+    }
+
+    @Test
+    void testRouteKeys() {
+
+        Map<String, Serializable> globalVariables = new HashMap<>();
+        globalVariables.put(SolrConversionOverrides.ROUTE_KEY_VARIABLE_NAME.name(), "tenant");
+
+        TenantConverterRegistry registry = new TenantConverterRegistry(CONFIG, "tenant", globalVariables, null, 10, Duration.ofMinutes(1));
+
+        // unfiltered nested documents reside on the shard of their main document
+        assertEquals(List.of("17!"), registry.convert("17", EXPRESSION).routeKeys());
+        assertEquals(List.of("18!"), registry.convert("18", parseCoreExpression("color = red")).routeKeys());
+
+        // routing disabled by default
+        assertTrue(convertWithoutRegistry("17", EXPRESSION).routeKeys().isEmpty());
+
+        // @formatter:off
+        SolrMappingConfig config = MainDocumentConfig.forNodeType(NODE_TYPE_1)
+                                                         .filteredBy("tenant_s", SOLR_STRING, "${tenant}")
+                                                         .dataField("color_s", SOLR_STRING)
+                                                             .mappedToArgName("color")
+                                                         .subConfig(SubDocumentConfig.forNodeType(NODE_TYPE_2)
+                                                             .dependent()
+                                                             .dataField("article_s", SOLR_STRING)
+                                                                 .mappedToArgName("article")
+                                                         .get())
+                                                         .subConfig(SubDocumentConfig.forNodeType(NODE_TYPE_3)
+                                                             .dependent()
+                                                             .filteredBy("tenant_s", SOLR_STRING, "${tenant}")
+                                                             .dataField("shop_s", SOLR_STRING)
+                                                                 .mappedToArgName("shop")
+                                                         .get())
+                                                     .get();
+        // @formatter:on
+
+        registry = new TenantConverterRegistry(config, "tenant", globalVariables, null, 10, Duration.ofMinutes(1));
+
+        assertEquals(List.of("17!"), registry.convert("17", parseCoreExpression("color = red AND shop = web")).routeKeys());
+
+        // values that are not valid shard keys
+        assertEquals(List.of(), registry.convert("17,18", parseCoreExpression("color = red AND shop = web")).routeKeys());
+        assertEquals(List.of(), registry.convert("a!b", parseCoreExpression("color = red AND shop = web")).routeKeys());
+
+        // dependent documents without tenant filter could reside on any shard
+        assertTrue(registry.convert("17", parseCoreExpression("color = red AND article = shoe")).routeKeys().isEmpty());
+
+        // main documents without tenant filter
+        config = MainDocumentConfig.forNodeType(NODE_TYPE_1).dataField("color_s", SOLR_STRING).mappedToArgName("color").get();
+        globalVariables.put("tenant", "17");
+        assertTrue(new SolrExpressionConverter(config, globalVariables, null).convert(parseCoreExpression("color = red")).routeKeys().isEmpty());
+
+    }
+
+    private static SolrQueryDefinition convertWithoutRegistry(String tenant, CoreExpression expression) {
+        Map<String, Serializable> globalVariables = new HashMap<>();
+        globalVariables.put("tenant", tenant);
+        return new SolrExpressionConverter(CONFIG, globalVariables, null).convert(expression);
+    }
+
+}
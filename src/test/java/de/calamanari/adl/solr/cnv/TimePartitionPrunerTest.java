@@ -0,0 +1,311 @@
+//@formatter:off
+/*
+ * TimePartitionPrunerTest
+ * Copyright 2025 Karl Eilebrecht
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"):
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+//@formatter:on
+package de.calamanari.adl.solr.cnv;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.apache.solr.client.solrj.SolrServerException;
+import org.apache.solr.client.solrj.request.CoreAdminRequest;
+import org.apache.solr.client.solrj.request.SolrQuery;
+import org.apache.solr.common.SolrDocument;
+import org.apache.solr.common.SolrInputDocument;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import de.calamanari.adl.CombinedExpressionType;
+import de.calamanari.adl.ConversionException;
+import de.calamanari.adl.FormatStyle;
+import de.calamanari.adl.solr.EmbeddedSolrServerUtils;
+import de.calamanari.adl.solr.SolrConditionType;
+import de.calamanari.adl.solr.SolrFilterQuery;
+import de.calamanari.adl.solr.SolrJsonQueryDefinition;
+import de.calamanari.adl.solr.SolrQueryField;
+import de.calamanari.adl.solr.SolrStreamingQueryDefinition;
+import de.calamanari.adl.solr.SolrTestBase;
+import de.calamanari.adl.solr.cnv.ast.BooleanClause;
+import de.calamanari.adl.solr.cnv.ast.BooleanNode;
+import de.calamanari.adl.solr.cnv.ast.FilterNode;
+import de.calamanari.adl.solr.cnv.ast.FilterRange;
+import de.calamanari.adl.solr.cnv.ast.RangeCondition;
+import de.calamanari.adl.solr.config.MainDocumentConfig;
+import de.calamanari.adl.solr.config.SolrMappingConfig;
+import de.calamanari.adl.solr.config.SubDocumentConfig;
+import de.calamanari.adl.solr.config.TimePartitioning;
+
+import static de.calamanari.adl.cnv.StandardConversions.parseCoreExpression;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The POS-documents of the hybrid test setup get copied into monthly cores (partitions) next to the main core. The results of the partitioned setup must be
+ * the same as the results of the original setup (POS-documents in the main core) while the queries only target the partitions that can contain matches.
+ * 
+ * @author <a href="mailto:Karl.Eilebrecht(a/t)calamanari.de">Karl Eilebrecht</a>
+ */
+class TimePartitionPrunerTest extends SolrTestBase {
+
+    private static final String MAIN_COLLECTION_NAME = "Audlang";
+
+    private static final String POS_DATE_FIELD_NAME = "pos_invdate_dt";
+
+    private static final TimePartitioning POS_PARTITIONING = new TimePartitioning(POS_DATE_FIELD_NAME, "'pos_'uuuu_MM", YearMonth.of(2024, 1),
+            YearMonth.of(2024, 6));
+
+    private static final String FEB_14 = "2024-02-14T00:00:00Z";
+
+    private static final String APR_01 = "2024-04-01T00:00:00Z";
+
+    private static final Pattern FROM_INDEX_PATTERN = Pattern.compile("fromIndex=(\\w+)");
+
+    private static SolrMappingConfig referenceConfig;
+
+    private static SolrMappingConfig partitionedConfig;
+
+    private static int profileIdWithoutPos;
+
+    @BeforeAll
+    static void beforeAll() throws IOException, SolrServerException {
+        initTestServerWithHybridMapping();
+        referenceConfig = currentSolrMappingConfig;
+        partitionedConfig = createPartitionedConfig((MainDocumentConfig) referenceConfig);
+
+        for (String partitionName : POS_PARTITIONING.partitionNames()) {
+            CoreAdminRequest.Create createRequest = new CoreAdminRequest.Create();
+            createRequest.setCoreName(partitionName);
+            createRequest.setConfigSet("audlang");
+            testServer.request(createRequest);
+        }
+
+        List<Integer> profileIdsWithPos = new ArrayList<>();
+        for (SolrDocument document : testServer.query(MAIN_COLLECTION_NAME, new SolrQuery("node_type:pos").setRows(1000)).getResults()) {
+            SolrInputDocument partitionDocument = new SolrInputDocument();
+            document.getFieldNames().stream().filter(fieldName -> !fieldName.startsWith("_"))
+                    .forEach(fieldName -> partitionDocument.addField(fieldName, document.getFieldValue(fieldName)));
+            YearMonth month = YearMonth.from(((Date) document.getFieldValue(POS_DATE_FIELD_NAME)).toInstant().atZone(ZoneOffset.UTC));
+            testServer.add(POS_PARTITIONING.partitionNameOf(month), partitionDocument);
+            profileIdsWithPos.add(Integer.parseInt(String.valueOf(document.getFieldValue("main_id"))));
+        }
+
+        // Misplaced document in the January partition: it can only be found if the January partition gets queried for a date in March
+        profileIdWithoutPos = EmbeddedSolrServerUtils.queryIntIds(testServer, "node_type:profile").stream().filter(id -> !profileIdsWithPos.contains(id))
+                .findFirst().orElseThrow();
+        SolrInputDocument trap = new SolrInputDocument();
+        trap.addField("id", "pos_trap_1");
+        trap.addField("main_id", String.valueOf(profileIdWithoutPos));
+        trap.addField("node_type", "pos");
+        trap.addField(POS_DATE_FIELD_NAME, Date.from(Instant.parse("2024-03-16T00:00:00Z")));
+        testServer.add(POS_PARTITIONING.partitionNameOf(YearMonth.of(2024, 1)), trap);
+
+        for (String partitionName : POS_PARTITIONING.partitionNames()) {
+            testServer.commit(partitionName);
+        }
+    }
+
+    @Test
+    void testPruning() {
+
+        assertPartitionedQuery("pos.date = 2024-03-15", "pos_2024_03");
+        assertPartitionedQuery("pos.date > 2024-03-30", "pos_2024_03", "pos_2024_04", "pos_2024_05", "pos_2024_06");
+        assertPartitionedQuery("pos.date < 2024-02-15", "pos_2024_01", "pos_2024_02");
+        assertPartitionedQuery("pos.date > 2024-03-31 AND pos.date < 2024-05-01", "pos_2024_04");
+        assertPartitionedQuery("pos.date = 2024-03-15 OR pos.date = 2024-05-18", "pos_2024_03", "pos_2024_05");
+        assertPartitionedQuery("pos.date = 2024-01-13 AND pos.country = USA", "pos_2024_01");
+        assertPartitionedQuery("pos.anyDate = 2024-03-15 AND pos.anyDate = 2024-05-18", "pos_2024_03", "pos_2024_05");
+        assertPartitionedQuery("pos.date > 2024-03-30 AND home-country = USA", "pos_2024_03", "pos_2024_04", "pos_2024_05", "pos_2024_06");
+
+        // the misplaced document in the January partition is out of reach unless we query all partitions
+        assertPartitionedQuery("pos.date = 2024-03-16", "pos_2024_03");
+        assertEquals(List.of(profileIdWithoutPos), selectIdsPartitioned("pos.date = 2024-03-16 OR pos.country = NOBODY"));
+
+    }
+
+    @Test
+    void testNoPruning() {
+
+        String[] allPartitions = POS_PARTITIONING.partitionNames().toArray(new String[0]);
+
+        assertPartitionedQuery("pos.country = USA", allPartitions);
+        assertPartitionedQuery("pos.country = USA OR pos.date = 2024-03-15", allPartitions);
+        assertPartitionedQuery("pos.country = USA AND NOT pos.date = 2024-03-15", allPartitions);
+
+    }
+
+    @Test
+    void testNoPartitionSelected() {
+
+        // still a valid query (one partition without any chance to match)
+        assertPartitionedQuery("pos.date < 2023-12-01", "pos_2024_01");
+        assertTrue(selectIdsPartitioned("pos.date < 2023-12-01").isEmpty());
+
+        assertPartitionedQuery("pos.date > 2024-07-01 OR home-country = USA", "pos_2024_01");
+
+    }
+
+    @Test
+    void testPruneSubQuery() {
+
+        TimePartitionPruner pruner = new TimePartitionPruner(POS_PARTITIONING);
+
+        assertEquals(List.of("pos_2024_02"), pruner.selectPartitionNames(group(clause(null, false, FilterRange.ofValue(POS_DATE_FIELD_NAME, FEB_14)))));
+
+        assertEquals(List.of("pos_2024_02", "pos_2024_03"),
+                pruner.selectPartitionNames(group(clause(null, false, new FilterRange(POS_DATE_FIELD_NAME, FEB_14, true, APR_01, false)))));
+
+        assertEquals(List.of("pos_2024_02", "pos_2024_03", "pos_2024_04"),
+                pruner.selectPartitionNames(group(clause(null, false, new FilterRange(POS_DATE_FIELD_NAME, FEB_14, true, APR_01, true)))));
+
+        assertEquals(List.of("pos_2024_05", "pos_2024_06"),
+                pruner.selectPartitionNames(group(clause(null, false, new FilterRange(POS_DATE_FIELD_NAME, "2024-05-01T00:00:00Z", false, null, true)))));
+
+        assertEquals(List.of(), pruner.selectPartitionNames(group(clause(null, false, new FilterRange(POS_DATE_FIELD_NAME, FEB_14, false, FEB_14, true)))));
+
+        // other fields, negations, date math and leaves without range (e.g., composite text) cannot be pruned
+        assertEquals(POS_PARTITIONING.partitionNames(), pruner.selectPartitionNames(group(clause(null, false, FilterRange.ofValue("pos_country_s", "USA")))));
+        assertEquals(POS_PARTITIONING.partitionNames(),
+                pruner.selectPartitionNames(group(clause(null, true, FilterRange.ofValue(POS_DATE_FIELD_NAME, FEB_14)))));
+        assertEquals(POS_PARTITIONING.partitionNames(),
+                pruner.selectPartitionNames(group(clause(null, false, new FilterRange(POS_DATE_FIELD_NAME, "NOW-1MONTH", true, "NOW", true)))));
+        assertEquals(POS_PARTITIONING.partitionNames(),
+                pruner.selectPartitionNames(group(clause(null, false, "pos_invdate_dt:2024\\-02\\-14T00\\:00\\:00Z OR pos_country_s:USA"))));
+        assertEquals(POS_PARTITIONING.partitionNames(),
+                pruner.selectPartitionNames(group(clause(null, false, new FilterRange(POS_DATE_FIELD_NAME, null, true, null, true)))));
+
+        // mixed AND/OR without braces
+        assertEquals(POS_PARTITIONING.partitionNames(),
+                pruner.selectPartitionNames(group(clause(null, false, FilterRange.ofValue(POS_DATE_FIELD_NAME, FEB_14)),
+                        clause(CombinedExpressionType.AND, false, "pos_country_s:USA"), clause(CombinedExpressionType.OR, false, "pos_country_s:UK"))));
+
+        assertThrows(IllegalArgumentException.class, () -> new TimePartitionPruner(null));
+
+    }
+
+    @Test
+    void testAlternativeRepresentations() {
+
+        List<String> expressions = List.of("pos.date = 2024-03-15", "pos.date > 2024-03-30 AND home-country = USA",
+                "pos.date = 2024-03-15 OR pos.date = 2024-05-18", "pos.country = USA AND NOT pos.date < 2024-03-01");
+
+        for (String expression : expressions) {
+            currentSolrMappingConfig = referenceConfig;
+            List<Integer> expectedIds = selectIds(expression);
+
+            SolrExpressionConverter converter = new SolrExpressionConverter(partitionedConfig);
+            converter.getInitialVariables().put("tenant", "17");
+
+            SolrJsonQueryDefinition jsonQueryDefinition = converter.convertToJson(parseCoreExpression(expression));
+            assertTrue(jsonQueryDefinition.filters().stream().anyMatch(filter -> filter.contains("\"fromIndex\"")), expression);
+            assertEquals(expectedIds, EmbeddedSolrServerUtils.queryIntIdsSorted(testServer, jsonQueryDefinition), expression);
+
+            SolrStreamingQueryDefinition streamingQueryDefinition = converter.convertToStreamingExpression(parseCoreExpression(expression),
+                    MAIN_COLLECTION_NAME);
+            assertTrue(streamingQueryDefinition.expression().contains("search(pos_2024_"), expression);
+            assertEquals(expectedIds, EmbeddedSolrServerUtils.queryIntIdsSorted(testServer, streamingQueryDefinition), expression);
+        }
+
+    }
+
+    @Test
+    void testFacetsNotSupported() {
+
+        SolrExpressionConverter converter = new SolrExpressionConverter(partitionedConfig);
+        converter.getInitialVariables().put("tenant", "17");
+
+        assertEquals(1, converter.convertWithFacets(parseCoreExpression("pos.date = 2024-03-15"), List.of("home-country"), 10).facets().size());
+
+        // the join of a facet domain cannot span the partitions
+        assertThrows(ConversionException.class,
+                () -> converter.convertWithFacets(parseCoreExpression("pos.date = 2024-03-15"), List.of("home-country", "pos.country"), 10));
+
+    }
+
+    /**
+     * Compares the result of the partitioned setup to the reference setup and verifies the partitions the query targets
+     * 
+     * @param expression
+     * @param expectedPartitionNames
+     */
+    private static void assertPartitionedQuery(String expression, String... expectedPartitionNames) {
+
+        currentSolrMappingConfig = referenceConfig;
+        List<Integer> expectedIds = selectIds(expression);
+
+        List<Integer> partitionedIds = selectIdsPartitioned(expression);
+
+        assertEquals(expectedIds, partitionedIds, expression);
+
+        currentSolrMappingConfig = partitionedConfig;
+        Set<String> partitionNames = new TreeSet<>();
+        createQueryDefinition(expression, FormatStyle.INLINE).filterQueries().stream().map(SolrFilterQuery::queryString).forEach(queryString -> {
+            Matcher matcher = FROM_INDEX_PATTERN.matcher(queryString);
+            while (matcher.find()) {
+                partitionNames.add(matcher.group(1));
+            }
+        });
+        currentSolrMappingConfig = referenceConfig;
+
+        assertEquals(new TreeSet<>(Arrays.asList(expectedPartitionNames)), partitionNames, expression);
+    }
+
+    private static List<Integer> selectIdsPartitioned(String expression) {
+        currentSolrMappingConfig = partitionedConfig;
+        try {
+            return selectIds(expression);
+        }
+        finally {
+            currentSolrMappingConfig = referenceConfig;
+        }
+    }
+
+    private static SolrMappingConfig createPartitionedConfig(MainDocumentConfig base) {
+        List<SubDocumentConfig> subConfigs = base.subDocumentConfigs().stream()
+                .map(sdc -> sdc.nodeType().equals(EmbeddedSolrServerUtils.NODE_TYPE_POS) ? sdc.withTimePartitioning(POS_PARTITIONING) : sdc).toList();
+        return new MainDocumentConfig(base.nodeType(), base.documentFilters(), base.argFieldMap(), base.autoMappingPolicy(), subConfigs,
+                base.guardianLookup());
+    }
+
+    private static BooleanNode group(BooleanClause... clauses) {
+        return new BooleanNode(Arrays.asList(clauses), false);
+    }
+
+    private static BooleanClause clause(CombinedExpressionType combiner, boolean negated, String condition) {
+        SolrFilterQuery filterQuery = new SolrFilterQuery(condition, List.of(new SolrQueryField(EmbeddedSolrServerUtils.NODE_TYPE_POS, POS_DATE_FIELD_NAME)),
+                List.of(SolrConditionType.CMP_VALUE));
+        return new BooleanClause(combiner, negated, new FilterNode(filterQuery));
+    }
+
+    private static BooleanClause clause(CombinedExpressionType combiner, boolean negated, FilterRange range) {
+        RangeCondition condition = new RangeCondition(range.fieldName(), range.lowerBound(), range.lowerBoundInclusive(), range.upperBound(),
+                range.upperBoundInclusive());
+        return new BooleanClause(combiner, negated, new FilterNode(condition,
+                List.of(new SolrQueryField(EmbeddedSolrServerUtils.NODE_TYPE_POS, range.fieldName())), List.of(SolrConditionType.CMP_RANGE)));
+    }
+
+}
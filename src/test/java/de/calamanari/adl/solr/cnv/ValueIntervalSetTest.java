@@ -0,0 +1,120 @@
+//@formatter:off
+/*
+ * ValueIntervalSetTest
+ * Copyright 2025 Karl Eilebrecht
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"):
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+//@formatter:on
+
+package de.calamanari.adl.solr.cnv;
+
+import java.math.BigDecimal;
+import java.util.Comparator;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author <a href="mailto:Karl.Eilebrecht(a/t)calamanari.de">Karl Eilebrecht</a>
+ */
+class ValueIntervalSetTest {
+
+    private static final Comparator<String> CMP = Comparator.comparing(BigDecimal::new);
+
+    @Test
+    void testBasics() {
+
+        assertTrue(ValueIntervalSet.empty(CMP).isEmpty());
+        assertEquals("{}", ValueIntervalSet.empty(CMP).toString());
+
+        assertEquals("[[5 .. 5]]", ValueIntervalSet.point(CMP, "5").toString());
+        assertTrue(ValueIntervalSet.point(CMP, "5").intervals().get(0).isPoint());
+
+        assertEquals("[(5 .. *)]", ValueIntervalSet.greaterThan(CMP, "5", false).toString());
+        assertEquals("[[5 .. *)]", ValueIntervalSet.greaterThan(CMP, "5", true).toString());
+        assertEquals("[(* .. 5)]", ValueIntervalSet.lessThan(CMP, "5", false).toString());
+        assertEquals("[(* .. 5]]", ValueIntervalSet.lessThan(CMP, "5", true).toString());
+
+        assertTrue(ValueIntervalSet.of(CMP, "7", true, "5", true).isEmpty());
+        assertTrue(ValueIntervalSet.of(CMP, "5", true, "5", false).isEmpty());
+        assertTrue(ValueIntervalSet.of(CMP, null, false, null, false).isFull());
+
+        assertThrows(IllegalArgumentException.class, () -> ValueIntervalSet.empty(null));
+        assertThrows(IllegalArgumentException.class, () -> ValueIntervalSet.greaterThan(CMP, null, false));
+        assertThrows(IllegalArgumentException.class, () -> ValueIntervalSet.lessThan(CMP, null, true));
+    }
+
+    @Test
+    void testIntersect() {
+
+        ValueIntervalSet gt20 = ValueIntervalSet.greaterThan(CMP, "20", false);
+        ValueIntervalSet gt30 = ValueIntervalSet.greaterThan(CMP, "30", false);
+        ValueIntervalSet gte30 = ValueIntervalSet.greaterThan(CMP, "30", true);
+        ValueIntervalSet lte30 = ValueIntervalSet.lessThan(CMP, "30", true);
+        ValueIntervalSet lt30 = ValueIntervalSet.lessThan(CMP, "30", false);
+
+        assertEquals("[(30 .. *)]", gt20.intersect(gt30).toString());
+        assertEquals("[(30 .. *)]", gte30.intersect(gt30).toString());
+        assertEquals("[(20 .. 30]]", gt20.intersect(lte30).toString());
+        assertEquals("[[30 .. 30]]", gte30.intersect(lte30).toString());
+        assertTrue(gte30.intersect(lt30).isEmpty());
+        assertTrue(gt30.intersect(lte30).isEmpty());
+
+        ValueIntervalSet points = ValueIntervalSet.point(CMP, "3").union(ValueIntervalSet.point(CMP, "7")).union(ValueIntervalSet.point(CMP, "12"));
+        assertEquals("[[7 .. 7], [12 .. 12]]", points.intersect(ValueIntervalSet.greaterThan(CMP, "5", false)).toString());
+
+        // numeric comparison, not lexical
+        assertEquals("[[5.0 .. 5.0]]", ValueIntervalSet.point(CMP, "5.0").intersect(ValueIntervalSet.point(CMP, "5")).toString());
+
+    }
+
+    @Test
+    void testUnion() {
+
+        ValueIntervalSet between1And5 = ValueIntervalSet.of(CMP, "1", true, "5", true);
+        ValueIntervalSet between4And9 = ValueIntervalSet.of(CMP, "4", true, "9", true);
+
+        assertEquals("[[1 .. 9]]", between1And5.union(between4And9).toString());
+        assertEquals("[[1 .. 9]]", between4And9.union(between1And5).toString());
+
+        // touching
+        assertEquals("[[1 .. 9)]", ValueIntervalSet.of(CMP, "1", true, "5", false).union(ValueIntervalSet.of(CMP, "5", true, "9", false)).toString());
+        assertEquals("[(1 .. 9)]", ValueIntervalSet.of(CMP, "1", false, "5", false).union(ValueIntervalSet.point(CMP, "5"))
+                .union(ValueIntervalSet.of(CMP, "5", false, "9", false)).toString());
+
+        // not touching, 5 is missing
+        assertEquals("[(1 .. 5), (5 .. 9)]",
+                ValueIntervalSet.of(CMP, "1", false, "5", false).union(ValueIntervalSet.of(CMP, "5", false, "9", false)).toString());
+
+        // no assumptions about the density of the values
+        assertEquals(2, ValueIntervalSet.point(CMP, "5").union(ValueIntervalSet.point(CMP, "6")).size());
+
+        ValueIntervalSet full = ValueIntervalSet.greaterThan(CMP, "5", false).union(ValueIntervalSet.lessThan(CMP, "8", false));
+        assertTrue(full.isFull());
+        assertEquals("[(* .. *)]", full.toString());
+
+        ValueIntervalSet almostFull = ValueIntervalSet.greaterThan(CMP, "5", false).union(ValueIntervalSet.lessThan(CMP, "5", false));
+        assertFalse(almostFull.isFull());
+        assertTrue(almostFull.union(ValueIntervalSet.point(CMP, "5")).isFull());
+
+        assertEquals("[(* .. 3], [7 .. *)]", ValueIntervalSet.greaterThan(CMP, "7", true).union(ValueIntervalSet.lessThan(CMP, "3", true))
+                .union(ValueIntervalSet.of(CMP, "1", true, "2", true)).toString());
+
+    }
+
+}
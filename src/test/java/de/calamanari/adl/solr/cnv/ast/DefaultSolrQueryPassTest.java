@@ -0,0 +1,285 @@
+//@formatter:off
+/*
+ * DefaultSolrQueryPassTest
+ * Copyright 2025 Karl Eilebrecht
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"):
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+//@formatter:on
+
+package de.calamanari.adl.solr.cnv.ast;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import de.calamanari.adl.CombinedExpressionType;
+import de.calamanari.adl.FormatStyle;
+import de.calamanari.adl.solr.SolrConditionType;
+import de.calamanari.adl.solr.SolrFilterQuery;
+import de.calamanari.adl.solr.SolrQueryField;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author <a href="mailto:Karl.Eilebrecht(a/t)calamanari.de">Karl Eilebrecht</a>
+ */
+class DefaultSolrQueryPassTest {
+
+    private static final SolrQueryStringSerializer SERIALIZER = new SolrQueryStringSerializer(FormatStyle.INLINE);
+
+    @Test
+    void testFilterConditions() {
+
+        assertEquals("color:red", new TermCondition("color", "red").toQueryString());
+        assertEquals("color:(blue OR red)", new TermListCondition("color", List.of("blue", "red")).toQueryString());
+        assertEquals("_query_:\"\\{\\!terms\\ f=color\\}blue,red\"", new TermsCondition("color", null, List.of("blue", "red")).toQueryString());
+        assertEquals("_query_:\"\\{\\!terms\\ f=color\\ method=docValuesTermsFilter\\}blue,red\"",
+                new TermsCondition("color", "docValuesTermsFilter", List.of("blue", "red")).toQueryString());
+        assertEquals("age:[* TO 5}", new RangeCondition("age", null, true, "5", false).toQueryString());
+        assertEquals("age:{0 TO *]", new RangeCondition("age", "0", false, null, true).toQueryString());
+        assertEquals("story:*fox*", new WildcardCondition("story", "*fox*").toQueryString());
+        assertEquals("_query_:\"\\{\\!frange\\ l=1\\ u=1\\}if\\(exists\\(a\\),1,0\\)\"",
+                new FrangeCondition(1, 1, "if(exists(a),1,0)").toQueryString());
+        assertEquals("(node_type:pos AND tenant:17)", new QueryStringCondition("(node_type:pos AND tenant:17)").toQueryString());
+
+        assertThrows(IllegalArgumentException.class, () -> new TermCondition("color", null));
+        assertThrows(IllegalArgumentException.class, () -> new TermListCondition("color", List.of()));
+        assertThrows(IllegalArgumentException.class, () -> new TermsCondition("color", null, List.of("a,b")));
+        assertThrows(IllegalArgumentException.class, () -> new RangeCondition(null, null, true, null, true));
+        assertThrows(IllegalArgumentException.class, () -> new WildcardCondition(null, "*"));
+        assertThrows(IllegalArgumentException.class, () -> new FrangeCondition(1, 1, " "));
+        assertThrows(IllegalArgumentException.class, () -> new QueryStringCondition(null));
+
+    }
+
+    @Test
+    void testBasics() {
+
+        assertThrows(IllegalArgumentException.class, () -> new FilterNode(null));
+        assertThrows(IllegalArgumentException.class, () -> new RawNode(null));
+        assertThrows(IllegalArgumentException.class, () -> new BooleanClause(null, false, null));
+        assertThrows(IllegalArgumentException.class, () -> new BooleanNode(null, false));
+        assertThrows(IllegalArgumentException.class, () -> new BooleanNode(Arrays.asList((BooleanClause) null), false));
+        assertThrows(IllegalArgumentException.class, () -> new DependentJoinNode("pos", "main_id", "id", null));
+        assertThrows(IllegalArgumentException.class, () -> new NestedJoinNode("pos", null, "profile", group(false)));
+        assertThrows(IllegalArgumentException.class, () -> new SolrQueryStringSerializer(null));
+
+        assertEquals(FilterKind.NODE_TYPE, nodeType("node_type:pos").kind());
+        assertEquals(FilterKind.TERM, filter("color:red").kind());
+        assertEquals(FilterKind.RANGE, filter("age:[* TO 5]", SolrConditionType.CMP_RANGE).kind());
+        assertEquals(FilterKind.FRANGE, filter("_query_:\"{!frange l=1}...\"", SolrConditionType.FRANGE).kind());
+        assertEquals(FilterKind.TERM, filter("_query_:\"{!terms f=color}red,blue\"").kind());
+        assertEquals(FilterKind.TERMS, typed(new TermsCondition("color", null, List.of("blue", "red"))).kind());
+        assertEquals(FilterKind.RANGE, typed(new RangeCondition("age", null, true, "5", true)).kind());
+        assertEquals(FilterKind.FRANGE, typed(new FrangeCondition(1, 1, "if(exists(a),1,0)")).kind());
+        assertEquals(FilterKind.TERM, typed(new TermListCondition("color", List.of("blue", "red"))).kind());
+
+        SolrFilterQuery mismatch = new SolrFilterQuery("color:blue", List.of(new SolrQueryField("node1", "color")), List.of(SolrConditionType.CMP_VALUE));
+        TermCondition condition = new TermCondition("color", "red");
+        assertThrows(IllegalArgumentException.class, () -> new FilterNode(condition, mismatch));
+        assertThrows(IllegalArgumentException.class, () -> new FilterNode(null, mismatch));
+
+        assertEquals(FilterRange.ofValue("color", "dark red"), typed(new TermCondition("color", "dark\\ red")).range());
+        assertEquals(new FilterRange("day", "2024-03-01", true, null, true), typed(new RangeCondition("day", "2024\\-03\\-01", true, null, true)).range());
+        assertNull(typed(new WildcardCondition("color", "*")).range());
+        assertNull(typed(new TermListCondition("color", List.of("blue", "red"))).range());
+        assertNull(filter("color:red").range());
+
+        BooleanNode mixed = group(true, clause(null, "a"), clause(CombinedExpressionType.AND, "b"), clause(CombinedExpressionType.OR, "c"));
+        assertNull(mixed.commonCombiner());
+        assertFalse(mixed.isHomogeneous());
+
+        BooleanNode homogeneous = group(true, clause(null, "a"), clause(CombinedExpressionType.OR, "b"));
+        assertEquals(CombinedExpressionType.OR, homogeneous.commonCombiner());
+        assertTrue(homogeneous.isHomogeneous());
+
+    }
+
+    @Test
+    void testSerialize() {
+
+        BooleanNode root = group(false, clause(null, nodeType("node_type:profile")),
+                new BooleanClause(CombinedExpressionType.AND, true, new DependentJoinNode("pos", "main_id", "id",
+                        group(false, clause(null, nodeType("node_type:pos")), clause(CombinedExpressionType.AND, "pos_quantity_i:1")))));
+
+        assertEquals("node_type:profile AND NOT {!join from=main_id to=id v=\"node_type\\:pos\\ AND\\ pos_quantity_i\\:1\"}", SERIALIZER.serialize(root));
+
+        assertEquals("""
+                node_type:profile
+                AND NOT {!join from=main_id to=id v="node_type\\:pos\\
+                \\ \\ \\ \\ AND\\ pos_quantity_i\\:1"}""", new SolrQueryStringSerializer(FormatStyle.PRETTY_PRINT).serialize(root).trim());
+
+        BooleanNode nested = group(false, clause(null, nodeType("node_type:profile")), new BooleanClause(CombinedExpressionType.AND, false,
+                new NestedJoinNode("fact", "node_type", "profile", group(false, clause(null, "fct_name_s:hasDog")))));
+
+        assertEquals("node_type:profile AND {!parent which=\"node_type:profile\" v=\"fct_name_s\\:hasDog\"}", SERIALIZER.serialize(nested));
+
+    }
+
+    @Test
+    void testRemoveDuplicateClauses() {
+
+        BooleanNode root = group(false, clause(null, "a"), clause(CombinedExpressionType.OR, "b"), clause(CombinedExpressionType.OR, "a"),
+                new BooleanClause(CombinedExpressionType.OR, true, filter("c")), new BooleanClause(CombinedExpressionType.OR, true, filter("c")));
+
+        assertEquals("a OR b OR NOT c", SERIALIZER.serialize(DefaultSolrQueryPass.REMOVE_DUPLICATE_CLAUSES.apply(root)));
+
+        // negated and positive clause are different
+        BooleanNode root2 = group(false, clause(null, "a"), new BooleanClause(CombinedExpressionType.AND, true, filter("a")));
+        assertSame(root2, DefaultSolrQueryPass.REMOVE_DUPLICATE_CLAUSES.apply(root2));
+
+        // mixed combiners: no change
+        BooleanNode root3 = group(false, clause(null, "a"), clause(CombinedExpressionType.AND, "b"), clause(CombinedExpressionType.OR, "a"));
+        assertSame(root3, DefaultSolrQueryPass.REMOVE_DUPLICATE_CLAUSES.apply(root3));
+
+        // raw text: no change
+        BooleanNode root4 = group(false, clause(null, "a"), new BooleanClause(CombinedExpressionType.AND, false, new RawNode("x")),
+                clause(CombinedExpressionType.AND, "a"));
+        assertSame(root4, DefaultSolrQueryPass.REMOVE_DUPLICATE_CLAUSES.apply(root4));
+
+        // inside groups
+        BooleanNode root5 = group(false, clause(null, "x"), new BooleanClause(CombinedExpressionType.AND, false,
+                group(true, clause(null, "a"), clause(CombinedExpressionType.OR, "b"), clause(CombinedExpressionType.OR, "b"))));
+        assertEquals("x AND (a OR b)", SERIALIZER.serialize(DefaultSolrQueryPass.REMOVE_DUPLICATE_CLAUSES.apply(root5)));
+
+    }
+
+    @Test
+    void testFlattenBraces() {
+
+        BooleanNode root = group(false, clause(null, "x"), new BooleanClause(CombinedExpressionType.AND, false,
+                group(true, clause(null, "a"), clause(CombinedExpressionType.AND, "b"), new BooleanClause(CombinedExpressionType.AND, true, filter("c")))));
+        assertEquals("x AND (a AND b AND NOT c)", SERIALIZER.serialize(root));
+        assertEquals("x AND a AND b AND NOT c", SERIALIZER.serialize(DefaultSolrQueryPass.FLATTEN_BRACES.apply(root)));
+
+        // a negation inside an OR-group limits the matches of the whole group
+        BooleanNode root2 = group(false, clause(null, "x"), new BooleanClause(CombinedExpressionType.OR, false,
+                group(true, clause(null, "a"), new BooleanClause(CombinedExpressionType.OR, true, filter("c")))));
+        assertSame(root2, DefaultSolrQueryPass.FLATTEN_BRACES.apply(root2));
+
+        // different combiner
+        BooleanNode root3 = group(false, clause(null, "x"),
+                new BooleanClause(CombinedExpressionType.AND, false, group(true, clause(null, "a"), clause(CombinedExpressionType.OR, "b"))));
+        assertSame(root3, DefaultSolrQueryPass.FLATTEN_BRACES.apply(root3));
+
+        // negated group
+        BooleanNode root4 = group(false, clause(null, "x"),
+                new BooleanClause(CombinedExpressionType.AND, true, group(true, clause(null, "a"), clause(CombinedExpressionType.AND, "b"))));
+        assertSame(root4, DefaultSolrQueryPass.FLATTEN_BRACES.apply(root4));
+
+        // group starting with a negation
+        BooleanNode root5 = group(false, clause(null, "x"), new BooleanClause(CombinedExpressionType.AND, false,
+                group(true, new BooleanClause(null, true, filter("a")), clause(CombinedExpressionType.AND, "b"))));
+        assertSame(root5, DefaultSolrQueryPass.FLATTEN_BRACES.apply(root5));
+
+        // redundant braces
+        BooleanNode root6 = group(false, clause(null, "x"), new BooleanClause(CombinedExpressionType.AND, true,
+                group(true, clause(null, group(true, clause(null, "a"), clause(CombinedExpressionType.OR, "b"))))));
+        assertEquals("x AND NOT ((a OR b))", SERIALIZER.serialize(root6));
+        assertEquals("x AND NOT (a OR b)", SERIALIZER.serialize(DefaultSolrQueryPass.FLATTEN_BRACES.apply(root6)));
+
+        // the root only consists of a group
+        BooleanNode root7 = group(false, clause(null, group(true, clause(null, "a"), clause(CombinedExpressionType.AND, "b"))));
+        assertEquals("a AND b", SERIALIZER.serialize(DefaultSolrQueryPass.FLATTEN_BRACES.apply(root7)));
+
+    }
+
+    @Test
+    void testMergeOrJoins() {
+
+        BooleanNode root = group(false, clause(null, "x"), new BooleanClause(CombinedExpressionType.OR, false, posJoin("a")),
+                new BooleanClause(CombinedExpressionType.OR, false, posJoin("b")), new BooleanClause(CombinedExpressionType.OR, false, posJoin("c")));
+
+        assertEquals("x OR {!join from=main_id to=id v=\"node_type\\:pos\\ AND\\ \\(\\(a\\)\\ OR\\ \\(b\\)\\ OR\\ \\(c\\)\\)\"}",
+                SERIALIZER.serialize(DefaultSolrQueryPass.MERGE_OR_JOINS.apply(root)));
+
+        // AND: no change
+        BooleanNode root2 = group(false, clause(null, "x"), new BooleanClause(CombinedExpressionType.AND, false, posJoin("a")),
+                new BooleanClause(CombinedExpressionType.AND, false, posJoin("b")));
+        assertSame(root2, DefaultSolrQueryPass.MERGE_OR_JOINS.apply(root2));
+
+        // negated joins will not be merged
+        BooleanNode root3 = group(false, clause(null, "x"), new BooleanClause(CombinedExpressionType.OR, true, posJoin("a")),
+                new BooleanClause(CombinedExpressionType.OR, false, posJoin("b")));
+        assertSame(root3, DefaultSolrQueryPass.MERGE_OR_JOINS.apply(root3));
+
+        // different node types will not be merged
+        BooleanNode root4 = group(false, clause(null, "x"), new BooleanClause(CombinedExpressionType.OR, false, posJoin("a")),
+                new BooleanClause(CombinedExpressionType.OR, false, new DependentJoinNode("srv", "main_id", "id",
+                        group(false, clause(null, nodeType("node_type:srv")), clause(CombinedExpressionType.AND, "b")))));
+        assertSame(root4, DefaultSolrQueryPass.MERGE_OR_JOINS.apply(root4));
+
+        // no common first clause
+        BooleanNode root5 = group(false, clause(null, new DependentJoinNode("pos", "main_id", "id", group(false, clause(null, "a")))),
+                new BooleanClause(CombinedExpressionType.OR, false, posJoin("b")));
+        assertEquals("{!join from=main_id to=id v=\"\\(a\\)\\ OR\\ \\(node_type\\:pos\\ AND\\ b\\)\"}",
+                SERIALIZER.serialize(DefaultSolrQueryPass.MERGE_OR_JOINS.apply(root5)));
+
+    }
+
+    @Test
+    void testApplyAll() {
+
+        BooleanNode root = group(false, clause(null, group(true, clause(null, "x"), new BooleanClause(CombinedExpressionType.OR, false, posJoin("a")),
+                new BooleanClause(CombinedExpressionType.OR, false, posJoin("a")))));
+
+        assertSame(root, DefaultSolrQueryPass.applyAll(root, new ArrayList<>()));
+
+        assertEquals("(x OR {!join from=main_id to=id v=\"node_type\\:pos\\ AND\\ a\"})",
+                SERIALIZER.serialize(DefaultSolrQueryPass.applyAll(root, DefaultSolrQueryPass.defaultPasses())));
+
+        assertEquals("x OR {!join from=main_id to=id v=\"node_type\\:pos\\ AND\\ a\"}",
+                SERIALIZER.serialize(DefaultSolrQueryPass.applyAll(root, DefaultSolrQueryPass.allPasses())));
+
+        assertEquals(List.of(DefaultSolrQueryPass.REMOVE_DUPLICATE_CLAUSES), DefaultSolrQueryPass.defaultPasses());
+
+    }
+
+    private static DependentJoinNode posJoin(String condition) {
+        return new DependentJoinNode("pos", "main_id", "id", group(false, clause(null, nodeType("node_type:pos")), clause(CombinedExpressionType.AND, condition)));
+    }
+
+    private static BooleanNode group(boolean braced, BooleanClause... clauses) {
+        return new BooleanNode(Arrays.asList(clauses), braced);
+    }
+
+    private static BooleanClause clause(CombinedExpressionType combiner, String condition) {
+        return new BooleanClause(combiner, false, filter(condition));
+    }
+
+    private static BooleanClause clause(CombinedExpressionType combiner, SolrQueryNode node) {
+        return new BooleanClause(combiner, false, node);
+    }
+
+    private static FilterNode typed(FilterCondition condition) {
+        return new FilterNode(condition, List.of(new SolrQueryField("node1", "field1")), List.of(SolrConditionType.CMP_VALUE));
+    }
+
+    private static FilterNode filter(String condition, SolrConditionType... conditionTypes) {
+        List<SolrConditionType> types = conditionTypes.length == 0 ? List.of(SolrConditionType.CMP_VALUE) : Arrays.asList(conditionTypes);
+        return new FilterNode(new SolrFilterQuery(condition, List.of(new SolrQueryField("node1", "field1")), types));
+    }
+
+    private static FilterNode nodeType(String condition) {
+        return filter(condition, SolrConditionType.ALL_DOCS);
+    }
+
+}
@@ -0,0 +1,134 @@
+//@formatter:off
+/*
+ * SolrJsonQuerySerializerTest
+ * Copyright 2025 Karl Eilebrecht
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"):
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+//@formatter:on
+
+package de.calamanari.adl.solr.cnv.ast;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import de.calamanari.adl.CombinedExpressionType;
+import de.calamanari.adl.FormatStyle;
+import de.calamanari.adl.solr.SolrConditionType;
+import de.calamanari.adl.solr.SolrFilterQuery;
+import de.calamanari.adl.solr.SolrQueryField;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author <a href="mailto:Karl.Eilebrecht(a/t)calamanari.de">Karl Eilebrecht</a>
+ */
+class SolrJsonQuerySerializerTest {
+
+    private static final SolrJsonQuerySerializer SERIALIZER = new SolrJsonQuerySerializer();
+
+    @Test
+    void testBasics() {
+
+        assertThrows(IllegalArgumentException.class, () -> new SolrJsonQuerySerializer(null));
+
+        assertEquals("\"color:red\"", SERIALIZER.serialize(filter("color:red")));
+        assertEquals("\"color:red\"", SERIALIZER.serialize(group(false, clause(null, "color:red"))));
+        assertEquals("\"some raw text\"", SERIALIZER.serialize(new RawNode("some raw text")));
+
+        assertEquals("{\"bool\":{\"must\":[\"a\",\"b\"],\"must_not\":[\"c\"]}}", SERIALIZER.serialize(
+                group(false, clause(null, "a"), clause(CombinedExpressionType.AND, "b"), new BooleanClause(CombinedExpressionType.AND, true, filter("c")))));
+
+        assertEquals("{\"bool\":{\"should\":[\"a\",{\"bool\":{\"must\":[\"b\",\"c\"]}}]}}", SERIALIZER.serialize(group(false, clause(null, "a"),
+                new BooleanClause(CombinedExpressionType.OR, false, group(true, clause(null, "b"), clause(CombinedExpressionType.AND, "c"))))));
+
+        // pure negation
+        assertEquals("{\"bool\":{\"must_not\":[\"a\"]}}", SERIALIZER.serialize(group(true, new BooleanClause(null, true, filter("a")))));
+
+        // mixed combiners and raw text will be rendered as strings
+        assertEquals("\"a AND b OR c\"",
+                SERIALIZER.serialize(group(false, clause(null, "a"), clause(CombinedExpressionType.AND, "b"), clause(CombinedExpressionType.OR, "c"))));
+        assertEquals("{\"bool\":{\"must\":[\"x\",\"(a AND raw)\"]}}", SERIALIZER.serialize(group(false, clause(null, "x"), new BooleanClause(
+                CombinedExpressionType.AND, false, group(true, clause(null, "a"), new BooleanClause(CombinedExpressionType.AND, false, new RawNode("raw")))))));
+
+        String pretty = new SolrJsonQuerySerializer(FormatStyle.PRETTY_PRINT)
+                .serialize(group(false, clause(null, "a"), clause(CombinedExpressionType.AND, "b")));
+        assertTrue(pretty.contains("\n"));
+
+    }
+
+    @Test
+    void testJoins() {
+
+        DependentJoinNode dependentJoin = new DependentJoinNode("pos", "main_id", "id",
+                group(false, clause(null, "node_type:pos"), clause(CombinedExpressionType.AND, "pos_name_s:\"sweet melon\"")));
+
+        assertEquals(
+                "{\"join\":{\"from\":\"main_id\",\"to\":\"id\",\"query\":{\"bool\":{\"must\":[\"node_type:pos\",\"pos_name_s:\\\"sweet melon\\\"\"]}}}}",
+                SERIALIZER.serialize(dependentJoin));
+
+        NestedJoinNode nestedJoin = new NestedJoinNode("fact", "node_type", "profile", group(false, clause(null, "node_type:fact")));
+
+        assertEquals("{\"parent\":{\"which\":\"node_type:profile\",\"query\":\"node_type:fact\"}}", SERIALIZER.serialize(nestedJoin));
+
+    }
+
+    @Test
+    void testInlineQueries() {
+
+        assertEquals("{\"terms\":{\"f\":\"color\",\"query\":\"red,blue green\"}}",
+                SERIALIZER.serialize(typed(new TermsCondition("color", null, List.of("red", "blue green")))));
+
+        assertEquals("{\"terms\":{\"f\":\"color\",\"method\":\"docValuesTermsFilter\",\"query\":\"red,blue\"}}",
+                SERIALIZER.serialize(typed(new TermsCondition("color", "docValuesTermsFilter", List.of("red", "blue")))));
+
+        assertEquals("{\"frange\":{\"l\":\"1\",\"u\":\"1\",\"query\":\"if(exists(a),1,0)\"}}",
+                SERIALIZER.serialize(typed(new FrangeCondition(1, 1, "if(exists(a),1,0)"))));
+
+        // leaves only known by their query string remain strings, even if they look like inlined queries
+        String singleQuery = "_query_:\"{!terms\\ f=color}red,blue\"";
+        assertEquals("\"" + singleQuery.replace("\\", "\\\\").replace("\"", "\\\"") + "\"", SERIALIZER.serialize(filter(singleQuery)));
+
+        String quotedParam = "_query_:\"{!terms\\ f='color\\ name'}red\"";
+        assertEquals("\"" + quotedParam.replace("\\", "\\\\").replace("\"", "\\\"") + "\"", SERIALIZER.serialize(filter(quotedParam)));
+
+        String twoQueries = "_query_:\"{!terms\\ f=color}red\" OR _query_:\"{!terms\\ f=color}blue\"";
+        assertEquals("\"" + twoQueries.replace("\\", "\\\\").replace("\"", "\\\"") + "\"", SERIALIZER.serialize(filter(twoQueries)));
+
+        // other typed conditions are rendered in the syntax of the standard query parser
+        assertEquals("\"color:(blue OR red)\"", SERIALIZER.serialize(typed(new TermListCondition("color", List.of("blue", "red")))));
+
+    }
+
+    private static BooleanNode group(boolean braced, BooleanClause... clauses) {
+        return new BooleanNode(Arrays.asList(clauses), braced);
+    }
+
+    private static BooleanClause clause(CombinedExpressionType combiner, String condition) {
+        return new BooleanClause(combiner, false, filter(condition));
+    }
+
+    private static FilterNode typed(FilterCondition condition) {
+        return new FilterNode(condition, List.of(new SolrQueryField("node1", "field1")), List.of(SolrConditionType.CMP_VALUE));
+    }
+
+    private static FilterNode filter(String condition, SolrConditionType... conditionTypes) {
+        List<SolrConditionType> types = conditionTypes.length == 0 ? List.of(SolrConditionType.CMP_VALUE) : Arrays.asList(conditionTypes);
+        return new FilterNode(new SolrFilterQuery(condition, List.of(new SolrQueryField("node1", "field1")), types));
+    }
+
+}
@@ -0,0 +1,124 @@
+//@formatter:off
+/*
+ * SolrStreamingExpressionSerializerTest
+ * Copyright 2025 Karl Eilebrecht
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"):
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+//@formatter:on
+
+package de.calamanari.adl.solr.cnv.ast;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import de.calamanari.adl.CombinedExpressionType;
+import de.calamanari.adl.FormatStyle;
+import de.calamanari.adl.solr.SolrConditionType;
+import de.calamanari.adl.solr.SolrFilterQuery;
+import de.calamanari.adl.solr.SolrQueryField;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author <a href="mailto:Karl.Eilebrecht(a/t)calamanari.de">Karl Eilebrecht</a>
+ */
+class SolrStreamingExpressionSerializerTest {
+
+    private static final SolrStreamingExpressionSerializer SERIALIZER = new SolrStreamingExpressionSerializer("coll", null);
+
+    @Test
+    void testBasics() {
+
+        assertThrows(IllegalArgumentException.class, () -> new SolrStreamingExpressionSerializer(null, null));
+        assertThrows(IllegalArgumentException.class, () -> new SolrStreamingExpressionSerializer("a,b", null));
+        assertThrows(IllegalArgumentException.class, () -> new SolrStreamingExpressionSerializer("coll", "id", "export", FormatStyle.INLINE));
+        assertThrows(IllegalArgumentException.class, () -> new SolrStreamingExpressionSerializer("coll", "id", null, null));
+
+        assertEquals("search(coll, q=\"color:red\", fl=\"id\", sort=\"id asc\", qt=\"/export\")", SERIALIZER.serialize(filter("color:red")));
+
+        assertEquals("search(coll, q=\"a AND NOT b\", fl=\"id\", sort=\"id asc\", qt=\"/export\")", SERIALIZER
+                .serialize(group(false, clause(null, "a"), new BooleanClause(CombinedExpressionType.AND, true, filter("b")))));
+
+        assertEquals("search(coll, q=\"a AND b\", fl=\"key\", sort=\"key asc\", qt=\"/select\")",
+                new SolrStreamingExpressionSerializer("coll", "key", "/select", FormatStyle.INLINE)
+                        .serialize(List.of(filter("a"), filter("b"))));
+
+    }
+
+    @Test
+    void testJoins() {
+
+        SolrQueryNode root = group(false, clause(null, "node_type:profile"), new BooleanClause(CombinedExpressionType.AND, false, join("pos_name_s:\"melon\"")),
+                new BooleanClause(CombinedExpressionType.AND, true, join("pos_quantity_i:1")));
+
+        assertEquals("complement(" //
+                + "innerJoin(search(coll, q=\"node_type:profile\", fl=\"id\", sort=\"id asc\", qt=\"/export\"), " //
+                + "unique(search(coll, q=\"node_type:pos AND pos_name_s:\\\"melon\\\"\", fl=\"main_id\", sort=\"main_id asc\", qt=\"/export\"), "
+                + "over=\"main_id\"), on=\"id=main_id\"), "
+                + "innerJoin(search(coll, q=\"node_type:profile\", fl=\"id\", sort=\"id asc\", qt=\"/export\"), " //
+                + "unique(search(coll, q=\"node_type:pos AND pos_quantity_i:1\", fl=\"main_id\", sort=\"main_id asc\", qt=\"/export\"), "
+                + "over=\"main_id\"), on=\"id=main_id\"), " //
+                + "on=\"id\")", SERIALIZER.serialize(root));
+
+        SolrQueryNode orRoot = group(false, clause(null, "a"), new BooleanClause(CombinedExpressionType.OR, false, join("pos_quantity_i:1")),
+                new BooleanClause(CombinedExpressionType.OR, true, filter("b")));
+
+        assertEquals("unique(merge(" //
+                + "search(coll, q=\"NOT b AND a\", fl=\"id\", sort=\"id asc\", qt=\"/export\"), " //
+                + "innerJoin(search(coll, q=\"NOT b\", fl=\"id\", sort=\"id asc\", qt=\"/export\"), " //
+                + "unique(search(coll, q=\"node_type:pos AND pos_quantity_i:1\", fl=\"main_id\", sort=\"main_id asc\", qt=\"/export\"), "
+                + "over=\"main_id\"), on=\"id=main_id\"), " //
+                + "on=\"id asc\"), over=\"id\")", SERIALIZER.serialize(orRoot));
+
+        String pretty = new SolrStreamingExpressionSerializer("coll", null, null, FormatStyle.PRETTY_PRINT).serialize(root);
+        assertTrue(pretty.startsWith("complement(\n    innerJoin(\n        search(coll, "));
+
+    }
+
+    @Test
+    void testMixedCombiners() {
+
+        SolrQueryNode root = group(false, clause(null, "a"), new BooleanClause(CombinedExpressionType.AND, false, join("pos_quantity_i:1")),
+                clause(CombinedExpressionType.OR, "b"));
+
+        assertThrows(IllegalArgumentException.class, () -> SERIALIZER.serialize(root));
+
+        // without joins the group is just a query
+        assertEquals("search(coll, q=\"a AND c OR b\", fl=\"id\", sort=\"id asc\", qt=\"/export\")",
+                SERIALIZER.serialize(group(false, clause(null, "a"), clause(CombinedExpressionType.AND, "c"), clause(CombinedExpressionType.OR, "b"))));
+
+    }
+
+    private static DependentJoinNode join(String condition) {
+        return new DependentJoinNode("pos", "main_id", "id", group(false, clause(null, "node_type:pos"), clause(CombinedExpressionType.AND, condition)));
+    }
+
+    private static BooleanNode group(boolean braced, BooleanClause... clauses) {
+        return new BooleanNode(Arrays.asList(clauses), braced);
+    }
+
+    private static BooleanClause clause(CombinedExpressionType combiner, String condition) {
+        return new BooleanClause(combiner, false, filter(condition));
+    }
+
+    private static FilterNode filter(String condition, SolrConditionType... conditionTypes) {
+        List<SolrConditionType> types = conditionTypes.length == 0 ? List.of(SolrConditionType.CMP_VALUE) : Arrays.asList(conditionTypes);
+        return new FilterNode(new SolrFilterQuery(condition, List.of(new SolrQueryField("node1", "field1")), types));
+    }
+
+}
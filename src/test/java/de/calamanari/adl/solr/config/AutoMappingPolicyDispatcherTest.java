@@ -0,0 +1,113 @@
+//@formatter:off
+/*
+ * AutoMappingPolicyDispatcherTest
+ * Copyright 2025 Karl Eilebrecht
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"):
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+//@formatter:on
+
+package de.calamanari.adl.solr.config;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import de.calamanari.adl.cnv.tps.DefaultAdlType;
+import de.calamanari.adl.solr.DefaultAdlSolrType;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * @author <a href="mailto:Karl.Eilebrecht(a/t)calamanari.de">Karl Eilebrecht</a>
+ */
+class AutoMappingPolicyDispatcherTest {
+
+    private static final String NODE_TYPE_1 = "node1";
+
+    @Test
+    void testBasics() {
+
+        AutoMappingPolicy posPolicy = new DefaultAutoMappingPolicy(NODE_TYPE_1, LocalArgNameExtractor.stripPrefix("pos."), null, null, null, false, null);
+        AutoMappingPolicy surveyPolicy = new DefaultAutoMappingPolicy(NODE_TYPE_1, LocalArgNameExtractor.stripPrefix("survey."), DefaultAdlType.STRING,
+                DefaultAdlSolrType.SOLR_STRING, false, false, null);
+        AutoMappingPolicy flagPolicy = new DefaultAutoMappingPolicy(NODE_TYPE_1, LocalArgNameExtractor.withSuffix("_b", null), null, null, null, false, null);
+        AutoMappingPolicy conventionPolicy = new DefaultAutoMappingPolicy(NODE_TYPE_1, null, null, null, null, false, null);
+
+        AutoMappingPolicyDispatcher dispatcher = new AutoMappingPolicyDispatcher(Arrays.asList(posPolicy, surveyPolicy, flagPolicy, conventionPolicy));
+
+        assertSame(posPolicy, dispatcher.findFirstApplicable("pos.amount_d"));
+        assertSame(surveyPolicy, dispatcher.findFirstApplicable("survey.answer"));
+        assertSame(flagPolicy, dispatcher.findFirstApplicable("active_b"));
+        assertSame(conventionPolicy, dispatcher.findFirstApplicable("color_s"));
+        assertNull(dispatcher.findFirstApplicable("pos."));
+        assertNull(dispatcher.findFirstApplicable("unknown"));
+        assertNull(dispatcher.findFirstApplicable(null));
+
+        assertEquals("{0, 3}", dispatcher.candidates("pos.amount_d").toString());
+        assertEquals("{2, 3}", dispatcher.candidates("active_b").toString());
+        assertEquals("{0, 2, 3}", dispatcher.candidates("pos.active_b").toString());
+        assertEquals("{3}", dispatcher.candidates("color_s").toString());
+
+        assertNull(new AutoMappingPolicyDispatcher(null).findFirstApplicable("color_s"));
+
+    }
+
+    @Test
+    void testCommonAffixes() {
+
+        AutoMappingPolicy policy1 = new DefaultAutoMappingPolicy(NODE_TYPE_1, LocalArgNameExtractor.withAffixes("pos.a", "_s", null), null, null, null, false,
+                null);
+        AutoMappingPolicy policy2 = new DefaultAutoMappingPolicy(NODE_TYPE_1, LocalArgNameExtractor.withAffixes("pos.b", "_is", null), null, null, null, false,
+                null);
+        AutoMappingPolicy policy3 = new DefaultAutoMappingPolicy(NODE_TYPE_1, null, null, null, null, false, null);
+
+        assertEquals("pos.", AutoMappingPolicyDispatcher.commonRequiredPrefix(Arrays.asList(policy1, policy2)));
+        assertEquals("s", AutoMappingPolicyDispatcher.commonRequiredSuffix(Arrays.asList(policy1, policy2)));
+        assertEquals("", AutoMappingPolicyDispatcher.commonRequiredPrefix(Arrays.asList(policy1, policy2, policy3)));
+        assertEquals("", AutoMappingPolicyDispatcher.commonRequiredSuffix(Arrays.asList(policy1, policy2, policy3)));
+        assertEquals("", AutoMappingPolicyDispatcher.commonRequiredPrefix(new ArrayList<>()));
+
+    }
+
+    @Test
+    void testSameResultAsLinearScan() {
+
+        String[] prefixes = new String[] { "", "a.", "a.b.", "ab.", "b.", "pos.", "pos.x.", "survey.", "s" };
+        String[] suffixes = new String[] { "", "_s", "_i", "_is", "s", "_b" };
+
+        Random rand = new Random(4711);
+
+        List<AutoMappingPolicy> policies = new ArrayList<>();
+        for (int i = 0; i < 60; i++) {
+            policies.add(new DefaultAutoMappingPolicy(NODE_TYPE_1, LocalArgNameExtractor.withAffixes(prefixes[rand.nextInt(prefixes.length)],
+                    suffixes[rand.nextInt(suffixes.length)], argName -> argName.replace('.', '_')), null, null, null, false, null));
+        }
+
+        AutoMappingPolicyDispatcher dispatcher = new AutoMappingPolicyDispatcher(policies);
+
+        String[] stems = new String[] { "", "x", "name", "count", "pos", "b" };
+        for (int i = 0; i < 5_000; i++) {
+            String argName = prefixes[rand.nextInt(prefixes.length)] + stems[rand.nextInt(stems.length)] + suffixes[rand.nextInt(suffixes.length)];
+            AutoMappingPolicy expected = policies.stream().filter(policy -> policy.isApplicable(argName)).findFirst().orElse(null);
+            assertSame(expected, dispatcher.findFirstApplicable(argName), argName);
+        }
+
+    }
+
+}
@@ -0,0 +1,142 @@
+//@formatter:off
+/*
+ * CachingSolrMappingConfigTest
+ * Copyright 2025 Karl Eilebrecht
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"):
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+//@formatter:on
+
+package de.calamanari.adl.solr.config;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+import de.calamanari.adl.DeepCopyUtils;
+import de.calamanari.adl.ProcessContext;
+import de.calamanari.adl.cnv.tps.ConfigException;
+import de.calamanari.adl.cnv.tps.LookupException;
+import de.calamanari.adl.solr.EmbeddedSolrServerUtils;
+
+import static de.calamanari.adl.cnv.tps.DefaultAdlType.STRING;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author <a href="mailto:Karl.Eilebrecht(a/t)calamanari.de">Karl Eilebrecht</a>
+ */
+class CachingSolrMappingConfigTest {
+
+    @Test
+    void testBasics() {
+
+        SolrMappingConfig baseConfig = EmbeddedSolrServerUtils.createHybridMappingConfig();
+        CachingSolrMappingConfig config = new CachingSolrMappingConfig(baseConfig);
+
+        assertSame(baseConfig, config.getDelegate());
+        assertEquals(CachingSolrMappingConfig.DEFAULT_MAX_SIZE, config.getMaxSize());
+        assertSame(baseConfig, new CachingSolrMappingConfig(config).getDelegate());
+
+        assertEquals(baseConfig.numberOfNodeTypes(), config.numberOfNodeTypes());
+        assertEquals(baseConfig.allNodeTypeMetaInfos(), config.allNodeTypeMetaInfos());
+        assertSame(baseConfig.mainNodeTypeMetaInfo(), config.mainNodeTypeMetaInfo());
+        assertEquals("fact", config.lookupNodeTypeMetaInfoByNodeType("fact").nodeType());
+
+        ProcessContext ctx = ProcessContext.empty();
+
+        for (String argName : List.of("provider", "sCode", "fact.provider", "fact.hasCat.flg", "q.monthlyIncome.int", "pos.name")) {
+            assertEquals(baseConfig.lookupAssignment(argName, ProcessContext.empty()), config.lookupAssignment(argName, ctx));
+            assertSame(config.lookupAssignment(argName, ctx), config.lookupAssignment(argName, ctx));
+            assertEquals(baseConfig.lookupNodeTypeMetaInfo(argName, ProcessContext.empty()), config.lookupNodeTypeMetaInfo(argName, ctx));
+            assertEquals(baseConfig.typeOf(argName), config.typeOf(argName));
+            assertEquals(baseConfig.lookupField(argName, ProcessContext.empty()), config.lookupField(argName, ctx));
+            assertTrue(config.contains(argName));
+        }
+
+        assertEquals(6, config.size());
+
+        // side-effect-free, although auto-mapping was involved
+        assertTrue(ctx.getGlobalVariables().isEmpty());
+
+        assertEquals(STRING, config.typeOf("fact.hasDog.str"));
+
+        assertFalse(config.contains("unknown"));
+        assertThrows(LookupException.class, () -> config.lookupAssignment("unknown", ctx));
+        assertThrows(LookupException.class, () -> config.lookupNodeTypeMetaInfo("unknown", ctx));
+        assertEquals(7, config.size());
+
+        assertThrows(IllegalArgumentException.class, () -> config.lookupAssignment(null, ctx));
+
+        config.clear();
+        assertEquals(0, config.size());
+
+        assertThrows(ConfigException.class, () -> new CachingSolrMappingConfig(null));
+        assertThrows(ConfigException.class, () -> new CachingSolrMappingConfig(baseConfig, 0));
+
+    }
+
+    @Test
+    void testBounded() {
+
+        CachingSolrMappingConfig config = new CachingSolrMappingConfig(EmbeddedSolrServerUtils.createHybridMappingConfig(), 10);
+
+        for (int i = 0; i < 100; i++) {
+            String argName = "fact.attr" + i + ".int";
+            assertEquals("fct_attr" + i + "_i", config.lookupField(argName, ProcessContext.empty()).fieldName());
+            assertTrue(config.size() <= 10);
+        }
+
+        assertEquals(10, config.size());
+
+    }
+
+    @Test
+    void testConcurrency() {
+
+        SolrMappingConfig baseConfig = EmbeddedSolrServerUtils.createHybridMappingConfig();
+        CachingSolrMappingConfig config = new CachingSolrMappingConfig(baseConfig, 50);
+
+        Map<String, ArgFieldAssignment> expected = IntStream.range(0, 200).mapToObj(i -> "q.attr" + (i % 80) + ".str").distinct()
+                .collect(Collectors.toMap(argName -> argName, argName -> baseConfig.lookupAssignment(argName, ProcessContext.empty())));
+
+        IntStream.range(0, 10_000).parallel().forEach(i -> {
+            String argName = "q.attr" + (i % 80) + ".str";
+            assertEquals(expected.get(argName), config.lookupAssignment(argName, ProcessContext.empty()));
+        });
+
+        assertTrue(config.size() <= 50);
+
+    }
+
+    @Test
+    void testSerialization() {
+
+        CachingSolrMappingConfig config = new CachingSolrMappingConfig(EmbeddedSolrServerUtils.createHybridMappingConfig(), 20);
+        config.lookupAssignment("provider", ProcessContext.empty());
+
+        CachingSolrMappingConfig config2 = DeepCopyUtils.deepCopy(config);
+
+        assertEquals(20, config2.getMaxSize());
+        assertEquals(0, config2.size());
+        assertEquals(config.lookupAssignment("provider", ProcessContext.empty()), config2.lookupAssignment("provider", ProcessContext.empty()));
+
+    }
+
+}
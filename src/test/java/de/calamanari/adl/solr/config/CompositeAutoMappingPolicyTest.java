@@ -23,6 +23,8 @@ import java.util.Arrays;
 
 import org.junit.jupiter.api.Test;
 
+import de.calamanari.adl.DeepCopyUtils;
+import de.calamanari.adl.ProcessContext;
 import de.calamanari.adl.cnv.tps.ArgMetaInfo;
 import de.calamanari.adl.cnv.tps.ConfigException;
 import de.calamanari.adl.cnv.tps.DefaultAdlType;
@@ -91,6 +93,55 @@ class CompositeAutoMappingPolicyTest {
 
     }
 
+    @Test
+    void testDispatching() {
+
+        AutoMappingPolicy policyPos = mock(AutoMappingPolicy.class);
+        doReturn("pos.").when(policyPos).requiredPrefix();
+        doReturn("").when(policyPos).requiredSuffix();
+        doReturn(Boolean.TRUE).when(policyPos).isApplicable(anyString());
+        when(policyPos.map(anyString(), any())).thenAnswer(args -> selfAssigned(args.getArgument(0)));
+
+        AutoMappingPolicy policyPassThrough = mock(AutoMappingPolicy.class);
+        doReturn(Boolean.TRUE).when(policyPassThrough).isApplicable(anyString());
+        when(policyPassThrough.map(anyString(), any())).thenAnswer(args -> selfAssigned(args.getArgument(0)));
+
+        CompositeAutoMappingPolicy compositePolicy = new CompositeAutoMappingPolicy(Arrays.asList(policyPos, policyPassThrough));
+
+        assertEquals(selfAssigned("foo"), compositePolicy.map("foo", null));
+
+        verify(policyPos, never()).isApplicable("foo");
+        verify(policyPassThrough, times(1)).isApplicable("foo");
+
+        clearInvocations(policyPos, policyPassThrough);
+
+        assertEquals(selfAssigned("pos.foo"), compositePolicy.map("pos.foo", null));
+
+        verify(policyPos, times(1)).isApplicable("pos.foo");
+        verify(policyPos, times(1)).map(eq("pos.foo"), any());
+        verify(policyPassThrough, never()).isApplicable("pos.foo");
+
+        assertEquals("", compositePolicy.requiredPrefix());
+        assertEquals("pos.", new CompositeAutoMappingPolicy(Arrays.asList(policyPos)).requiredPrefix());
+
+    }
+
+    @Test
+    void testSerialization() {
+
+        AutoMappingPolicy policy1 = new DefaultAutoMappingPolicy("node1", LocalArgNameExtractor.stripPrefix("pos."), null, null, null, false, null);
+        AutoMappingPolicy policy2 = new DefaultAutoMappingPolicy("node1", null, null, null, null, false, null);
+
+        CompositeAutoMappingPolicy compositePolicy = new CompositeAutoMappingPolicy(Arrays.asList(policy1, policy2));
+
+        CompositeAutoMappingPolicy compositePolicy2 = DeepCopyUtils.deepCopy(compositePolicy);
+
+        assertEquals(compositePolicy.map("pos.amount_d", ProcessContext.empty()), compositePolicy2.map("pos.amount_d", ProcessContext.empty()));
+        assertEquals(compositePolicy.map("color_s", ProcessContext.empty()), compositePolicy2.map("color_s", ProcessContext.empty()));
+        assertEquals(2, compositePolicy2.members().size());
+
+    }
+
     private static ArgFieldAssignment selfAssigned(String argName) {
 
         DataField field = new DataField("node1", "argName", DefaultAdlSolrType.SOLR_STRING, false);
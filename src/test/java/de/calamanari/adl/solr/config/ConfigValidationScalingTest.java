@@ -0,0 +1,167 @@
+//@formatter:off
+/*
+ * ConfigValidationScalingTest
+ * Copyright 2025 Karl Eilebrecht
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"):
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+//@formatter:on
+
+package de.calamanari.adl.solr.config;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Disabled;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import de.calamanari.adl.ProcessContext;
+import de.calamanari.adl.cnv.tps.ArgMetaInfo;
+import de.calamanari.adl.cnv.tps.ConfigException;
+
+import static de.calamanari.adl.cnv.tps.DefaultAdlType.INTEGER;
+import static de.calamanari.adl.cnv.tps.DefaultAdlType.STRING;
+import static de.calamanari.adl.solr.DefaultAdlSolrType.SOLR_INTEGER;
+import static de.calamanari.adl.solr.DefaultAdlSolrType.SOLR_STRING;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Validation of large mappings, the benchmark is disabled by default.
+ * 
+ * @author <a href="mailto:Karl.Eilebrecht(a/t)calamanari.de">Karl Eilebrecht</a>
+ */
+class ConfigValidationScalingTest {
+
+    static final Logger LOGGER = LoggerFactory.getLogger(ConfigValidationScalingTest.class);
+
+    private static final String NODE_TYPE_MAIN = "main";
+
+    private static final int NUMBER_OF_SUB_CONFIGS = 8;
+
+    @Test
+    void testLargeMapping() {
+
+        MainDocumentConfig config = createConfig(50_000);
+
+        assertEquals(NUMBER_OF_SUB_CONFIGS + 1, config.numberOfNodeTypes());
+        assertEquals(50_000 / (NUMBER_OF_SUB_CONFIGS + 1) + 1, config.argFieldMap().size());
+        assertEquals("sub3", config.lookupNodeTypeMetaInfo("sub3.arg.3", ProcessContext.empty()).nodeType());
+
+    }
+
+    @Test
+    void testLargeMappingStealing() {
+
+        List<SubDocumentConfig> subConfigs = createSubConfigs(20_000);
+
+        Map<String, ArgFieldAssignment> mainArgFieldMap = createArgFieldMap(NODE_TYPE_MAIN, "main.", 0, 20_000);
+        // the auto-mapper of sub0 would steal this one
+        mainArgFieldMap.put("auto.sub0.victim_s", assignment(NODE_TYPE_MAIN, "auto.sub0.victim_s", "victim_s"));
+
+        ConfigException ex = assertThrows(ConfigException.class, () -> new MainDocumentConfig(NODE_TYPE_MAIN, null, mainArgFieldMap, null, subConfigs, null));
+        assertTrue(ex.getMessage().contains("argName=auto.sub0.victim_s statically mapped to nodeType=main (victim) will be auto-mapped prematurely to nodeType=sub0"));
+
+        List<Map<String, ArgFieldAssignment>> subArgFieldMaps = new ArrayList<>();
+        for (int i = 0; i < NUMBER_OF_SUB_CONFIGS; i++) {
+            subArgFieldMaps.add(createArgFieldMap("sub" + i, "sub" + i + ".", 0, 20_000));
+        }
+        // the auto-mapper of sub2 would steal this one from sub5 (but not the one from sub1)
+        subArgFieldMaps.get(1).put("lambda.sub2.victim1_s", assignment("sub1", "lambda.sub2.victim1_s", "victim1_s"));
+        subArgFieldMaps.get(5).put("lambda.sub2.victim5_s", assignment("sub5", "lambda.sub2.victim5_s", "victim5_s"));
+
+        List<SubDocumentConfig> subConfigs2 = createSubConfigs(subArgFieldMaps);
+        Map<String, ArgFieldAssignment> mainArgFieldMap2 = createArgFieldMap(NODE_TYPE_MAIN, "main.", 0, 20_000);
+
+        ex = assertThrows(ConfigException.class, () -> new MainDocumentConfig(NODE_TYPE_MAIN, null, mainArgFieldMap2, null, subConfigs2, null));
+        assertTrue(ex.getMessage().contains("argName=lambda.sub2.victim5_s statically mapped to nodeType=sub5 (victim) will be auto-mapped prematurely to nodeType=sub2"));
+
+    }
+
+    @Test
+    @Disabled("Benchmark, takes a while")
+    void benchmarkValidation() {
+
+        for (int numberOfArgs : new int[] { 1_000, 10_000, 50_000, 100_000, 250_000, 500_000 }) {
+            int argsPerConfig = numberOfArgs / (NUMBER_OF_SUB_CONFIGS + 1);
+            long elapsedMillis = 0;
+            for (int run = 0; run < 3; run++) {
+                List<Map<String, ArgFieldAssignment>> subArgFieldMaps = new ArrayList<>();
+                for (int i = 0; i < NUMBER_OF_SUB_CONFIGS; i++) {
+                    subArgFieldMaps.add(createArgFieldMap("sub" + i, "sub" + i + ".", 0, argsPerConfig));
+                }
+                Map<String, ArgFieldAssignment> mainArgFieldMap = createArgFieldMap(NODE_TYPE_MAIN, "main.", 0, argsPerConfig + 1);
+                long startTimeNanos = System.nanoTime();
+                new MainDocumentConfig(NODE_TYPE_MAIN, null, mainArgFieldMap, null, createSubConfigs(subArgFieldMaps), null);
+                // first run is warm-up
+                elapsedMillis = (System.nanoTime() - startTimeNanos) / 1_000_000;
+            }
+            LOGGER.info("numberOfArgs={}, numberOfSubConfigs={}: {} ms", numberOfArgs, NUMBER_OF_SUB_CONFIGS, elapsedMillis);
+        }
+
+    }
+
+    /**
+     * Distributes the given number of static mappings evenly across the main config and the sub configs, each sub config has an auto-mapper
+     * 
+     * @param numberOfArgs total
+     * @return config
+     */
+    private static MainDocumentConfig createConfig(int numberOfArgs) {
+        int argsPerConfig = numberOfArgs / (NUMBER_OF_SUB_CONFIGS + 1);
+        List<SubDocumentConfig> subConfigs = createSubConfigs(argsPerConfig);
+        return new MainDocumentConfig(NODE_TYPE_MAIN, null, createArgFieldMap(NODE_TYPE_MAIN, "main.", 0, argsPerConfig + 1), null, subConfigs, null);
+    }
+
+    private static List<SubDocumentConfig> createSubConfigs(int argsPerConfig) {
+        List<Map<String, ArgFieldAssignment>> subArgFieldMaps = new ArrayList<>();
+        for (int i = 0; i < NUMBER_OF_SUB_CONFIGS; i++) {
+            subArgFieldMaps.add(createArgFieldMap("sub" + i, "sub" + i + ".", 0, argsPerConfig));
+        }
+        return createSubConfigs(subArgFieldMaps);
+    }
+
+    private static List<SubDocumentConfig> createSubConfigs(List<Map<String, ArgFieldAssignment>> subArgFieldMaps) {
+        List<SubDocumentConfig> res = new ArrayList<>();
+        for (int i = 0; i < subArgFieldMaps.size(); i++) {
+            String nodeType = "sub" + i;
+            AutoMappingPolicy policy = new CompositeAutoMappingPolicy(List.of(
+                    new DefaultAutoMappingPolicy(nodeType, LocalArgNameExtractor.stripPrefix("auto." + nodeType + "."), null, null, null, false, null),
+                    new DefaultAutoMappingPolicy(nodeType, LocalArgNameExtractor.withPrefix("lambda." + nodeType + ".", s -> s.substring(s.lastIndexOf('.') + 1)),
+                            null, null, null, false, null)));
+            res.add(new SubDocumentConfig(nodeType, SolrDocumentNature.NESTED, null, subArgFieldMaps.get(i), policy, null));
+        }
+        return res;
+    }
+
+    private static Map<String, ArgFieldAssignment> createArgFieldMap(String nodeType, String prefix, int start, int count) {
+        Map<String, ArgFieldAssignment> res = new HashMap<>();
+        for (int i = start; i < start + count; i++) {
+            String argName = prefix + "arg." + i;
+            res.put(argName, (i % 2 == 0) ? assignment(nodeType, argName, "field_" + i + "_s")
+                    : new ArgFieldAssignment(new ArgMetaInfo(argName, INTEGER, false, false), new DataField(nodeType, "field_" + i + "_i", SOLR_INTEGER, false),
+                            false));
+        }
+        return res;
+    }
+
+    private static ArgFieldAssignment assignment(String nodeType, String argName, String fieldName) {
+        return new ArgFieldAssignment(new ArgMetaInfo(argName, STRING, false, false), new DataField(nodeType, fieldName, SOLR_STRING, false), false);
+    }
+
+}
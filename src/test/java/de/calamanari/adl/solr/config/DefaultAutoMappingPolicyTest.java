@@ -33,8 +33,10 @@ import de.calamanari.adl.solr.SolrTestBase;
 
 import static de.calamanari.adl.cnv.tps.DefaultAdlType.BOOL;
 import static de.calamanari.adl.cnv.tps.DefaultAdlType.DATE;
+import static de.calamanari.adl.cnv.tps.DefaultAdlType.DECIMAL;
 import static de.calamanari.adl.cnv.tps.DefaultAdlType.INTEGER;
 import static de.calamanari.adl.cnv.tps.DefaultAdlType.STRING;
+import static de.calamanari.adl.solr.DefaultAdlSolrType.SOLR_DOUBLE;
 import static de.calamanari.adl.solr.DefaultAdlSolrType.SOLR_INTEGER;
 import static de.calamanari.adl.solr.DefaultAdlSolrType.SOLR_STRING;
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -254,6 +256,34 @@ class DefaultAutoMappingPolicyTest extends SolrTestBase {
 
     }
 
+    @Test
+    void testDeclaredAffixes() {
+
+        AutoMappingPolicy policy = new DefaultAutoMappingPolicy(NODE_TYPE_1, LocalArgNameExtractor.stripPrefix("pos."), null, null, null, false, null);
+
+        assertEquals("pos.", policy.requiredPrefix());
+        assertEquals("", policy.requiredSuffix());
+        assertTrue(policy.isApplicable("pos.amount_d"));
+        assertFalse(policy.isApplicable("amount_d"));
+        assertFalse(policy.isApplicable("pos."));
+        assertMap("pos.amount_d", DECIMAL, "amount_d", SOLR_DOUBLE, false, false, policy, "pos.amount_d");
+
+        policy = new DefaultAutoMappingPolicy(NODE_TYPE_1, LocalArgNameExtractor.withSuffix("_s", null), null, null, null, false, null);
+        assertEquals("", policy.requiredPrefix());
+        assertEquals("_s", policy.requiredSuffix());
+        assertTrue(policy.isApplicable("color_s"));
+        assertFalse(policy.isApplicable("color_i"));
+
+        AutoMappingPolicy policy2 = DeepCopyUtils.deepCopy(policy);
+        assertEquals("_s", policy2.requiredSuffix());
+        assertTrue(policy2.isApplicable("color_s"));
+
+        policy = new DefaultAutoMappingPolicy(NODE_TYPE_1, null, null, null, null, false, null);
+        assertEquals("", policy.requiredPrefix());
+        assertEquals("", policy.requiredSuffix());
+
+    }
+
     private static void assertMap(String expectedArgName, AdlType expectedArgType, String expectedFieldName, AdlSolrType expectedFieldType,
             boolean expectedIsCollection, boolean expectedIsMultiDoc, AutoMappingPolicy policy, String argName) {
         assertEquals(expectedArgName, policy.map(argName, ProcessContext.empty()).arg().argName());
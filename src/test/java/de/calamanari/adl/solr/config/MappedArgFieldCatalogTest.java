@@ -0,0 +1,264 @@
+//@formatter:off
+/*
+ * MappedArgFieldCatalogTest
+ * Copyright 2025 Karl Eilebrecht
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"):
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+//@formatter:on
+
+package de.calamanari.adl.solr.config;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import de.calamanari.adl.DeepCopyUtils;
+import de.calamanari.adl.ProcessContext;
+import de.calamanari.adl.cnv.tps.AdlType;
+import de.calamanari.adl.cnv.tps.ArgMetaInfo;
+import de.calamanari.adl.cnv.tps.ConfigException;
+import de.calamanari.adl.cnv.tps.LookupException;
+import de.calamanari.adl.solr.AdlSolrType;
+import de.calamanari.adl.solr.SolrFieldStorage;
+
+import static de.calamanari.adl.cnv.tps.DefaultAdlType.BOOL;
+import static de.calamanari.adl.cnv.tps.DefaultAdlType.INTEGER;
+import static de.calamanari.adl.cnv.tps.DefaultAdlType.STRING;
+import static de.calamanari.adl.solr.DefaultAdlSolrType.SOLR_BOOLEAN;
+import static de.calamanari.adl.solr.DefaultAdlSolrType.SOLR_INTEGER;
+import static de.calamanari.adl.solr.DefaultAdlSolrType.SOLR_STRING;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author <a href="mailto:Karl.Eilebrecht(a/t)calamanari.de">Karl Eilebrecht</a>
+ */
+class MappedArgFieldCatalogTest {
+
+    private static final String NODE_TYPE_1 = "node1";
+
+    private static final String NODE_TYPE_2 = "node2";
+
+    @Test
+    void testBasics(@TempDir Path tempDir) {
+
+        Path file = tempDir.resolve("catalog.bin");
+
+        List<ArgFieldAssignment> assignments = new ArrayList<>();
+        assignments.add(assignment("color", STRING, true, NODE_TYPE_1, "color_s", SOLR_STRING, false, false));
+        assignments.add(assignment("age", INTEGER, false, NODE_TYPE_1, "age_i", SOLR_INTEGER.withStorage(SolrFieldStorage.DOC_VALUES_ONLY), false, false));
+        assignments.add(assignment("visits.country", STRING, false, NODE_TYPE_2, "country_ss", SOLR_STRING, true, true));
+        assignments.add(assignment("Größe", STRING, false, NODE_TYPE_1, "size_s", SOLR_STRING, false, false));
+
+        MappedArgFieldCatalog.write(file, assignments);
+
+        MappedArgFieldCatalog catalog = MappedArgFieldCatalog.open(file);
+
+        assertEquals(4, catalog.size());
+        assertEquals(0, catalog.numberOfResolvedAssignments());
+
+        for (ArgFieldAssignment expected : assignments) {
+            ArgFieldAssignment assignment = catalog.lookupAssignment(expected.arg().argName());
+            assertEquals(expected.arg(), assignment.arg());
+            assertEquals(expected.field().nodeType(), assignment.field().nodeType());
+            assertEquals(expected.field().fieldName(), assignment.field().fieldName());
+            assertEquals(expected.field().fieldType().getBaseType(), assignment.field().fieldType().getBaseType());
+            assertEquals(expected.field().storage(), assignment.field().storage());
+            assertEquals(expected.field().isCollection(), assignment.field().isCollection());
+            assertEquals(expected.isMultiDoc(), assignment.isMultiDoc());
+            assertSame(assignment, catalog.lookupAssignment(expected.arg().argName()));
+            assertTrue(catalog.contains(expected.arg().argName()));
+        }
+
+        assertEquals(4, catalog.numberOfResolvedAssignments());
+
+        assertFalse(catalog.contains("unknown"));
+        assertFalse(catalog.contains("a"));
+        assertFalse(catalog.contains("zzz"));
+        assertFalse(catalog.contains(null));
+        assertNull(catalog.lookupAssignment("colo"));
+        assertThrows(LookupException.class, () -> catalog.lookup("unknown"));
+
+        assertEquals(new ArgMetaInfo("color", STRING, true, false), catalog.lookup("color"));
+        assertEquals(INTEGER, catalog.typeOf("age"));
+        assertTrue(catalog.isCollection("visits.country"));
+
+    }
+
+    @Test
+    void testLargeCatalog(@TempDir Path tempDir) {
+
+        Path file = tempDir.resolve("catalog.bin");
+
+        List<ArgFieldAssignment> assignments = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) {
+            assignments.add(assignment("arg." + i, INTEGER, false, (i % 2 == 0) ? NODE_TYPE_1 : NODE_TYPE_2, "field_" + i + "_i", SOLR_INTEGER, false, false));
+        }
+
+        MappedArgFieldCatalog.write(file, assignments);
+
+        MappedArgFieldCatalog catalog = MappedArgFieldCatalog.open(file);
+
+        assertEquals(20_000, catalog.size());
+
+        for (int i = 0; i < 20_000; i = i + 7) {
+            ArgFieldAssignment assignment = catalog.lookupAssignment("arg." + i);
+            assertEquals("field_" + i + "_i", assignment.field().fieldName());
+        }
+
+        assertFalse(catalog.contains("arg.20000"));
+        assertFalse(catalog.contains("arg.-1"));
+
+        assertEquals(2858, catalog.numberOfResolvedAssignments());
+
+        MappedArgFieldCatalog boundedCatalog = MappedArgFieldCatalog.open(file, null, 100);
+        for (int i = 0; i < 20_000; i = i + 7) {
+            assertEquals("field_" + i + "_i", boundedCatalog.lookupAssignment("arg." + i).field().fieldName());
+        }
+        assertEquals(100, boundedCatalog.numberOfResolvedAssignments());
+        assertEquals("field_7_i", boundedCatalog.lookupAssignment("arg.7").field().fieldName());
+
+        assertThrows(ConfigException.class, () -> MappedArgFieldCatalog.open(file, null, 0));
+
+    }
+
+    @Test
+    void testWithConfig(@TempDir Path tempDir) {
+
+        Path file = tempDir.resolve("catalog.bin");
+
+        List<ArgFieldAssignment> assignments = new ArrayList<>();
+        assignments.add(assignment("color", STRING, false, NODE_TYPE_1, "color_s", SOLR_STRING, false, false));
+        assignments.add(assignment("age", INTEGER, false, NODE_TYPE_1, "age_i", SOLR_INTEGER, false, false));
+        assignments.add(assignment("visits.country", STRING, false, NODE_TYPE_2, "country_s", SOLR_STRING, false, true));
+        assignments.add(assignment("visits.paid", BOOL, false, NODE_TYPE_2, "paid_b", SOLR_BOOLEAN, false, true));
+
+        MappedArgFieldCatalog.write(file, assignments);
+
+        MappedArgFieldCatalog catalog = MappedArgFieldCatalog.open(file);
+
+        // @formatter:off
+        MainDocumentConfig config = MainDocumentConfig.forNodeType(NODE_TYPE_1, catalog)
+                                                          .autoMapped(catalog::createAutoMappingPolicy)
+                                                          .subConfig(SubDocumentConfig.forNodeType(NODE_TYPE_2, catalog)
+                                                              .nested()
+                                                              .autoMapped(catalog::createAutoMappingPolicy)
+                                                          .get())
+                                                      .get();
+        // @formatter:on
+
+        assertEquals(0, catalog.numberOfResolvedAssignments());
+
+        assertEquals("color_s", config.lookupField("color", ProcessContext.empty()).fieldName());
+        assertEquals(NODE_TYPE_1, config.lookupNodeTypeMetaInfo("age", ProcessContext.empty()).nodeType());
+        assertEquals(NODE_TYPE_2, config.lookupNodeTypeMetaInfo("visits.paid", ProcessContext.empty()).nodeType());
+        assertEquals("country_s", config.lookupField("visits.country", ProcessContext.empty()).fieldName());
+        assertTrue(config.lookupAssignment("visits.country", ProcessContext.empty()).isMultiDoc());
+
+        assertThrows(LookupException.class, () -> config.lookupAssignment("unknown", ProcessContext.empty()));
+
+        MainDocumentConfig config2 = DeepCopyUtils.deepCopy(config);
+        assertEquals("country_s", config2.lookupField("visits.country", ProcessContext.empty()).fieldName());
+        assertEquals(BOOL, config2.typeOf("visits.paid"));
+
+    }
+
+    @Test
+    void testCustomTypes(@TempDir Path tempDir) {
+
+        Path file = tempDir.resolve("catalog.bin");
+
+        AdlType customArgType = STRING.withFormatter("CUSTOM_STRING", STRING.getFormatter());
+        AdlSolrType customFieldType = SOLR_STRING.withFormatter("CUSTOM_SOLR_STRING", SOLR_STRING.getFormatter());
+
+        MappedArgFieldCatalog.write(file, Arrays.asList(assignment("color", customArgType, false, NODE_TYPE_1, "color_s", customFieldType, false, false)));
+
+        assertThrows(ConfigException.class, () -> MappedArgFieldCatalog.open(file));
+
+        MappedArgFieldCatalog catalog = MappedArgFieldCatalog.open(file, Arrays.asList(customArgType, customFieldType));
+
+        assertSame(customArgType, catalog.typeOf("color"));
+        assertSame(customFieldType, catalog.lookupAssignment("color").field().fieldType());
+
+        assertThrows(ConfigException.class, () -> MappedArgFieldCatalog.open(file, Arrays.asList(customArgType, STRING.withFormatter("CUSTOM_SOLR_STRING", STRING.getFormatter()))));
+
+        // a custom type with a different storage is stored as the custom type plus the storage
+        Path file2 = tempDir.resolve("catalog2.bin");
+        AdlSolrType docValuesFieldType = customFieldType.withStorage(SolrFieldStorage.DOC_VALUES_ONLY);
+        assertSame(customFieldType, docValuesFieldType.getStorageNeutralType());
+        MappedArgFieldCatalog.write(file2, Arrays.asList(assignment("color", STRING, false, NODE_TYPE_1, "color_s", docValuesFieldType, false, false)));
+
+        AdlSolrType fieldType = MappedArgFieldCatalog.open(file2, Arrays.asList(customFieldType)).lookupAssignment("color").field().fieldType();
+        assertSame(customFieldType, fieldType.getStorageNeutralType());
+        assertEquals(SolrFieldStorage.DOC_VALUES_ONLY, fieldType.getStorage());
+
+        // registering the decorated type is equivalent
+        fieldType = MappedArgFieldCatalog.open(file2, Arrays.asList(docValuesFieldType)).lookupAssignment("color").field().fieldType();
+        assertSame(customFieldType, fieldType.getStorageNeutralType());
+
+        // an unnamed formatter decoration is a different type, not just a storage variant of the base type
+        Path file3 = tempDir.resolve("catalog3.bin");
+        AdlSolrType unnamedFieldType = SOLR_STRING.withFormatter(SOLR_STRING.getFormatter()).withStorage(SolrFieldStorage.DOC_VALUES_ONLY);
+        assertSame(SOLR_STRING, SOLR_STRING.withStorage(SolrFieldStorage.DOC_VALUES_ONLY).getStorageNeutralType());
+        assertNotSame(SOLR_STRING, unnamedFieldType.getStorageNeutralType());
+        MappedArgFieldCatalog.write(file3, Arrays.asList(assignment("color", STRING, false, NODE_TYPE_1, "color_s", unnamedFieldType, false, false)));
+        assertThrows(ConfigException.class, () -> MappedArgFieldCatalog.open(file3));
+
+    }
+
+    @Test
+    void testBadInput(@TempDir Path tempDir) throws IOException {
+
+        Path file = tempDir.resolve("catalog.bin");
+
+        List<ArgFieldAssignment> duplicates = Arrays.asList(assignment("color", STRING, false, NODE_TYPE_1, "color_s", SOLR_STRING, false, false),
+                assignment("color", STRING, false, NODE_TYPE_1, "color2_s", SOLR_STRING, false, false));
+
+        assertThrows(ConfigException.class, () -> MappedArgFieldCatalog.write(file, duplicates));
+        assertThrows(ConfigException.class, () -> MappedArgFieldCatalog.write(null, duplicates));
+        assertThrows(ConfigException.class, () -> MappedArgFieldCatalog.write(file, null));
+
+        Path missingFile = tempDir.resolve("missing.bin");
+        assertThrows(ConfigException.class, () -> MappedArgFieldCatalog.open(missingFile));
+        assertThrows(ConfigException.class, () -> MappedArgFieldCatalog.open(null));
+
+        Path badFile = tempDir.resolve("bad.bin");
+        Files.writeString(badFile, "This is not a catalog file.");
+        assertThrows(ConfigException.class, () -> MappedArgFieldCatalog.open(badFile));
+
+        Path emptyFile = tempDir.resolve("empty.bin");
+        MappedArgFieldCatalog.write(emptyFile, new ArrayList<>());
+        assertEquals(0, MappedArgFieldCatalog.open(emptyFile).size());
+        assertFalse(MappedArgFieldCatalog.open(emptyFile).contains("color"));
+
+    }
+
+    private static ArgFieldAssignment assignment(String argName, AdlType argType, boolean isAlwaysKnown, String nodeType, String fieldName,
+            AdlSolrType fieldType, boolean isCollection, boolean isMultiDoc) {
+        return new ArgFieldAssignment(new ArgMetaInfo(argName, argType, isAlwaysKnown, isCollection), new DataField(nodeType, fieldName, fieldType, isCollection),
+                isMultiDoc);
+    }
+
+}
@@ -0,0 +1,256 @@
+//@formatter:off
+/*
+ * SolrMappingConfigHolderTest
+ * Copyright 2025 Karl Eilebrecht
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"):
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+//@formatter:on
+
+package de.calamanari.adl.solr.config;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.Test;
+
+import de.calamanari.adl.ConversionException;
+import de.calamanari.adl.cnv.tps.ConfigException;
+import de.calamanari.adl.irl.CoreExpression;
+import de.calamanari.adl.solr.SolrQueryDefinition;
+import de.calamanari.adl.solr.SolrTestBase;
+import de.calamanari.adl.solr.cnv.MatchFilterFactory;
+import de.calamanari.adl.solr.cnv.ResettableScpContext;
+import de.calamanari.adl.solr.cnv.SolrConversionContext;
+import de.calamanari.adl.solr.cnv.SolrExpressionConverter;
+
+import static de.calamanari.adl.cnv.StandardConversions.parseCoreExpression;
+import static de.calamanari.adl.solr.DefaultAdlSolrType.SOLR_STRING;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author <a href="mailto:Karl.Eilebrecht(a/t)calamanari.de">Karl Eilebrecht</a>
+ */
+class SolrMappingConfigHolderTest extends SolrTestBase {
+
+    private static final MainDocumentConfig CONFIG_1 = MainDocumentConfig.forNodeType(NODE_TYPE_1).dataField("color_s", SOLR_STRING).mappedToArgName("color")
+            .get();
+
+    private static final MainDocumentConfig CONFIG_2 = MainDocumentConfig.forNodeType(NODE_TYPE_1).dataField("colour_s", SOLR_STRING)
+            .mappedToArgName("color").get();
+
+    @Test
+    void testBasics() {
+
+        assertThrows(ConfigException.class, () -> new SolrMappingConfigHolder(null));
+
+        SolrMappingConfigHolder holder = new SolrMappingConfigHolder(CONFIG_1);
+
+        assertEquals(1, holder.currentVersion().number());
+        assertSame(CONFIG_1, holder.currentVersion().config());
+        assertFalse(holder.currentVersion().isRetired());
+        assertFalse(holder.currentVersion().isDrained());
+
+        assertThrows(ConfigException.class, () -> holder.swap(null));
+        assertThrows(ConfigException.class, () -> holder.addSwapListener(null));
+
+        SolrMappingConfigHolder.Version version1 = holder.swap(CONFIG_2);
+        assertEquals(1, version1.number());
+        assertTrue(version1.isRetired());
+        assertTrue(version1.isDrained());
+        assertEquals(2, holder.currentVersion().number());
+        assertSame(CONFIG_2, holder.currentVersion().config());
+
+    }
+
+    @Test
+    void testLeaseAndDrain() throws InterruptedException {
+
+        SolrMappingConfigHolder holder = new SolrMappingConfigHolder(CONFIG_1);
+
+        SolrMappingConfigHolder.Lease lease1 = holder.acquire();
+        SolrMappingConfigHolder.Lease lease2 = holder.acquire();
+        assertSame(CONFIG_1, lease1.config());
+        assertEquals(2, holder.currentVersion().inFlightCount());
+
+        SolrMappingConfigHolder.Version version1 = holder.swap(CONFIG_2);
+
+        // pinned leases are not affected by the swap
+        assertSame(CONFIG_1, lease1.config());
+        assertFalse(version1.isDrained());
+        assertFalse(version1.awaitDrained(10, TimeUnit.MILLISECONDS));
+
+        try (SolrMappingConfigHolder.Lease lease3 = holder.acquire()) {
+            assertSame(CONFIG_2, lease3.config());
+        }
+        assertEquals(0, holder.currentVersion().inFlightCount());
+
+        lease1.close();
+        // repeated close has no effect
+        lease1.close();
+        assertEquals(1, version1.inFlightCount());
+
+        CountDownLatch latch = new CountDownLatch(1);
+        Thread t = new Thread(() -> {
+            try {
+                if (version1.awaitDrained(10, TimeUnit.SECONDS)) {
+                    latch.countDown();
+                }
+            }
+            catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        t.start();
+        lease2.close();
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+        assertTrue(version1.isDrained());
+
+        // the current version never drains
+        assertFalse(holder.currentVersion().awaitDrained(10, TimeUnit.MILLISECONDS));
+
+    }
+
+    @Test
+    void testSwapListener() {
+
+        SolrMappingConfigHolder holder = new SolrMappingConfigHolder(CONFIG_1);
+
+        List<String> events = new ArrayList<>();
+
+        SolrMappingConfigHolder.SwapListener listener = (retired, current) -> events.add(retired.number() + "->" + current.number());
+
+        holder.addSwapListener(listener);
+
+        holder.swap(CONFIG_2);
+        holder.swap(CONFIG_1);
+
+        holder.removeSwapListener(listener);
+
+        holder.swap(CONFIG_2);
+
+        assertEquals(List.of("1->2", "2->3"), events);
+        assertEquals(4, holder.currentVersion().number());
+
+    }
+
+    @Test
+    void testConverterHotSwap() {
+
+        SolrMappingConfigHolder holder = new SolrMappingConfigHolder(CONFIG_1);
+
+        SolrExpressionConverter converter = SolrExpressionConverter.forMappingConfigHolder(holder);
+
+        ResettableScpContext ctx = (ResettableScpContext) converter.getProcessContext();
+
+        assertSame(holder, ctx.getMappingConfigHolder());
+
+        assertTrue(converter.convert(parseCoreExpression("color = red")).toString().contains("color_s"));
+        assertEquals(0, holder.currentVersion().inFlightCount());
+
+        SolrMappingConfigHolder.Version version1 = holder.swap(CONFIG_2);
+        assertTrue(version1.isDrained());
+
+        SolrQueryDefinition queryDef = converter.convert(parseCoreExpression("color = red"));
+        assertTrue(queryDef.toString().contains("colour_s"));
+        assertFalse(queryDef.toString().contains("color_s"));
+        assertEquals(0, holder.currentVersion().inFlightCount());
+
+        // a failing conversion must not leave the version pinned
+        assertThrows(ConversionException.class, () -> converter.convert(parseCoreExpression("unknown = 1")));
+        assertEquals(0, holder.currentVersion().inFlightCount());
+
+        // failing preparation (before the traversal)
+        SolrExpressionConverter failingConverter = new SolrExpressionConverter(SolrConversionContext::new,
+                ResettableScpContext.forMappingConfigHolder(holder, null, null)) {
+
+            @Override
+            protected MatchFilterFactory createMatchFilterFactory(CoreExpression rootExpression) {
+                getProcessContext().getMappingConfig();
+                throw new IllegalStateException("broken factory");
+            }
+
+        };
+        assertThrows(IllegalStateException.class, () -> failingConverter.convert(parseCoreExpression("color = red")));
+        assertEquals(0, holder.currentVersion().inFlightCount());
+        assertThrows(IllegalStateException.class, () -> failingConverter.convertToJson(parseCoreExpression("color = red")));
+        assertEquals(0, holder.currentVersion().inFlightCount());
+
+        // explicit pinning through the context
+        ctx.reset();
+        assertEquals(-1, ctx.getMappingConfigVersion());
+        assertSame(CONFIG_2, ctx.getMappingConfig());
+        assertEquals(2, ctx.getMappingConfigVersion());
+        holder.swap(CONFIG_1);
+        assertSame(CONFIG_2, ctx.getMappingConfig());
+        ctx.releaseMappingConfig();
+        assertSame(CONFIG_1, ctx.getMappingConfig());
+        assertEquals(3, ctx.getMappingConfigVersion());
+        ctx.reset();
+        assertEquals(0, holder.currentVersion().inFlightCount());
+
+    }
+
+    @Test
+    void testConcurrentHotSwap() throws Exception {
+
+        SolrMappingConfigHolder holder = new SolrMappingConfigHolder(CONFIG_1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        AtomicBoolean stop = new AtomicBoolean();
+        try {
+            List<Future<Integer>> futures = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                futures.add(executor.submit(() -> {
+                    SolrExpressionConverter converter = SolrExpressionConverter.forMappingConfigHolder(holder);
+                    int count = 0;
+                    while (!stop.get() || count == 0) {
+                        String res = converter.convert(parseCoreExpression("color = red")).toString();
+                        // every conversion sees exactly one consistent version
+                        assertNotEquals(res.contains("color_s"), res.contains("colour_s"));
+                        count++;
+                    }
+                    return count;
+                }));
+            }
+            List<SolrMappingConfigHolder.Version> retiredVersions = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                retiredVersions.add(holder.swap(i % 2 == 0 ? CONFIG_2 : CONFIG_1));
+            }
+            stop.set(true);
+            for (Future<Integer> future : futures) {
+                assertTrue(future.get(30, TimeUnit.SECONDS) > 0);
+            }
+            for (SolrMappingConfigHolder.Version version : retiredVersions) {
+                assertTrue(version.awaitDrained(10, TimeUnit.SECONDS));
+            }
+            assertEquals(0, holder.currentVersion().inFlightCount());
+        }
+        finally {
+            executor.shutdownNow();
+        }
+
+    }
+
+}
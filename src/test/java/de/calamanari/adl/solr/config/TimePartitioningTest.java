@@ -0,0 +1,154 @@
+//@formatter:off
+/*
+ * TimePartitioningTest
+ * Copyright 2025 Karl Eilebrecht
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"):
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+//@formatter:on
+package de.calamanari.adl.solr.config;
+
+import java.time.Instant;
+import java.time.YearMonth;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import de.calamanari.adl.DeepCopyUtils;
+import de.calamanari.adl.cnv.tps.ConfigException;
+
+import static de.calamanari.adl.solr.DefaultAdlSolrType.SOLR_DATE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author <a href="mailto:Karl.Eilebrecht(a/t)calamanari.de">Karl Eilebrecht</a>
+ */
+class TimePartitioningTest {
+
+    private static final YearMonth JAN_2024 = YearMonth.of(2024, 1);
+
+    private static final YearMonth MAR_2024 = YearMonth.of(2024, 3);
+
+    @Test
+    void testBasics() {
+
+        TimePartitioning partitioning = new TimePartitioning("pos_invdate_dt", "'pos_'uuuu_MM", JAN_2024, MAR_2024);
+
+        assertEquals(List.of("pos_2024_01", "pos_2024_02", "pos_2024_03"), partitioning.partitionNames());
+        assertEquals("pos_2023_12", partitioning.partitionNameOf(YearMonth.of(2023, 12)));
+
+        assertEquals(List.of("pos_2024_01"), new TimePartitioning("pos_invdate_dt", "'pos_'uuuu_MM", JAN_2024, JAN_2024).partitionNames());
+
+        assertEquals(partitioning, DeepCopyUtils.deepCopy(partitioning));
+
+        assertThrows(ConfigException.class, () -> new TimePartitioning(null, "'pos_'uuuu_MM", JAN_2024, MAR_2024));
+        assertThrows(ConfigException.class, () -> new TimePartitioning("bad name", "'pos_'uuuu_MM", JAN_2024, MAR_2024));
+        assertThrows(ConfigException.class, () -> new TimePartitioning("pos_invdate_dt", null, JAN_2024, MAR_2024));
+        assertThrows(ConfigException.class, () -> new TimePartitioning("pos_invdate_dt", "'pos_'uuuu_MM", null, MAR_2024));
+        assertThrows(ConfigException.class, () -> new TimePartitioning("pos_invdate_dt", "'pos_'uuuu_MM", JAN_2024, null));
+        assertThrows(ConfigException.class, () -> new TimePartitioning("pos_invdate_dt", "'pos_'uuuu_MM", MAR_2024, JAN_2024));
+
+        // pattern not parseable, not producing distinct names or producing illegal names
+        assertThrows(ConfigException.class, () -> new TimePartitioning("pos_invdate_dt", "'pos_uuuu_MM", JAN_2024, MAR_2024));
+        assertThrows(ConfigException.class, () -> new TimePartitioning("pos_invdate_dt", "'pos_'uuuu", JAN_2024, MAR_2024));
+        assertThrows(ConfigException.class, () -> new TimePartitioning("pos_invdate_dt", "'pos 'uuuu_MM", JAN_2024, MAR_2024));
+
+        // month-only names are distinct within a year but collide across years
+        assertEquals(List.of("pos_01", "pos_02", "pos_03"), new TimePartitioning("pos_invdate_dt", "'pos_'MM", JAN_2024, MAR_2024).partitionNames());
+        assertThrows(ConfigException.class, () -> new TimePartitioning("pos_invdate_dt", "'pos_'MM", JAN_2024, YearMonth.of(2025, 1)));
+
+    }
+
+    @Test
+    void testSelectPartitionNames() {
+
+        TimePartitioning partitioning = new TimePartitioning("pos_invdate_dt", "'pos_'uuuu_MM", JAN_2024, MAR_2024);
+
+        Instant jan15 = Instant.parse("2024-01-15T00:00:00Z");
+        Instant feb01 = Instant.parse("2024-02-01T00:00:00Z");
+        Instant mar10 = Instant.parse("2024-03-10T00:00:00Z");
+
+        assertEquals(List.of("pos_2024_01", "pos_2024_02", "pos_2024_03"), partitioning.selectPartitionNames(null, false, null, false));
+        assertEquals(List.of("pos_2024_01", "pos_2024_02", "pos_2024_03"), partitioning.selectPartitionNames(jan15, true, mar10, false));
+
+        // the upper bound is the first instant of February
+        assertEquals(List.of("pos_2024_01"), partitioning.selectPartitionNames(jan15, true, feb01, false));
+        assertEquals(List.of("pos_2024_01", "pos_2024_02"), partitioning.selectPartitionNames(jan15, true, feb01, true));
+
+        assertEquals(List.of("pos_2024_02", "pos_2024_03"), partitioning.selectPartitionNames(feb01, true, null, false));
+        assertEquals(List.of("pos_2024_03"), partitioning.selectPartitionNames(mar10, false, null, false));
+        assertEquals(List.of("pos_2024_01"), partitioning.selectPartitionNames(null, false, jan15, true));
+
+        // point
+        assertEquals(List.of("pos_2024_02"), partitioning.selectPartitionNames(feb01, true, feb01, true));
+
+        // empty intervals
+        assertTrue(partitioning.selectPartitionNames(feb01, false, feb01, true).isEmpty());
+        assertTrue(partitioning.selectPartitionNames(mar10, true, jan15, true).isEmpty());
+
+        // out of range
+        assertEquals(Collections.emptyList(), partitioning.selectPartitionNames(Instant.parse("2024-04-01T00:00:00Z"), true, null, false));
+        assertEquals(Collections.emptyList(), partitioning.selectPartitionNames(null, false, Instant.parse("2024-01-01T00:00:00Z"), false));
+
+    }
+
+    @Test
+    void testSubDocumentConfig() {
+
+        SubDocumentConfig config = new SubDocumentConfig("pos", SolrDocumentNature.DEPENDENT, null, Collections.emptyMap(), null, null);
+        assertNull(config.timePartitioning());
+
+        TimePartitioning partitioning = new TimePartitioning("pos_invdate_dt", "'pos_'uuuu_MM", JAN_2024, MAR_2024);
+
+        SubDocumentConfig partitionedConfig = config.withTimePartitioning(partitioning);
+        assertSame(partitioning, partitionedConfig.timePartitioning());
+        assertEquals(config.nodeType(), partitionedConfig.nodeType());
+        assertEquals(config, partitionedConfig.withTimePartitioning(null));
+
+        SubDocumentConfig nestedConfig = new SubDocumentConfig("fact", SolrDocumentNature.NESTED, null, Collections.emptyMap(), null, null);
+        assertThrows(ConfigException.class, () -> nestedConfig.withTimePartitioning(partitioning));
+
+        assertNull(DummyDocumentConfig.getInstance().timePartitioning());
+    }
+
+    @Test
+    void testFluentApi() {
+
+        TimePartitioning partitioning = new TimePartitioning("pos_invdate_dt", "'pos_'uuuu_MM", JAN_2024, MAR_2024);
+
+        // @formatter:off
+        SubDocumentConfig config = SubDocumentConfig.forNodeType("pos")
+                                                    .dependent()
+                                                    .timePartitioned(partitioning)
+                                                    .dataField("pos_invdate_dt", SOLR_DATE)
+                                                        .mappedToArgName("pos.date")
+                                                    .get();
+        // @formatter:on
+
+        assertSame(partitioning, config.timePartitioning());
+        assertEquals(config, SubDocumentConfig.forNodeType("pos").dependent().dataField("pos_invdate_dt", SOLR_DATE).mappedToArgName("pos.date").get()
+                .withTimePartitioning(partitioning));
+
+        assertNull(SubDocumentConfig.forNodeType("pos").dependentMultiDoc().dataField("pos_invdate_dt", SOLR_DATE).mappedToArgName("pos.date").get()
+                .timePartitioning());
+
+        assertThrows(ConfigException.class, () -> SubDocumentConfig.forNodeType("pos").dependent().timePartitioned(null));
+
+    }
+
+}
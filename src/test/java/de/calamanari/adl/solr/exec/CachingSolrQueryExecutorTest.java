@@ -0,0 +1,328 @@
+//@formatter:off
+/*
+ * CachingSolrQueryExecutorTest
+ * Copyright 2025 Karl Eilebrecht
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"):
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+//@formatter:on
+
+package de.calamanari.adl.solr.exec;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.solr.client.solrj.SolrServerException;
+import org.apache.solr.client.solrj.request.SolrQuery;
+import org.apache.solr.common.SolrInputDocument;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import de.calamanari.adl.FormatStyle;
+import de.calamanari.adl.solr.DefaultQueryType;
+import de.calamanari.adl.solr.SolrFilterQuery;
+import de.calamanari.adl.solr.SolrQueryDefinition;
+import de.calamanari.adl.solr.SolrTestBase;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author <a href="mailto:Karl.Eilebrecht(a/t)calamanari.de">Karl Eilebrecht</a>
+ */
+class CachingSolrQueryExecutorTest extends SolrTestBase {
+
+    private static final String COLLECTION_NAME = "Audlang";
+
+    private static final String EXPRESSION = "provider = LOGMOTH AND home-country = USA";
+
+    private static final String EXPRESSION_2 = "provider = LOGMOTH OR home-country = USA";
+
+    private static final String EXPRESSION_3 = "provider = CLCPRO";
+
+    private static int nextId = 90_001;
+
+    // each test modifies the index
+    @BeforeEach
+    void prepareEmbeddedSolr() throws IOException {
+        initTestServerWithHybridMapping();
+    }
+
+    @Test
+    void testCacheWithInterleavedUpdates() throws SolrServerException, IOException {
+
+        AtomicInteger requestCounter = new AtomicInteger();
+        CachingSolrQueryExecutor executor = createCountingExecutor(requestCounter, CachingSolrQueryExecutor.DEFAULT_MAX_ENTRIES, 0);
+        SolrQueryExecutor uncachedExecutor = new SolrQueryExecutor(testServer, COLLECTION_NAME);
+
+        SolrQueryDefinition queryDefinition = createQueryDefinition(EXPRESSION, FormatStyle.INLINE);
+        long expectedCount = uncachedExecutor.count(queryDefinition);
+
+        assertEquals(expectedCount, executor.count(queryDefinition));
+        assertEquals(1, requestCounter.get());
+        assertEquals(expectedCount, executor.count(queryDefinition));
+        assertEquals(1, requestCounter.get());
+
+        // same filter queries in different order
+        List<SolrFilterQuery> reversedFilterQueries = new ArrayList<>(queryDefinition.filterQueries());
+        Collections.reverse(reversedFilterQueries);
+        SolrQueryDefinition reversedQueryDefinition = new SolrQueryDefinition(queryDefinition.mainQueryString(), reversedFilterQueries, null);
+        assertEquals(expectedCount, executor.count(reversedQueryDefinition));
+        assertEquals(1, requestCounter.get());
+        assertEquals(2, executor.getCacheHits());
+        assertEquals(1, executor.getCacheMisses());
+
+        RoaringIdBitmap ids = executor.materializeIntIds(queryDefinition);
+        assertEquals(2, requestCounter.get());
+        assertEquals(ids, executor.materializeIntIds(queryDefinition));
+        assertEquals(2, requestCounter.get());
+
+        // the cache returns copies
+        ids.add(4711);
+        assertFalse(executor.materializeIntIds(queryDefinition).contains(4711));
+
+        int newId = addMatchingProfile();
+
+        assertEquals(expectedCount + 1, executor.count(queryDefinition));
+        assertEquals(3, requestCounter.get());
+        assertTrue(executor.materializeIntIds(queryDefinition).contains(newId));
+        assertEquals(4, requestCounter.get());
+        assertEquals(2, executor.getCacheSize());
+
+        // interleaved updates
+        for (int i = 0; i < 3; i++) {
+            long countBefore = executor.count(queryDefinition);
+            assertEquals(countBefore, executor.count(queryDefinition));
+            addMatchingProfile();
+            assertEquals(countBefore + 1, executor.count(queryDefinition));
+            assertEquals(uncachedExecutor.count(queryDefinition), executor.count(queryDefinition));
+        }
+
+    }
+
+    @Test
+    void testVersionChangeDuringQuery() {
+
+        SolrQueryDefinition queryDefinition = createQueryDefinition(EXPRESSION, FormatStyle.INLINE);
+        SolrQueryDefinition otherQueryDefinition = createQueryDefinition(EXPRESSION_2, FormatStyle.INLINE);
+
+        AtomicLong indexVersion = new AtomicLong(1);
+        AtomicInteger requestCounter = new AtomicInteger();
+        AtomicBoolean interleave = new AtomicBoolean();
+        CachingSolrQueryExecutor[] executorRef = new CachingSolrQueryExecutor[1];
+        CachingSolrQueryExecutor executor = new CachingSolrQueryExecutor(testServer, COLLECTION_NAME, Map.of(), null, 10, 0) {
+
+            @Override
+            protected SolrQuery createSolrQuery(SolrQueryDefinition queryDefinition, DefaultQueryType queryType, SolrQueryTuning tuning) {
+                requestCounter.incrementAndGet();
+                if (interleave.getAndSet(false)) {
+                    // while this query is running against the old searcher, another caller detects a new index version
+                    indexVersion.incrementAndGet();
+                    executorRef[0].count(otherQueryDefinition);
+                }
+                return super.createSolrQuery(queryDefinition, queryType, tuning);
+            }
+
+            @Override
+            protected long fetchIndexVersion() {
+                return indexVersion.get();
+            }
+
+        };
+        executorRef[0] = executor;
+
+        interleave.set(true);
+        long count = executor.count(queryDefinition);
+        assertEquals(2, requestCounter.get());
+
+        // only the result computed for the new version has been cached
+        assertEquals(1, executor.getCacheSize());
+        assertEquals(count, executor.count(queryDefinition));
+        assertEquals(3, requestCounter.get());
+        assertEquals(count, executor.count(queryDefinition));
+        assertEquals(3, requestCounter.get());
+        assertEquals(2, executor.getCacheSize());
+
+        interleave.set(true);
+        RoaringIdBitmap ids = executor.materializeIntIds(queryDefinition);
+        assertEquals(5, requestCounter.get());
+        assertEquals(1, executor.getCacheSize());
+        assertEquals(ids, executor.materializeIntIds(queryDefinition));
+        assertEquals(6, requestCounter.get());
+        assertEquals(2, executor.getCacheSize());
+
+        interleave.set(true);
+        executor.countAll(List.of(queryDefinition, otherQueryDefinition));
+        assertEquals(1, executor.getCacheSize());
+
+    }
+
+    @Test
+    void testCountAll() throws SolrServerException, IOException {
+
+        AtomicInteger requestCounter = new AtomicInteger();
+        CachingSolrQueryExecutor executor = createCountingExecutor(requestCounter, CachingSolrQueryExecutor.DEFAULT_MAX_ENTRIES, 0);
+        SolrQueryExecutor uncachedExecutor = new SolrQueryExecutor(testServer, COLLECTION_NAME);
+
+        List<SolrQueryDefinition> queryDefinitions = List.of(EXPRESSION, EXPRESSION_2, EXPRESSION_3).stream()
+                .map(expression -> createQueryDefinition(expression, FormatStyle.INLINE)).toList();
+
+        executor.count(queryDefinitions.get(1));
+        assertEquals(1, requestCounter.get());
+
+        // only the missing counts will be requested
+        assertEquals(uncachedExecutor.countAll(queryDefinitions), executor.countAll(queryDefinitions));
+        assertEquals(2, requestCounter.get());
+        assertEquals(uncachedExecutor.countAll(queryDefinitions), executor.countAll(queryDefinitions));
+        assertEquals(2, requestCounter.get());
+
+        addMatchingProfile();
+        assertEquals(uncachedExecutor.countAll(queryDefinitions), executor.countAll(queryDefinitions));
+        assertEquals(3, requestCounter.get());
+
+        assertThrows(IllegalArgumentException.class, () -> executor.countAll(null));
+
+    }
+
+    @Test
+    void testEvictionAndCheckInterval() throws SolrServerException, IOException {
+
+        AtomicInteger requestCounter = new AtomicInteger();
+        CachingSolrQueryExecutor executor = createCountingExecutor(requestCounter, 2, 3_600_000);
+
+        SolrQueryDefinition queryDefinition = createQueryDefinition(EXPRESSION, FormatStyle.INLINE);
+        long count = executor.count(queryDefinition);
+        executor.count(createQueryDefinition(EXPRESSION_2, FormatStyle.INLINE));
+        executor.count(createQueryDefinition(EXPRESSION_3, FormatStyle.INLINE));
+        assertEquals(2, executor.getCacheSize());
+        assertEquals(3, requestCounter.get());
+
+        // least recently used entry was evicted
+        assertEquals(count, executor.count(queryDefinition));
+        assertEquals(4, requestCounter.get());
+
+        // the version will not be checked again within the interval
+        addMatchingProfile();
+        assertEquals(count, executor.count(queryDefinition));
+        assertEquals(4, requestCounter.get());
+
+        executor.clearCache();
+        assertEquals(0, executor.getCacheSize());
+        assertEquals(count + 1, executor.count(queryDefinition));
+
+    }
+
+    @Test
+    void testRouteKeysAndByteLimit() {
+
+        AtomicInteger requestCounter = new AtomicInteger();
+        CachingSolrQueryExecutor executor = createCountingExecutor(requestCounter, CachingSolrQueryExecutor.DEFAULT_MAX_ENTRIES, 0);
+
+        SolrQueryDefinition queryDefinition = createQueryDefinition(EXPRESSION, FormatStyle.INLINE);
+        SolrQueryDefinition routedQueryDefinition = new SolrQueryDefinition(queryDefinition.mainQueryString(), queryDefinition.filterQueries(), null,
+                List.of("other!"));
+
+        executor.count(queryDefinition);
+        assertEquals(1, requestCounter.get());
+
+        // a result computed for a different route must not be served
+        executor.count(routedQueryDefinition);
+        assertEquals(2, requestCounter.get());
+        executor.count(routedQueryDefinition);
+        assertEquals(2, requestCounter.get());
+        assertEquals(2, executor.getCacheSize());
+
+        RoaringIdBitmap ids = executor.materializeIntIds(queryDefinition);
+        assertEquals(3, executor.getCacheSize());
+        long bytes = executor.getCacheBytes();
+        assertTrue(bytes > ids.serializedSizeInBytes());
+
+        // room for the id set only, the counts get evicted
+        CachingSolrQueryExecutor smallExecutor = new CachingSolrQueryExecutor(testServer, COLLECTION_NAME, Map.of(), null, 10, 0,
+                bytes - executor.getCacheBytes() / 3);
+        smallExecutor.count(queryDefinition);
+        smallExecutor.count(routedQueryDefinition);
+        assertEquals(2, smallExecutor.getCacheSize());
+        assertEquals(ids, smallExecutor.materializeIntIds(queryDefinition));
+        assertEquals(1, smallExecutor.getCacheSize());
+        assertTrue(smallExecutor.getCacheBytes() <= smallExecutor.getMaxBytes());
+
+        // too large to be cached at all
+        CachingSolrQueryExecutor tinyExecutor = new CachingSolrQueryExecutor(testServer, COLLECTION_NAME, Map.of(), null, 10, 0, 16);
+        assertEquals(ids, tinyExecutor.materializeIntIds(queryDefinition));
+        assertEquals(0, tinyExecutor.getCacheSize());
+        assertEquals(0, tinyExecutor.getCacheBytes());
+
+        executor.clearCache();
+        assertEquals(0, executor.getCacheBytes());
+
+    }
+
+    @Test
+    void testBasics() {
+
+        assertThrows(IllegalArgumentException.class, () -> new CachingSolrQueryExecutor(testServer, COLLECTION_NAME, null, null, 0, 0));
+        assertThrows(IllegalArgumentException.class, () -> new CachingSolrQueryExecutor(testServer, COLLECTION_NAME, null, null, 1, -1));
+        assertThrows(IllegalArgumentException.class, () -> new CachingSolrQueryExecutor(testServer, COLLECTION_NAME, null, null, 1, 0, 0));
+        assertThrows(IllegalArgumentException.class, () -> new CachingSolrQueryExecutor(null, COLLECTION_NAME));
+
+        CachingSolrQueryExecutor executor = new CachingSolrQueryExecutor(testServer, COLLECTION_NAME);
+        assertEquals(CachingSolrQueryExecutor.DEFAULT_MAX_ENTRIES, executor.getMaxEntries());
+        assertEquals(CachingSolrQueryExecutor.DEFAULT_MAX_BYTES, executor.getMaxBytes());
+        assertThrows(IllegalArgumentException.class, () -> executor.count(null));
+        assertThrows(IllegalArgumentException.class, () -> executor.materializeIntIds(null));
+
+        SolrQueryDefinition queryDefinition = createQueryDefinition(EXPRESSION, FormatStyle.INLINE);
+        CachingSolrQueryExecutor badExecutor = new CachingSolrQueryExecutor(testServer, "unknownCollection");
+        assertThrows(SolrQueryExecutionException.class, () -> badExecutor.count(queryDefinition));
+
+    }
+
+    private static CachingSolrQueryExecutor createCountingExecutor(AtomicInteger requestCounter, int maxEntries, long versionCheckIntervalMillis) {
+        return new CachingSolrQueryExecutor(testServer, COLLECTION_NAME, Map.of(), null, maxEntries, versionCheckIntervalMillis) {
+
+            @Override
+            protected SolrQuery createSolrQuery(SolrQueryDefinition queryDefinition, DefaultQueryType queryType, SolrQueryTuning tuning) {
+                requestCounter.incrementAndGet();
+                return super.createSolrQuery(queryDefinition, queryType, tuning);
+            }
+
+        };
+    }
+
+    /**
+     * Adds a profile matching all test expressions except {@link #EXPRESSION_3} and commits (opens a new searcher)
+     * 
+     * @return id of the new document
+     */
+    private static int addMatchingProfile() throws SolrServerException, IOException {
+        int id = nextId++;
+        SolrInputDocument document = new SolrInputDocument();
+        document.addField("id", String.valueOf(id));
+        document.addField("node_type", "profile");
+        document.addField("provider", "LOGMOTH");
+        document.addField("country", "USA");
+        testServer.add(COLLECTION_NAME, document);
+        testServer.commit(COLLECTION_NAME);
+        return id;
+    }
+
+}
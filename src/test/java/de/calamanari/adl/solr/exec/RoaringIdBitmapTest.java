@@ -0,0 +1,152 @@
+//@formatter:off
+/*
+ * RoaringIdBitmapTest
+ * Copyright 2025 Karl Eilebrecht
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"):
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+//@formatter:on
+
+package de.calamanari.adl.solr.exec;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author <a href="mailto:Karl.Eilebrecht(a/t)calamanari.de">Karl Eilebrecht</a>
+ */
+class RoaringIdBitmapTest {
+
+    @Test
+    void testBasics() {
+
+        RoaringIdBitmap bitmap = new RoaringIdBitmap();
+        assertTrue(bitmap.isEmpty());
+        assertEquals(0, bitmap.cardinality());
+
+        assertTrue(bitmap.add(70000));
+        assertTrue(bitmap.add(3));
+        assertTrue(bitmap.add(-1));
+        assertFalse(bitmap.add(3));
+
+        assertEquals(3, bitmap.cardinality());
+        assertTrue(bitmap.contains(3));
+        assertTrue(bitmap.contains(70000));
+        assertTrue(bitmap.contains(-1));
+        assertFalse(bitmap.contains(4));
+        assertFalse(bitmap.contains(65536 + 3));
+
+        // unsigned order
+        List<Integer> ids = new ArrayList<>();
+        bitmap.forEach(ids::add);
+        assertEquals(List.of(3, 70000, -1), ids);
+
+        assertEquals("RoaringIdBitmap[cardinality=3, containers=3]", bitmap.toString());
+
+    }
+
+    @Test
+    void testPortableFormat() throws IOException {
+
+        RoaringIdBitmap bitmap = new RoaringIdBitmap();
+        bitmap.add(3);
+        bitmap.add(1);
+        bitmap.add(2);
+
+        // cookie 12346, 1 container, key 0, cardinality-1 2, offset 16, values 1, 2, 3 (little endian)
+        byte[] expected = new byte[] { 0x3A, 0x30, 0, 0, 1, 0, 0, 0, 0, 0, 2, 0, 16, 0, 0, 0, 1, 0, 2, 0, 3, 0 };
+        assertArrayEquals(expected, bitmap.toByteArray());
+        assertEquals(expected.length, bitmap.serializedSizeInBytes());
+
+        assertEquals(bitmap, RoaringIdBitmap.readFrom(new ByteArrayInputStream(expected)));
+
+        assertThrows(IOException.class, () -> RoaringIdBitmap.readFrom(new ByteArrayInputStream(Arrays.copyOf(expected, 20))));
+        byte[] wrongCookie = expected.clone();
+        wrongCookie[0] = 0x3B;
+        assertThrows(IOException.class, () -> RoaringIdBitmap.readFrom(new ByteArrayInputStream(wrongCookie)));
+
+        byte[] unsortedValues = expected.clone();
+        unsortedValues[18] = 3;
+        unsortedValues[20] = 2;
+        assertThrows(IOException.class, () -> RoaringIdBitmap.readFrom(new ByteArrayInputStream(unsortedValues)));
+
+        byte[] duplicateValues = expected.clone();
+        duplicateValues[18] = 1;
+        assertThrows(IOException.class, () -> RoaringIdBitmap.readFrom(new ByteArrayInputStream(duplicateValues)));
+
+        // 2 containers, both with key 0 and a single value (1 and 2)
+        byte[] duplicateKeys = new byte[] { 0x3A, 0x30, 0, 0, 2, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 24, 0, 0, 0, 26, 0, 0, 0, 1, 0, 2, 0 };
+        assertThrows(IOException.class, () -> RoaringIdBitmap.readFrom(new ByteArrayInputStream(duplicateKeys)));
+        duplicateKeys[12] = 1;
+        assertEquals(2, RoaringIdBitmap.readFrom(new ByteArrayInputStream(duplicateKeys)).cardinality());
+
+    }
+
+    @Test
+    void testLargeRandom() throws IOException {
+
+        Random rand = new Random(4711);
+        TreeSet<Integer> expected = new TreeSet<>();
+        RoaringIdBitmap bitmap = new RoaringIdBitmap();
+
+        // dense chunk (bitmap container), sparse chunks (array containers)
+        for (int i = 0; i < 100_000; i++) {
+            int id = (i % 3 == 0) ? rand.nextInt(50_000_000) : rand.nextInt(65536);
+            assertEquals(expected.add(id), bitmap.add(id));
+        }
+        assertEquals(expected.size(), bitmap.cardinality());
+
+        List<Integer> ids = new ArrayList<>();
+        bitmap.forEach(ids::add);
+        assertEquals(new ArrayList<>(expected), ids);
+
+        for (int i = 0; i < 10_000; i++) {
+            int id = rand.nextInt(50_000_000);
+            assertEquals(expected.contains(id), bitmap.contains(id));
+        }
+
+        byte[] data = bitmap.toByteArray();
+        assertEquals(data.length, bitmap.serializedSizeInBytes());
+        assertTrue(data.length < expected.size() * 4);
+
+        RoaringIdBitmap copy = RoaringIdBitmap.readFrom(new ByteArrayInputStream(data));
+        assertEquals(bitmap, copy);
+        assertEquals(bitmap.hashCode(), copy.hashCode());
+
+        copy.add(50_000_001);
+        assertNotEquals(bitmap, copy);
+
+        RoaringIdBitmap copy2 = bitmap.copy();
+        assertEquals(bitmap, copy2);
+        copy2.add(3);
+        copy2.add(50_000_002);
+        assertEquals(expected.size(), bitmap.cardinality());
+        assertFalse(bitmap.contains(50_000_002));
+
+    }
+
+}
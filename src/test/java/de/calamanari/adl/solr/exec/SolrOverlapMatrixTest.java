@@ -0,0 +1,60 @@
+//@formatter:off
+/*
+ * SolrOverlapMatrixTest
+ * Copyright 2025 Karl Eilebrecht
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"):
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+//@formatter:on
+
+package de.calamanari.adl.solr.exec;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * @author <a href="mailto:Karl.Eilebrecht(a/t)calamanari.de">Karl Eilebrecht</a>
+ */
+class SolrOverlapMatrixTest {
+
+    @Test
+    void testBasics() {
+
+        assertThrows(IllegalArgumentException.class, () -> new SolrOverlapMatrix(null));
+        assertThrows(IllegalArgumentException.class, () -> new SolrOverlapMatrix(new long[][] { { 1, 0 } }));
+        assertThrows(IllegalArgumentException.class, () -> new SolrOverlapMatrix(new long[][] { { 5, 1 }, { 2, 5 } }));
+        assertThrows(IllegalArgumentException.class, () -> new SolrOverlapMatrix(new long[][] { { 5, 3 }, { 3, 2 } }));
+
+        long[][] counts = new long[][] { { 5, 2, 0 }, { 2, 3, 1 }, { 0, 1, 7 } };
+        SolrOverlapMatrix matrix = new SolrOverlapMatrix(counts);
+        counts[0][0] = 99;
+
+        assertEquals(3, matrix.size());
+        assertEquals(5, matrix.count(0));
+        assertEquals(7, matrix.count(2));
+        assertEquals(1, matrix.overlap(2, 1));
+        assertEquals("[[5, 2, 0],\n [2, 3, 1],\n [0, 1, 7]]", matrix.toString());
+
+        matrix.toArray()[0][0] = 99;
+        assertEquals(5, matrix.count(0));
+
+        assertEquals(matrix, new SolrOverlapMatrix(matrix.toArray()));
+        assertEquals(matrix.hashCode(), new SolrOverlapMatrix(matrix.toArray()).hashCode());
+        assertNotEquals(matrix, new SolrOverlapMatrix(counts));
+
+    }
+
+}
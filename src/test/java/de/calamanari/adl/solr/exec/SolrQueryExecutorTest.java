@@ -0,0 +1,561 @@
+//@formatter:off
+/*
+ * SolrQueryExecutorTest
+ * Copyright 2025 Karl Eilebrecht
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"):
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+//@formatter:on
+
+package de.calamanari.adl.solr.exec;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import org.apache.solr.client.solrj.request.SolrQuery;
+import org.apache.solr.common.SolrDocument;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import de.calamanari.adl.FormatStyle;
+import de.calamanari.adl.solr.DefaultQueryType;
+import de.calamanari.adl.solr.SolrConditionType;
+import de.calamanari.adl.solr.SolrFilterQuery;
+import de.calamanari.adl.solr.SolrInsightQueryDefinition;
+import de.calamanari.adl.solr.SolrQueryField;
+import de.calamanari.adl.solr.EmbeddedSolrServerUtils;
+import de.calamanari.adl.solr.SolrQueryDefinition;
+import de.calamanari.adl.solr.SolrTestBase;
+import de.calamanari.adl.solr.cnv.SolrExpressionConverter;
+
+import static de.calamanari.adl.cnv.StandardConversions.parseCoreExpression;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author <a href="mailto:Karl.Eilebrecht(a/t)calamanari.de">Karl Eilebrecht</a>
+ */
+class SolrQueryExecutorTest extends SolrTestBase {
+
+    private static final String COLLECTION_NAME = "Audlang";
+
+    private static final String EXPRESSION = "provider = LOGMOTH OR home-country = USA OR q.monthlyIncome.int > 4000";
+
+    @BeforeAll
+    static void prepareEmbeddedSolr() throws IOException {
+        initTestServerWithHybridMapping();
+    }
+
+    @Test
+    void testAllQueryTypes() {
+
+        SolrQueryDefinition queryDefinition = createQueryDefinition(EXPRESSION, FormatStyle.INLINE);
+
+        List<Integer> expected = EmbeddedSolrServerUtils.queryIntIdsSorted(testServer, queryDefinition);
+        assertTrue(expected.size() > 3);
+
+        // tiny pages to enforce deep paging
+        Map<DefaultQueryType, SolrQueryTuning> tunings = new EnumMap<>(DefaultQueryType.class);
+        for (DefaultQueryType queryType : DefaultQueryType.values()) {
+            tunings.put(queryType, SolrQueryTuning.forQueryType(queryType).withPageSize(2));
+        }
+        SolrQueryExecutor executor = new SolrQueryExecutor(testServer, COLLECTION_NAME, tunings, null);
+
+        assertEquals(expected.size(), executor.count(queryDefinition));
+
+        for (DefaultQueryType queryType : DefaultQueryType.values()) {
+            SolrQueryResult result = executor.execute(queryDefinition, queryType);
+            assertEquals(expected.size(), result.numFound(), queryType.name());
+            assertFalse(result.isTruncated());
+            if (queryType.isCount()) {
+                assertTrue(result.documents().isEmpty());
+            }
+            else {
+                List<String> ids = result.ids();
+                assertEquals(ids.stream().sorted().toList(), ids, queryType.name());
+                assertEquals(expected, ids.stream().map(Integer::valueOf).sorted().toList(), queryType.name());
+            }
+        }
+
+        assertEquals(1, executor.execute(queryDefinition, DefaultQueryType.SELECT_IDS).documents().get(0).getFieldNames().size());
+        assertTrue(executor.execute(queryDefinition, DefaultQueryType.SELECT_DOCUMENTS).documents().get(0).getFieldNames().size() > 1);
+
+        SolrQueryResult nested = executor.execute(createQueryDefinition("fact.hasDog.flg=1", FormatStyle.INLINE),
+                DefaultQueryType.SELECT_DOCUMENTS_WITH_NESTING);
+        assertTrue(nested.documents().stream().anyMatch(SolrQueryExecutorTest::hasNestedDocuments));
+
+    }
+
+    @Test
+    void testLimitAndStreaming() {
+
+        SolrQueryDefinition queryDefinition = createQueryDefinition(EXPRESSION, FormatStyle.INLINE);
+        long numMatches = new SolrQueryExecutor(testServer, COLLECTION_NAME).count(queryDefinition);
+
+        SolrQueryExecutor executor = new SolrQueryExecutor(testServer, COLLECTION_NAME,
+                Map.of(DefaultQueryType.SELECT_IDS, new SolrQueryTuning(2, 3, 0, Map.of("cache", "false"))), null);
+
+        SolrQueryResult result = executor.execute(queryDefinition, DefaultQueryType.SELECT_IDS);
+        assertEquals(numMatches, result.numFound());
+        assertEquals(3, result.documents().size());
+        assertTrue(result.isTruncated());
+
+        List<String> ids = new ArrayList<>();
+        assertEquals(numMatches, executor.forEachDocument(queryDefinition, DefaultQueryType.SELECT_IDS_ORDERED,
+                document -> ids.add(String.valueOf(document.getFieldValue("id")))));
+        assertEquals(numMatches, ids.size());
+
+    }
+
+    @Test
+    void testAsync() throws InterruptedException, ExecutionException {
+
+        SolrQueryDefinition queryDefinition = createQueryDefinition(EXPRESSION, FormatStyle.INLINE);
+        SolrQueryExecutor executor = new SolrQueryExecutor(testServer, COLLECTION_NAME);
+
+        List<CompletableFuture<SolrQueryResult>> futures = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            futures.add(executor.executeAsync(queryDefinition, DefaultQueryType.SELECT_IDS));
+        }
+        CompletableFuture<Long> countFuture = executor.countAsync(queryDefinition);
+
+        long expectedCount = countFuture.get();
+        for (CompletableFuture<SolrQueryResult> future : futures) {
+            assertEquals(expectedCount, future.get().documents().size());
+        }
+
+        SolrQueryExecutor badExecutor = new SolrQueryExecutor(testServer, "unknownCollection");
+        CompletableFuture<Long> badFuture = badExecutor.countAsync(queryDefinition);
+        ExecutionException ex = assertThrows(ExecutionException.class, badFuture::get);
+        assertInstanceOf(SolrQueryExecutionException.class, ex.getCause());
+
+    }
+
+    @Test
+    void testCountAll() {
+
+        // @formatter:off
+        List<String> expressions = List.of(
+                EXPRESSION,
+                "provider = LOGMOTH AND home-country = USA",
+                "fact.hasDog.flg=1 AND fact.hasCat.flg != 1",
+                "(q.monthlyIncome.int > 5000 AND q.martialStatus.str != married) OR (q.vegan.flg != 1 AND q.foodPref.str contains any of (fish, thai))",
+                "(pos.name contains any of (MELON, PUMPKIN, CHEESE) AND pos.date > 2024-03-15) OR STRICT NOT pos.quantity > 2",
+                "NOT (clubMember = 1 OR hobbies=origami OR sports=tennis)",
+                "provider = NONEXIST",
+                "provider = LOGMOTH AND home-country = USA"
+                );
+        // @formatter:on
+
+        List<SolrQueryDefinition> queryDefinitions = expressions.stream().map(expression -> createQueryDefinition(expression, FormatStyle.INLINE)).toList();
+
+        AtomicInteger numRequests = new AtomicInteger();
+        SolrQueryExecutor executor = new SolrQueryExecutor(testServer, COLLECTION_NAME) {
+
+            @Override
+            protected SolrQuery createSolrQuery(SolrQueryDefinition queryDefinition, DefaultQueryType queryType, SolrQueryTuning tuning) {
+                numRequests.incrementAndGet();
+                return super.createSolrQuery(queryDefinition, queryType, tuning);
+            }
+
+        };
+
+        List<Long> expected = queryDefinitions.stream().map(executor::count).toList();
+        assertEquals(0L, expected.get(6));
+
+        numRequests.set(0);
+        assertEquals(expected, executor.countAll(queryDefinitions));
+        assertEquals(1, numRequests.get());
+
+        assertEquals(List.of(expected.get(1)), executor.countAll(List.of(queryDefinitions.get(1))));
+        assertEquals(List.of(), executor.countAll(List.of()));
+
+        // different main queries require separate requests
+        SolrQueryDefinition otherMainQuery = new SolrQueryDefinition("node_type:profile", queryDefinitions.get(2).filterQueries(), null);
+        numRequests.set(0);
+        assertEquals(List.of(expected.get(1), expected.get(2), expected.get(3)),
+                executor.countAll(List.of(queryDefinitions.get(1), otherMainQuery, queryDefinitions.get(3))));
+        assertEquals(2, numRequests.get());
+
+        // shared filter queries will be sent only once
+        SolrFilterQuery sharedFilterQuery = new SolrFilterQuery("node_type:profile", List.of(new SolrQueryField("profile", "node_type")),
+                List.of(SolrConditionType.ALL_DOCS));
+        List<SolrQueryDefinition> queryDefinitionsWithSharedFilterQuery = queryDefinitions.stream()
+                .map(queryDefinition -> new SolrQueryDefinition(null,
+                        Stream.concat(Stream.of(sharedFilterQuery), queryDefinition.filterQueries().stream()).distinct().toList(), null))
+                .toList();
+        assertEquals(expected, executor.countAll(queryDefinitionsWithSharedFilterQuery));
+
+        // no matches at all
+        assertEquals(List.of(0L, 0L), executor.countAll(List.of(queryDefinitions.get(6), createQueryDefinition("provider = NONEXIST AND home-country = USA",
+                FormatStyle.INLINE))));
+
+        assertThrows(IllegalArgumentException.class, () -> executor.countAll(null));
+        assertThrows(IllegalArgumentException.class, () -> executor.countAll(Arrays.asList(queryDefinitions.get(0), null)));
+
+    }
+
+    @Test
+    void testCountAllAsync() throws InterruptedException, ExecutionException {
+
+        List<SolrQueryDefinition> queryDefinitions = List.of(createQueryDefinition(EXPRESSION, FormatStyle.INLINE),
+                createQueryDefinition("fact.hasDog.flg=1", FormatStyle.INLINE));
+        SolrQueryExecutor executor = new SolrQueryExecutor(testServer, COLLECTION_NAME);
+
+        assertEquals(queryDefinitions.stream().map(executor::count).toList(), executor.countAllAsync(queryDefinitions).get());
+
+    }
+
+    @Test
+    void testCountOverlaps() {
+
+        // @formatter:off
+        List<String> expressions = List.of(
+                EXPRESSION,
+                "provider = LOGMOTH",
+                "home-country = USA",
+                "fact.hasDog.flg=1 OR fact.hasCat.flg=1",
+                "q.monthlyIncome.int > 4000 AND q.martialStatus.str != married",
+                "pos.name contains any of (MELON, PUMPKIN, CHEESE)",
+                "NOT (clubMember = 1 OR hobbies=origami OR sports=tennis)",
+                "provider = NONEXIST"
+                );
+        // @formatter:on
+
+        List<SolrQueryDefinition> queryDefinitions = expressions.stream().map(expression -> createQueryDefinition(expression, FormatStyle.INLINE)).toList();
+
+        AtomicInteger numRequests = new AtomicInteger();
+        SolrQueryExecutor executor = new SolrQueryExecutor(testServer, COLLECTION_NAME) {
+
+            @Override
+            protected SolrQuery createSolrQuery(SolrQueryDefinition queryDefinition, DefaultQueryType queryType, SolrQueryTuning tuning) {
+                numRequests.incrementAndGet();
+                return super.createSolrQuery(queryDefinition, queryType, tuning);
+            }
+
+        };
+
+        SolrOverlapMatrix matrix = executor.countOverlaps(queryDefinitions);
+        assertEquals(1, numRequests.get());
+        assertEquals(expressions.size(), matrix.size());
+
+        for (int i = 0; i < expressions.size(); i++) {
+            assertEquals(selectIds(expressions.get(i)).size(), matrix.count(i), expressions.get(i));
+            for (int j = i + 1; j < expressions.size(); j++) {
+                String combined = "(" + expressions.get(i) + ") AND (" + expressions.get(j) + ")";
+                assertEquals(selectIds(combined).size(), matrix.overlap(i, j), combined);
+                assertEquals(matrix.overlap(i, j), matrix.overlap(j, i));
+            }
+        }
+        assertTrue(matrix.overlap(0, 1) > 0);
+
+        // shared filter queries
+        SolrFilterQuery sharedFilterQuery = new SolrFilterQuery("node_type:profile", List.of(new SolrQueryField("profile", "node_type")),
+                List.of(SolrConditionType.ALL_DOCS));
+        List<SolrQueryDefinition> queryDefinitionsWithSharedFilterQuery = queryDefinitions.stream()
+                .map(queryDefinition -> new SolrQueryDefinition(null,
+                        Stream.concat(Stream.of(sharedFilterQuery), queryDefinition.filterQueries().stream()).distinct().toList(), null))
+                .toList();
+        assertEquals(matrix, executor.countOverlaps(queryDefinitionsWithSharedFilterQuery));
+
+        assertEquals(0, executor.countOverlaps(List.of()).size());
+        assertEquals(matrix.count(1), executor.countOverlaps(List.of(queryDefinitions.get(1))).count(0));
+
+        SolrQueryDefinition otherMainQuery = new SolrQueryDefinition("node_type:profile", queryDefinitions.get(2).filterQueries(), null);
+        assertThrows(IllegalArgumentException.class, () -> executor.countOverlaps(List.of(queryDefinitions.get(1), otherMainQuery)));
+        assertThrows(IllegalArgumentException.class, () -> executor.countOverlaps(null));
+
+    }
+
+    @Test
+    void testCountWithFacets() throws InterruptedException, ExecutionException {
+
+        List<String> facetArgNames = List.of("home-country", "fact.provider", "pos.country");
+
+        SolrExpressionConverter converter = new SolrExpressionConverter(currentSolrMappingConfig);
+        converter.setStyle(FormatStyle.INLINE);
+        converter.getInitialVariables().put("tenant", "17");
+        SolrInsightQueryDefinition insightQueryDefinition = converter.convertWithFacets(parseCoreExpression(EXPRESSION), facetArgNames, -1);
+
+        assertEquals(createQueryDefinition(EXPRESSION, FormatStyle.INLINE), insightQueryDefinition.queryDefinition());
+
+        AtomicInteger numRequests = new AtomicInteger();
+        SolrQueryExecutor executor = new SolrQueryExecutor(testServer, COLLECTION_NAME) {
+
+            @Override
+            protected SolrQuery createSolrQuery(SolrQueryDefinition queryDefinition, DefaultQueryType queryType, SolrQueryTuning tuning) {
+                numRequests.incrementAndGet();
+                assertEquals(DefaultQueryType.SELECT_COUNT_WITH_FACETS, queryType);
+                return super.createSolrQuery(queryDefinition, queryType, tuning);
+            }
+
+        };
+
+        SolrInsightResult result = executor.countWithFacets(insightQueryDefinition);
+        assertEquals(1, numRequests.get());
+        assertEquals(selectIds(EXPRESSION).size(), result.count());
+        assertEquals(facetArgNames, new ArrayList<>(result.breakdowns().keySet()));
+
+        for (String argName : facetArgNames) {
+            Map<String, Long> breakdown = result.breakdown(argName);
+            assertFalse(breakdown.isEmpty(), argName);
+            for (Map.Entry<String, Long> entry : breakdown.entrySet()) {
+                String combined = "(" + EXPRESSION + ") AND " + argName + " = \"" + entry.getKey() + "\"";
+                assertEquals(selectIds(combined).size(), entry.getValue(), combined);
+            }
+        }
+
+        assertEquals(result, executor.countWithFacetsAsync(insightQueryDefinition).get());
+
+        SolrInsightResult limited = executor.countWithFacets(converter.convertWithFacets(parseCoreExpression(EXPRESSION), List.of("pos.country"), 1));
+        assertEquals(1, limited.breakdown("pos.country").size());
+        assertEquals(result.breakdown("pos.country").values().iterator().next(), limited.breakdown("pos.country").values().iterator().next());
+
+        SolrInsightResult empty = executor.countWithFacets(converter.convertWithFacets(parseCoreExpression("provider = NOBODY"), facetArgNames, 10));
+        assertEquals(0, empty.count());
+        assertTrue(empty.breakdown("home-country").isEmpty());
+        assertTrue(empty.breakdown("pos.country").isEmpty());
+
+        assertEquals(result.count(), executor.countWithFacets(new SolrInsightQueryDefinition(insightQueryDefinition.queryDefinition(), List.of())).count());
+
+        assertThrows(IllegalArgumentException.class, () -> executor.countWithFacets(null));
+
+        // distributed unique() counts are estimates and may exceed the count
+        assertEquals(2L, new SolrInsightResult(1, Map.of("pos.country", Map.of("USA", 2L))).breakdown("pos.country").get("USA"));
+        Map<String, Map<String, Long>> negativeCount = Map.of("pos.country", Map.of("USA", -1L));
+        assertThrows(IllegalArgumentException.class, () -> new SolrInsightResult(1, negativeCount));
+        assertThrows(IllegalArgumentException.class, () -> new SolrInsightResult(-1, Map.of()));
+        SolrQueryDefinition queryDefinition = insightQueryDefinition.queryDefinition();
+        assertThrows(IllegalArgumentException.class, () -> executor.publish(queryDefinition, DefaultQueryType.SELECT_COUNT_WITH_FACETS));
+
+    }
+
+    @Test
+    void testMaterializeIntIds() throws IOException, InterruptedException, ExecutionException {
+
+        SolrQueryDefinition queryDefinition = createQueryDefinition(EXPRESSION, FormatStyle.INLINE);
+        List<Integer> expected = EmbeddedSolrServerUtils.queryIntIdsSorted(testServer, queryDefinition);
+
+        // tiny pages to enforce deep paging
+        SolrQueryExecutor executor = new SolrQueryExecutor(testServer, COLLECTION_NAME,
+                Map.of(DefaultQueryType.SELECT_IDS, SolrQueryTuning.forQueryType(DefaultQueryType.SELECT_IDS).withPageSize(2)), null);
+
+        RoaringIdBitmap bitmap = executor.materializeIntIds(queryDefinition);
+        assertEquals(expected.size(), bitmap.cardinality());
+
+        List<Integer> ids = new ArrayList<>();
+        bitmap.forEach(ids::add);
+        assertEquals(expected, ids);
+
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        bitmap.writeTo(bos);
+        assertEquals(bitmap, RoaringIdBitmap.readFrom(new ByteArrayInputStream(bos.toByteArray())));
+
+        assertEquals(bitmap, executor.materializeIntIdsAsync(queryDefinition).get());
+
+        assertTrue(executor.materializeIntIds(createQueryDefinition("provider = NOBODY", FormatStyle.INLINE)).isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> executor.materializeIntIds(null));
+
+    }
+
+    @Test
+    void testPublishWithSlowSubscriber() throws InterruptedException, ExecutionException, TimeoutException {
+
+        SolrQueryDefinition queryDefinition = createQueryDefinition(EXPRESSION, FormatStyle.INLINE);
+        List<Integer> expected = EmbeddedSolrServerUtils.queryIntIdsSorted(testServer, queryDefinition);
+
+        SolrQueryExecutor executor = new SolrQueryExecutor(testServer, COLLECTION_NAME,
+                Map.of(DefaultQueryType.SELECT_IDS, SolrQueryTuning.forQueryType(DefaultQueryType.SELECT_IDS).withPageSize(2)), null);
+
+        SlowSubscriber subscriber = new SlowSubscriber(Integer.MAX_VALUE);
+        executor.publish(queryDefinition, DefaultQueryType.SELECT_IDS).subscribe(subscriber);
+
+        // nothing requested yet
+        Thread.sleep(200);
+        assertTrue(subscriber.ids.isEmpty());
+
+        subscriber.subscription.request(1);
+        List<Integer> ids = subscriber.completion.get(30, TimeUnit.SECONDS);
+        assertEquals(expected, ids.stream().sorted().toList());
+        assertEquals((expected.size() + 1) / 2, subscriber.numBatches.get());
+        assertEquals(1, subscriber.maxBatchesInFlight.get());
+
+        // cancel after the second batch
+        SlowSubscriber cancellingSubscriber = new SlowSubscriber(2);
+        executor.publish(queryDefinition, DefaultQueryType.SELECT_IDS).subscribe(cancellingSubscriber);
+        cancellingSubscriber.subscription.request(1);
+        assertEquals(4, cancellingSubscriber.completion.get(30, TimeUnit.SECONDS).size());
+        Thread.sleep(200);
+        assertEquals(2, cancellingSubscriber.numBatches.get());
+
+        SlowSubscriber badSubscriber = new SlowSubscriber(Integer.MAX_VALUE);
+        new SolrQueryExecutor(testServer, "unknownCollection").publish(queryDefinition, DefaultQueryType.SELECT_IDS).subscribe(badSubscriber);
+        badSubscriber.subscription.request(1);
+        ExecutionException ex = assertThrows(ExecutionException.class, () -> badSubscriber.completion.get(30, TimeUnit.SECONDS));
+        assertInstanceOf(SolrQueryExecutionException.class, ex.getCause());
+
+        SlowSubscriber invalidSubscriber = new SlowSubscriber(Integer.MAX_VALUE);
+        executor.publish(queryDefinition, DefaultQueryType.SELECT_IDS).subscribe(invalidSubscriber);
+        invalidSubscriber.subscription.request(0);
+        ex = assertThrows(ExecutionException.class, () -> invalidSubscriber.completion.get(30, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalArgumentException.class, ex.getCause());
+
+        assertThrows(IllegalArgumentException.class, () -> executor.publish(queryDefinition, DefaultQueryType.SELECT_COUNT));
+        assertThrows(IllegalArgumentException.class, () -> executor.publish(null, DefaultQueryType.SELECT_IDS));
+
+    }
+
+    @Test
+    void testRouting() {
+
+        SolrQueryDefinition queryDefinition = createQueryDefinition(EXPRESSION, FormatStyle.INLINE);
+        SolrQueryDefinition routedQueryDefinition = new SolrQueryDefinition(queryDefinition.mainQueryString(), queryDefinition.filterQueries(),
+                queryDefinition.uniqueKeyFieldName(), List.of("17!", "18!"));
+
+        SolrQueryExecutor executor = new SolrQueryExecutor(testServer, COLLECTION_NAME);
+
+        for (DefaultQueryType queryType : DefaultQueryType.values()) {
+            assertEquals("17!,18!", executor.createSolrQuery(routedQueryDefinition, queryType, executor.getTuning(queryType)).get("_route_"));
+            assertNull(executor.createSolrQuery(queryDefinition, queryType, executor.getTuning(queryType)).get("_route_"));
+        }
+
+        // standalone Solr ignores the routing
+        assertEquals(executor.count(queryDefinition), executor.count(routedQueryDefinition));
+
+        // different routing requires separate requests
+        List<String> routes = new ArrayList<>();
+        SolrQueryExecutor routeCollectingExecutor = new SolrQueryExecutor(testServer, COLLECTION_NAME) {
+
+            @Override
+            protected SolrQuery createSolrQuery(SolrQueryDefinition queryDefinition, DefaultQueryType queryType, SolrQueryTuning tuning) {
+                SolrQuery res = super.createSolrQuery(queryDefinition, queryType, tuning);
+                routes.add(String.valueOf(res.get("_route_")));
+                return res;
+            }
+
+        };
+        assertEquals(List.of(executor.count(queryDefinition), executor.count(queryDefinition)),
+                routeCollectingExecutor.countAll(List.of(queryDefinition, routedQueryDefinition)));
+        assertEquals(List.of("null", "17!,18!"), routes);
+
+        routes.clear();
+        routeCollectingExecutor.countOverlaps(List.of(routedQueryDefinition, routedQueryDefinition));
+        routeCollectingExecutor.countOverlaps(List.of(queryDefinition, routedQueryDefinition));
+        assertEquals(List.of("17!,18!", "null"), routes);
+
+    }
+
+    @Test
+    void testBasics() {
+
+        assertThrows(IllegalArgumentException.class, () -> new SolrQueryExecutor(null, COLLECTION_NAME));
+        assertThrows(IllegalArgumentException.class, () -> new SolrQueryExecutor(testServer, " "));
+        assertThrows(IllegalArgumentException.class, () -> new SolrQueryTuning(0, 1, 0, null));
+        assertThrows(IllegalArgumentException.class, () -> new SolrQueryTuning(1, 0, 0, null));
+        assertThrows(IllegalArgumentException.class, () -> new SolrQueryTuning(1, 1, -1, null));
+        assertThrows(IllegalArgumentException.class, () -> SolrQueryTuning.forQueryType(DefaultQueryType.SELECT_IDS).withAdditionalParam(" ", "x"));
+
+        SolrQueryExecutor executor = new SolrQueryExecutor(testServer, null);
+        assertEquals(SolrQueryTuning.DEFAULT_ID_PAGE_SIZE, executor.getTuning(DefaultQueryType.SELECT_IDS).pageSize());
+        assertEquals(SolrQueryTuning.DEFAULT_DOCUMENT_PAGE_SIZE, executor.getTuning(DefaultQueryType.SELECT_DOCUMENTS).pageSize());
+
+        SolrQueryDefinition queryDefinition = createQueryDefinition(EXPRESSION, FormatStyle.INLINE);
+        assertThrows(IllegalArgumentException.class, () -> executor.execute(queryDefinition, null));
+        assertEquals(new SolrQueryExecutor(testServer, COLLECTION_NAME).count(queryDefinition), executor.count(queryDefinition));
+
+    }
+
+    /**
+     * Subscriber that processes one batch at a time slowly and requests the next batch afterwards, cancels after the given number of batches
+     */
+    private static class SlowSubscriber implements Flow.Subscriber<List<SolrDocument>> {
+
+        private final int maxBatches;
+
+        private final List<Integer> ids = new CopyOnWriteArrayList<>();
+
+        private final AtomicInteger numBatches = new AtomicInteger();
+
+        private final AtomicInteger batchesInFlight = new AtomicInteger();
+
+        private final AtomicInteger maxBatchesInFlight = new AtomicInteger();
+
+        private final CompletableFuture<List<Integer>> completion = new CompletableFuture<>();
+
+        private volatile Flow.Subscription subscription;
+
+        SlowSubscriber(int maxBatches) {
+            this.maxBatches = maxBatches;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+        }
+
+        @Override
+        public void onNext(List<SolrDocument> batch) {
+            maxBatchesInFlight.accumulateAndGet(batchesInFlight.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(20);
+            }
+            catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            batch.forEach(document -> ids.add(Integer.valueOf(String.valueOf(document.getFieldValue("id")))));
+            batchesInFlight.decrementAndGet();
+            if (numBatches.incrementAndGet() == maxBatches) {
+                subscription.cancel();
+                completion.complete(ids);
+            }
+            else {
+                subscription.request(1);
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            completion.completeExceptionally(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            completion.complete(ids);
+        }
+
+    }
+
+    private static boolean hasNestedDocuments(SolrDocument document) {
+        return document.hasChildDocuments() || document.getFieldNames().stream().map(document::getFieldValues)
+                .anyMatch(values -> values.stream().anyMatch(SolrDocument.class::isInstance));
+    }
+
+}
@@ -0,0 +1,254 @@
+//@formatter:off
+/*
+ * SolrWarmingQueryTrackerTest
+ * Copyright 2025 Karl Eilebrecht
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"):
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+//@formatter:on
+
+package de.calamanari.adl.solr.exec;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.solr.client.solrj.SolrServerException;
+import org.apache.solr.common.SolrInputDocument;
+import org.apache.solr.core.SolrCore;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import de.calamanari.adl.FormatStyle;
+import de.calamanari.adl.solr.SolrConditionType;
+import de.calamanari.adl.solr.SolrFilterQuery;
+import de.calamanari.adl.solr.SolrQueryDefinition;
+import de.calamanari.adl.solr.SolrQueryField;
+import de.calamanari.adl.solr.SolrTestBase;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author <a href="mailto:Karl.Eilebrecht(a/t)calamanari.de">Karl Eilebrecht</a>
+ */
+class SolrWarmingQueryTrackerTest extends SolrTestBase {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SolrWarmingQueryTrackerTest.class);
+
+    private static final String COLLECTION_NAME = "Audlang";
+
+    private static final List<String> EXPRESSIONS = List.of("provider = LOGMOTH AND home-country = USA", "provider = LOGMOTH AND q.monthlyIncome.int > 4000",
+            "home-country = USA AND fact.hasDog.flg=1", "provider = LOGMOTH");
+
+    @BeforeAll
+    static void prepareEmbeddedSolr() throws IOException {
+        initTestServerWithHybridMapping();
+    }
+
+    @Test
+    void testTracking() {
+
+        SolrWarmingQueryTracker tracker = new SolrWarmingQueryTracker();
+        List<SolrQueryDefinition> queryDefinitions = createQueryDefinitions();
+        queryDefinitions.forEach(tracker::record);
+        tracker.record(queryDefinitions.get(0));
+
+        List<SolrFilterQuery> mostFrequent = tracker.getMostFrequentFilterQueries(100);
+        assertEquals(tracker.size(), mostFrequent.size());
+        for (int i = 1; i < mostFrequent.size(); i++) {
+            assertTrue(tracker.getFrequency(mostFrequent.get(i - 1)) >= tracker.getFrequency(mostFrequent.get(i)));
+        }
+        for (SolrFilterQuery filterQuery : queryDefinitions.get(0).filterQueries()) {
+            assertTrue(tracker.getFrequency(filterQuery) >= 2);
+        }
+        assertEquals(2, tracker.getMostFrequentFilterQueries(2).size());
+
+        for (SolrFilterQuery filterQuery : tracker.getMostFrequentFilterQueries(100, SolrConditionType.CMP_RANGE)) {
+            assertTrue(filterQuery.conditionTypes().contains(SolrConditionType.CMP_RANGE));
+        }
+        assertEquals(mostFrequent.stream().filter(filterQuery -> filterQuery.conditionTypes().contains(SolrConditionType.CMP_VALUE))
+                .mapToLong(tracker::getFrequency).sum(), tracker.getFrequencyByConditionType().get(SolrConditionType.CMP_VALUE));
+
+        tracker.clear();
+        assertEquals(0, tracker.size());
+        assertEquals(0, tracker.getFrequency(mostFrequent.get(0)));
+
+    }
+
+    @Test
+    void testPruning() {
+
+        SolrWarmingQueryTracker tracker = new SolrWarmingQueryTracker(8);
+        SolrFilterQuery popular = createFilterQuery("provider:LOGMOTH");
+        for (int i = 0; i < 5; i++) {
+            tracker.record(popular);
+        }
+        for (int i = 0; i < 20; i++) {
+            tracker.record(createFilterQuery("scode:" + i));
+            assertTrue(tracker.size() <= 8);
+        }
+        assertEquals(popular, tracker.getMostFrequentFilterQueries(1).get(0));
+        assertEquals(5, tracker.getFrequency(popular));
+
+    }
+
+    @Test
+    void testDecay() {
+
+        SolrWarmingQueryTracker tracker = new SolrWarmingQueryTracker(8, 20);
+        SolrFilterQuery stale = createFilterQuery("provider:LOGMOTH");
+        for (int i = 0; i < 12; i++) {
+            tracker.record(stale);
+        }
+        tracker.decay();
+        assertEquals(6, tracker.getFrequency(stale));
+
+        // after 8 more recordings (20 in total) automatic decay halves again
+        SolrFilterQuery current = createFilterQuery("provider:HMPF");
+        for (int i = 0; i < 8; i++) {
+            tracker.record(current);
+        }
+        assertEquals(3, tracker.getFrequency(stale));
+        assertEquals(4, tracker.getFrequency(current));
+        assertEquals(current, tracker.getMostFrequentFilterQueries(1).get(0));
+
+        tracker.decay();
+        tracker.decay();
+        assertEquals(0, tracker.getFrequency(stale));
+        assertEquals(1, tracker.size());
+
+        assertThrows(IllegalArgumentException.class, () -> new SolrWarmingQueryTracker(8, 0));
+
+    }
+
+    @Test
+    void testConcurrentRecordingAndRanking() throws InterruptedException {
+
+        SolrWarmingQueryTracker tracker = new SolrWarmingQueryTracker(50);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            int offset = t;
+            threads.add(Thread.ofPlatform().start(() -> {
+                for (int i = 0; i < 20_000; i++) {
+                    tracker.record(createFilterQuery("scode:" + ((i * 7 + offset) % 80)));
+                }
+            }));
+        }
+        for (int i = 0; i < 200; i++) {
+            assertTrue(tracker.getMostFrequentFilterQueries(100).size() <= tracker.size() + 80);
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertTrue(tracker.size() <= 50);
+
+    }
+
+    @Test
+    void testWarmingListenerXml() {
+
+        SolrWarmingQueryTracker tracker = new SolrWarmingQueryTracker();
+        tracker.record(createFilterQuery("{!frange l=1}if(exists(omscore),1,0)"));
+        tracker.record(createFilterQuery("country:\"A&B <C>\""));
+        tracker.record(createFilterQuery("country:\"A&B <C>\""));
+
+        String expected = """
+                <listener event="newSearcher" class="solr.QuerySenderListener">
+                  <arr name="queries">
+                    <lst>
+                      <str name="q">*:*</str>
+                      <str name="fq">country:&quot;A&amp;B &lt;C&gt;&quot;</str>
+                      <str name="rows">0</str>
+                    </lst>
+                    <lst>
+                      <str name="q">*:*</str>
+                      <str name="fq">{!frange l=1}if(exists(omscore),1,0)</str>
+                      <str name="rows">0</str>
+                    </lst>
+                  </arr>
+                </listener>
+                """;
+
+        assertEquals(expected, tracker.createWarmingListenerXml(SolrWarmingQueryTracker.NEW_SEARCHER, 10));
+        assertTrue(tracker.createWarmingListenerXml(SolrWarmingQueryTracker.FIRST_SEARCHER, 1).startsWith("<listener event=\"firstSearcher\""));
+        assertEquals(1, tracker.createWarmingListenerXml(SolrWarmingQueryTracker.FIRST_SEARCHER, 1).split("<lst>").length - 1);
+
+        assertThrows(IllegalArgumentException.class, () -> tracker.createWarmingListenerXml("postCommit", 10));
+        assertThrows(IllegalArgumentException.class, () -> tracker.getMostFrequentFilterQueries(-1));
+        assertThrows(IllegalArgumentException.class, () -> new SolrWarmingQueryTracker(0));
+        assertThrows(IllegalArgumentException.class, () -> tracker.record((SolrFilterQuery) null));
+        assertThrows(IllegalArgumentException.class, () -> tracker.warmUp(null, 10));
+
+    }
+
+    @Test
+    void testWarmUpAfterCommit() throws SolrServerException, IOException {
+
+        SolrWarmingQueryTracker tracker = new SolrWarmingQueryTracker();
+        List<SolrQueryDefinition> queryDefinitions = createQueryDefinitions();
+        queryDefinitions.forEach(tracker::record);
+        SolrQueryExecutor executor = new SolrQueryExecutor(testServer, COLLECTION_NAME);
+
+        // the filterCache of the new searcher is empty (autowarmCount=0)
+        commitChange(90_001);
+        assertEquals(0, getFilterCacheSize());
+        long coldNanos = measureFirstQuery(executor, queryDefinitions.get(0));
+        assertTrue(getFilterCacheSize() > 0);
+
+        commitChange(90_002);
+        assertEquals(0, getFilterCacheSize());
+        assertEquals(tracker.size(), tracker.warmUp(executor, 100));
+        int warmedSize = getFilterCacheSize();
+        assertTrue(warmedSize >= tracker.size());
+
+        // all filter queries of the first query are served from the filterCache
+        long warmNanos = measureFirstQuery(executor, queryDefinitions.get(0));
+        assertEquals(warmedSize, getFilterCacheSize());
+
+        LOGGER.debug("First query after commit: cold={} us, warmed={} us", coldNanos / 1_000, warmNanos / 1_000);
+
+    }
+
+    private static List<SolrQueryDefinition> createQueryDefinitions() {
+        return EXPRESSIONS.stream().map(expression -> createQueryDefinition(expression, FormatStyle.INLINE)).toList();
+    }
+
+    private static SolrFilterQuery createFilterQuery(String queryString) {
+        return new SolrFilterQuery(queryString, List.of(new SolrQueryField("profile", "provider")), List.of(SolrConditionType.CMP_VALUE));
+    }
+
+    private static long measureFirstQuery(SolrQueryExecutor executor, SolrQueryDefinition queryDefinition) {
+        long startTimeNanos = System.nanoTime();
+        executor.count(queryDefinition);
+        return System.nanoTime() - startTimeNanos;
+    }
+
+    private static void commitChange(int id) throws SolrServerException, IOException {
+        SolrInputDocument document = new SolrInputDocument();
+        document.addField("id", String.valueOf(id));
+        document.addField("node_type", "profile");
+        testServer.add(COLLECTION_NAME, document);
+        testServer.commit(COLLECTION_NAME);
+    }
+
+    private static int getFilterCacheSize() throws IOException {
+        try (SolrCore core = testServer.getCoreContainer().getCore(COLLECTION_NAME)) {
+            return core.withSearcher(searcher -> searcher.getFilterCache().size());
+        }
+    }
+
+}